@@ -1,9 +1,13 @@
 import java.util.*;
 
-public class BSTPriorityQueue<T extends Comparable<T> & HasValue> implements PriorityQueue<T> {
+public class BSTPriorityQueue<T extends Comparable<T> & HasValue>
+        implements PriorityQueue<T>, PriorityQueueProbe.Target {
     private TreeNode<T> root;
     private int size;
 
+    // Sonda statystyk (InstrumentedPriorityQueue); null = brak pomiarów
+    private PriorityQueueProbe probe;
+
     public BSTPriorityQueue() {
         this.root = null;
         this.size = 0;
@@ -11,31 +15,38 @@ public class BSTPriorityQueue<T extends Comparable<T> & HasValue> implements Pri
 
     // Asymptotyczna złożoność pesymistyczna: O(n), średnia: O(log n)
     // W najgorszym przypadku drzewo jest zdegenerowane do listy
+    // Wstawianie iteracyjne - zdegenerowane drzewo nie przepełnia stosu
     @Override
     public Position<T> insert(T element) {
         if (element.wartość() < 0 || element.wartość() > N) {
             throw new IllegalArgumentException("Element value must be in range [0, " + N + "]");
         }
 
-        TreeNodePosition<T> position = new TreeNodePosition<>(element);
-        root = insertNode(root, element, position);
-        size++;
-        return position;
-    }
-
-    private TreeNode<T> insertNode(TreeNode<T> node, T element, TreeNodePosition<T> position) {
-        if (node == null) {
-            TreeNode<T> newNode = new TreeNode<>(element);
-            position.node = newNode;
-            return newNode;
+        TreeNode<T> newNode = new TreeNode<>(element);
+        TreeNode<T> parent = null;
+        TreeNode<T> node = root;
+        int depth = 0;
+        while (node != null) {
+            parent = node;
+            node = element.compareTo(node.element) <= 0 ? node.left : node.right;
+            depth++;
         }
 
-        if (element.compareTo(node.element) <= 0) {
-            node.left = insertNode(node.left, element, position);
+        newNode.parent = parent;
+        if (parent == null) {
+            root = newNode;
+        } else if (element.compareTo(parent.element) <= 0) {
+            parent.left = newNode;
         } else {
-            node.right = insertNode(node.right, element, position);
+            parent.right = newNode;
         }
-        return node;
+        size++;
+
+        if (probe != null) {
+            probe.comparisons(depth);
+            probe.treeDepth(depth);
+        }
+        return newNode;
     }
 
     // Asymptotyczna złożoność pesymistyczna: O(n), średnia: O(log n)
@@ -64,58 +75,100 @@ public class BSTPriorityQueue<T extends Comparable<T> & HasValue> implements Pri
         }
 
         TreeNode<T> minNode = findMinNode(root);
-        T minElement = minNode.element;
-        root = deleteNode(root, minElement);
-        size--;
-        return minElement;
+        deleteNode(minNode);
+        return minNode.element;
     }
 
-    private TreeNode<T> deleteNode(TreeNode<T> node, T element) {
-        if (node == null)
-            return null;
-
-        int comparison = element.compareTo(node.element);
-        if (comparison < 0) {
-            node.left = deleteNode(node.left, element);
-        } else if (comparison > 0) {
-            node.right = deleteNode(node.right, element);
+    // Asymptotyczna złożoność pesymistyczna: O(h), średnia: O(log n)
+    // Usuwa konkretny węzeł (a nie pierwszy równy mu element), przenosząc
+    // węzły zamiast kopiować elementy - pozycje innych elementów pozostają
+    // ważne
+    private void deleteNode(TreeNode<T> node) {
+        if (node.left == null) {
+            transplant(node, node.right);
+        } else if (node.right == null) {
+            transplant(node, node.left);
         } else {
-            if (node.left == null)
-                return node.right;
-            if (node.right == null)
-                return node.left;
-
             TreeNode<T> successor = findMinNode(node.right);
-            node.element = successor.element;
-            node.right = deleteNode(node.right, successor.element);
+            if (successor.parent != node) {
+                transplant(successor, successor.right);
+                successor.right = node.right;
+                successor.right.parent = successor;
+            }
+            transplant(node, successor);
+            successor.left = node.left;
+            successor.left.parent = successor;
+        }
+
+        node.left = null;
+        node.right = null;
+        node.parent = null;
+        node.valid = false;
+        size--;
+    }
+
+    // Zastępuje poddrzewo o korzeniu u poddrzewem o korzeniu v
+    private void transplant(TreeNode<T> u, TreeNode<T> v) {
+        if (u.parent == null) {
+            root = v;
+        } else if (u == u.parent.left) {
+            u.parent.left = v;
+        } else {
+            u.parent.right = v;
+        }
+        if (v != null) {
+            v.parent = u.parent;
         }
-        return node;
     }
 
     // Asymptotyczna złożoność pesymistyczna: O(n), średnia: O(log n)
     // Usuwa stary węzeł i wstawia nowy z nową wartością
     @Override
-    public void decreaseKey(Position<T> position, T newElement) {
-        if (!(position instanceof TreeNodePosition)) {
+    public Position<T> decreaseKey(Position<T> position, T newElement) {
+        if (!(position instanceof TreeNode)) {
             throw new IllegalArgumentException("Invalid position type");
         }
 
         @SuppressWarnings("unchecked")
-        TreeNodePosition<T> treePos = (TreeNodePosition<T>) position;
+        TreeNode<T> node = (TreeNode<T>) position;
 
-        if (!treePos.isValid() || newElement.wartość() < 0 || newElement.wartość() > N) {
+        if (!node.isValid() || !contains(node) || newElement.wartość() < 0 || newElement.wartość() > N) {
             throw new IllegalArgumentException("Invalid operation");
         }
 
-        if (newElement.wartość() >= treePos.getElement().wartość()) {
+        if (newElement.wartość() >= node.getElement().wartość()) {
             throw new IllegalArgumentException("New element value must be smaller");
         }
 
-        T oldElement = treePos.getElement();
-        root = deleteNode(root, oldElement);
-        treePos.valid = false;
-        size--;
-        insert(newElement);
+        deleteNode(node);
+        return insert(newElement);
+    }
+
+    // Asymptotyczna złożoność pesymistyczna: O(n), średnia: O(log n)
+    // Sprawdzenie przynależności i usunięcie węzła - po O(h)
+    @Override
+    public T remove(Position<T> position) {
+        if (!(position instanceof TreeNode)) {
+            throw new IllegalArgumentException("Invalid position type");
+        }
+
+        @SuppressWarnings("unchecked")
+        TreeNode<T> node = (TreeNode<T>) position;
+
+        if (!node.isValid() || !contains(node)) {
+            throw new IllegalArgumentException("Invalid operation");
+        }
+
+        deleteNode(node);
+        return node.element;
+    }
+
+    // Czy węzeł należy do tego drzewa (a nie do innej kolejki)
+    private boolean contains(TreeNode<T> node) {
+        while (node.parent != null) {
+            node = node.parent;
+        }
+        return node == root;
     }
 
     // Asymptotyczna złożoność pesymistyczna: O(n²), średnia: O(n log n)
@@ -135,9 +188,7 @@ public class BSTPriorityQueue<T extends Comparable<T> & HasValue> implements Pri
         BSTPriorityQueue<T> result = new BSTPriorityQueue<>();
 
         // Dodaj wszystkie elementy z tego drzewa
-        List<T> thisElements = new ArrayList<>();
-        inorderTraversal(root, thisElements);
-        for (T element : thisElements) {
+        for (T element : inorderTraversal()) {
             result.insert(element);
         }
 
@@ -149,12 +200,26 @@ public class BSTPriorityQueue<T extends Comparable<T> & HasValue> implements Pri
         return result;
     }
 
-    private void inorderTraversal(TreeNode<T> node, List<T> result) {
-        if (node != null) {
-            inorderTraversal(node.left, result);
+    // Przejście in-order ze stosem zamiast rekurencji
+    private List<T> inorderTraversal() {
+        List<T> result = new ArrayList<>(size);
+        Deque<TreeNode<T>> stack = new ArrayDeque<>();
+        TreeNode<T> node = root;
+        while (node != null || !stack.isEmpty()) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+            node = stack.pop();
             result.add(node.element);
-            inorderTraversal(node.right, result);
+            node = node.right;
         }
+        return result;
+    }
+
+    @Override
+    public void setProbe(PriorityQueueProbe probe) {
+        this.probe = probe;
     }
 
     @Override
@@ -169,25 +234,35 @@ public class BSTPriorityQueue<T extends Comparable<T> & HasValue> implements Pri
 
     @Override
     public void clear() {
+        // Unieważnij pozycje wszystkich elementów
+        Deque<TreeNode<T>> stack = new ArrayDeque<>();
+        if (root != null) {
+            stack.push(root);
+        }
+        while (!stack.isEmpty()) {
+            TreeNode<T> node = stack.pop();
+            if (node.left != null) {
+                stack.push(node.left);
+            }
+            if (node.right != null) {
+                stack.push(node.right);
+            }
+            node.left = null;
+            node.right = null;
+            node.parent = null;
+            node.valid = false;
+        }
         root = null;
         size = 0;
     }
 
-    private static class TreeNode<T> {
-        T element;
-        TreeNode<T> left, right;
-
-        TreeNode(T element) {
-            this.element = element;
-        }
-    }
-
-    private static class TreeNodePosition<T> implements Position<T> {
-        TreeNode<T> node;
-        T element;
+    // Węzeł drzewa jest jednocześnie pozycją elementu
+    private static class TreeNode<T> implements Position<T> {
+        final T element;
+        TreeNode<T> left, right, parent;
         boolean valid;
 
-        TreeNodePosition(T element) {
+        TreeNode(T element) {
             this.element = element;
             this.valid = true;
         }
@@ -202,4 +277,4 @@ public class BSTPriorityQueue<T extends Comparable<T> & HasValue> implements Pri
             return valid;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,329 @@
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Silnik wsadowych zapytań o najkrótsze ścieżki dla wielu źródeł
+ * Działa na niemutowalnej migawce grafu (GraphSnapshot), więc zapytania mogą
+ * być wykonywane równolegle na dowolnym Executorze - puli wątków platformowych
+ * lub (od Javy 21) Executors.newVirtualThreadPerTaskExecutor().
+ *
+ * Każde zapytanie wypożycza z puli obszar roboczy (tablice odległości,
+ * poprzedników i znaczników odwiedzin oraz kolejkę priorytetową) zamiast
+ * alokować je od nowa. Pula nie jest związana z wątkiem, dzięki czemu liczba
+ * obszarów roboczych rośnie do liczby równocześnie wykonywanych zapytań,
+ * a nie do liczby (wirtualnych) wątków.
+ */
+public class BatchShortestPathEngine {
+
+    private final GraphSnapshot graph;
+    private final int priorityQueueType;
+    private final WeightedGraph.DijkstraMode mode;
+    private final Executor executor;
+    private final ConcurrentLinkedQueue<Workspace> workspaces = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Tworzy silnik zapytań
+     *
+     * @param graph             migawka grafu
+     * @param priorityQueueType numer typu kolejki z PriorityQueueRegistry lub
+     *                          PriorityQueueRegistry.AUTO
+     * @param executor          executor wykonujący zapytania wsadowe
+     * @throws IllegalArgumentException jeśli typ kolejki jest nieprawidłowy
+     */
+    public BatchShortestPathEngine(GraphSnapshot graph, int priorityQueueType, Executor executor) {
+        this(graph, priorityQueueType, WeightedGraph.defaultMode(priorityQueueType), executor);
+    }
+
+    /**
+     * Tworzy silnik zapytań z jawnie wybranym trybem aktualizacji kolejki
+     *
+     * @param graph             migawka grafu
+     * @param priorityQueueType numer typu kolejki z PriorityQueueRegistry lub
+     *                          PriorityQueueRegistry.AUTO
+     * @param mode              tryb aktualizacji odległości w kolejce
+     * @param executor          executor wykonujący zapytania wsadowe
+     * @throws IllegalArgumentException jeśli typ kolejki jest nieprawidłowy
+     */
+    public BatchShortestPathEngine(GraphSnapshot graph, int priorityQueueType, WeightedGraph.DijkstraMode mode,
+            Executor executor) {
+        this.graph = Objects.requireNonNull(graph);
+        this.mode = Objects.requireNonNull(mode);
+        this.executor = Objects.requireNonNull(executor);
+        // Walidacja typu kolejki od razu, a nie przy pierwszym zapytaniu;
+        // AUTO jest rozstrzygane raz dla całej migawki
+        this.priorityQueueType = PriorityQueueRegistry.resolve(priorityQueueType,
+                WeightedGraph.dijkstraHints(graph.getVertexCount(), mode));
+    }
+
+    /**
+     * Wykonuje pojedyncze zapytanie z jednego źródła w bieżącym wątku
+     *
+     * @param source wierzchołek źródłowy
+     * @return wynik algorytmu Dijkstry
+     * @throws IllegalArgumentException jeśli wierzchołek źródłowy nie istnieje
+     */
+    public WeightedGraph.DijkstraResult query(int source) {
+        return query(source, -1);
+    }
+
+    /**
+     * Wykonuje zapytanie punkt-punkt w bieżącym wątku
+     * Wyszukiwanie kończy się po ustaleniu odległości do celu, więc w wyniku
+     * odległości mają tylko wierzchołki ustalone przed celem.
+     *
+     * @param source wierzchołek źródłowy
+     * @param target wierzchołek docelowy (-1 = wszystkie wierzchołki)
+     * @return wynik algorytmu Dijkstry
+     * @throws IllegalArgumentException jeśli wierzchołek źródłowy nie istnieje
+     */
+    public WeightedGraph.DijkstraResult query(int source, int target) {
+        if (!graph.hasVertex(source)) {
+            throw new IllegalArgumentException("Wierzchołek źródłowy nie istnieje w grafie");
+        }
+
+        Workspace workspace = workspaces.poll();
+        if (workspace == null) {
+            workspace = new Workspace(graph.getVertexCount(), priorityQueueType, mode);
+        }
+        try {
+            return workspace.run(graph, source, target);
+        } finally {
+            workspaces.offer(workspace);
+        }
+    }
+
+    /**
+     * Wykonuje zapytania z wielu źródeł równolegle na executorze
+     *
+     * @param sources wierzchołki źródłowe
+     * @return wyniki w kolejności źródeł wraz z pomiarami czasu
+     */
+    public BatchResult run(int[] sources) {
+        return run(sources, null);
+    }
+
+    /**
+     * Wykonuje zapytania punkt-punkt równolegle na executorze
+     *
+     * @param sources wierzchołki źródłowe
+     * @param targets wierzchołki docelowe (ta sama długość co sources) lub null
+     * @return wyniki w kolejności źródeł wraz z pomiarami czasu
+     * @throws IllegalArgumentException jeśli tablice mają różne długości lub
+     *                                  któreś źródło nie istnieje
+     */
+    public BatchResult run(int[] sources, int[] targets) {
+        if (targets != null && targets.length != sources.length) {
+            throw new IllegalArgumentException("Liczba celów musi być równa liczbie źródeł");
+        }
+
+        long[] latencies = new long[sources.length];
+        List<CompletableFuture<WeightedGraph.DijkstraResult>> futures = new ArrayList<>(sources.length);
+        long startTime = System.nanoTime();
+
+        for (int i = 0; i < sources.length; i++) {
+            int index = i;
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                long queryStart = System.nanoTime();
+                WeightedGraph.DijkstraResult result = query(sources[index], targets == null ? -1 : targets[index]);
+                latencies[index] = System.nanoTime() - queryStart;
+                return result;
+            }, executor));
+        }
+
+        List<WeightedGraph.DijkstraResult> results = new ArrayList<>(sources.length);
+        try {
+            for (CompletableFuture<WeightedGraph.DijkstraResult> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+
+        return new BatchResult(results, latencies, System.nanoTime() - startTime);
+    }
+
+    /**
+     * Naiwna pętla wywołująca WeightedGraph.dijkstra dla kolejnych źródeł
+     * (punkt odniesienia dla pomiarów)
+     *
+     * @param graph             graf
+     * @param sources           wierzchołki źródłowe
+     * @param priorityQueueType typ kolejki priorytetowej
+     * @return wyniki w kolejności źródeł wraz z pomiarami czasu
+     */
+    public static BatchResult runNaive(WeightedGraph graph, int[] sources, int priorityQueueType) {
+        long[] latencies = new long[sources.length];
+        List<WeightedGraph.DijkstraResult> results = new ArrayList<>(sources.length);
+        long startTime = System.nanoTime();
+
+        for (int i = 0; i < sources.length; i++) {
+            long queryStart = System.nanoTime();
+            results.add(graph.dijkstra(sources[i], priorityQueueType));
+            latencies[i] = System.nanoTime() - queryStart;
+        }
+
+        return new BatchResult(results, latencies, System.nanoTime() - startTime);
+    }
+
+    /**
+     * Obszar roboczy jednego zapytania, używany ponownie między zapytaniami
+     * Znaczniki epoki pozwalają pominąć czyszczenie tablic przed każdym
+     * zapytaniem.
+     */
+    private static final class Workspace {
+        private final int[] distances;
+        private final int[] predecessors;
+        private final int[] reachedEpoch;
+        private final int[] settledEpoch;
+        private final PriorityQueue<WeightedGraph.DijkstraNode> queue;
+        // Pozycje w kolejce w trybie DECREASE_KEY (null w trybie LAZY);
+        // ważne tylko dla wierzchołków osiągniętych i nieustalonych w bieżącej epoce
+        private final PriorityQueue.Position<WeightedGraph.DijkstraNode>[] handles;
+        private int epoch;
+
+        @SuppressWarnings("unchecked")
+        Workspace(int vertexCount, int priorityQueueType, WeightedGraph.DijkstraMode mode) {
+            this.distances = new int[vertexCount];
+            this.predecessors = new int[vertexCount];
+            this.reachedEpoch = new int[vertexCount];
+            this.settledEpoch = new int[vertexCount];
+            this.queue = WeightedGraph.newPriorityQueue(priorityQueueType);
+            this.handles = mode == WeightedGraph.DijkstraMode.DECREASE_KEY
+                    ? new PriorityQueue.Position[vertexCount]
+                    : null;
+        }
+
+        WeightedGraph.DijkstraResult run(GraphSnapshot graph, int source, int target) {
+            epoch++;
+            queue.clear();
+
+            distances[source] = 0;
+            predecessors[source] = -1;
+            reachedEpoch[source] = epoch;
+            PriorityQueue.Position<WeightedGraph.DijkstraNode> sourcePosition = queue
+                    .insert(new WeightedGraph.DijkstraNode(source, 0));
+            if (handles != null) {
+                handles[source] = sourcePosition;
+            }
+
+            while (!queue.isEmpty()) {
+                WeightedGraph.DijkstraNode current = queue.extractMin();
+                int vertex = current.getVertex();
+
+                // Pomiń nieaktualne wpisy
+                if (settledEpoch[vertex] == epoch) {
+                    continue;
+                }
+                settledEpoch[vertex] = epoch;
+
+                if (vertex == target) {
+                    break;
+                }
+
+                int distance = distances[vertex];
+                for (int edge = graph.edgeStart(vertex); edge < graph.edgeEnd(vertex); edge++) {
+                    int neighbor = graph.target(edge);
+                    int newDistance = distance + graph.weight(edge);
+
+                    if (reachedEpoch[neighbor] != epoch || newDistance < distances[neighbor]) {
+                        boolean reached = reachedEpoch[neighbor] == epoch;
+                        distances[neighbor] = newDistance;
+                        predecessors[neighbor] = vertex;
+                        reachedEpoch[neighbor] = epoch;
+
+                        if (settledEpoch[neighbor] != epoch) {
+                            WeightedGraph.DijkstraNode node = new WeightedGraph.DijkstraNode(neighbor, newDistance);
+                            if (handles == null) {
+                                queue.insert(node);
+                            } else if (reached) {
+                                handles[neighbor] = queue.decreaseKey(handles[neighbor], node);
+                            } else {
+                                handles[neighbor] = queue.insert(node);
+                            }
+                        }
+                    }
+                }
+            }
+
+            return toResult(graph, source, target >= 0);
+        }
+
+        private WeightedGraph.DijkstraResult toResult(GraphSnapshot graph, int source, boolean settledOnly) {
+            int[] resultDistances = new int[distances.length];
+            int[] resultPredecessors = new int[distances.length];
+            int[] validEpoch = settledOnly ? settledEpoch : reachedEpoch;
+
+            for (int vertex = 0; vertex < distances.length; vertex++) {
+                if (validEpoch[vertex] == epoch) {
+                    resultDistances[vertex] = distances[vertex];
+                    resultPredecessors[vertex] = predecessors[vertex];
+                } else {
+                    resultDistances[vertex] = Integer.MAX_VALUE;
+                    resultPredecessors[vertex] = -1;
+                }
+            }
+
+            return new WeightedGraph.DijkstraResult(source, resultDistances, resultPredecessors, graph.getVertices());
+        }
+    }
+
+    /**
+     * Wyniki zapytań wsadowych wraz z czasami poszczególnych zapytań
+     */
+    public static class BatchResult {
+        private final List<WeightedGraph.DijkstraResult> results;
+        private final long[] sortedLatencies;
+        private final long wallTimeNanos;
+
+        BatchResult(List<WeightedGraph.DijkstraResult> results, long[] latencies, long wallTimeNanos) {
+            this.results = results;
+            this.sortedLatencies = latencies.clone();
+            Arrays.sort(this.sortedLatencies);
+            this.wallTimeNanos = wallTimeNanos;
+        }
+
+        public List<WeightedGraph.DijkstraResult> getResults() {
+            return Collections.unmodifiableList(results);
+        }
+
+        public long getWallTimeNanos() {
+            return wallTimeNanos;
+        }
+
+        /**
+         * Zwraca przepustowość
+         *
+         * @return liczba zapytań na sekundę
+         */
+        public double getThroughput() {
+            return wallTimeNanos == 0 ? 0 : results.size() * 1e9 / wallTimeNanos;
+        }
+
+        /**
+         * Zwraca percentyl czasu pojedynczego zapytania
+         *
+         * @param percentile percentyl z przedziału [0, 100]
+         * @return czas zapytania w nanosekundach
+         */
+        public long getLatencyPercentile(double percentile) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("Percentyl musi być z przedziału [0, 100]");
+            }
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, index)];
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d zapytań: %.0f zapytań/s, p50=%.3f ms, p99=%.3f ms",
+                    results.size(), getThroughput(),
+                    getLatencyPercentile(50) / 1e6, getLatencyPercentile(99) / 1e6);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Blokująca kolejka priorytetowa na dowolnej implementacji PriorityQueue
+ *
+ * Konsumenci czekają w take() lub poll(timeout) na warunku ReentrantLock,
+ * a nie w synchronized, więc wątki wirtualne oczekujące na element nie
+ * blokują wątków nośnych. Każdy insert budzi jednego konsumenta; konsument,
+ * który wyjął element z niepustej kolejki, budzi następnego - tysiące
+ * oczekujących nie są budzone naraz przy każdym elemencie.
+ *
+ * W przeciwieństwie do java.util.concurrent.PriorityBlockingQueue kolejka
+ * zachowuje opakowywaną implementację i jej pozycje, więc obsługuje
+ * decreaseKey, remove i updateKey.
+ *
+ * @param <T> typ elementów w kolejce
+ */
+public class BlockingPriorityQueue<T extends Comparable<T> & HasValue> implements PriorityQueue<T> {
+
+    private final PriorityQueue<T> delegate;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+
+    /**
+     * Opakowuje kolejkę
+     *
+     * @param delegate opakowywana kolejka; nie może być używana bezpośrednio
+     *                 przez inne wątki
+     */
+    public BlockingPriorityQueue(PriorityQueue<T> delegate) {
+        this.delegate = Objects.requireNonNull(delegate);
+    }
+
+    @Override
+    public Position<T> insert(T element) {
+        lock.lock();
+        try {
+            Position<T> position = delegate.insert(element);
+            notEmpty.signal();
+            return position;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wyjmuje najmniejszy element, czekając, aż kolejka nie będzie pusta
+     *
+     * @return najmniejszy element
+     * @throws InterruptedException jeśli wątek został przerwany podczas
+     *                              oczekiwania
+     */
+    public T take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (delegate.isEmpty()) {
+                notEmpty.await();
+            }
+            return extractAndSignal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wyjmuje najmniejszy element, czekając co najwyżej podany czas
+     *
+     * @param timeout maksymalny czas oczekiwania
+     * @param unit    jednostka czasu
+     * @return najmniejszy element albo null, jeśli czas minął
+     * @throws InterruptedException jeśli wątek został przerwany podczas
+     *                              oczekiwania
+     */
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (delegate.isEmpty()) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return extractAndSignal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wyjmuje najmniejszy element bez czekania
+     *
+     * @return najmniejszy element albo null, jeśli kolejka jest pusta
+     */
+    public T poll() {
+        lock.lock();
+        try {
+            return delegate.isEmpty() ? null : delegate.extractMin();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Przenosi do kolekcji co najwyżej maxElements najmniejszych elementów
+     * (rosnąco) pod jednym przejęciem blokady, bez czekania
+     *
+     * @param collection  kolekcja docelowa
+     * @param maxElements maksymalna liczba przeniesionych elementów
+     * @return liczba przeniesionych elementów
+     * @throws IllegalArgumentException jeśli maxElements jest ujemne
+     */
+    // Asymptotyczna złożoność pesymistyczna: k razy koszt extractMin, gdzie
+    // k = min(maxElements, n)
+    public int drainTo(Collection<? super T> collection, int maxElements) {
+        if (maxElements < 0) {
+            throw new IllegalArgumentException("Liczba elementów nie może być ujemna");
+        }
+        lock.lock();
+        try {
+            int count = 0;
+            while (count < maxElements && !delegate.isEmpty()) {
+                collection.add(delegate.extractMin());
+                count++;
+            }
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Po wyjęciu elementu budzi kolejnego konsumenta, jeśli coś zostało -
+    // sygnał z insert mógł trafić do wątku, który już przestał czekać
+    private T extractAndSignal() {
+        T min = delegate.extractMin();
+        if (!delegate.isEmpty()) {
+            notEmpty.signal();
+        }
+        return min;
+    }
+
+    @Override
+    public T findMin() {
+        lock.lock();
+        try {
+            return delegate.findMin();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T extractMin() {
+        lock.lock();
+        try {
+            return delegate.extractMin();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Position<T> decreaseKey(Position<T> position, T newElement) {
+        lock.lock();
+        try {
+            return delegate.decreaseKey(position, newElement);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T remove(Position<T> position) {
+        lock.lock();
+        try {
+            return delegate.remove(position);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Position<T> updateKey(Position<T> position, T newElement) {
+        lock.lock();
+        try {
+            return delegate.updateKey(position, newElement);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Wynik jest nową BlockingPriorityQueue; oczekujący na tej kolejce nie
+    // są do niej przenoszeni
+    @Override
+    public PriorityQueue<T> merge(PriorityQueue<T> other) {
+        lock.lock();
+        try {
+            return new BlockingPriorityQueue<>(delegate.merge(other));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        lock.lock();
+        try {
+            return delegate.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return delegate.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            delegate.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Zwraca przybliżoną liczbę wątków czekających w take() lub poll(timeout)
+     *
+     * @return liczba oczekujących konsumentów
+     */
+    public int getWaitingConsumers() {
+        lock.lock();
+        try {
+            return lock.getWaitQueueLength(notEmpty);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,469 @@
+import java.util.*;
+import java.util.function.IntFunction;
+
+/**
+ * Kolejka priorytetowa o ograniczonej pojemności na kopcu min-max
+ *
+ * Kopiec min-max ma na poziomach parzystych (licząc od korzenia = 0)
+ * elementy nie większe od wszystkich potomków, a na nieparzystych - nie
+ * mniejsze. Minimum jest w korzeniu, maksimum w jednym z jego synów, więc
+ * findMin i findMax to O(1), a extractMin i extractMax O(log k).
+ *
+ * Pełna kolejka w trybie EVICT_MAX przyjmuje nowy element tylko wtedy, gdy
+ * jest mniejszy od maksimum, które wtedy usuwa - kolejka zawiera więc
+ * zawsze k najmniejszych elementów z dotychczasowego strumienia w pamięci
+ * O(k). W trybie REJECT pełna kolejka odrzuca każdy nowy element.
+ *
+ * @param <T> typ elementów
+ */
+public class BoundedPriorityQueue<T extends Comparable<T> & HasValue> implements PriorityQueue<T> {
+
+    /**
+     * Zachowanie pełnej kolejki przy wstawianiu
+     */
+    public enum OverflowPolicy {
+        /**
+         * Mniejszy element zastępuje maksimum, większy jest odrzucany
+         */
+        EVICT_MAX,
+        /**
+         * Każdy nowy element jest odrzucany (insert rzuca wyjątek)
+         */
+        REJECT
+    }
+
+    private final int capacity;
+    private final OverflowPolicy policy;
+    private final HeapPosition<T>[] heap;
+    private int size;
+
+    /**
+     * Tworzy kolejkę zachowującą k najmniejszych elementów
+     *
+     * @param capacity maksymalna liczba elementów (k)
+     * @throws IllegalArgumentException jeśli capacity nie jest dodatnie
+     */
+    public BoundedPriorityQueue(int capacity) {
+        this(capacity, OverflowPolicy.EVICT_MAX);
+    }
+
+    /**
+     * Tworzy kolejkę
+     *
+     * @param capacity maksymalna liczba elementów (k)
+     * @param policy   zachowanie pełnej kolejki
+     * @throws IllegalArgumentException jeśli capacity nie jest dodatnie
+     */
+    @SuppressWarnings("unchecked")
+    public BoundedPriorityQueue(int capacity, OverflowPolicy policy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Pojemność musi być dodatnia");
+        }
+        this.capacity = capacity;
+        this.policy = Objects.requireNonNull(policy);
+        this.heap = (HeapPosition<T>[]) new HeapPosition[capacity];
+    }
+
+    /**
+     * Wstawia element; pełna kolejka postępuje zgodnie z OverflowPolicy
+     *
+     * @param element element do wstawienia
+     * @return pozycja elementu; nieważna, jeśli element został odrzucony
+     * @throws IllegalArgumentException jeśli wartość jest poza [0, N]
+     * @throws IllegalStateException    jeśli kolejka jest pełna w trybie
+     *                                  REJECT
+     */
+    // Asymptotyczna złożoność pesymistyczna: O(log k), średnia: O(log k)
+    @Override
+    public Position<T> insert(T element) {
+        checkRange(element);
+        if (size == capacity && policy == OverflowPolicy.REJECT) {
+            throw new IllegalStateException("Kolejka jest pełna");
+        }
+        HeapPosition<T> position = new HeapPosition<>(element);
+        offer(position);
+        return position;
+    }
+
+    /**
+     * Wstawia element, jeśli mieści się w kolejce
+     *
+     * @param element element do wstawienia
+     * @return element, który wypadł z kolejki (usunięte maksimum albo
+     *         odrzucony element), lub null, jeśli nic nie zostało utracone
+     * @throws IllegalArgumentException jeśli wartość jest poza [0, N]
+     */
+    // Asymptotyczna złożoność pesymistyczna: O(log k), średnia: O(log k)
+    public T offer(T element) {
+        checkRange(element);
+        return offer(new HeapPosition<>(element));
+    }
+
+    private T offer(HeapPosition<T> position) {
+        if (size < capacity) {
+            position.index = size;
+            heap[size++] = position;
+            pushUp(position.index);
+            return null;
+        }
+        int maxIndex = maxIndex();
+        if (policy == OverflowPolicy.REJECT || position.element.compareTo(heap[maxIndex].element) >= 0) {
+            position.valid = false;
+            return position.element;
+        }
+        T evicted = heap[maxIndex].element;
+        removeAt(maxIndex);
+        position.index = size;
+        heap[size++] = position;
+        pushUp(position.index);
+        return evicted;
+    }
+
+    /**
+     * Wstawia strumień kluczy, tworząc elementy tylko dla kluczy, które
+     * mogą trafić do kolejki
+     * Klucz większy od wartości maksimum pełnej kolejki jest odrzucany bez
+     * tworzenia elementu, więc compareTo elementów musi porządkować najpierw
+     * według wartość(). Pusta kolejka jest najpierw wypełniana w O(k)
+     * budowaniem kopca od dołu.
+     *
+     * @param keys    klucze z [0, N]
+     * @param factory tworzenie elementu z klucza
+     * @return liczba przyjętych elementów (wliczając później usunięte)
+     * @throws IllegalArgumentException jeśli klucz jest poza [0, N]
+     */
+    // Asymptotyczna złożoność pesymistyczna: O(k + m log k), średnia:
+    // O(k + m) dla losowego strumienia, gdzie m to liczba kluczy
+    public int offerAll(int[] keys, IntFunction<T> factory) {
+        int accepted = 0;
+        int next = 0;
+        if (size == 0) {
+            int count = Math.min(capacity, keys.length);
+            for (; next < count; next++) {
+                HeapPosition<T> position = new HeapPosition<>(factory.apply(checkRange(keys[next])));
+                position.index = next;
+                heap[next] = position;
+            }
+            size = count;
+            accepted = count;
+            for (int i = size / 2 - 1; i >= 0; i--) {
+                pushDown(i);
+            }
+        }
+
+        for (; next < keys.length; next++) {
+            int key = checkRange(keys[next]);
+            if (size == capacity && (policy == OverflowPolicy.REJECT || key > heap[maxIndex()].element.wartość())) {
+                continue;
+            }
+            HeapPosition<T> position = new HeapPosition<>(factory.apply(key));
+            if (offer(position) != position.element) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+
+    // Asymptotyczna złożoność pesymistyczna: O(1), średnia: O(1)
+    @Override
+    public T findMin() {
+        if (size == 0) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        return heap[0].element;
+    }
+
+    /**
+     * Znajduje największy element w kolejce bez usuwania
+     *
+     * @return największy element
+     * @throws NoSuchElementException jeśli kolejka jest pusta
+     */
+    // Asymptotyczna złożoność pesymistyczna: O(1), średnia: O(1)
+    public T findMax() {
+        if (size == 0) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        return heap[maxIndex()].element;
+    }
+
+    // Asymptotyczna złożoność pesymistyczna: O(log k), średnia: O(log k)
+    @Override
+    public T extractMin() {
+        if (size == 0) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        T min = heap[0].element;
+        removeAt(0);
+        return min;
+    }
+
+    /**
+     * Usuwa i zwraca największy element
+     *
+     * @return największy element
+     * @throws NoSuchElementException jeśli kolejka jest pusta
+     */
+    // Asymptotyczna złożoność pesymistyczna: O(log k), średnia: O(log k)
+    public T extractMax() {
+        if (size == 0) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        int maxIndex = maxIndex();
+        T max = heap[maxIndex].element;
+        removeAt(maxIndex);
+        return max;
+    }
+
+    // Asymptotyczna złożoność pesymistyczna: O(log k), średnia: O(log k)
+    // Usunięcie i ponowne wstawienie - zmniejszenie klucza na poziomie max
+    // może naruszyć porządek zarówno z przodkami, jak i z potomkami
+    @Override
+    public Position<T> decreaseKey(Position<T> position, T newElement) {
+        HeapPosition<T> heapPosition = checkPosition(position);
+        checkRange(newElement);
+        if (newElement.compareTo(heapPosition.element) >= 0) {
+            throw new IllegalArgumentException("Invalid operation");
+        }
+
+        removeAt(heapPosition.index);
+        HeapPosition<T> newPosition = new HeapPosition<>(newElement);
+        newPosition.index = size;
+        heap[size++] = newPosition;
+        pushUp(newPosition.index);
+        return newPosition;
+    }
+
+    // Asymptotyczna złożoność pesymistyczna: O(log k), średnia: O(log k)
+    @Override
+    public T remove(Position<T> position) {
+        HeapPosition<T> heapPosition = checkPosition(position);
+        removeAt(heapPosition.index);
+        return heapPosition.element;
+    }
+
+    // Pozycja musi być ważna i należeć do tej kolejki
+    private HeapPosition<T> checkPosition(Position<T> position) {
+        if (!(position instanceof HeapPosition) || !position.isValid()) {
+            throw new IllegalArgumentException("Invalid operation");
+        }
+        @SuppressWarnings("unchecked")
+        HeapPosition<T> heapPosition = (HeapPosition<T>) position;
+        if (heapPosition.index >= size || heap[heapPosition.index] != heapPosition) {
+            throw new IllegalArgumentException("Invalid operation");
+        }
+        return heapPosition;
+    }
+
+    /**
+     * Tworzy kolejkę o pojemności równej liczbie elementów
+     *
+     * @param elements elementy (wartości z [0, N])
+     * @return nowa kolejka
+     * @throws IllegalArgumentException jeśli wartość jest poza [0, N]
+     */
+    // Asymptotyczna złożoność pesymistyczna: O(n), średnia: O(n)
+    public static <T extends Comparable<T> & HasValue> PriorityQueue<T> buildHeap(T[] elements) {
+        BoundedPriorityQueue<T> pq = new BoundedPriorityQueue<>(Math.max(1, elements.length));
+        for (T element : elements) {
+            HeapPosition<T> position = new HeapPosition<>(checkRange(element));
+            position.index = pq.size;
+            pq.heap[pq.size++] = position;
+        }
+        for (int i = pq.size / 2 - 1; i >= 0; i--) {
+            pq.pushDown(i);
+        }
+        return pq;
+    }
+
+    // Asymptotyczna złożoność pesymistyczna: O((k + m) log k), średnia:
+    // O((k + m) log k)
+    // Wynik ma pojemność i tryb tej kolejki; elementy ponad pojemność są
+    // usuwane lub odrzucane jak przy offer
+    @Override
+    public PriorityQueue<T> merge(PriorityQueue<T> other) {
+        BoundedPriorityQueue<T> result = new BoundedPriorityQueue<>(capacity, policy);
+        for (int i = 0; i < size; i++) {
+            result.offer(heap[i].element);
+        }
+        while (!other.isEmpty()) {
+            result.offer(other.extractMin());
+        }
+        return result;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Zwraca maksymalną liczbę elementów
+     *
+     * @return pojemność kolejki
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            heap[i].valid = false;
+            heap[i] = null;
+        }
+        size = 0;
+    }
+
+    private int maxIndex() {
+        if (size <= 2) {
+            return size - 1;
+        }
+        return less(heap[1], heap[2]) ? 2 : 1;
+    }
+
+    // Usuwa element z indeksu i, wstawiając na jego miejsce ostatni liść
+    private void removeAt(int i) {
+        heap[i].valid = false;
+        size--;
+        if (i == size) {
+            heap[size] = null;
+            return;
+        }
+        HeapPosition<T> moved = heap[size];
+        heap[size] = null;
+        heap[i] = moved;
+        moved.index = i;
+        // Najpierw w dół: po pushDown element może naruszać porządek tylko
+        // z przodkami, a pushUp zamienia go wtedy tylko z przodkami
+        pushDown(i);
+        pushUp(moved.index);
+    }
+
+    private static boolean isMinLevel(int i) {
+        // Poziom węzła i to floor(log2(i + 1))
+        return (31 - Integer.numberOfLeadingZeros(i + 1)) % 2 == 0;
+    }
+
+    private void pushUp(int i) {
+        if (i == 0) {
+            return;
+        }
+        int parent = (i - 1) / 2;
+        if (isMinLevel(i)) {
+            if (less(heap[parent], heap[i])) {
+                swap(i, parent);
+                pushUpMax(parent);
+            } else {
+                pushUpMin(i);
+            }
+        } else if (less(heap[i], heap[parent])) {
+            swap(i, parent);
+            pushUpMin(parent);
+        } else {
+            pushUpMax(i);
+        }
+    }
+
+    private void pushUpMin(int i) {
+        while (i > 2) {
+            int grandparent = ((i - 1) / 2 - 1) / 2;
+            if (!less(heap[i], heap[grandparent])) {
+                break;
+            }
+            swap(i, grandparent);
+            i = grandparent;
+        }
+    }
+
+    private void pushUpMax(int i) {
+        while (i > 2) {
+            int grandparent = ((i - 1) / 2 - 1) / 2;
+            if (!less(heap[grandparent], heap[i])) {
+                break;
+            }
+            swap(i, grandparent);
+            i = grandparent;
+        }
+    }
+
+    private void pushDown(int i) {
+        boolean min = isMinLevel(i);
+        while (2 * i + 1 < size) {
+            // Najmniejszy (największy) z synów i wnuków
+            // (wnuki 4i+3..4i+6 leżą w tablicy obok siebie)
+            int best = 2 * i + 1;
+            int last = Math.min(4 * i + 6, size - 1);
+            for (int j = 2 * i + 2; j <= last; j = j == 2 * i + 2 ? 4 * i + 3 : j + 1) {
+                if (min ? less(heap[j], heap[best]) : less(heap[best], heap[j])) {
+                    best = j;
+                }
+            }
+
+            if (!(min ? less(heap[best], heap[i]) : less(heap[i], heap[best]))) {
+                return;
+            }
+            swap(i, best);
+            if (best <= 2 * i + 2) {
+                return; // syn - niżej nie ma już czego naprawiać
+            }
+            int parent = (best - 1) / 2;
+            if (min ? less(heap[parent], heap[best]) : less(heap[best], heap[parent])) {
+                swap(best, parent);
+            }
+            i = best;
+        }
+    }
+
+    private boolean less(HeapPosition<T> a, HeapPosition<T> b) {
+        return a.element.compareTo(b.element) < 0;
+    }
+
+    private void swap(int i, int j) {
+        HeapPosition<T> a = heap[i];
+        heap[i] = heap[j];
+        heap[j] = a;
+        heap[i].index = i;
+        heap[j].index = j;
+    }
+
+    private static <E extends HasValue> E checkRange(E element) {
+        checkRange(element.wartość());
+        return element;
+    }
+
+    private static int checkRange(int value) {
+        if (value < 0 || value > N) {
+            throw new IllegalArgumentException("Element value must be in range [0, " + N + "]");
+        }
+        return value;
+    }
+
+    /**
+     * Pozycja elementu w kopcu; indeks jest aktualizowany przy zamianach
+     */
+    private static final class HeapPosition<T> implements Position<T> {
+        final T element;
+        int index;
+        boolean valid = true;
+
+        HeapPosition(T element) {
+            this.element = element;
+        }
+
+        @Override
+        public T getElement() {
+            return element;
+        }
+
+        @Override
+        public boolean isValid() {
+            return valid;
+        }
+    }
+}
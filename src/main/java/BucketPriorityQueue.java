@@ -1,18 +1,83 @@
 import java.util.*;
 
-public class BucketPriorityQueue<T extends Comparable<T> & HasValue> implements PriorityQueue<T> {
-    private List<T>[] buckets;
+public class BucketPriorityQueue<T extends Comparable<T> & HasValue>
+        implements PriorityQueue<T>, PriorityQueueProbe.Target {
+
+    /**
+     * Kolejność elementów o tej samej wartości w kubełku
+     */
+    public enum TieBreak {
+        /**
+         * Według compareTo - findMin i extractMin przeglądają cały kubełek,
+         * O(k) dla k elementów w kubełku
+         */
+        COMPARE,
+        /**
+         * W kolejności wstawiania - O(1) (zamortyzowane), bez compareTo
+         */
+        FIFO
+    }
+
+    // Kubełki przechowują pozycje, które znają swój indeks w kubełku
+    // COMPARE: kolejność dowolna, usuwanie przez zamianę z ostatnim
+    // FIFO: kolejność wstawiania, usunięte pozycje to null przed/za head
+    // kopiec: kopiec binarny według tieBreak, a potem kolejności wstawiania
+    private List<BucketPosition<T>>[] buckets;
     private int size;
     private int minBucket;
 
-    @SuppressWarnings("unchecked")
+    private final TieBreak tieBreak;
+    // Porządek drugorzędny (tylko dla kubełków-kopców), null = brak
+    private final Comparator<? super T> secondary;
+    // FIFO: indeks pierwszego elementu i liczba pustych miejsc w kubełku
+    private final int[] head;
+    private final int[] holes;
+    private long insertCount;
+
+    // Sonda statystyk (InstrumentedPriorityQueue); null = brak pomiarów
+    private PriorityQueueProbe probe;
+
     public BucketPriorityQueue() {
+        this(TieBreak.COMPARE);
+    }
+
+    /**
+     * Tworzy kolejkę z podaną kolejnością elementów o równej wartości
+     *
+     * @param tieBreak kolejność w kubełku
+     */
+    public BucketPriorityQueue(TieBreak tieBreak) {
+        this(Objects.requireNonNull(tieBreak), null);
+    }
+
+    /**
+     * Tworzy kolejkę, w której elementy o równej wartości są porządkowane
+     * dodatkowym kluczem (a przy jego równości - kolejnością wstawiania);
+     * każdy kubełek jest wtedy małym kopcem binarnym, O(log k)
+     *
+     * @param secondary porządek elementów o tej samej wartości
+     */
+    public BucketPriorityQueue(Comparator<? super T> secondary) {
+        this(null, Objects.requireNonNull(secondary));
+    }
+
+    @SuppressWarnings("unchecked")
+    private BucketPriorityQueue(TieBreak tieBreak, Comparator<? super T> secondary) {
         this.buckets = new List[N + 1];
         for (int i = 0; i <= N; i++) {
             buckets[i] = new ArrayList<>();
         }
         this.size = 0;
         this.minBucket = N + 1;
+        this.tieBreak = tieBreak;
+        this.secondary = secondary;
+        this.head = tieBreak == TieBreak.FIFO ? new int[N + 1] : null;
+        this.holes = tieBreak == TieBreak.FIFO ? new int[N + 1] : null;
+    }
+
+    // Nowa, pusta kolejka z tym samym porządkiem w kubełkach
+    private BucketPriorityQueue<T> emptyCopy() {
+        return new BucketPriorityQueue<T>(tieBreak, secondary);
     }
 
     // Asymptotyczna złożoność pesymistyczna: O(1), średnia: O(1)
@@ -24,14 +89,19 @@ public class BucketPriorityQueue<T extends Comparable<T> & HasValue> implements
         }
 
         int bucketIndex = element.wartość();
-        buckets[bucketIndex].add(element);
+        List<BucketPosition<T>> bucket = buckets[bucketIndex];
+        BucketPosition<T> position = new BucketPosition<>(element, bucket.size(), insertCount++);
+        bucket.add(position);
+        if (secondary != null) {
+            siftUp(bucket, position.indexInBucket);
+        }
         size++;
 
         if (bucketIndex < minBucket) {
             minBucket = bucketIndex;
         }
 
-        return new BucketPosition<>(element, buckets[bucketIndex].size() - 1);
+        return position;
     }
 
     // Asymptotyczna złożoność pesymistyczna: O(N), średnia: O(1)
@@ -43,24 +113,47 @@ public class BucketPriorityQueue<T extends Comparable<T> & HasValue> implements
         }
 
         updateMinBucket();
-        // Znajdź najmniejszy element w minBucket
-        T minElement = buckets[minBucket].get(0);
-        for (T element : buckets[minBucket]) {
+        List<BucketPosition<T>> bucket = buckets[minBucket];
+        return bucket.get(minIndex(bucket)).element;
+    }
+
+    // Indeks najmniejszego elementu w kubełku (elementy o tej samej wartości
+    // mogą się różnić według compareTo)
+    private int minIndex(List<BucketPosition<T>> bucket) {
+        if (tieBreak == TieBreak.FIFO) {
+            return head[minBucket];
+        }
+        if (secondary != null) {
+            return 0;
+        }
+        int minIndex = 0;
+        T minElement = bucket.get(0).element;
+        for (int i = 1; i < bucket.size(); i++) {
+            T element = bucket.get(i).element;
             if (element.compareTo(minElement) < 0) {
                 minElement = element;
+                minIndex = i;
             }
         }
-        return minElement;
+        if (probe != null) {
+            probe.comparisons(bucket.size() - 1);
+        }
+        return minIndex;
     }
 
     private void updateMinBucket() {
+        int start = minBucket;
         while (minBucket <= N && buckets[minBucket].isEmpty()) {
             minBucket++;
         }
+        if (probe != null && minBucket != start) {
+            probe.bucketsScanned(minBucket - start);
+        }
     }
 
     // Asymptotyczna złożoność pesymistyczna: O(N + k), średnia: O(1)
-    // gdzie k to liczba elementów w kubełku minBucket
+    // gdzie k to liczba elementów w kubełku minBucket (COMPARE); dla FIFO
+    // O(N) i zamortyzowane O(1) w kubełku, dla kopców O(N + log k)
     @Override
     public T extractMin() {
         if (isEmpty()) {
@@ -68,32 +161,120 @@ public class BucketPriorityQueue<T extends Comparable<T> & HasValue> implements
         }
 
         updateMinBucket();
+        List<BucketPosition<T>> bucket = buckets[minBucket];
+        BucketPosition<T> min = bucket.get(minIndex(bucket));
+        remove(min);
 
-        // Znajdź najmniejszy element w minBucket
-        T minElement = buckets[minBucket].get(0);
-        int minIndex = 0;
-        for (int i = 1; i < buckets[minBucket].size(); i++) {
-            T element = buckets[minBucket].get(i);
-            if (element.compareTo(minElement) < 0) {
-                minElement = element;
-                minIndex = i;
-            }
+        if (bucket.isEmpty()) {
+            updateMinBucket();
         }
 
-        buckets[minBucket].remove(minIndex);
+        return min.element;
+    }
+
+    // Usuwa pozycję z kubełka w O(1): na jej miejsce trafia ostatni element
+    // (FIFO: zostaje puste miejsce, kopiec: przesiewanie w O(log k))
+    private void remove(BucketPosition<T> position) {
+        int bucketIndex = position.element.wartość();
+        List<BucketPosition<T>> bucket = buckets[bucketIndex];
+        position.valid = false;
         size--;
 
-        if (buckets[minBucket].isEmpty()) {
-            updateMinBucket();
+        if (tieBreak == TieBreak.FIFO) {
+            removeFifo(bucketIndex, bucket, position);
+            return;
         }
+        BucketPosition<T> last = bucket.remove(bucket.size() - 1);
+        if (last != position) {
+            bucket.set(position.indexInBucket, last);
+            last.indexInBucket = position.indexInBucket;
+            if (secondary != null) {
+                siftDown(bucket, siftUp(bucket, last.indexInBucket));
+            }
+        }
+    }
 
-        return minElement;
+    // Puste miejsca są pomijane przez head, a gdy stanowią ponad połowę
+    // kubełka - usuwane, więc każde kosztuje zamortyzowane O(1)
+    private void removeFifo(int bucketIndex, List<BucketPosition<T>> bucket, BucketPosition<T> position) {
+        bucket.set(position.indexInBucket, null);
+        holes[bucketIndex]++;
+        if (holes[bucketIndex] == bucket.size()) {
+            bucket.clear();
+            head[bucketIndex] = 0;
+            holes[bucketIndex] = 0;
+            return;
+        }
+        while (bucket.get(head[bucketIndex]) == null) {
+            head[bucketIndex]++;
+        }
+        if (2 * holes[bucketIndex] > bucket.size()) {
+            int count = 0;
+            for (int i = head[bucketIndex]; i < bucket.size(); i++) {
+                BucketPosition<T> live = bucket.get(i);
+                if (live != null) {
+                    live.indexInBucket = count;
+                    bucket.set(count++, live);
+                }
+            }
+            bucket.subList(count, bucket.size()).clear();
+            head[bucketIndex] = 0;
+            holes[bucketIndex] = 0;
+        }
+    }
+
+    // Kopiec w kubełku: tieBreak, a przy równości kolejność wstawiania
+    private boolean less(BucketPosition<T> a, BucketPosition<T> b) {
+        if (probe != null) {
+            probe.comparisons(1);
+        }
+        int result = secondary.compare(a.element, b.element);
+        return result < 0 || result == 0 && a.sequence < b.sequence;
+    }
+
+    private int siftUp(List<BucketPosition<T>> bucket, int index) {
+        BucketPosition<T> position = bucket.get(index);
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            BucketPosition<T> parentPosition = bucket.get(parent);
+            if (!less(position, parentPosition)) {
+                break;
+            }
+            bucket.set(index, parentPosition);
+            parentPosition.indexInBucket = index;
+            index = parent;
+        }
+        bucket.set(index, position);
+        position.indexInBucket = index;
+        return index;
+    }
+
+    private void siftDown(List<BucketPosition<T>> bucket, int index) {
+        BucketPosition<T> position = bucket.get(index);
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= bucket.size()) {
+                break;
+            }
+            if (child + 1 < bucket.size() && less(bucket.get(child + 1), bucket.get(child))) {
+                child++;
+            }
+            BucketPosition<T> childPosition = bucket.get(child);
+            if (!less(childPosition, position)) {
+                break;
+            }
+            bucket.set(index, childPosition);
+            childPosition.indexInBucket = index;
+            index = child;
+        }
+        bucket.set(index, position);
+        position.indexInBucket = index;
     }
 
     // Asymptotyczna złożoność pesymistyczna: O(1), średnia: O(1)
     // Bezpośrednie usunięcie i wstawienie w odpowiednie kubełki
     @Override
-    public void decreaseKey(Position<T> position, T newElement) {
+    public Position<T> decreaseKey(Position<T> position, T newElement) {
         if (!(position instanceof BucketPosition)) {
             throw new IllegalArgumentException("Invalid position type");
         }
@@ -101,7 +282,7 @@ public class BucketPriorityQueue<T extends Comparable<T> & HasValue> implements
         @SuppressWarnings("unchecked")
         BucketPosition<T> bucketPos = (BucketPosition<T>) position;
 
-        if (!bucketPos.isValid() || newElement.wartość() < 0 || newElement.wartość() > N) {
+        if (!bucketPos.isValid() || !contains(bucketPos) || newElement.wartość() < 0 || newElement.wartość() > N) {
             throw new IllegalArgumentException("Invalid operation");
         }
 
@@ -109,27 +290,56 @@ public class BucketPriorityQueue<T extends Comparable<T> & HasValue> implements
             throw new IllegalArgumentException("New element value must be smaller");
         }
 
-        // Usuń ze starego kubełka
-        T oldElement = bucketPos.getElement();
-        int oldBucketIndex = oldElement.wartość();
-        buckets[oldBucketIndex].remove(bucketPos.indexInBucket);
-        bucketPos.valid = false;
-        size--;
+        // Usuń ze starego kubełka i dodaj do nowego (insert aktualizuje minBucket)
+        remove(bucketPos);
+        return insert(newElement);
+    }
+
+    // Asymptotyczna złożoność pesymistyczna: O(k), średnia: O(1)
+    // Usunięcie z kubełka w O(1) (FIFO: zamortyzowane przy zagęszczaniu,
+    // kopiec w kubełku: O(log k)); minBucket jest przesuwany leniwie przy
+    // następnym findMin/extractMin
+    @Override
+    public T remove(Position<T> position) {
+        if (!(position instanceof BucketPosition)) {
+            throw new IllegalArgumentException("Invalid position type");
+        }
 
-        // Dodaj do nowego kubełka
-        insert(newElement);
+        @SuppressWarnings("unchecked")
+        BucketPosition<T> bucketPos = (BucketPosition<T>) position;
 
-        // Aktualizuj minBucket jeśli potrzeba
-        int newBucketIndex = newElement.wartość();
-        if (newBucketIndex < minBucket) {
-            minBucket = newBucketIndex;
+        if (!bucketPos.isValid() || !contains(bucketPos)) {
+            throw new IllegalArgumentException("Invalid operation");
         }
+
+        remove(bucketPos);
+        return bucketPos.element;
+    }
+
+    // Czy pozycja należy do tej kolejki (a nie do innej)
+    private boolean contains(BucketPosition<T> position) {
+        List<BucketPosition<T>> bucket = buckets[position.element.wartość()];
+        return position.indexInBucket < bucket.size() && bucket.get(position.indexInBucket) == position;
     }
 
     // Asymptotyczna złożoność pesymistyczna: O(n), średnia: O(n)
     // Każdy element dodawany w czasie stałym
     public static <T extends Comparable<T> & HasValue> PriorityQueue<T> buildHeap(T[] elements) {
-        BucketPriorityQueue<T> pq = new BucketPriorityQueue<>();
+        return buildHeap(elements, TieBreak.COMPARE);
+    }
+
+    /**
+     * Tworzy kolejkę z podaną kolejnością elementów o równej wartości
+     *
+     * @param elements elementy (wartości z [0, N])
+     * @param tieBreak kolejność w kubełku
+     * @return nowa kolejka
+     * @throws IllegalArgumentException jeśli wartość jest poza [0, N]
+     */
+    // Asymptotyczna złożoność pesymistyczna: O(n), średnia: O(n)
+    public static <T extends Comparable<T> & HasValue> PriorityQueue<T> buildHeap(T[] elements,
+            TieBreak tieBreak) {
+        BucketPriorityQueue<T> pq = new BucketPriorityQueue<>(tieBreak);
         for (T element : elements) {
             pq.insert(element);
         }
@@ -137,15 +347,19 @@ public class BucketPriorityQueue<T extends Comparable<T> & HasValue> implements
     }
 
     // Asymptotyczna złożoność pesymistyczna: O(n + m), średnia: O(n + m)
-    // Kopiowanie wszystkich elementów z obu struktur
+    // Kopiowanie wszystkich elementów z obu struktur; wynik ma ten sam
+    // porządek w kubełkach
     @Override
     public PriorityQueue<T> merge(PriorityQueue<T> other) {
-        BucketPriorityQueue<T> result = new BucketPriorityQueue<>();
+        BucketPriorityQueue<T> result = emptyCopy();
 
-        // Dodaj wszystkie elementy z tej kolejki
+        // Dodaj wszystkie elementy z tej kolejki (FIFO: w kolejności
+        // wstawiania, kopce: w kolejności tablicy)
         for (int i = 0; i <= N; i++) {
-            for (T element : buckets[i]) {
-                result.insert(element);
+            for (BucketPosition<T> position : buckets[i]) {
+                if (position != null) {
+                    result.insert(position.element);
+                }
             }
         }
 
@@ -157,6 +371,11 @@ public class BucketPriorityQueue<T extends Comparable<T> & HasValue> implements
         return result;
     }
 
+    @Override
+    public void setProbe(PriorityQueueProbe probe) {
+        this.probe = probe;
+    }
+
     @Override
     public boolean isEmpty() {
         return size == 0;
@@ -170,20 +389,32 @@ public class BucketPriorityQueue<T extends Comparable<T> & HasValue> implements
     @Override
     public void clear() {
         for (int i = 0; i <= N; i++) {
+            for (BucketPosition<T> position : buckets[i]) {
+                if (position != null) {
+                    position.valid = false;
+                }
+            }
             buckets[i].clear();
         }
+        if (head != null) {
+            Arrays.fill(head, 0);
+            Arrays.fill(holes, 0);
+        }
         size = 0;
         minBucket = N + 1;
     }
 
     private static class BucketPosition<T> implements Position<T> {
-        T element;
+        final T element;
+        // Numer wstawienia - kolejność elementów równych w kubełku-kopcu
+        final long sequence;
         int indexInBucket;
         boolean valid;
 
-        BucketPosition(T element, int indexInBucket) {
+        BucketPosition(T element, int indexInBucket, long sequence) {
             this.element = element;
             this.indexInBucket = indexInBucket;
+            this.sequence = sequence;
             this.valid = true;
         }
 
@@ -197,4 +428,4 @@ public class BucketPriorityQueue<T extends Comparable<T> & HasValue> implements
             return valid;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,609 @@
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Hierarchia skrótów (Contraction Hierarchies) dla zapytań punkt-punkt
+ *
+ * Przetwarzanie wstępne kontraktuje wierzchołki w kolejności wyznaczonej
+ * heurystyką różnicy krawędzi (liczba potrzebnych skrótów minus liczba
+ * usuwanych krawędzi, plus liczba już skontraktowanych sąsiadów). Skrót
+ * u -> w przez v dodawany jest tylko wtedy, gdy lokalne wyszukiwanie świadka
+ * (Dijkstra na kolejce z wybranego backendu, z pominięciem v) nie znajdzie
+ * ścieżki nie dłuższej niż u -> v -> w.
+ *
+ * Zapytanie to dwukierunkowa Dijkstra: w przód po łukach w górę hierarchii ze
+ * źródła i wstecz po łukach w górę hierarchii z celu. Skróty na znalezionej
+ * ścieżce są rozwijane do krawędzi oryginalnego grafu.
+ *
+ * Klucze kolejek podlegają ograniczeniu PriorityQueue.N, tak jak w
+ * WeightedGraph.dijkstra - wyszukiwanie świadka po prostu nie przekracza tej
+ * odległości (co najwyżej dodając nadmiarowy skrót), a zapytanie o dłuższą
+ * ścieżkę zgłasza IllegalArgumentException.
+ *
+ * Po zbudowaniu hierarchia jest niemutowalna i może obsługiwać zapytania
+ * z wielu wątków.
+ */
+public class ContractionHierarchy {
+
+    private static final int MAGIC = 0x43484731; // "CHG1"
+    private static final int INFINITY = Integer.MAX_VALUE;
+    // Limit ustalonych wierzchołków w jednym wyszukiwaniu świadka
+    private static final int WITNESS_SETTLE_LIMIT = 500;
+
+    private final int vertexCount;
+    private final BitSet vertices;
+    private final int[] rank;
+    // Łuki w górę z wierzchołka u: u -> v, rank[v] > rank[u]
+    private final int[] upOffsets;
+    private final int[] upTargets;
+    private final int[] upWeights;
+    // Łuki w górę do wierzchołka v (przeszukiwane wstecz): u -> v, rank[u] > rank[v]
+    private final int[] downOffsets;
+    private final int[] downSources;
+    private final int[] downWeights;
+    // Skrót (u, w) -> wierzchołek środkowy v
+    private final Map<Long, Integer> shortcutMiddle;
+    private final int priorityQueueType;
+    // Obszary robocze zapytań; pula rośnie do liczby równoczesnych zapytań
+    private final ConcurrentLinkedQueue<Search> searches = new ConcurrentLinkedQueue<>();
+
+    private ContractionHierarchy(int vertexCount, BitSet vertices, int[] rank,
+            int[] upOffsets, int[] upTargets, int[] upWeights,
+            int[] downOffsets, int[] downSources, int[] downWeights,
+            Map<Long, Integer> shortcutMiddle, int priorityQueueType) {
+        this.vertexCount = vertexCount;
+        this.vertices = vertices;
+        this.rank = rank;
+        this.upOffsets = upOffsets;
+        this.upTargets = upTargets;
+        this.upWeights = upWeights;
+        this.downOffsets = downOffsets;
+        this.downSources = downSources;
+        this.downWeights = downWeights;
+        this.shortcutMiddle = shortcutMiddle;
+        this.priorityQueueType = priorityQueueType;
+    }
+
+    /**
+     * Buduje hierarchię skrótów dla grafu
+     *
+     * @param graph             graf (nie jest modyfikowany)
+     * @param priorityQueueType numer typu kolejki z PriorityQueueRegistry dla
+     *                          wyszukiwań świadków i zapytań
+     * @return hierarchia skrótów
+     * @throws IllegalArgumentException jeśli typ kolejki jest nieprawidłowy
+     */
+    public static ContractionHierarchy build(WeightedGraph graph, int priorityQueueType) {
+        return new Builder(graph, priorityQueueType).build();
+    }
+
+    /**
+     * Odległość między wierzchołkami
+     *
+     * @param source wierzchołek źródłowy
+     * @param target wierzchołek docelowy
+     * @return długość najkrótszej ścieżki lub Integer.MAX_VALUE jeśli brak
+     * @throws IllegalArgumentException jeśli wierzchołek nie istnieje
+     */
+    public int distance(int source, int target) {
+        Search search = borrow(source, target);
+        try {
+            return search.run(source, target);
+        } finally {
+            searches.offer(search);
+        }
+    }
+
+    /**
+     * Najkrótsza ścieżka z rozwiniętymi skrótami
+     *
+     * @param source wierzchołek źródłowy
+     * @param target wierzchołek docelowy
+     * @return wierzchołki ścieżki oryginalnego grafu (pusta jeśli brak ścieżki)
+     * @throws IllegalArgumentException jeśli wierzchołek nie istnieje
+     */
+    public List<Integer> path(int source, int target) {
+        Search search = borrow(source, target);
+        try {
+            List<Integer> path = new ArrayList<>();
+            if (search.run(source, target) == INFINITY) {
+                return path;
+            }
+
+            // Ścieżka w hierarchii: source -> ... -> meeting (w przód), meeting -> ... ->
+            // target (wstecz)
+            List<Integer> hierarchyPath = new ArrayList<>();
+            for (int vertex = search.meeting; vertex != -1; vertex = search.forwardParent[vertex]) {
+                hierarchyPath.add(vertex);
+            }
+            Collections.reverse(hierarchyPath);
+            for (int vertex = search.backwardParent[search.meeting]; vertex != -1;
+                    vertex = search.backwardParent[vertex]) {
+                hierarchyPath.add(vertex);
+            }
+
+            path.add(hierarchyPath.get(0));
+            for (int i = 1; i < hierarchyPath.size(); i++) {
+                unpack(hierarchyPath.get(i - 1), hierarchyPath.get(i), path);
+            }
+            return path;
+        } finally {
+            searches.offer(search);
+        }
+    }
+
+    /**
+     * Rozwija łuk (from, to) do krawędzi oryginalnego grafu, dopisując
+     * wierzchołki (bez from) na koniec ścieżki
+     */
+    private void unpack(int from, int to, List<Integer> path) {
+        Deque<int[]> stack = new ArrayDeque<>();
+        stack.push(new int[] { from, to });
+        while (!stack.isEmpty()) {
+            int[] arc = stack.pop();
+            Integer middle = shortcutMiddle.get(key(arc[0], arc[1]));
+            if (middle == null) {
+                path.add(arc[1]);
+            } else {
+                stack.push(new int[] { middle, arc[1] });
+                stack.push(new int[] { arc[0], middle });
+            }
+        }
+    }
+
+    // Wypożycza obszar roboczy z puli albo tworzy nowy
+    private Search borrow(int source, int target) {
+        if (!hasVertex(source) || !hasVertex(target)) {
+            throw new IllegalArgumentException("Wierzchołek nie istnieje w hierarchii");
+        }
+        Search search = searches.poll();
+        return search != null ? search : new Search();
+    }
+
+    private boolean hasVertex(int vertex) {
+        return vertex >= 0 && vertex < vertexCount && vertices.get(vertex);
+    }
+
+    /**
+     * Zwraca pozycję wierzchołka w kolejności kontrakcji
+     *
+     * @param vertex wierzchołek
+     * @return ranga (0 = skontraktowany jako pierwszy)
+     */
+    public int getRank(int vertex) {
+        if (!hasVertex(vertex)) {
+            throw new IllegalArgumentException("Wierzchołek nie istnieje w hierarchii");
+        }
+        return rank[vertex];
+    }
+
+    /**
+     * Zwraca liczbę skrótów w hierarchii
+     *
+     * @return liczba skrótów
+     */
+    public int getShortcutCount() {
+        return shortcutMiddle.size();
+    }
+
+    /**
+     * Zwraca liczbę łuków hierarchii (krawędzie oryginalne i skróty)
+     *
+     * @return liczba łuków
+     */
+    public int getArcCount() {
+        return upTargets.length + downSources.length;
+    }
+
+    /**
+     * Zapisuje hierarchię w formacie binarnym
+     *
+     * @param path plik docelowy
+     * @throws IOException błąd zapisu
+     */
+    public void save(Path path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(vertexCount);
+            writeLongs(out, vertices.toLongArray());
+            writeInts(out, rank);
+            writeInts(out, upOffsets);
+            writeInts(out, upTargets);
+            writeInts(out, upWeights);
+            writeInts(out, downOffsets);
+            writeInts(out, downSources);
+            writeInts(out, downWeights);
+            out.writeInt(shortcutMiddle.size());
+            for (Map.Entry<Long, Integer> entry : shortcutMiddle.entrySet()) {
+                out.writeLong(entry.getKey());
+                out.writeInt(entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Wczytuje hierarchię zapisaną metodą save
+     *
+     * @param path              plik źródłowy
+     * @param priorityQueueType typ kolejki dla zapytań
+     * @return wczytana hierarchia
+     * @throws IOException błąd odczytu lub nieprawidłowy format pliku
+     */
+    public static ContractionHierarchy load(Path path, int priorityQueueType) throws IOException {
+        PriorityQueueRegistry.requireType(priorityQueueType);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Plik nie zawiera hierarchii skrótów");
+            }
+            int vertexCount = in.readInt();
+            BitSet vertices = BitSet.valueOf(readLongs(in));
+            int[] rank = readInts(in);
+            int[] upOffsets = readInts(in);
+            int[] upTargets = readInts(in);
+            int[] upWeights = readInts(in);
+            int[] downOffsets = readInts(in);
+            int[] downSources = readInts(in);
+            int[] downWeights = readInts(in);
+            int shortcuts = in.readInt();
+            Map<Long, Integer> shortcutMiddle = new HashMap<>(shortcuts * 2);
+            for (int i = 0; i < shortcuts; i++) {
+                shortcutMiddle.put(in.readLong(), in.readInt());
+            }
+            return new ContractionHierarchy(vertexCount, vertices, rank, upOffsets, upTargets, upWeights,
+                    downOffsets, downSources, downWeights, shortcutMiddle, priorityQueueType);
+        }
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    private static void writeLongs(DataOutputStream out, long[] values) throws IOException {
+        out.writeInt(values.length);
+        for (long value : values) {
+            out.writeLong(value);
+        }
+    }
+
+    private static int[] readInts(DataInputStream in) throws IOException {
+        int[] values = new int[in.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+
+    private static long[] readLongs(DataInputStream in) throws IOException {
+        long[] values = new long[in.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readLong();
+        }
+        return values;
+    }
+
+    private static long key(int from, int to) {
+        return ((long) from << 32) | (to & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Obszar roboczy zapytania dwukierunkowego, używany ponownie między
+     * zapytaniami (jak w BatchShortestPathEngine)
+     * Tablice są indeksowane wierzchołkiem, a znaczniki epoki pozwalają pominąć
+     * ich czyszczenie przed każdym zapytaniem; kolejki są tworzone raz.
+     */
+    private final class Search {
+        final int[] forwardDistance = new int[vertexCount];
+        final int[] backwardDistance = new int[vertexCount];
+        final int[] forwardParent = new int[vertexCount];
+        final int[] backwardParent = new int[vertexCount];
+        // Epoka, w której wierzchołek został osiągnięty w danym kierunku
+        final int[] forwardEpoch = new int[vertexCount];
+        final int[] backwardEpoch = new int[vertexCount];
+        final PriorityQueue<WeightedGraph.DijkstraNode> forwardQueue =
+                WeightedGraph.newPriorityQueue(priorityQueueType);
+        final PriorityQueue<WeightedGraph.DijkstraNode> backwardQueue =
+                WeightedGraph.newPriorityQueue(priorityQueueType);
+        int epoch;
+        int distance;
+        int meeting;
+
+        // Zwraca odległość; ścieżka w hierarchii prowadzi przez meeting
+        int run(int source, int target) {
+            epoch++;
+            distance = INFINITY;
+            meeting = -1;
+            // Zapytanie przerwane wyjątkiem mogło zostawić wpisy w kolejkach
+            if (!forwardQueue.isEmpty()) {
+                forwardQueue.clear();
+            }
+            if (!backwardQueue.isEmpty()) {
+                backwardQueue.clear();
+            }
+
+            reach(forwardDistance, forwardParent, forwardEpoch, forwardQueue, source, 0, -1);
+            reach(backwardDistance, backwardParent, backwardEpoch, backwardQueue, target, 0, -1);
+
+            // Każdy kierunek kończy się, gdy jego minimum nie może poprawić wyniku
+            while (!forwardQueue.isEmpty() || !backwardQueue.isEmpty()) {
+                if (!forwardQueue.isEmpty()) {
+                    if (forwardQueue.findMin().getDistance() >= distance) {
+                        forwardQueue.clear();
+                    } else {
+                        step(forwardQueue, forwardDistance, forwardParent, forwardEpoch,
+                                backwardDistance, backwardEpoch, upOffsets, upTargets, upWeights);
+                    }
+                }
+                if (!backwardQueue.isEmpty()) {
+                    if (backwardQueue.findMin().getDistance() >= distance) {
+                        backwardQueue.clear();
+                    } else {
+                        step(backwardQueue, backwardDistance, backwardParent, backwardEpoch,
+                                forwardDistance, forwardEpoch, downOffsets, downSources, downWeights);
+                    }
+                }
+            }
+            return distance;
+        }
+
+        private void reach(int[] distances, int[] parents, int[] epochs,
+                PriorityQueue<WeightedGraph.DijkstraNode> queue, int vertex, int newDistance, int parent) {
+            distances[vertex] = newDistance;
+            parents[vertex] = parent;
+            epochs[vertex] = epoch;
+            queue.insert(new WeightedGraph.DijkstraNode(vertex, newDistance));
+        }
+
+        private void step(PriorityQueue<WeightedGraph.DijkstraNode> queue, int[] distances, int[] parents,
+                int[] epochs, int[] otherDistances, int[] otherEpochs, int[] offsets, int[] heads, int[] weights) {
+            WeightedGraph.DijkstraNode current = queue.extractMin();
+            int vertex = current.getVertex();
+            int vertexDistance = current.getDistance();
+            if (vertexDistance > distances[vertex]) {
+                return; // Nieaktualny wpis
+            }
+
+            if (otherEpochs[vertex] == epoch && vertexDistance + otherDistances[vertex] < distance) {
+                distance = vertexDistance + otherDistances[vertex];
+                meeting = vertex;
+            }
+
+            for (int arc = offsets[vertex]; arc < offsets[vertex + 1]; arc++) {
+                int neighbor = heads[arc];
+                int newDistance = vertexDistance + weights[arc];
+                if (epochs[neighbor] != epoch || newDistance < distances[neighbor]) {
+                    reach(distances, parents, epochs, queue, neighbor, newDistance, vertex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Przetwarzanie wstępne: kontrakcja wierzchołków na kopii roboczej grafu
+     */
+    private static final class Builder {
+        private final int vertexCount;
+        private final BitSet vertices;
+        private final int priorityQueueType;
+        private final Map<Integer, Integer>[] out;
+        private final Map<Integer, Integer>[] in;
+        private final int[] rank;
+        private final int[] contractedNeighbors;
+        private final Map<Long, Integer> shortcutMiddle = new HashMap<>();
+        // Łuki zamrożone w chwili kontrakcji wierzchołka: {cel/źródło, waga}
+        private final List<int[]>[] upArcs;
+        private final List<int[]>[] downArcs;
+        private final PriorityQueue<WeightedGraph.DijkstraNode> witnessQueue;
+
+        @SuppressWarnings("unchecked")
+        Builder(WeightedGraph graph, int priorityQueueType) {
+            this.priorityQueueType = priorityQueueType;
+            this.witnessQueue = WeightedGraph.newPriorityQueue(priorityQueueType);
+            this.vertexCount = graph.getVertices().stream().mapToInt(Integer::intValue).max().orElse(-1) + 1;
+            this.vertices = new BitSet(vertexCount);
+            this.out = new Map[vertexCount];
+            this.in = new Map[vertexCount];
+            this.upArcs = new List[vertexCount];
+            this.downArcs = new List[vertexCount];
+            this.rank = new int[vertexCount];
+            this.contractedNeighbors = new int[vertexCount];
+
+            for (int vertex : graph.getVertices()) {
+                vertices.set(vertex);
+            }
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                out[vertex] = new HashMap<>();
+                in[vertex] = new HashMap<>();
+                upArcs[vertex] = new ArrayList<>();
+                downArcs[vertex] = new ArrayList<>();
+            }
+            for (int vertex = vertices.nextSetBit(0); vertex >= 0; vertex = vertices.nextSetBit(vertex + 1)) {
+                for (WeightedGraph.Edge edge : graph.outgoingEdges(vertex)) {
+                    if (edge.getDestination() != vertex) {
+                        out[vertex].put(edge.getDestination(), edge.getWeight());
+                        in[edge.getDestination()].put(vertex, edge.getWeight());
+                    }
+                }
+            }
+        }
+
+        ContractionHierarchy build() {
+            // Kolejka kontrakcji: priorytety mogą być ujemne, więc java.util.PriorityQueue
+            java.util.PriorityQueue<int[]> order = new java.util.PriorityQueue<>(
+                    (a, b) -> a[0] != b[0] ? Integer.compare(a[0], b[0]) : Integer.compare(a[1], b[1]));
+            for (int vertex = vertices.nextSetBit(0); vertex >= 0; vertex = vertices.nextSetBit(vertex + 1)) {
+                order.add(new int[] { priority(vertex), vertex });
+            }
+
+            boolean[] contracted = new boolean[vertexCount];
+            int nextRank = 0;
+            while (!order.isEmpty()) {
+                int[] entry = order.poll();
+                int vertex = entry[1];
+                if (contracted[vertex]) {
+                    continue;
+                }
+
+                // Leniwa aktualizacja: jeśli priorytet się pogorszył, wróć do kolejki
+                int current = priority(vertex);
+                if (!order.isEmpty() && current > order.peek()[0]) {
+                    order.add(new int[] { current, vertex });
+                    continue;
+                }
+
+                rank[vertex] = nextRank++;
+                contracted[vertex] = true;
+                contract(vertex);
+            }
+
+            return freeze();
+        }
+
+        private int priority(int vertex) {
+            int edgeDifference = shortcuts(vertex, false) - out[vertex].size() - in[vertex].size();
+            return edgeDifference + contractedNeighbors[vertex];
+        }
+
+        private void contract(int vertex) {
+            for (Map.Entry<Integer, Integer> arc : out[vertex].entrySet()) {
+                upArcs[vertex].add(new int[] { arc.getKey(), arc.getValue() });
+            }
+            for (Map.Entry<Integer, Integer> arc : in[vertex].entrySet()) {
+                downArcs[vertex].add(new int[] { arc.getKey(), arc.getValue() });
+            }
+
+            shortcuts(vertex, true);
+
+            for (int neighbor : out[vertex].keySet()) {
+                in[neighbor].remove(vertex);
+                contractedNeighbors[neighbor]++;
+            }
+            for (int neighbor : in[vertex].keySet()) {
+                out[neighbor].remove(vertex);
+                contractedNeighbors[neighbor]++;
+            }
+            out[vertex].clear();
+            in[vertex].clear();
+        }
+
+        /**
+         * Liczy (i opcjonalnie dodaje) skróty potrzebne przy kontrakcji
+         * wierzchołka
+         */
+        private int shortcuts(int vertex, boolean apply) {
+            if (out[vertex].isEmpty() || in[vertex].isEmpty()) {
+                return 0;
+            }
+
+            int maxOut = 0;
+            for (int weight : out[vertex].values()) {
+                maxOut = Math.max(maxOut, weight);
+            }
+
+            int count = 0;
+            List<int[]> added = new ArrayList<>();
+            for (Map.Entry<Integer, Integer> incoming : in[vertex].entrySet()) {
+                int from = incoming.getKey();
+                int toVertex = incoming.getValue();
+                Map<Integer, Integer> witness = witnessSearch(from, vertex, toVertex + maxOut);
+
+                for (Map.Entry<Integer, Integer> outgoing : out[vertex].entrySet()) {
+                    int to = outgoing.getKey();
+                    if (to == from) {
+                        continue;
+                    }
+                    int viaVertex = toVertex + outgoing.getValue();
+                    Integer found = witness.get(to);
+                    if (found == null || found > viaVertex) {
+                        count++;
+                        if (apply) {
+                            added.add(new int[] { from, to, viaVertex });
+                        }
+                    }
+                }
+            }
+
+            for (int[] shortcut : added) {
+                Integer existing = out[shortcut[0]].get(shortcut[1]);
+                if (existing == null || shortcut[2] < existing) {
+                    out[shortcut[0]].put(shortcut[1], shortcut[2]);
+                    in[shortcut[1]].put(shortcut[0], shortcut[2]);
+                    shortcutMiddle.put(key(shortcut[0], shortcut[1]), vertex);
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Ograniczona Dijkstra od wierzchołka z pominięciem wierzchołka
+         * kontraktowanego
+         */
+        private Map<Integer, Integer> witnessSearch(int from, int excluded, int maxDistance) {
+            Map<Integer, Integer> distances = new HashMap<>();
+            Set<Integer> settled = new HashSet<>();
+            int limit = Math.min(maxDistance, PriorityQueue.N);
+
+            if (!witnessQueue.isEmpty()) {
+                witnessQueue.clear();
+            }
+            distances.put(from, 0);
+            witnessQueue.insert(new WeightedGraph.DijkstraNode(from, 0));
+
+            while (!witnessQueue.isEmpty() && settled.size() < WITNESS_SETTLE_LIMIT) {
+                WeightedGraph.DijkstraNode current = witnessQueue.extractMin();
+                int vertex = current.getVertex();
+                if (!settled.add(vertex)) {
+                    continue;
+                }
+
+                for (Map.Entry<Integer, Integer> arc : out[vertex].entrySet()) {
+                    int neighbor = arc.getKey();
+                    if (neighbor == excluded) {
+                        continue;
+                    }
+                    int newDistance = current.getDistance() + arc.getValue();
+                    Integer known = distances.get(neighbor);
+                    if (newDistance <= limit && (known == null || newDistance < known)) {
+                        distances.put(neighbor, newDistance);
+                        witnessQueue.insert(new WeightedGraph.DijkstraNode(neighbor, newDistance));
+                    }
+                }
+            }
+            return distances;
+        }
+
+        private ContractionHierarchy freeze() {
+            int[] upOffsets = new int[vertexCount + 1];
+            int[] downOffsets = new int[vertexCount + 1];
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                upOffsets[vertex + 1] = upOffsets[vertex] + upArcs[vertex].size();
+                downOffsets[vertex + 1] = downOffsets[vertex] + downArcs[vertex].size();
+            }
+
+            int[] upTargets = new int[upOffsets[vertexCount]];
+            int[] upWeights = new int[upOffsets[vertexCount]];
+            int[] downSources = new int[downOffsets[vertexCount]];
+            int[] downWeights = new int[downOffsets[vertexCount]];
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                int index = upOffsets[vertex];
+                for (int[] arc : upArcs[vertex]) {
+                    upTargets[index] = arc[0];
+                    upWeights[index++] = arc[1];
+                }
+                index = downOffsets[vertex];
+                for (int[] arc : downArcs[vertex]) {
+                    downSources[index] = arc[0];
+                    downWeights[index++] = arc[1];
+                }
+            }
+
+            return new ContractionHierarchy(vertexCount, vertices, rank, upOffsets, upTargets, upWeights,
+                    downOffsets, downSources, downWeights, shortcutMiddle, priorityQueueType);
+        }
+    }
+}
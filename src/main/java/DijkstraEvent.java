@@ -0,0 +1,65 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Zdarzenie Java Flight Recorder emitowane przez każde wywołanie
+ * WeightedGraph.dijkstra
+ * Nagrywanie włącza się np. opcją
+ * -XX:StartFlightRecording:filename=dijkstra.jfr
+ * a zdarzenia przegląda w JDK Mission Control lub przez
+ * jfr print --events PriorityQueues.Dijkstra dijkstra.jfr
+ *
+ * Gdy nagrywanie jest wyłączone, algorytm nie mierzy czasów, więc narzut
+ * ogranicza się do utworzenia obiektu zdarzenia i sprawdzenia isEnabled().
+ */
+@Name("PriorityQueues.Dijkstra")
+@Label("Dijkstra")
+@Category("Priority Queues")
+@Description("Jedno wywołanie algorytmu Dijkstry")
+class DijkstraEvent extends Event {
+
+    @Label("Source")
+    int source;
+
+    @Label("Queue Type")
+    @Description("Numer typu z PriorityQueueRegistry (po rozstrzygnięciu AUTO)")
+    int queueType;
+
+    @Label("Queue")
+    @Description("Nazwa implementacji kolejki z PriorityQueueRegistry")
+    String queueName;
+
+    @Label("Mode")
+    @Description("LAZY albo DECREASE_KEY")
+    String mode;
+
+    @Label("Vertices")
+    int vertexCount;
+
+    @Label("Settled Vertices")
+    int settledVertices;
+
+    @Label("Relaxed Edges")
+    long relaxedEdges;
+
+    @Label("Successful Relaxations")
+    long successfulRelaxations;
+
+    @Label("Stale Entries Skipped")
+    long staleEntriesSkipped;
+
+    @Label("Peak Queue Size")
+    int peakQueueSize;
+
+    @Label("Queue Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long queueTime;
+
+    @Label("Relaxation Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long relaxationTime;
+}
@@ -0,0 +1,659 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.zip.CRC32C;
+
+/**
+ * Trwała kolejka priorytetowa: dziennik zapisu z wyprzedzeniem (WAL)
+ * i migawki
+ *
+ * Każde insert, extractMin, decreaseKey, updateKey, remove i clear jest
+ * dopisywane do dziennika przed zwróceniem wyniku; zapisy są grupowane w buforze
+ * i utrwalane zgodnie z SyncPolicy. Co snapshotInterval rekordów (albo po
+ * wywołaniu snapshot()) cała zawartość kolejki jest zapisywana jako
+ * posortowana migawka, a dziennik zaczyna się od nowa. Zawartość migawki
+ * pochodzi z licznika rekordów (klucz, dane) prowadzonego obok kolejki
+ * wewnętrznej, bo interfejs kolejki nie pozwala przejrzeć elementów bez
+ * ich wyjmowania. Przy otwarciu kolejka jest
+ * budowana z migawki przez buildHeap, a następnie odtwarzany jest ogon
+ * dziennika; niepełny lub uszkodzony rekord na końcu dziennika (przerwany
+ * zapis) jest odcinany.
+ *
+ * Elementy są zapisywane przez OffHeapPriorityQueue.Codec; elementy o tym
+ * samym rekordzie (klucz, dane) są traktowane jako nierozróżnialne. merge
+ * zwraca zwykłą, nietrwałą kolejkę. Kolejka nie jest bezpieczna wątkowo.
+ *
+ * Pliki w katalogu: snapshot.bin (migawka z numerem generacji dziennika)
+ * i wal-<generacja>.log.
+ *
+ * @param <T> typ elementów
+ */
+public class DurablePriorityQueue<T extends Comparable<T> & HasValue> implements PriorityQueue<T>, AutoCloseable {
+
+    /**
+     * Kiedy dziennik jest utrwalany na dysku (FileChannel.force)
+     */
+    public enum SyncPolicy {
+        /**
+         * Po każdej operacji - nic nie ginie nawet przy utracie zasilania
+         */
+        ALWAYS,
+        /**
+         * Po każdej grupie groupSize operacji (commit grupowy) - ginie co
+         * najwyżej ostatnia grupa
+         */
+        GROUP,
+        /**
+         * Tylko przy migawce, sync() i close() - pozostałe zapisy trafiają do
+         * pamięci podręcznej systemu co grupę operacji
+         */
+        NEVER
+    }
+
+    public static final int DEFAULT_GROUP_SIZE = 256;
+    public static final long DEFAULT_SNAPSHOT_INTERVAL = 1 << 20;
+
+    private static final String SNAPSHOT_FILE = "snapshot.bin";
+    private static final int SNAPSHOT_MAGIC = 0x50515331; // "PQS1"
+
+    private static final byte INSERT = 1;
+    private static final byte EXTRACT_MIN = 2;
+    private static final byte DECREASE_KEY = 3;
+    private static final byte CLEAR = 4;
+    private static final byte REMOVE = 5;
+    private static final byte UPDATE_KEY = 6;
+    // typ + 2 × (klucz, dane) + CRC32C
+    private static final int MAX_RECORD_BYTES = 1 + 2 * 12 + 4;
+
+    private final Path directory;
+    private final Function<T[], PriorityQueue<T>> builder;
+    private final IntFunction<T[]> arrayFactory;
+    private final OffHeapPriorityQueue.Codec<T> codec;
+    private final SyncPolicy policy;
+    private final int groupSize;
+    private final long snapshotInterval;
+
+    private PriorityQueue<T> delegate;
+    // Zawartość kolejki jako multizbiór rekordów (rekord -> liczba wystąpień)
+    private final Map<Record, Integer> records = new HashMap<>();
+    private long generation;
+    private FileChannel log;
+    private final ByteBuffer buffer;
+    private final CRC32C crc = new CRC32C();
+    private int pendingRecords;
+    private long logRecords;
+
+    private long syncCount;
+    private int snapshotCount;
+    private long replayedRecords;
+    private boolean closed;
+
+    /**
+     * Otwiera kolejkę z commitem grupowym i domyślnymi parametrami
+     *
+     * @param directory katalog z migawką i dziennikiem (tworzony, jeśli nie
+     *                  istnieje)
+     * @param builder      budowanie kolejki z tablicy, np.
+     *                     BucketPriorityQueue::buildHeap
+     * @param arrayFactory tworzenie tablicy elementów, np. IntElement[]::new
+     * @param codec        zamiana elementów na rekordy (klucz, dane)
+     * @throws IOException jeśli odczyt migawki lub dziennika się nie powiedzie
+     */
+    public DurablePriorityQueue(Path directory, Function<T[], PriorityQueue<T>> builder,
+            IntFunction<T[]> arrayFactory, OffHeapPriorityQueue.Codec<T> codec) throws IOException {
+        this(directory, builder, arrayFactory, codec, SyncPolicy.GROUP, DEFAULT_GROUP_SIZE,
+                DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    /**
+     * Otwiera kolejkę, odtwarzając stan z migawki i dziennika
+     *
+     * @param directory        katalog z migawką i dziennikiem (tworzony, jeśli
+     *                         nie istnieje)
+     * @param builder          budowanie kolejki z tablicy, np.
+     *                         BucketPriorityQueue::buildHeap
+     * @param arrayFactory     tworzenie tablicy elementów, np.
+     *                         IntElement[]::new
+     * @param codec            zamiana elementów na rekordy (klucz, dane)
+     * @param policy           kiedy dziennik jest utrwalany
+     * @param groupSize        liczba operacji w grupie (dla GROUP i NEVER)
+     * @param snapshotInterval liczba rekordów dziennika, po której
+     *                         wykonywana jest migawka
+     * @throws IOException              jeśli odczyt migawki lub dziennika się
+     *                                  nie powiedzie
+     * @throws IllegalArgumentException jeśli groupSize lub snapshotInterval
+     *                                  nie są dodatnie
+     */
+    public DurablePriorityQueue(Path directory, Function<T[], PriorityQueue<T>> builder,
+            IntFunction<T[]> arrayFactory, OffHeapPriorityQueue.Codec<T> codec, SyncPolicy policy, int groupSize,
+            long snapshotInterval) throws IOException {
+        if (groupSize <= 0 || snapshotInterval <= 0) {
+            throw new IllegalArgumentException("Rozmiar grupy i odstęp migawek muszą być dodatnie");
+        }
+        this.directory = Files.createDirectories(directory);
+        this.builder = Objects.requireNonNull(builder);
+        this.arrayFactory = Objects.requireNonNull(arrayFactory);
+        this.codec = Objects.requireNonNull(codec);
+        this.policy = Objects.requireNonNull(policy);
+        this.groupSize = groupSize;
+        this.snapshotInterval = snapshotInterval;
+        this.buffer = ByteBuffer.allocate(groupSize * MAX_RECORD_BYTES);
+        recover();
+    }
+
+    // Asymptotyczna złożoność pesymistyczna: jak w kolejce wewnętrznej +
+    // zapis rekordu (i migawka co snapshotInterval operacji)
+    @Override
+    public Position<T> insert(T element) {
+        checkOpen();
+        Position<T> position = delegate.insert(element);
+        int start = buffer.position();
+        buffer.put(INSERT);
+        count(putElement(element), 1);
+        commit(start);
+        return position;
+    }
+
+    @Override
+    public T findMin() {
+        checkOpen();
+        return delegate.findMin();
+    }
+
+    @Override
+    public T extractMin() {
+        checkOpen();
+        T min = delegate.extractMin();
+        int start = buffer.position();
+        buffer.put(EXTRACT_MIN);
+        count(putElement(min), -1);
+        commit(start);
+        return min;
+    }
+
+    @Override
+    public Position<T> decreaseKey(Position<T> position, T newElement) {
+        checkOpen();
+        T oldElement = position.getElement();
+        Position<T> newPosition = delegate.decreaseKey(position, newElement);
+        int start = buffer.position();
+        buffer.put(DECREASE_KEY);
+        count(putElement(oldElement), -1);
+        count(putElement(newElement), 1);
+        commit(start);
+        return newPosition;
+    }
+
+    /**
+     * Zmienia klucz w dowolną stronę jednym rekordem dziennika (stary i nowy
+     * element), aby awaria między usunięciem a wstawieniem nie gubiła
+     * elementu
+     */
+    @Override
+    public Position<T> updateKey(Position<T> position, T newElement) {
+        checkOpen();
+        T oldElement = position.getElement();
+        Position<T> newPosition = delegate.updateKey(position, newElement);
+        int start = buffer.position();
+        buffer.put(UPDATE_KEY);
+        count(putElement(oldElement), -1);
+        count(putElement(newElement), 1);
+        commit(start);
+        return newPosition;
+    }
+
+    @Override
+    public T remove(Position<T> position) {
+        checkOpen();
+        T removed = delegate.remove(position);
+        int start = buffer.position();
+        buffer.put(REMOVE);
+        count(putElement(removed), -1);
+        commit(start);
+        return removed;
+    }
+
+    /**
+     * Łączy kolejki; wynik nie jest trwały, a elementy drugiej kolejki są
+     * z niej usuwane (dla kolejki trwałej - z zapisem w jej dzienniku)
+     *
+     * @param other druga kolejka do połączenia
+     * @return nowa, nietrwała kolejka zawierająca elementy z obu kolejek
+     */
+    @Override
+    public PriorityQueue<T> merge(PriorityQueue<T> other) {
+        checkOpen();
+        return delegate.merge(other);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return delegate.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public void clear() {
+        checkOpen();
+        delegate.clear();
+        records.clear();
+        int start = buffer.position();
+        buffer.put(CLEAR);
+        commit(start);
+    }
+
+    /**
+     * Zapisuje i utrwala wszystkie oczekujące rekordy dziennika
+     */
+    public void sync() {
+        checkOpen();
+        try {
+            flush(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Zapisuje migawkę całej kolejki i zaczyna nowy dziennik
+     * Migawka powstaje w pliku tymczasowym i zastępuje poprzednią
+     * atomowo, więc przerwanie w dowolnym momencie zostawia spójny stan.
+     */
+    // Asymptotyczna złożoność pesymistyczna: O(n + d log d), średnia:
+    // O(n + d log d)
+    // gdzie d to liczba różnych rekordów; kolejka wewnętrzna nie jest czytana
+    public void snapshot() {
+        checkOpen();
+        try {
+            flush(true);
+            writeSnapshot(generation + 1);
+            log.close();
+            Files.deleteIfExists(logFile(generation));
+            generation++;
+            log = openLog(generation);
+            logRecords = 0;
+            snapshotCount++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Utrwala dziennik i zamyka pliki; kolejka przestaje być używalna
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        try {
+            flush(true);
+            log.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            closed = true;
+        }
+    }
+
+    /**
+     * Zwraca opakowywaną (nietrwałą) kolejkę
+     *
+     * @return kolejka wewnętrzna
+     */
+    public PriorityQueue<T> getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Zwraca liczbę rekordów w bieżącym dzienniku
+     *
+     * @return liczba rekordów od ostatniej migawki
+     */
+    public long getLogRecords() {
+        return logRecords;
+    }
+
+    /**
+     * Zwraca liczbę wywołań FileChannel.force na dzienniku
+     *
+     * @return liczba utrwaleń dziennika
+     */
+    public long getSyncCount() {
+        return syncCount;
+    }
+
+    /**
+     * Zwraca liczbę migawek wykonanych od otwarcia
+     *
+     * @return liczba migawek
+     */
+    public int getSnapshotCount() {
+        return snapshotCount;
+    }
+
+    /**
+     * Zwraca liczbę rekordów dziennika odtworzonych przy otwarciu
+     *
+     * @return liczba odtworzonych rekordów
+     */
+    public long getReplayedRecords() {
+        return replayedRecords;
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Kolejka została zamknięta");
+        }
+    }
+
+    private Record putElement(T element) {
+        Record record = new Record(element.wartość(), codec.encode(element));
+        buffer.putInt(record.key).putLong(record.payload);
+        return record;
+    }
+
+    private void count(Record record, int delta) {
+        records.merge(record, delta, (count, change) -> count + change == 0 ? null : count + change);
+    }
+
+    // Zamyka rekord sumą kontrolną i utrwala dziennik zgodnie z polityką
+    private void commit(int start) {
+        crc.reset();
+        crc.update(buffer.array(), start, buffer.position() - start);
+        buffer.putInt((int) crc.getValue());
+        pendingRecords++;
+        logRecords++;
+
+        try {
+            if (policy == SyncPolicy.ALWAYS || pendingRecords == groupSize) {
+                flush(policy != SyncPolicy.NEVER);
+            }
+            if (logRecords >= snapshotInterval) {
+                snapshot();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int recordLength(byte type) {
+        switch (type) {
+            case INSERT:
+            case EXTRACT_MIN:
+            case REMOVE:
+                return 1 + 12;
+            case DECREASE_KEY:
+            case UPDATE_KEY:
+                return 1 + 24;
+            case CLEAR:
+                return 1;
+            default:
+                throw new IllegalStateException("Nieznany typ rekordu dziennika: " + type);
+        }
+    }
+
+    private void flush(boolean force) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            log.write(buffer);
+        }
+        buffer.clear();
+        pendingRecords = 0;
+        if (force) {
+            log.force(false);
+            syncCount++;
+        }
+    }
+
+    private Path logFile(long logGeneration) {
+        return directory.resolve("wal-" + logGeneration + ".log");
+    }
+
+    private FileChannel openLog(long logGeneration) throws IOException {
+        return FileChannel.open(logFile(logGeneration), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    // Migawka: magic, generacja dziennika, liczba elementów, posortowane
+    // rekordy (klucz, dane)
+    private void writeSnapshot(long logGeneration) throws IOException {
+        Path temporary = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        List<Map.Entry<Record, Integer>> sorted = new ArrayList<>(records.entrySet());
+        sorted.sort(Map.Entry.comparingByKey());
+        ByteBuffer block = ByteBuffer.allocate(64 * 1024);
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            block.putInt(SNAPSHOT_MAGIC).putLong(logGeneration).putInt(delegate.size());
+            for (Map.Entry<Record, Integer> entry : sorted) {
+                Record record = entry.getKey();
+                for (int i = 0; i < entry.getValue(); i++) {
+                    if (block.remaining() < 12) {
+                        writeFully(channel, block);
+                    }
+                    block.putInt(record.key).putLong(record.payload);
+                }
+            }
+            writeFully(channel, block);
+            channel.force(true);
+        }
+        Files.move(temporary, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer block) throws IOException {
+        block.flip();
+        while (block.hasRemaining()) {
+            channel.write(block);
+        }
+        block.clear();
+    }
+
+    private void recover() throws IOException {
+        Path snapshotFile = directory.resolve(SNAPSHOT_FILE);
+        T[] elements = arrayFactory.apply(0);
+        generation = 0;
+        records.clear();
+        if (Files.exists(snapshotFile)) {
+            ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(snapshotFile));
+            if (data.remaining() < 16 || data.getInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Uszkodzona migawka: " + snapshotFile);
+            }
+            generation = data.getLong();
+            int count = data.getInt();
+            if (data.remaining() != 12L * count) {
+                throw new IOException("Uszkodzona migawka: " + snapshotFile);
+            }
+            elements = arrayFactory.apply(count);
+            for (int i = 0; i < count; i++) {
+                Record record = new Record(data.getInt(), data.getLong());
+                elements[i] = codec.decode(record.key, record.payload);
+                count(record, 1);
+            }
+            // Migawka jest posortowana, a BST zbudowane z posortowanych
+            // elementów degeneruje się do listy
+            Collections.shuffle(Arrays.asList(elements), new Random(generation));
+        }
+        delegate = builder.apply(elements);
+
+        // Dzienniki starszych generacji zostają po przerwanej migawce
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "wal-*.log")) {
+            for (Path file : files) {
+                if (!file.equals(logFile(generation))) {
+                    Files.delete(file);
+                }
+            }
+        }
+        replay();
+        log = openLog(generation);
+    }
+
+    // Odtwarza dziennik bieżącej generacji i odcina niepełny koniec
+    private void replay() throws IOException {
+        Path logPath = logFile(generation);
+        if (!Files.exists(logPath)) {
+            return;
+        }
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(logPath));
+        // Pozycje elementów według rekordu - potrzebne do decreaseKey
+        Map<Record, Deque<Position<T>>> positions = new HashMap<>();
+        int valid = 0;
+        while (data.remaining() > 0) {
+            byte type = data.get(valid);
+            int length;
+            try {
+                length = recordLength(type);
+            } catch (IllegalStateException e) {
+                break;
+            }
+            if (data.remaining() < length + 4) {
+                break;
+            }
+            crc.reset();
+            crc.update(data.array(), valid, length);
+            if ((int) crc.getValue() != data.getInt(valid + length)) {
+                break;
+            }
+
+            data.position(valid + 1);
+            switch (type) {
+                case INSERT: {
+                    Record record = new Record(data.getInt(), data.getLong());
+                    positions.computeIfAbsent(record, r -> new ArrayDeque<>())
+                            .add(delegate.insert(codec.decode(record.key, record.payload)));
+                    count(record, 1);
+                    break;
+                }
+                case EXTRACT_MIN: {
+                    Record record = new Record(data.getInt(), data.getLong());
+                    extractRecord(record, positions);
+                    count(record, -1);
+                    break;
+                }
+                case DECREASE_KEY:
+                case UPDATE_KEY: {
+                    Record old = new Record(data.getInt(), data.getLong());
+                    Position<T> position = validPosition(positions, old);
+                    Record record = new Record(data.getInt(), data.getLong());
+                    T element = codec.decode(record.key, record.payload);
+                    positions.computeIfAbsent(record, r -> new ArrayDeque<>()).add(type == DECREASE_KEY
+                            ? delegate.decreaseKey(position, element)
+                            : delegate.updateKey(position, element));
+                    count(old, -1);
+                    count(record, 1);
+                    break;
+                }
+                case REMOVE: {
+                    Record record = new Record(data.getInt(), data.getLong());
+                    Position<T> position = trackedPosition(positions, record);
+                    if (position != null) {
+                        delegate.remove(position);
+                    } else {
+                        extractRecord(record, positions);
+                    }
+                    count(record, -1);
+                    break;
+                }
+                default:
+                    delegate.clear();
+                    positions.clear();
+                    records.clear();
+                    break;
+            }
+            valid += length + 4;
+            data.position(valid);
+            logRecords++;
+        }
+        replayedRecords = logRecords;
+
+        if (valid < data.limit()) {
+            try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.WRITE)) {
+                channel.truncate(valid);
+                channel.force(true);
+            }
+        }
+    }
+
+    // extractMin kolejki wewnętrznej może zwrócić inny element o tym samym
+    // priorytecie niż przed awarią (migawka zmienia układ struktury), więc
+    // elementy są wyjmowane aż do właściwego, a pozostałe wstawiane ponownie
+    private T extractRecord(Record expected, Map<Record, Deque<Position<T>>> positions) {
+        List<T> others = new ArrayList<>();
+        T min;
+        while (true) {
+            min = delegate.extractMin();
+            if (min.wartość() == expected.key && codec.encode(min) == expected.payload) {
+                break;
+            }
+            others.add(min);
+        }
+        for (T element : others) {
+            positions.computeIfAbsent(new Record(element.wartość(), codec.encode(element)),
+                    r -> new ArrayDeque<>()).add(delegate.insert(element));
+        }
+        return min;
+    }
+
+    private Position<T> validPosition(Map<Record, Deque<Position<T>>> positions, Record record) {
+        Position<T> position = trackedPosition(positions, record);
+        if (position != null) {
+            return position;
+        }
+        // Element z migawki - pozycja znana dopiero po wstawieniu go ponownie
+        return delegate.insert(extractRecord(record, positions));
+    }
+
+    // Ważna pozycja elementu wstawionego podczas odtwarzania albo null
+    private Position<T> trackedPosition(Map<Record, Deque<Position<T>>> positions, Record record) {
+        Deque<Position<T>> candidates = positions.get(record);
+        while (candidates != null && !candidates.isEmpty()) {
+            Position<T> position = candidates.poll();
+            if (position.isValid()) {
+                return position;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Rekord (klucz, dane): klucz mapy pozycji przy odtwarzaniu i element
+     * multizbioru zawartości; porządek jak w migawce
+     */
+    private static final class Record implements Comparable<Record> {
+        final int key;
+        final long payload;
+
+        Record(int key, long payload) {
+            this.key = key;
+            this.payload = payload;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Record && ((Record) other).key == key && ((Record) other).payload == payload;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * key + Long.hashCode(payload);
+        }
+
+        @Override
+        public int compareTo(Record other) {
+            return key != other.key ? Integer.compare(key, other.key) : Long.compare(payload, other.payload);
+        }
+    }
+}
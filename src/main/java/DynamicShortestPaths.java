@@ -0,0 +1,239 @@
+import java.util.*;
+
+/**
+ * Drzewo najkrótszych ścieżek z jednego źródła naprawiane przyrostowo po
+ * zmianach grafu (w stylu algorytmu Ramalingama-Repsa)
+ *
+ * Obiekt subskrybuje zmiany krawędzi grafu:
+ * - zmniejszenie wagi lub nowa krawędź: poprawa propagowana kolejką
+ * priorytetową od wierzchołka docelowego krawędzi
+ * - zwiększenie wagi lub usunięcie krawędzi drzewa: poddrzewo jej końca jest
+ * unieważniane i ponownie ustalane z krawędzi wchodzących spoza poddrzewa
+ *
+ * Koszt aktualizacji jest proporcjonalny do liczby wierzchołków, których
+ * odległość się zmienia (i ich krawędzi), a nie do rozmiaru grafu.
+ */
+public class DynamicShortestPaths implements WeightedGraph.GraphListener, AutoCloseable {
+
+    private static final int INFINITY = Integer.MAX_VALUE;
+
+    private final WeightedGraph graph;
+    private final int source;
+    private final PriorityQueue<WeightedGraph.DijkstraNode> queue;
+    private final int[] distances;
+    private final int[] predecessors;
+    // Krawędzie wchodzące: incoming[v] = (poprzednik -> waga), tworzone leniwie
+    private final Map<Integer, Integer>[] incoming;
+    private int lastUpdateWork;
+
+    /**
+     * Oblicza drzewo najkrótszych ścieżek i zaczyna śledzić zmiany grafu
+     *
+     * @param graph             graf
+     * @param source            wierzchołek źródłowy
+     * @param priorityQueueType numer typu kolejki z PriorityQueueRegistry
+     * @throws IllegalArgumentException jeśli wierzchołek źródłowy nie istnieje
+     */
+    @SuppressWarnings("unchecked")
+    public DynamicShortestPaths(WeightedGraph graph, int source, int priorityQueueType) {
+        if (!graph.getVertices().contains(source)) {
+            throw new IllegalArgumentException("Wierzchołek źródłowy nie istnieje w grafie");
+        }
+
+        this.graph = graph;
+        this.source = source;
+        this.queue = WeightedGraph.newPriorityQueue(priorityQueueType);
+        this.distances = new int[graph.getMaxVertices()];
+        this.predecessors = new int[graph.getMaxVertices()];
+        this.incoming = new Map[graph.getMaxVertices()];
+
+        for (int vertex : graph.getVertices()) {
+            for (WeightedGraph.Edge edge : graph.outgoingEdges(vertex)) {
+                incomingOf(edge.getDestination()).put(vertex, edge.getWeight());
+            }
+        }
+
+        reset();
+        propagate();
+        graph.addGraphListener(this);
+    }
+
+    private void reset() {
+        Arrays.fill(distances, INFINITY);
+        Arrays.fill(predecessors, -1);
+        queue.clear();
+        distances[source] = 0;
+        queue.insert(new WeightedGraph.DijkstraNode(source, 0));
+    }
+
+    private Map<Integer, Integer> incomingOf(int vertex) {
+        if (incoming[vertex] == null) {
+            incoming[vertex] = new HashMap<>();
+        }
+        return incoming[vertex];
+    }
+
+    @Override
+    public void edgeChanged(int from, int to, int oldWeight, int newWeight) {
+        lastUpdateWork = 0;
+
+        if (newWeight == -1) {
+            incomingOf(to).remove(from);
+        } else {
+            incomingOf(to).put(from, newWeight);
+        }
+
+        boolean decreased = newWeight != -1 && (oldWeight == -1 || newWeight < oldWeight);
+        if (decreased) {
+            if (distances[from] != INFINITY && distances[from] + newWeight < distances[to]) {
+                distances[to] = distances[from] + newWeight;
+                predecessors[to] = from;
+                queue.insert(new WeightedGraph.DijkstraNode(to, distances[to]));
+                propagate();
+            }
+        } else if (oldWeight != -1 && predecessors[to] == from) {
+            // Wzrost wagi lub usunięcie krawędzi drzewa
+            repairSubtree(to);
+        }
+    }
+
+    @Override
+    public void graphCleared() {
+        Arrays.fill(incoming, null);
+        reset();
+        lastUpdateWork = 0;
+        propagate();
+    }
+
+    /**
+     * Unieważnia poddrzewo wierzchołka i ustala jego odległości na nowo
+     */
+    private void repairSubtree(int root) {
+        // Zbierz poddrzewo: dzieci x to sąsiedzi y, dla których predecessors[y] == x
+        List<Integer> affected = new ArrayList<>();
+        Set<Integer> inSubtree = new HashSet<>();
+        affected.add(root);
+        inSubtree.add(root);
+        for (int i = 0; i < affected.size(); i++) {
+            int vertex = affected.get(i);
+            for (WeightedGraph.Edge edge : graph.outgoingEdges(vertex)) {
+                int child = edge.getDestination();
+                if (predecessors[child] == vertex && inSubtree.add(child)) {
+                    affected.add(child);
+                }
+            }
+        }
+
+        for (int vertex : affected) {
+            distances[vertex] = INFINITY;
+            predecessors[vertex] = -1;
+        }
+
+        // Najlepsza krawędź wchodząca spoza poddrzewa staje się punktem startu
+        for (int vertex : affected) {
+            Map<Integer, Integer> edges = incoming[vertex];
+            if (edges == null) {
+                continue;
+            }
+            for (Map.Entry<Integer, Integer> edge : edges.entrySet()) {
+                int from = edge.getKey();
+                if (inSubtree.contains(from) || distances[from] == INFINITY) {
+                    continue;
+                }
+                int candidate = distances[from] + edge.getValue();
+                if (candidate < distances[vertex]) {
+                    distances[vertex] = candidate;
+                    predecessors[vertex] = from;
+                }
+            }
+            if (distances[vertex] != INFINITY) {
+                queue.insert(new WeightedGraph.DijkstraNode(vertex, distances[vertex]));
+            }
+        }
+
+        lastUpdateWork += affected.size();
+        propagate();
+    }
+
+    /**
+     * Propaguje poprawione odległości jak w algorytmie Dijkstry, zaczynając od
+     * wierzchołków znajdujących się w kolejce
+     */
+    private void propagate() {
+        while (!queue.isEmpty()) {
+            WeightedGraph.DijkstraNode current = queue.extractMin();
+            int vertex = current.getVertex();
+
+            // Pomiń nieaktualne wpisy
+            if (current.getDistance() != distances[vertex]) {
+                continue;
+            }
+            lastUpdateWork++;
+
+            for (WeightedGraph.Edge edge : graph.outgoingEdges(vertex)) {
+                int neighbor = edge.getDestination();
+                int newDistance = distances[vertex] + edge.getWeight();
+                if (newDistance < distances[neighbor]) {
+                    distances[neighbor] = newDistance;
+                    predecessors[neighbor] = vertex;
+                    queue.insert(new WeightedGraph.DijkstraNode(neighbor, newDistance));
+                }
+            }
+        }
+    }
+
+    /**
+     * Zwraca bieżącą odległość od źródła
+     *
+     * @param vertex wierzchołek docelowy
+     * @return odległość lub Integer.MAX_VALUE jeśli nieosiągalny
+     */
+    public int getDistance(int vertex) {
+        return vertex >= 0 && vertex < distances.length ? distances[vertex] : INFINITY;
+    }
+
+    /**
+     * Zwraca poprzednika wierzchołka w drzewie najkrótszych ścieżek
+     *
+     * @param vertex wierzchołek
+     * @return poprzednik lub -1
+     */
+    public int getPredecessor(int vertex) {
+        return vertex >= 0 && vertex < predecessors.length ? predecessors[vertex] : -1;
+    }
+
+    public int getSource() {
+        return source;
+    }
+
+    /**
+     * Zwraca liczbę wierzchołków przetworzonych przy ostatniej aktualizacji
+     * (miara kosztu naprawy)
+     *
+     * @return liczba przetworzonych wierzchołków
+     */
+    public int getLastUpdateWork() {
+        return lastUpdateWork;
+    }
+
+    /**
+     * Tworzy migawkę bieżącego stanu w postaci wyniku algorytmu Dijkstry
+     *
+     * @return wynik dla bieżącej wersji grafu
+     */
+    public WeightedGraph.DijkstraResult toResult() {
+        BitSet vertices = new BitSet(distances.length);
+        for (int vertex : graph.getVertices()) {
+            vertices.set(vertex);
+        }
+        return new WeightedGraph.DijkstraResult(source, distances.clone(), predecessors.clone(), vertices);
+    }
+
+    /**
+     * Kończy śledzenie zmian grafu
+     */
+    @Override
+    public void close() {
+        graph.removeGraphListener(this);
+    }
+}
@@ -0,0 +1,575 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Kolejka priorytetowa w pamięci zewnętrznej (z zapisem na dysk)
+ *
+ * Nowe elementy trafiają do kopca w pamięci o ograniczonej pojemności. Gdy
+ * kopiec się zapełni, jego zawartość jest zapisywana jako posortowana seria
+ * do pliku tymczasowego. extractMin porównuje minimum kopca z najmniejszym
+ * z bieżących elementów serii; każda seria jest czytana sekwencyjnie
+ * blokami (bufor bloku pełni rolę bufora usuwania). Gdy serii jest więcej,
+ * niż mieści się buforów w budżecie, najkrótsze z nich są scalane w jedną -
+ * również sekwencyjnie.
+ *
+ * Budżet pamięci dzielony jest po połowie między kopiec (12 bajtów na
+ * element) i bufory bloków serii. Elementy są zapisywane przez
+ * OffHeapPriorityQueue.Codec; równe klucze są porządkowane według danych.
+ * Pozycje elementów nie są śledzone, więc decreaseKey nie jest obsługiwane.
+ *
+ * @param <T> typ elementów
+ */
+public class ExternalPriorityQueue<T extends Comparable<T> & HasValue>
+        implements PriorityQueue<T>, AutoCloseable {
+
+    /**
+     * Domyślny rozmiar bloku odczytu i zapisu serii
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+
+    private static final int RECORD_BYTES = 12;
+
+    private final OffHeapPriorityQueue.Codec<T> codec;
+    private final long memoryBudget;
+    private final int blockSize;
+    private final Path directory;
+    // Katalog utworzony przez kolejkę - usuwany w close()
+    private final boolean ownsDirectory;
+    private final int heapCapacity;
+    private final int maxRuns;
+
+    // Kopiec binarny w pamięci
+    private final int[] heapKeys;
+    private final long[] heapPayloads;
+    private int heapSize;
+
+    // Serie uporządkowane według bieżącego elementu (najmniejszy na początku)
+    private final java.util.PriorityQueue<Run> runs = new java.util.PriorityQueue<>();
+    private long runElements;
+
+    private long bytesWritten;
+    private long bytesRead;
+    private int spillCount;
+    private int runMergeCount;
+    private boolean closed;
+
+    /**
+     * Tworzy kolejkę z domyślnym rozmiarem bloku, zapisującą serie
+     * w nowym katalogu tymczasowym (usuwanym w close())
+     *
+     * @param codec        zamiana elementów na rekordy (klucz, dane)
+     * @param memoryBudget budżet pamięci w bajtach
+     * @throws IOException jeśli katalog tymczasowy jest niedostępny
+     */
+    public ExternalPriorityQueue(OffHeapPriorityQueue.Codec<T> codec, long memoryBudget) throws IOException {
+        // Budżet sprawdzany przed utworzeniem katalogu, aby go nie zostawić
+        this(codec, checkBudget(memoryBudget, DEFAULT_BLOCK_SIZE), DEFAULT_BLOCK_SIZE,
+                Files.createTempDirectory("priority-queue"), true);
+    }
+
+    /**
+     * Tworzy kolejkę
+     *
+     * @param codec        zamiana elementów na rekordy (klucz, dane)
+     * @param memoryBudget budżet pamięci w bajtach (co najmniej 4 bloki)
+     * @param blockSize    rozmiar bloku odczytu i zapisu w bajtach
+     * @param directory    katalog na pliki serii
+     * @throws IllegalArgumentException jeśli budżet jest mniejszy niż 4 bloki
+     *                                  lub blok mniejszy niż rekord
+     */
+    public ExternalPriorityQueue(OffHeapPriorityQueue.Codec<T> codec, long memoryBudget, int blockSize,
+            Path directory) {
+        this(codec, checkBudget(memoryBudget, blockSize), blockSize, directory, false);
+    }
+
+    private ExternalPriorityQueue(OffHeapPriorityQueue.Codec<T> codec, long memoryBudget, int blockSize,
+            Path directory, boolean ownsDirectory) {
+        this.codec = Objects.requireNonNull(codec);
+        this.memoryBudget = memoryBudget;
+        this.blockSize = blockSize;
+        this.directory = Objects.requireNonNull(directory);
+        this.ownsDirectory = ownsDirectory;
+        this.heapCapacity = (int) Math.min(Integer.MAX_VALUE - 8, memoryBudget / 2 / RECORD_BYTES);
+        // Jeden blok zostaje na zapis serii
+        this.maxRuns = (int) Math.max(2, Math.min(Integer.MAX_VALUE, memoryBudget / 2 / blockSize - 1));
+        this.heapKeys = new int[heapCapacity];
+        this.heapPayloads = new long[heapCapacity];
+    }
+
+    private static long checkBudget(long memoryBudget, int blockSize) {
+        if (blockSize < RECORD_BYTES || memoryBudget < 4L * blockSize) {
+            throw new IllegalArgumentException("Budżet pamięci musi mieścić co najmniej 4 bloki");
+        }
+        return memoryBudget;
+    }
+
+    // Asymptotyczna złożoność pesymistyczna: O(M log M) przy zapisie serii,
+    // średnia: O(log M) + O(1/B) operacji wejścia-wyjścia
+    // gdzie M to pojemność kopca, a B liczba rekordów w bloku
+    @Override
+    public Position<T> insert(T element) {
+        checkOpen();
+        if (element.wartość() < 0 || element.wartość() > N) {
+            throw new IllegalArgumentException("Element value must be in range [0, " + N + "]");
+        }
+        insertRaw(element.wartość(), codec.encode(element));
+        return new UntrackedPosition<>(element);
+    }
+
+    private void insertRaw(int key, long payload) {
+        if (heapSize == heapCapacity) {
+            spill();
+        }
+        int index = heapSize++;
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (!less(key, payload, heapKeys[parent], heapPayloads[parent])) {
+                break;
+            }
+            heapKeys[index] = heapKeys[parent];
+            heapPayloads[index] = heapPayloads[parent];
+            index = parent;
+        }
+        heapKeys[index] = key;
+        heapPayloads[index] = payload;
+    }
+
+    // Asymptotyczna złożoność pesymistyczna: O(1), średnia: O(1)
+    @Override
+    public T findMin() {
+        checkOpen();
+        if (isEmpty()) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        Run run = runs.peek();
+        if (run != null && (heapSize == 0 || run.compareTo(heapKeys[0], heapPayloads[0]) < 0)) {
+            return codec.decode(run.key, run.payload);
+        }
+        return codec.decode(heapKeys[0], heapPayloads[0]);
+    }
+
+    // Asymptotyczna złożoność pesymistyczna: O(log M + log r), średnia:
+    // O(log M + log r) + O(1/B) operacji wejścia-wyjścia, gdzie r to liczba
+    // serii
+    @Override
+    public T extractMin() {
+        checkOpen();
+        if (isEmpty()) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+
+        Run run = runs.peek();
+        if (run != null && (heapSize == 0 || run.compareTo(heapKeys[0], heapPayloads[0]) < 0)) {
+            runs.poll();
+            T min = codec.decode(run.key, run.payload);
+            runElements--;
+            if (run.advance()) {
+                runs.add(run);
+            } else {
+                run.delete();
+            }
+            return min;
+        }
+
+        T min = codec.decode(heapKeys[0], heapPayloads[0]);
+        removeHeapMin();
+        return min;
+    }
+
+    private void removeHeapMin() {
+        heapSize--;
+        int key = heapKeys[heapSize];
+        long payload = heapPayloads[heapSize];
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize
+                    && less(heapKeys[child + 1], heapPayloads[child + 1], heapKeys[child], heapPayloads[child])) {
+                child++;
+            }
+            if (!less(heapKeys[child], heapPayloads[child], key, payload)) {
+                break;
+            }
+            heapKeys[index] = heapKeys[child];
+            heapPayloads[index] = heapPayloads[child];
+            index = child;
+        }
+        heapKeys[index] = key;
+        heapPayloads[index] = payload;
+    }
+
+    @Override
+    public Position<T> decreaseKey(Position<T> position, T newElement) {
+        throw new UnsupportedOperationException("ExternalPriorityQueue nie śledzi pozycji elementów");
+    }
+
+    /**
+     * Tworzy kolejkę ze wszystkich elementów tablicy
+     *
+     * @param elements     elementy (wartości z [0, N])
+     * @param codec        zamiana elementów na rekordy (klucz, dane)
+     * @param memoryBudget budżet pamięci w bajtach
+     * @return nowa kolejka
+     * @throws IOException jeśli katalog tymczasowy jest niedostępny
+     */
+    // Asymptotyczna złożoność pesymistyczna: O(n log M), średnia: O(n log M)
+    public static <T extends Comparable<T> & HasValue> ExternalPriorityQueue<T> buildHeap(T[] elements,
+            OffHeapPriorityQueue.Codec<T> codec, long memoryBudget) throws IOException {
+        ExternalPriorityQueue<T> pq = new ExternalPriorityQueue<>(codec, memoryBudget);
+        for (T element : elements) {
+            pq.insert(element);
+        }
+        return pq;
+    }
+
+    // Asymptotyczna złożoność pesymistyczna: O((n + m) log M), średnia:
+    // O((n + m) log M)
+    // Rekordy serii tej kolejki są kopiowane sekwencyjnie bez dekodowania
+    @Override
+    public PriorityQueue<T> merge(PriorityQueue<T> other) {
+        checkOpen();
+        ExternalPriorityQueue<T> result;
+        if (ownsDirectory) {
+            // Wynik dostaje własny katalog - każda kolejka usuwa swój w close()
+            try {
+                result = new ExternalPriorityQueue<>(codec, memoryBudget, blockSize,
+                        Files.createTempDirectory("priority-queue"), true);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        } else {
+            result = new ExternalPriorityQueue<>(codec, memoryBudget, blockSize, directory);
+        }
+
+        for (int i = 0; i < heapSize; i++) {
+            result.insertRaw(heapKeys[i], heapPayloads[i]);
+        }
+        for (Run run : runs) {
+            run.copyTo(result);
+        }
+
+        while (!other.isEmpty()) {
+            result.insert(other.extractMin());
+        }
+        return result;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Zwraca liczbę elementów w kolejce
+     *
+     * @return rozmiar kolejki (obcięty do Integer.MAX_VALUE)
+     */
+    @Override
+    public int size() {
+        return (int) Math.min(Integer.MAX_VALUE, heapSize + runElements);
+    }
+
+    @Override
+    public void clear() {
+        checkOpen();
+        for (Run run : runs) {
+            run.delete();
+        }
+        runs.clear();
+        runElements = 0;
+        heapSize = 0;
+    }
+
+    /**
+     * Usuwa pliki serii i katalog utworzony przez kolejkę; kolejka przestaje
+     * być używalna
+     *
+     * @throws UncheckedIOException jeśli nie można usunąć plików
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            clear();
+            closed = true;
+            if (ownsDirectory) {
+                try {
+                    Files.deleteIfExists(directory);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Zwraca katalog plików serii
+     *
+     * @return katalog podany w konstruktorze albo utworzony przez kolejkę
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Zwraca liczbę bajtów zapisanych do plików serii
+     *
+     * @return liczba zapisanych bajtów
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Zwraca liczbę bajtów odczytanych z plików serii
+     *
+     * @return liczba odczytanych bajtów
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * Zwraca liczbę zapisów kopca w pamięci jako serii
+     *
+     * @return liczba zapisanych serii
+     */
+    public int getSpillCount() {
+        return spillCount;
+    }
+
+    /**
+     * Zwraca liczbę scaleń serii
+     *
+     * @return liczba scaleń
+     */
+    public int getRunMergeCount() {
+        return runMergeCount;
+    }
+
+    /**
+     * Zwraca liczbę serii na dysku
+     *
+     * @return liczba serii
+     */
+    public int getRunCount() {
+        return runs.size();
+    }
+
+    /**
+     * Zwraca pojemność kopca w pamięci
+     *
+     * @return maksymalna liczba elementów w pamięci
+     */
+    public int getHeapCapacity() {
+        return heapCapacity;
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Kolejka została zamknięta");
+        }
+    }
+
+    private static boolean less(int key, long payload, int otherKey, long otherPayload) {
+        return key < otherKey || key == otherKey && payload < otherPayload;
+    }
+
+    // Zapisuje zawartość kopca jako posortowaną serię
+    private void spill() {
+        try {
+            Path file = Files.createTempFile(directory, "run", ".bin");
+            int count = heapSize;
+            try (RunWriter writer = new RunWriter(file)) {
+                while (heapSize > 0) {
+                    writer.write(heapKeys[0], heapPayloads[0]);
+                    removeHeapMin();
+                }
+            }
+            addRun(new Run(file, count));
+            spillCount++;
+
+            if (runs.size() > maxRuns) {
+                mergeRuns();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void addRun(Run run) {
+        runElements += run.remaining + 1;
+        runs.add(run);
+    }
+
+    // Scala najkrótsze serie w jedną (k-drożnie, każda seria czytana
+    // blokami); scalanie serii podobnej długości daje O(log(n / M)) zapisów
+    // każdego elementu zamiast O(n / M) przy scalaniu wszystkich serii
+    private void mergeRuns() throws IOException {
+        List<Run> all = new ArrayList<>(runs);
+        all.sort(Comparator.comparingLong(run -> run.remaining));
+        java.util.PriorityQueue<Run> merging = new java.util.PriorityQueue<>(all.subList(0, maxRuns / 2 + 1));
+        runs.removeAll(merging);
+
+        Path file = Files.createTempFile(directory, "run", ".bin");
+        long count = 0;
+        try (RunWriter writer = new RunWriter(file)) {
+            while (!merging.isEmpty()) {
+                Run run = merging.poll();
+                writer.write(run.key, run.payload);
+                count++;
+                if (run.advance()) {
+                    merging.add(run);
+                } else {
+                    run.delete();
+                }
+            }
+        }
+        runElements -= count;
+        addRun(new Run(file, count));
+        runMergeCount++;
+    }
+
+    /**
+     * Sekwencyjny zapis rekordów serii blokami
+     */
+    private final class RunWriter implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(blockSize - blockSize % RECORD_BYTES);
+
+        RunWriter(Path file) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        void write(int key, long payload) throws IOException {
+            if (buffer.remaining() < RECORD_BYTES) {
+                flush();
+            }
+            buffer.putInt(key).putLong(payload);
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                bytesWritten += channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Seria na dysku z bieżącym (najmniejszym nieodczytanym) rekordem
+     */
+    private final class Run implements Comparable<Run> {
+        private final Path file;
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(blockSize - blockSize % RECORD_BYTES);
+        // Rekordy za bieżącym
+        private long remaining;
+        // Pozycja bieżącego rekordu w pliku
+        private long offset = -RECORD_BYTES;
+        int key;
+        long payload;
+
+        Run(Path file, long count) throws IOException {
+            this.file = file;
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            this.remaining = count;
+            buffer.flip();
+            advance();
+        }
+
+        // Przechodzi do następnego rekordu; false, jeśli seria się skończyła
+        boolean advance() {
+            if (remaining == 0) {
+                return false;
+            }
+            try {
+                if (buffer.remaining() < RECORD_BYTES) {
+                    buffer.compact();
+                    while (buffer.position() < RECORD_BYTES) {
+                        int read = channel.read(buffer);
+                        if (read < 0) {
+                            throw new IOException("Nieoczekiwany koniec pliku serii " + file);
+                        }
+                        bytesRead += read;
+                    }
+                    buffer.flip();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            key = buffer.getInt();
+            payload = buffer.getLong();
+            offset += RECORD_BYTES;
+            remaining--;
+            return true;
+        }
+
+        // Kopiuje bieżący i pozostałe rekordy do innej kolejki
+        void copyTo(ExternalPriorityQueue<T> target) {
+            try (FileChannel copy = FileChannel.open(file, StandardOpenOption.READ)) {
+                ByteBuffer block = ByteBuffer.allocate(buffer.capacity());
+                long position = offset;
+                long records = remaining + 1;
+                while (records > 0) {
+                    block.clear();
+                    block.limit((int) Math.min(block.capacity(), records * RECORD_BYTES));
+                    while (block.hasRemaining()) {
+                        int read = copy.read(block, position);
+                        if (read < 0) {
+                            throw new IOException("Nieoczekiwany koniec pliku serii " + file);
+                        }
+                        position += read;
+                        bytesRead += read;
+                    }
+                    block.flip();
+                    while (block.hasRemaining()) {
+                        target.insertRaw(block.getInt(), block.getLong());
+                        records--;
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void delete() {
+            try {
+                channel.close();
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        int compareTo(int otherKey, long otherPayload) {
+            if (less(key, payload, otherKey, otherPayload)) {
+                return -1;
+            }
+            return key == otherKey && payload == otherPayload ? 0 : 1;
+        }
+
+        @Override
+        public int compareTo(Run other) {
+            return compareTo(other.key, other.payload);
+        }
+    }
+}
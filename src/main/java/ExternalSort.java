@@ -0,0 +1,419 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Sortowanie zewnętrzne plików liczb z przedziału [0, N] większych niż
+ * pamięć
+ *
+ * Plik to ciąg liczb int zapisanych binarnie (4 bajty, big-endian, jak
+ * w DataOutputStream). Dostępne są dwie metody:
+ * - REPLACEMENT_SELECTION: serie są tworzone przez wybór z zastępowaniem na
+ * kolejce priorytetowej z PriorityQueueRegistry - element wczytany w miejsce
+ * wypisanego trafia do bieżącej serii, jeśli nie jest mniejszy od ostatnio
+ * wypisanego, a w przeciwnym razie czeka w drugiej kolejce na następną
+ * serię. Dla losowych danych serie mają średnio dwukrotność pojemności
+ * pamięci. Serie są scalane drzewem przegranych (IntLoserTree) po co
+ * najwyżej fanIn naraz, w jednym lub kilku przebiegach.
+ * - COUNTING: klucze mieszczą się w [0, N], więc wystarczy policzyć
+ * wystąpienia każdej wartości w jednym odczycie i wypisać je po kolei -
+ * bez serii i scalania, w pamięci O(N).
+ *
+ * Pliki serii są zapisywane i czytane blokami przez FileChannel.
+ */
+public class ExternalSort {
+
+    /**
+     * Metoda sortowania
+     */
+    public enum Method {
+        REPLACEMENT_SELECTION,
+        COUNTING
+    }
+
+    public static final int DEFAULT_MEMORY_ELEMENTS = 1 << 20;
+    public static final int DEFAULT_FAN_IN = 64;
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 16;
+
+    private static final int INT_BYTES = Integer.BYTES;
+
+    private final int priorityQueueType;
+    private final int memoryElements;
+    private final int fanIn;
+    private final int blockSize;
+    private final Path directory;
+
+    /**
+     * Tworzy sortowanie z domyślnymi parametrami
+     *
+     * @param directory katalog na pliki serii
+     */
+    public ExternalSort(Path directory) {
+        this(PriorityQueueRegistry.AUTO, DEFAULT_MEMORY_ELEMENTS, DEFAULT_FAN_IN, DEFAULT_BLOCK_SIZE, directory);
+    }
+
+    /**
+     * Tworzy sortowanie
+     *
+     * @param priorityQueueType typ kolejki używanej do tworzenia serii (jak
+     *                          w PriorityQueueRegistry, AUTO = wybór
+     *                          automatyczny)
+     * @param memoryElements    maksymalna liczba elementów w kolejkach
+     * @param fanIn             maksymalna liczba serii scalanych naraz
+     * @param blockSize         rozmiar bloku odczytu i zapisu w bajtach
+     * @param directory         katalog na pliki serii
+     * @throws IllegalArgumentException jeśli memoryElements nie jest
+     *                                  dodatnie, fanIn jest mniejsze od 2
+     *                                  lub blok jest mniejszy niż jedna
+     *                                  liczba
+     */
+    public ExternalSort(int priorityQueueType, int memoryElements, int fanIn, int blockSize, Path directory) {
+        if (memoryElements <= 0) {
+            throw new IllegalArgumentException("Pojemność pamięci musi być dodatnia");
+        }
+        if (fanIn < 2) {
+            throw new IllegalArgumentException("Scalanie wymaga co najmniej 2 serii naraz");
+        }
+        if (blockSize < INT_BYTES) {
+            throw new IllegalArgumentException("Blok musi mieścić co najmniej jedną liczbę");
+        }
+        PriorityQueueRegistry.resolve(priorityQueueType, hints(memoryElements));
+        this.priorityQueueType = priorityQueueType;
+        this.memoryElements = memoryElements;
+        this.fanIn = fanIn;
+        this.blockSize = blockSize - blockSize % INT_BYTES;
+        this.directory = Objects.requireNonNull(directory);
+    }
+
+    // Wyjmowane klucze w serii nie maleją; bez decreaseKey i merge
+    private static PriorityQueueFactory.Hints hints(int memoryElements) {
+        return new PriorityQueueFactory.Hints(PriorityQueue.N, memoryElements, true, false, false);
+    }
+
+    /**
+     * Sortuje plik
+     *
+     * @param input  plik wejściowy
+     * @param output plik wynikowy (nadpisywany)
+     * @param method metoda sortowania
+     * @return statystyki sortowania
+     * @throws IOException              jeśli odczyt lub zapis się nie
+     *                                  powiedzie albo długość pliku nie jest
+     *                                  wielokrotnością 4 bajtów
+     * @throws IllegalArgumentException jeśli plik zawiera liczbę spoza
+     *                                  [0, N]
+     */
+    public Result sort(Path input, Path output, Method method) throws IOException {
+        long startTime = System.nanoTime();
+        Result result = new Result(Files.size(input));
+        try {
+            if (method == Method.COUNTING) {
+                countingSort(input, output, result);
+            } else {
+                List<Path> runs = generateRuns(input, result);
+                mergeRuns(runs, output, result);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        result.nanos = System.nanoTime() - startTime;
+        return result;
+    }
+
+    // Asymptotyczna złożoność pesymistyczna: O(n + N), średnia: O(n + N)
+    private void countingSort(Path input, Path output, Result result) throws IOException {
+        long[] counts = new long[PriorityQueue.N + 1];
+        try (IntReader reader = new IntReader(input)) {
+            while (reader.hasNext()) {
+                counts[checkValue(reader.nextInt(), result)]++;
+                result.elements++;
+            }
+        }
+        try (IntWriter writer = new IntWriter(output)) {
+            for (int value = 0; value <= PriorityQueue.N; value++) {
+                for (long i = 0; i < counts[value]; i++) {
+                    writer.write(value);
+                }
+            }
+        }
+    }
+
+    private static int checkValue(int value, Result result) {
+        if (value < 0 || value > PriorityQueue.N) {
+            throw new IllegalArgumentException("Liczba " + value + " na pozycji " + result.elements
+                    + " jest spoza przedziału [0, " + PriorityQueue.N + "]");
+        }
+        return value;
+    }
+
+    // Wybór z zastępowaniem: next zbiera elementy mniejsze od ostatnio
+    // wypisanego, a po wyczerpaniu bieżącej serii zamienia się z current;
+    // razem kolejki nigdy nie przekraczają memoryElements
+    // Asymptotyczna złożoność pesymistyczna: n razy koszt insert i extractMin
+    private List<Path> generateRuns(Path input, Result result) throws IOException {
+        List<Path> runs = new ArrayList<>();
+        PriorityQueue<Main.IntElement> current = PriorityQueueRegistry.create(priorityQueueType,
+                hints(memoryElements));
+        PriorityQueue<Main.IntElement> next = PriorityQueueRegistry.create(priorityQueueType,
+                hints(memoryElements));
+        try (IntReader reader = new IntReader(input)) {
+            while (current.size() < memoryElements && reader.hasNext()) {
+                current.insert(new Main.IntElement(checkValue(reader.nextInt(), result)));
+                result.elements++;
+            }
+            while (!current.isEmpty()) {
+                Path file = Files.createTempFile(directory, "sort-run", ".bin");
+                runs.add(file);
+                try (IntWriter writer = new IntWriter(file)) {
+                    while (!current.isEmpty()) {
+                        int value = current.extractMin().wartość();
+                        writer.write(value);
+                        if (reader.hasNext()) {
+                            int incoming = checkValue(reader.nextInt(), result);
+                            result.elements++;
+                            (incoming >= value ? current : next).insert(new Main.IntElement(incoming));
+                        }
+                    }
+                }
+                PriorityQueue<Main.IntElement> swap = current;
+                current = next;
+                next = swap;
+            }
+        } catch (RuntimeException | IOException e) {
+            deleteAll(runs);
+            throw e;
+        }
+        result.runs = runs.size();
+        return runs;
+    }
+
+    // Scala serie po fanIn naraz, aż zostanie ich najwyżej fanIn; ostatni
+    // przebieg zapisuje plik wynikowy
+    private void mergeRuns(List<Path> runs, Path output, Result result) throws IOException {
+        // Serie zapisane w bieżącym przebiegu - przy błędzie usuwane razem
+        // z jeszcze nie scalonymi
+        List<Path> merged = new ArrayList<>();
+        try {
+            while (runs.size() > fanIn) {
+                merged = new ArrayList<>();
+                for (int start = 0; start < runs.size(); start += fanIn) {
+                    List<Path> group = runs.subList(start, Math.min(start + fanIn, runs.size()));
+                    if (group.size() == 1) {
+                        merged.add(group.get(0));
+                        continue;
+                    }
+                    Path file = Files.createTempFile(directory, "sort-run", ".bin");
+                    merged.add(file);
+                    mergeGroup(group, file);
+                }
+                runs = merged;
+                result.mergePasses++;
+            }
+            if (runs.isEmpty()) {
+                new IntWriter(output).close();
+            } else if (runs.size() == 1) {
+                Files.move(runs.get(0), output, StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                mergeGroup(runs, output);
+                result.mergePasses++;
+            }
+        } finally {
+            deleteAll(runs);
+            deleteAll(merged);
+        }
+    }
+
+    // Asymptotyczna złożoność pesymistyczna: O(n log k) dla k serii
+    private void mergeGroup(List<Path> group, Path output) throws IOException {
+        List<IntReader> readers = new ArrayList<>(group.size());
+        try {
+            for (Path run : group) {
+                readers.add(new IntReader(run));
+            }
+            IntLoserTree tree = new IntLoserTree(readers.toArray(new PrimitiveIterator.OfInt[0]));
+            int[] chunk = new int[blockSize / INT_BYTES];
+            try (IntWriter writer = new IntWriter(output)) {
+                int count;
+                while ((count = tree.read(chunk, 0, chunk.length)) > 0) {
+                    writer.write(chunk, count);
+                }
+            }
+        } finally {
+            for (IntReader reader : readers) {
+                reader.close();
+            }
+        }
+        deleteAll(group);
+    }
+
+    private static void deleteAll(List<Path> files) throws IOException {
+        for (Path file : files) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Statystyki jednego sortowania
+     */
+    public static final class Result {
+        private final long bytes;
+        private long elements;
+        private int runs;
+        private int mergePasses;
+        private long nanos;
+
+        Result(long bytes) {
+            this.bytes = bytes;
+        }
+
+        public long getElements() {
+            return elements;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * Zwraca liczbę serii utworzonych przez wybór z zastępowaniem
+         *
+         * @return liczba serii (0 dla COUNTING i pustego pliku)
+         */
+        public int getRuns() {
+            return runs;
+        }
+
+        /**
+         * Zwraca liczbę przebiegów scalania
+         *
+         * @return 0, jeśli powstała najwyżej jedna seria
+         */
+        public int getMergePasses() {
+            return mergePasses;
+        }
+
+        public double getSeconds() {
+            return nanos / 1e9;
+        }
+
+        public double getMegabytesPerSecond() {
+            return bytes / (1024.0 * 1024.0) / Math.max(getSeconds(), 1e-9);
+        }
+
+        public double getAverageRunLength() {
+            return runs == 0 ? 0 : (double) elements / runs;
+        }
+    }
+
+    /**
+     * Odczyt liczb z pliku blokami
+     */
+    private final class IntReader implements PrimitiveIterator.OfInt, AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(blockSize);
+
+        IntReader(Path file) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            if (channel.size() % INT_BYTES != 0) {
+                channel.close();
+                throw new IOException("Długość pliku " + file + " nie jest wielokrotnością " + INT_BYTES
+                        + " bajtów");
+            }
+            buffer.flip();
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (buffer.hasRemaining()) {
+                return true;
+            }
+            try {
+                buffer.clear();
+                int read;
+                do {
+                    read = channel.read(buffer);
+                } while (read == 0);
+                buffer.flip();
+                return read > 0;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public int nextInt() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            // Blok może kończyć się w środku liczby - doczytaj resztę
+            if (buffer.remaining() < INT_BYTES) {
+                buffer.compact();
+                try {
+                    while (buffer.position() < INT_BYTES) {
+                        if (channel.read(buffer) < 0) {
+                            throw new IOException("Nieoczekiwany koniec pliku");
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                buffer.flip();
+            }
+            return buffer.getInt();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Zapis liczb do pliku blokami
+     */
+    private final class IntWriter implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(blockSize);
+
+        IntWriter(Path file) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        void write(int value) throws IOException {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            buffer.putInt(value);
+        }
+
+        void write(int[] values, int count) throws IOException {
+            for (int i = 0; i < count; i++) {
+                write(values[i]);
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,381 @@
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bezpieczna wątkowo kolejka priorytetowa z łączeniem operacji (flat
+ * combining)
+ *
+ * Wątek wywołujący insert lub extractMin zapisuje zgłoszenie w swoim slocie
+ * na liście zgłoszeń i czeka. Wątek, któremu uda się przejąć blokadę,
+ * zostaje łączącym: zbiera wszystkie oczekujące zgłoszenia i wykonuje je na
+ * opakowywanej (jednowątkowej) kolejce jako jedną partię, więc dane kolejki
+ * pozostają w pamięci podręcznej jednego rdzenia, a blokada jest przejmowana
+ * raz na partię zamiast raz na operację.
+ *
+ * W partii wstawiane elementy są sortowane, a każde extractMin dostaje
+ * najmniejszy z nich, jeśli nie jest większy od minimum kolejki - taka para
+ * insert/extractMin w ogóle nie dotyka kolejki (eliminacja). Pozostałe
+ * elementy są wstawiane w kolejności zgłoszeń (posortowane wejście
+ * degeneruje BSTPriorityQueue). Wyeliminowane insert zwracają pozycję
+ * nieważną - element został już wyjęty.
+ *
+ * Pozostałe operacje są wykonywane bezpośrednio pod tą samą blokadą.
+ *
+ * @param <T> typ elementów w kolejce
+ */
+public class FlatCombiningPriorityQueue<T extends Comparable<T> & HasValue> implements PriorityQueue<T> {
+
+    // Liczba przejść po liście zgłoszeń w jednej sesji łączenia
+    private static final int COMBINING_PASSES = 4;
+    // Slot bez zgłoszeń przez tyle sesji jest usuwany z listy (wątek, który
+    // się zakończył, nie wydłuża jej na zawsze)
+    private static final int SLOT_AGE_LIMIT = 1024;
+    // Obroty pętli oczekiwania między oddaniem procesora
+    private static final int SPINS_BEFORE_YIELD = 64;
+
+    // Stany slotu
+    private static final int IDLE = 0;
+    private static final int INSERT = 1;
+    private static final int EXTRACT_MIN = 2;
+    private static final int DONE = 3;
+
+    private final PriorityQueue<T> delegate;
+    private final ReentrantLock lock = new ReentrantLock();
+    // Lista zgłoszeń: nowe sloty są dopisywane na początek przez CAS, usuwa
+    // je tylko łączący (nigdy pierwszego), więc przejście po liście nie
+    // koliduje z dopisywaniem
+    private final AtomicReference<Slot<T>> head = new AtomicReference<>();
+    private final ThreadLocal<Slot<T>> slots = ThreadLocal.withInitial(Slot::new);
+
+    // Stan łączącego - używany tylko pod blokadą
+    private final List<Slot<T>> inserts = new ArrayList<>();
+    private final List<Slot<T>> extracts = new ArrayList<>();
+    private final List<Slot<T>> sortedInserts = new ArrayList<>();
+    private long sessions;
+    private long batches;
+    private long combinedRequests;
+    private long eliminatedPairs;
+
+    /**
+     * Opakowuje kolejkę
+     *
+     * @param delegate opakowywana kolejka; nie może być używana bezpośrednio
+     *                 przez inne wątki
+     */
+    public FlatCombiningPriorityQueue(PriorityQueue<T> delegate) {
+        this.delegate = Objects.requireNonNull(delegate);
+    }
+
+    @Override
+    public Position<T> insert(T element) {
+        if (element.wartość() < 0 || element.wartość() > N) {
+            throw new IllegalArgumentException("Element value must be in range [0, " + N + "]");
+        }
+        Slot<T> slot = await(INSERT, element);
+        Position<T> position = slot.position;
+        finish(slot);
+        return position;
+    }
+
+    @Override
+    public T extractMin() {
+        Slot<T> slot = await(EXTRACT_MIN, null);
+        T min = slot.result;
+        finish(slot);
+        return min;
+    }
+
+    // Zapisuje zgłoszenie w slocie wątku i czeka na jego wykonanie; gdy
+    // blokada jest wolna, wątek sam zostaje łączącym
+    private Slot<T> await(int operation, T element) {
+        Slot<T> slot = slots.get();
+        slot.element = element;
+        slot.state = operation;
+        int spins = 0;
+        while (slot.state != DONE) {
+            if (lock.tryLock()) {
+                try {
+                    combine(slot);
+                } finally {
+                    lock.unlock();
+                }
+            } else if (!slot.linked) {
+                link(slot);
+            } else if (++spins % SPINS_BEFORE_YIELD == 0) {
+                Thread.yield();
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+        return slot;
+    }
+
+    // Zwalnia slot; wyjątek z opakowywanej kolejki jest zgłaszany w wątku,
+    // który zlecił operację
+    private void finish(Slot<T> slot) {
+        RuntimeException failure = slot.failure;
+        slot.element = null;
+        slot.position = null;
+        slot.result = null;
+        slot.failure = null;
+        slot.state = IDLE;
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void link(Slot<T> slot) {
+        slot.linked = true;
+        Slot<T> first;
+        do {
+            first = head.get();
+            slot.next = first;
+        } while (!head.compareAndSet(first, slot));
+    }
+
+    // Sesja łączenia: kilka przejść po liście, każde wykonuje zebrane
+    // zgłoszenia jako jedną partię. Slot łączącego jest obsługiwany zawsze,
+    // nawet jeśli chwilowo nie ma go na liście.
+    private void combine(Slot<T> own) {
+        sessions++;
+        for (int pass = 0; pass < COMBINING_PASSES; pass++) {
+            collect(own);
+            Slot<T> previous = null;
+            Slot<T> slot = head.get();
+            while (slot != null) {
+                Slot<T> next = slot.next;
+                if (slot != own && !collect(slot) && previous != null
+                        && sessions - slot.lastUsed > SLOT_AGE_LIMIT) {
+                    previous.next = next;
+                    slot.linked = false;
+                } else {
+                    previous = slot;
+                }
+                slot = next;
+            }
+            if (inserts.isEmpty() && extracts.isEmpty()) {
+                return;
+            }
+            apply();
+        }
+    }
+
+    // Dodaje oczekujące zgłoszenie slotu do partii
+    private boolean collect(Slot<T> slot) {
+        int state = slot.state;
+        if (state == INSERT) {
+            inserts.add(slot);
+        } else if (state == EXTRACT_MIN) {
+            extracts.add(slot);
+        } else {
+            return false;
+        }
+        slot.lastUsed = sessions;
+        return true;
+    }
+
+    // Asymptotyczna złożoność pesymistyczna: O(k log k) + koszt operacji na
+    // kolejce dla niewyeliminowanych zgłoszeń, gdzie k to rozmiar partii
+    private void apply() {
+        batches++;
+        combinedRequests += inserts.size() + extracts.size();
+        if (!inserts.isEmpty() && !extracts.isEmpty()) {
+            sortedInserts.addAll(inserts);
+            sortedInserts.sort((a, b) -> a.element.compareTo(b.element));
+        }
+        int eliminated = 0;
+        for (Slot<T> slot : extracts) {
+            try {
+                if (eliminated < sortedInserts.size() && (delegate.isEmpty()
+                        || sortedInserts.get(eliminated).element.compareTo(delegate.findMin()) <= 0)) {
+                    Slot<T> insert = sortedInserts.get(eliminated++);
+                    insert.position = new EliminatedPosition<>(insert.element);
+                    slot.result = insert.element;
+                } else {
+                    slot.result = delegate.extractMin();
+                }
+            } catch (RuntimeException e) {
+                slot.failure = e;
+            }
+        }
+        for (Slot<T> slot : inserts) {
+            if (slot.position == null) {
+                try {
+                    slot.position = delegate.insert(slot.element);
+                } catch (RuntimeException e) {
+                    slot.failure = e;
+                }
+            }
+        }
+        eliminatedPairs += eliminated;
+        for (Slot<T> slot : extracts) {
+            slot.state = DONE;
+        }
+        for (Slot<T> slot : inserts) {
+            slot.state = DONE;
+        }
+        inserts.clear();
+        extracts.clear();
+        sortedInserts.clear();
+    }
+
+    @Override
+    public T findMin() {
+        lock.lock();
+        try {
+            return delegate.findMin();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Position<T> decreaseKey(Position<T> position, T newElement) {
+        lock.lock();
+        try {
+            return delegate.decreaseKey(position, newElement);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T remove(Position<T> position) {
+        lock.lock();
+        try {
+            return delegate.remove(position);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Position<T> updateKey(Position<T> position, T newElement) {
+        lock.lock();
+        try {
+            return delegate.updateKey(position, newElement);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Wynik jest opakowany w nową FlatCombiningPriorityQueue
+    @Override
+    public PriorityQueue<T> merge(PriorityQueue<T> other) {
+        lock.lock();
+        try {
+            return new FlatCombiningPriorityQueue<>(delegate.merge(other));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        lock.lock();
+        try {
+            return delegate.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return delegate.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            delegate.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Zwraca liczbę wykonanych partii zgłoszeń
+     *
+     * @return liczba partii
+     */
+    public long getBatchCount() {
+        lock.lock();
+        try {
+            return batches;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Zwraca liczbę operacji insert i extractMin wykonanych w partiach
+     *
+     * @return liczba zgłoszeń
+     */
+    public long getCombinedRequests() {
+        lock.lock();
+        try {
+            return combinedRequests;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Zwraca liczbę par insert/extractMin obsłużonych bez dostępu do kolejki
+     *
+     * @return liczba wyeliminowanych par
+     */
+    public long getEliminatedPairs() {
+        lock.lock();
+        try {
+            return eliminatedPairs;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Slot zgłoszeń jednego wątku; pola wyniku są zapisywane przez łączącego
+     * przed ustawieniem stanu DONE (zapis volatile je publikuje)
+     */
+    private static final class Slot<T> {
+        volatile int state;
+        volatile boolean linked;
+        T element;
+        Position<T> position;
+        T result;
+        RuntimeException failure;
+        Slot<T> next;
+        long lastUsed;
+    }
+
+    /**
+     * Pozycja elementu wyjętego w tej samej partii, w której został wstawiony
+     */
+    private static final class EliminatedPosition<T> implements Position<T> {
+        private final T element;
+
+        EliminatedPosition(T element) {
+            this.element = element;
+        }
+
+        @Override
+        public T getElement() {
+            return element;
+        }
+
+        @Override
+        public boolean isValid() {
+            return false;
+        }
+    }
+}
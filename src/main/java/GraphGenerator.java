@@ -0,0 +1,274 @@
+import java.util.*;
+
+/**
+ * Powtarzalne generatory syntetycznych grafów ważonych
+ * Ten sam zestaw parametrów i ziarno dają zawsze ten sam graf. Krawędzie są
+ * zbierane w tablicach i dodawane hurtowo przez addEdges, więc generatory
+ * skalują się do milionów krawędzi.
+ *
+ * Wagi krawędzi są z przedziału [1, maxWeight]; wierzchołki numerowane od 0.
+ */
+public final class GraphGenerator {
+
+    private GraphGenerator() {
+    }
+
+    /**
+     * Siatka 2D rows x cols, każdy wierzchołek połączony w obu kierunkach
+     * z sąsiadami w pionie i poziomie
+     *
+     * @param rows      liczba wierszy
+     * @param cols      liczba kolumn
+     * @param maxWeight maksymalna waga krawędzi
+     * @param seed      ziarno generatora liczb losowych
+     * @return graf o rows * cols wierzchołkach
+     */
+    public static WeightedGraph grid(int rows, int cols, int maxWeight, long seed) {
+        validate(rows * cols, maxWeight);
+        Random random = new Random(seed);
+        EdgeBuffer edges = new EdgeBuffer(4L * rows * cols);
+
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                int vertex = row * cols + col;
+                if (col + 1 < cols) {
+                    edges.addBoth(vertex, vertex + 1, weight(random, maxWeight));
+                }
+                if (row + 1 < rows) {
+                    edges.addBoth(vertex, vertex + cols, weight(random, maxWeight));
+                }
+            }
+        }
+
+        return edges.toGraph(rows * cols, maxWeight);
+    }
+
+    /**
+     * Graf losowy Erdősa-Rényiego G(n, m) o krawędziach skierowanych
+     * Powtórzone pary (u, v) aktualizują wagę, więc krawędzi może być
+     * nieco mniej niż edgeCount; pętle własne są pomijane.
+     *
+     * @param vertexCount liczba wierzchołków
+     * @param edgeCount   liczba losowanych krawędzi
+     * @param maxWeight   maksymalna waga krawędzi
+     * @param seed        ziarno generatora liczb losowych
+     * @return graf losowy
+     */
+    public static WeightedGraph erdosRenyi(int vertexCount, long edgeCount, int maxWeight, long seed) {
+        validate(vertexCount, maxWeight);
+        if (vertexCount < 2 && edgeCount > 0) {
+            throw new IllegalArgumentException("Graf losowy wymaga co najmniej dwóch wierzchołków");
+        }
+        Random random = new Random(seed);
+        EdgeBuffer edges = new EdgeBuffer(edgeCount);
+
+        for (long i = 0; i < edgeCount; i++) {
+            int source = random.nextInt(vertexCount);
+            int destination = random.nextInt(vertexCount - 1);
+            if (destination >= source) {
+                destination++;
+            }
+            edges.add(source, destination, weight(random, maxWeight));
+        }
+
+        return edges.toGraph(vertexCount, maxWeight);
+    }
+
+    /**
+     * Graf bezskalowy Barabásiego-Alberta (preferencyjne dołączanie)
+     * Każdy nowy wierzchołek łączy się (w obu kierunkach) z edgesPerVertex
+     * różnymi wierzchołkami wybranymi z prawdopodobieństwem proporcjonalnym
+     * do ich stopnia. Rozkład stopni jest potęgowy.
+     *
+     * @param vertexCount    liczba wierzchołków
+     * @param edgesPerVertex liczba krawędzi nowego wierzchołka (m)
+     * @param maxWeight      maksymalna waga krawędzi
+     * @param seed           ziarno generatora liczb losowych
+     * @return graf bezskalowy
+     */
+    public static WeightedGraph barabasiAlbert(int vertexCount, int edgesPerVertex, int maxWeight, long seed) {
+        validate(vertexCount, maxWeight);
+        if (edgesPerVertex < 1 || edgesPerVertex >= vertexCount) {
+            throw new IllegalArgumentException("Liczba krawędzi nowego wierzchołka musi być z przedziału [1, n)");
+        }
+        Random random = new Random(seed);
+        EdgeBuffer edges = new EdgeBuffer(2L * edgesPerVertex * vertexCount);
+
+        // Każdy koniec krawędzi zapisany raz - losowanie z tej tablicy wybiera
+        // wierzchołek z prawdopodobieństwem proporcjonalnym do stopnia
+        int[] endpoints = new int[Math.toIntExact(2L * edgesPerVertex * vertexCount)];
+        int endpointCount = 0;
+
+        // Początkowa klika m + 1 wierzchołków
+        for (int u = 0; u <= edgesPerVertex; u++) {
+            for (int v = u + 1; v <= edgesPerVertex; v++) {
+                edges.addBoth(u, v, weight(random, maxWeight));
+                endpoints[endpointCount++] = u;
+                endpoints[endpointCount++] = v;
+            }
+        }
+
+        int[] chosen = new int[edgesPerVertex];
+        for (int vertex = edgesPerVertex + 1; vertex < vertexCount; vertex++) {
+            for (int i = 0; i < edgesPerVertex; i++) {
+                int target;
+                boolean duplicate;
+                do {
+                    target = endpoints[random.nextInt(endpointCount)];
+                    duplicate = false;
+                    for (int j = 0; j < i; j++) {
+                        duplicate |= chosen[j] == target;
+                    }
+                } while (duplicate);
+                chosen[i] = target;
+            }
+            for (int target : chosen) {
+                edges.addBoth(vertex, target, weight(random, maxWeight));
+                endpoints[endpointCount++] = vertex;
+                endpoints[endpointCount++] = target;
+            }
+        }
+
+        return edges.toGraph(vertexCount, maxWeight);
+    }
+
+    /**
+     * Graf geometryczny przypominający sieć drogową
+     * Wierzchołki to losowe punkty w kwadracie jednostkowym, połączone
+     * w obu kierunkach z punktami w promieniu dobranym tak, aby średni stopień
+     * wynosił około averageDegree. Waga jest proporcjonalna do odległości
+     * euklidesowej (promień odpowiada maxWeight).
+     *
+     * @param vertexCount   liczba wierzchołków
+     * @param averageDegree oczekiwany średni stopień wierzchołka
+     * @param maxWeight     maksymalna waga krawędzi
+     * @param seed          ziarno generatora liczb losowych
+     * @return graf geometryczny
+     */
+    public static WeightedGraph geometric(int vertexCount, double averageDegree, int maxWeight, long seed) {
+        validate(vertexCount, maxWeight);
+        if (averageDegree <= 0) {
+            throw new IllegalArgumentException("Średni stopień musi być dodatni");
+        }
+        Random random = new Random(seed);
+        double[] x = new double[vertexCount];
+        double[] y = new double[vertexCount];
+        for (int i = 0; i < vertexCount; i++) {
+            x[i] = random.nextDouble();
+            y[i] = random.nextDouble();
+        }
+
+        // pi * r^2 * n = averageDegree
+        double radius = Math.min(1.0, Math.sqrt(averageDegree / (Math.PI * vertexCount)));
+        int cells = Math.max(1, (int) (1.0 / radius));
+
+        // Punkty pogrupowane w komórkach o boku >= radius (sortowanie kubełkowe)
+        int[] cellStart = new int[cells * cells + 1];
+        for (int i = 0; i < vertexCount; i++) {
+            cellStart[cellOf(x[i], y[i], cells) + 1]++;
+        }
+        for (int cell = 0; cell < cells * cells; cell++) {
+            cellStart[cell + 1] += cellStart[cell];
+        }
+        int[] cellPoints = new int[vertexCount];
+        int[] fill = Arrays.copyOf(cellStart, cells * cells);
+        for (int i = 0; i < vertexCount; i++) {
+            cellPoints[fill[cellOf(x[i], y[i], cells)]++] = i;
+        }
+
+        EdgeBuffer edges = new EdgeBuffer((long) Math.ceil(averageDegree * vertexCount * 1.2));
+        for (int u = 0; u < vertexCount; u++) {
+            int cellX = Math.min(cells - 1, (int) (x[u] * cells));
+            int cellY = Math.min(cells - 1, (int) (y[u] * cells));
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dx = -1; dx <= 1; dx++) {
+                    int nx = cellX + dx;
+                    int ny = cellY + dy;
+                    if (nx < 0 || ny < 0 || nx >= cells || ny >= cells) {
+                        continue;
+                    }
+                    int cell = ny * cells + nx;
+                    for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+                        int v = cellPoints[k];
+                        if (v <= u) {
+                            continue; // Każda para raz
+                        }
+                        double distance = Math.hypot(x[u] - x[v], y[u] - y[v]);
+                        if (distance <= radius) {
+                            int weight = Math.max(1, (int) Math.round(distance / radius * maxWeight));
+                            edges.addBoth(u, v, Math.min(maxWeight, weight));
+                        }
+                    }
+                }
+            }
+        }
+
+        return edges.toGraph(vertexCount, maxWeight);
+    }
+
+    private static int cellOf(double x, double y, int cells) {
+        int cellX = Math.min(cells - 1, (int) (x * cells));
+        int cellY = Math.min(cells - 1, (int) (y * cells));
+        return cellY * cells + cellX;
+    }
+
+    private static int weight(Random random, int maxWeight) {
+        return 1 + random.nextInt(maxWeight);
+    }
+
+    private static void validate(int vertexCount, int maxWeight) {
+        if (vertexCount <= 0) {
+            throw new IllegalArgumentException("Liczba wierzchołków musi być dodatnia");
+        }
+        if (maxWeight < 1) {
+            throw new IllegalArgumentException("Maksymalna waga musi być dodatnia");
+        }
+    }
+
+    /**
+     * Rosnący bufor krawędzi w tablicach prymitywnych
+     */
+    private static final class EdgeBuffer {
+        private int[] sources;
+        private int[] destinations;
+        private int[] weights;
+        private int size;
+
+        EdgeBuffer(long expected) {
+            int capacity = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(16, expected));
+            sources = new int[capacity];
+            destinations = new int[capacity];
+            weights = new int[capacity];
+        }
+
+        void add(int source, int destination, int weight) {
+            if (size == sources.length) {
+                int capacity = (int) Math.min(Integer.MAX_VALUE - 8, sources.length * 2L);
+                if (capacity == size) {
+                    throw new IllegalStateException("Zbyt wiele krawędzi");
+                }
+                sources = Arrays.copyOf(sources, capacity);
+                destinations = Arrays.copyOf(destinations, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+            }
+            sources[size] = source;
+            destinations[size] = destination;
+            weights[size] = weight;
+            size++;
+        }
+
+        void addBoth(int u, int v, int weight) {
+            add(u, v, weight);
+            add(v, u, weight);
+        }
+
+        WeightedGraph toGraph(int vertexCount, int maxWeight) {
+            WeightedGraph graph = new WeightedGraph(vertexCount, maxWeight);
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                graph.addVertex(vertex);
+            }
+            graph.addEdges(sources, destinations, weights, size);
+            return graph;
+        }
+    }
+}
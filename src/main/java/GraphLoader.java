@@ -0,0 +1,429 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Strumieniowy loader grafów z plików tekstowych.
+ * Obsługiwane formaty:
+ * - EDGE_LIST: linie "źródło cel waga", komentarze zaczynają się od '#' lub '%'
+ * - DIMACS: format .gr z 9th DIMACS Challenge ("p sp n m", "a u v w",
+ * komentarze "c"), wierzchołki numerowane od 1
+ *
+ * Zamiast Scannera (parsowanie regexami) używa ręcznego parsera liczb
+ * działającego bezpośrednio na bajtach czytanych przez FileChannel.
+ * Plik może być dzielony na fragmenty (wyrównane do końca linii) parsowane
+ * równolegle, a krawędzie trafiają do grafu hurtowo przez addEdges.
+ */
+public final class GraphLoader {
+
+    /**
+     * Obsługiwane formaty plików wejściowych
+     */
+    public enum Format {
+        EDGE_LIST,
+        DIMACS
+    }
+
+    // Rozmiar fragmentu pliku przetwarzanego przez jedno zadanie
+    private static final long CHUNK_SIZE = 8L << 20;
+    // Rozmiar bufora odczytu (jeden na zadanie)
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private GraphLoader() {
+    }
+
+    /**
+     * Wczytuje graf jednym wątkiem
+     *
+     * @param path   ścieżka do pliku
+     * @param format format pliku
+     * @return wczytany graf
+     * @throws IOException              błąd odczytu pliku
+     * @throws IllegalArgumentException jeśli plik ma nieprawidłowy format
+     */
+    public static WeightedGraph load(Path path, Format format) throws IOException {
+        return load(path, format, 1);
+    }
+
+    /**
+     * Wczytuje graf, parsując fragmenty pliku na podanej liczbie wątków
+     *
+     * @param path        ścieżka do pliku
+     * @param format      format pliku
+     * @param parallelism liczba wątków parsujących (1 = bez zrównoleglenia)
+     * @return wczytany graf; ograniczenia grafu dobierane są do danych
+     * @throws IOException              błąd odczytu pliku
+     * @throws IllegalArgumentException jeśli plik ma nieprawidłowy format
+     */
+    public static WeightedGraph load(Path path, Format format, int parallelism) throws IOException {
+        EdgeBatch batch = parse(path, format, parallelism);
+
+        int vertexCount = Math.max(batch.getVertexCount(), 1);
+        int maxWeight = Math.max(batch.getMaxWeight(), WeightedGraph.K);
+        WeightedGraph graph = new WeightedGraph(vertexCount, maxWeight);
+
+        // W DIMACS nagłówek deklaruje wszystkie wierzchołki, także izolowane
+        if (batch.getDeclaredVertices() > 0) {
+            for (int vertex = 0; vertex < batch.getDeclaredVertices(); vertex++) {
+                graph.addVertex(vertex);
+            }
+        }
+        graph.addEdges(batch.sources, batch.destinations, batch.weights, batch.size());
+        return graph;
+    }
+
+    /**
+     * Parsuje plik do surowej listy krawędzi bez budowania grafu
+     *
+     * @param path        ścieżka do pliku
+     * @param format      format pliku
+     * @param parallelism liczba wątków parsujących
+     * @return krawędzie w kolejności z pliku (numeracja wierzchołków od 0)
+     * @throws IOException              błąd odczytu pliku
+     * @throws IllegalArgumentException jeśli plik ma nieprawidłowy format
+     */
+    public static EdgeBatch parse(Path path, Format format, int parallelism) throws IOException {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Liczba wątków musi być dodatnia");
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long[] boundaries = chunkBoundaries(channel);
+            int chunkCount = boundaries.length - 1;
+
+            if (parallelism == 1 || chunkCount == 1) {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+                EdgeBatch result = new EdgeBatch();
+                for (int i = 0; i < chunkCount; i++) {
+                    result.append(parseChunk(channel, boundaries[i], boundaries[i + 1], format, buffer));
+                }
+                return result.validate(format);
+            }
+
+            ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, chunkCount));
+            try {
+                List<Future<EdgeBatch>> parts = new ArrayList<>(chunkCount);
+                for (int i = 0; i < chunkCount; i++) {
+                    long start = boundaries[i];
+                    long end = boundaries[i + 1];
+                    parts.add(executor.submit(() -> parseChunk(channel, start, end, format,
+                            ByteBuffer.allocateDirect(BUFFER_SIZE))));
+                }
+
+                // Łączenie w kolejności fragmentów zachowuje kolejność krawędzi z pliku
+                EdgeBatch result = new EdgeBatch();
+                for (Future<EdgeBatch> part : parts) {
+                    result.append(part.get());
+                }
+                return result.validate(format);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Przerwano wczytywanie grafu", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new IOException(cause);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Dzieli plik na fragmenty kończące się tuż za znakiem nowej linii
+     */
+    private static long[] chunkBoundaries(FileChannel channel) throws IOException {
+        long fileSize = channel.size();
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(0L);
+
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        long position = CHUNK_SIZE;
+        while (position < fileSize) {
+            long lineEnd = findLineEnd(channel, position, probe);
+            if (lineEnd >= fileSize) {
+                break;
+            }
+            boundaries.add(lineEnd);
+            position = lineEnd + CHUNK_SIZE;
+        }
+        boundaries.add(fileSize);
+
+        long[] result = new long[boundaries.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = boundaries.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Zwraca pozycję pierwszego bajtu za najbliższym '\n' od podanej pozycji
+     */
+    private static long findLineEnd(FileChannel channel, long position, ByteBuffer probe) throws IOException {
+        while (true) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            if (read <= 0) {
+                return channel.size();
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+    }
+
+    private static EdgeBatch parseChunk(FileChannel channel, long start, long end, Format format,
+            ByteBuffer buffer) throws IOException {
+        ChunkParser parser = new ChunkParser(format);
+        long position = start;
+        while (position < end) {
+            buffer.clear();
+            if (end - position < buffer.capacity()) {
+                buffer.limit((int) (end - position));
+            }
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            parser.feed(buffer, read);
+            position += read;
+        }
+        return parser.finish();
+    }
+
+    /**
+     * Parser bajtowy jednego fragmentu pliku.
+     * Stan (bieżąca liczba, pola linii) przechodzi między kolejnymi buforami,
+     * więc linie mogą być rozcięte granicą bufora.
+     */
+    private static final class ChunkParser {
+        private static final int LINE_START = 0;
+        private static final int SKIP = 1;
+        private static final int EDGE = 2;
+        private static final int HEADER = 3;
+
+        private final Format format;
+        private final EdgeBatch batch = new EdgeBatch();
+        private final long[] fields = new long[3];
+        private int fieldCount;
+        private int lineKind = LINE_START;
+        private long value;
+        private boolean inNumber;
+
+        ChunkParser(Format format) {
+            this.format = format;
+        }
+
+        void feed(ByteBuffer buffer, int length) {
+            for (int i = 0; i < length; i++) {
+                byte c = buffer.get(i);
+
+                if (lineKind == SKIP) {
+                    if (c == '\n') {
+                        lineKind = LINE_START;
+                    }
+                    continue;
+                }
+
+                if (c >= '0' && c <= '9') {
+                    if (lineKind == LINE_START) {
+                        if (format == Format.DIMACS) {
+                            throw new IllegalArgumentException("Linia DIMACS musi zaczynać się od 'a', 'p' lub 'c'");
+                        }
+                        lineKind = EDGE;
+                    }
+                    value = value * 10 + (c - '0');
+                    if (value > Integer.MAX_VALUE) {
+                        throw new IllegalArgumentException("Liczba poza zakresem int");
+                    }
+                    inNumber = true;
+                    continue;
+                }
+
+                if (inNumber) {
+                    endNumber();
+                }
+                if (c == '\n') {
+                    endLine();
+                } else if (c != ' ' && c != '\t' && c != '\r') {
+                    startOrSkipWord(c);
+                }
+            }
+        }
+
+        private void startOrSkipWord(byte c) {
+            if (lineKind == LINE_START) {
+                if (format == Format.DIMACS && c == 'a') {
+                    lineKind = EDGE;
+                } else if (format == Format.DIMACS && c == 'p') {
+                    lineKind = HEADER;
+                } else if ((format == Format.DIMACS && c == 'c')
+                        || (format == Format.EDGE_LIST && (c == '#' || c == '%'))) {
+                    lineKind = SKIP;
+                } else {
+                    throw new IllegalArgumentException("Nieprawidłowy znak '" + (char) c + "' na początku linii");
+                }
+            } else if (lineKind != HEADER) {
+                // W nagłówku "p sp n m" ignorujemy słowo "sp", gdzie indziej tylko liczby
+                throw new IllegalArgumentException("Nieprawidłowy znak '" + (char) c + "'");
+            }
+        }
+
+        private void endNumber() {
+            if (fieldCount < fields.length) {
+                fields[fieldCount] = value;
+            }
+            fieldCount++;
+            value = 0;
+            inNumber = false;
+        }
+
+        private void endLine() {
+            if (lineKind == EDGE) {
+                if (fieldCount != 3) {
+                    throw new IllegalArgumentException("Krawędź musi mieć format: źródło cel waga");
+                }
+                int offset = format == Format.DIMACS ? 1 : 0;
+                int source = (int) fields[0] - offset;
+                int destination = (int) fields[1] - offset;
+                if (source < 0 || destination < 0) {
+                    throw new IllegalArgumentException("Wierzchołki DIMACS numerowane są od 1");
+                }
+                batch.add(source, destination, (int) fields[2]);
+            } else if (lineKind == HEADER) {
+                if (fieldCount != 2) {
+                    throw new IllegalArgumentException("Nagłówek DIMACS musi mieć format: p sp n m");
+                }
+                batch.declare((int) fields[0], fields[1]);
+            }
+            lineKind = LINE_START;
+            fieldCount = 0;
+        }
+
+        EdgeBatch finish() {
+            if (inNumber) {
+                endNumber();
+            }
+            if (lineKind != LINE_START) {
+                endLine();
+            }
+            return batch;
+        }
+    }
+
+    /**
+     * Bufor krawędzi w postaci trzech tablic prymitywnych (bez obiektów Edge)
+     */
+    public static final class EdgeBatch {
+        int[] sources = new int[1024];
+        int[] destinations = new int[1024];
+        int[] weights = new int[1024];
+        private int size;
+        private int maxVertex = -1;
+        private int maxWeight;
+        private int declaredVertices = -1;
+        private long declaredEdges = -1;
+
+        void add(int source, int destination, int weight) {
+            if (size == sources.length) {
+                grow(size + 1);
+            }
+            sources[size] = source;
+            destinations[size] = destination;
+            weights[size] = weight;
+            size++;
+            maxVertex = Math.max(maxVertex, Math.max(source, destination));
+            maxWeight = Math.max(maxWeight, weight);
+        }
+
+        void append(EdgeBatch other) {
+            if (size + other.size > sources.length) {
+                grow(size + other.size);
+            }
+            System.arraycopy(other.sources, 0, sources, size, other.size);
+            System.arraycopy(other.destinations, 0, destinations, size, other.size);
+            System.arraycopy(other.weights, 0, weights, size, other.size);
+            size += other.size;
+            maxVertex = Math.max(maxVertex, other.maxVertex);
+            maxWeight = Math.max(maxWeight, other.maxWeight);
+            if (other.declaredVertices >= 0) {
+                declare(other.declaredVertices, other.declaredEdges);
+            }
+        }
+
+        void declare(int vertices, long edges) {
+            if (declaredVertices >= 0) {
+                throw new IllegalArgumentException("Plik DIMACS zawiera więcej niż jeden nagłówek");
+            }
+            declaredVertices = vertices;
+            declaredEdges = edges;
+        }
+
+        private void grow(int minCapacity) {
+            int capacity = Math.max(minCapacity, sources.length * 2);
+            sources = Arrays.copyOf(sources, capacity);
+            destinations = Arrays.copyOf(destinations, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+        }
+
+        EdgeBatch validate(Format format) {
+            if (format == Format.DIMACS) {
+                if (declaredVertices < 0) {
+                    throw new IllegalArgumentException("Brak nagłówka DIMACS 'p sp n m'");
+                }
+                if (maxVertex >= declaredVertices) {
+                    throw new IllegalArgumentException(String.format(
+                            "Wierzchołek %d poza zadeklarowanym zakresem [1, %d]", maxVertex + 1, declaredVertices));
+                }
+                if (declaredEdges != size) {
+                    throw new IllegalArgumentException(String.format(
+                            "Nagłówek deklaruje %d krawędzi, wczytano %d", declaredEdges, size));
+                }
+            }
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public int getSource(int index) {
+            return sources[index];
+        }
+
+        public int getDestination(int index) {
+            return destinations[index];
+        }
+
+        public int getWeight(int index) {
+            return weights[index];
+        }
+
+        /**
+         * Zwraca liczbę wierzchołków: z nagłówka DIMACS lub największy numer + 1
+         */
+        public int getVertexCount() {
+            return Math.max(declaredVertices, maxVertex + 1);
+        }
+
+        public int getMaxWeight() {
+            return maxWeight;
+        }
+
+        int getDeclaredVertices() {
+            return declaredVertices;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+import java.util.*;
+
+/**
+ * Niemutowalna migawka grafu w formacie CSR (compressed sparse row)
+ * Krawędzie wychodzące z wierzchołka v zajmują indeksy
+ * [edgeStart(v), edgeEnd(v)) w tablicach celów i wag.
+ *
+ * Migawka nie zmienia się po utworzeniu, więc może być bezpiecznie
+ * współdzielona przez wiele wątków wykonujących zapytania.
+ */
+public final class GraphSnapshot {
+
+    private final int vertexCount;
+    private final BitSet vertices;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+
+    GraphSnapshot(int vertexCount, BitSet vertices, int[] offsets, int[] targets, int[] weights) {
+        this.vertexCount = vertexCount;
+        this.vertices = vertices;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Zwraca rozmiar przestrzeni numerów wierzchołków (największy numer + 1)
+     *
+     * @return liczba slotów wierzchołków
+     */
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * Zwraca liczbę krawędzi
+     *
+     * @return liczba krawędzi
+     */
+    public int getEdgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * Sprawdza czy wierzchołek istnieje w grafie
+     *
+     * @param vertex numer wierzchołka
+     * @return true jeśli wierzchołek istnieje
+     */
+    public boolean hasVertex(int vertex) {
+        return vertex >= 0 && vertex < vertexCount && vertices.get(vertex);
+    }
+
+    /**
+     * Zwraca kopię zbioru wierzchołków
+     *
+     * @return zbiór wierzchołków jako BitSet
+     */
+    public BitSet getVertices() {
+        return (BitSet) vertices.clone();
+    }
+
+    public int edgeStart(int vertex) {
+        return offsets[vertex];
+    }
+
+    public int edgeEnd(int vertex) {
+        return offsets[vertex + 1];
+    }
+
+    public int target(int edge) {
+        return targets[edge];
+    }
+
+    public int weight(int edge) {
+        return weights[edge];
+    }
+
+    @Override
+    public String toString() {
+        return String.format("GraphSnapshot(%d wierzchołków, %d krawędzi)", vertices.cardinality(), targets.length);
+    }
+}
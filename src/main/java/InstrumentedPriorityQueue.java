@@ -0,0 +1,505 @@
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Dekorator kolejki priorytetowej zbierający statystyki działania
+ * - liczba wywołań każdej operacji i rozmiar szczytowy
+ * - histogram czasów operacji (przedziały potęg dwójki), mierzony tylko dla
+ * co sampleInterval-tej operacji, aby ograniczyć koszt System.nanoTime()
+ * - liczniki z wnętrza implementacji przez PriorityQueueProbe: porównania,
+ * przejrzane kubełki, głębokość drzewa, przesunięte elementy
+ *
+ * Operacja spoza próbki zwiększa tylko swój licznik (wyznaczający też
+ * próbkowanie) i przekazuje wywołanie dalej. Sonda jest podłączana do
+ * implementacji tylko na czas próbkowanych operacji i tylko wtedy
+ * aktualizowany jest rozmiar szczytowy. Liczniki sondy są więc szacunkami
+ * (suma z próbek razy sampleInterval), a rozmiar szczytowy i głębokość
+ * drzewa - maksimami z próbek; dokładne wartości daje sampleInterval = 1.
+ *
+ * Statystyki są publikowane jako MBean przez register(). Kolejka, podobnie
+ * jak opakowywane implementacje, nie jest bezpieczna wątkowo; liczniki to
+ * zwykłe pola, więc odczyt przez JMX z innego wątku może być chwilowo
+ * nieaktualny.
+ *
+ * @param <T> typ elementów w kolejce
+ */
+public class InstrumentedPriorityQueue<T extends Comparable<T> & HasValue>
+        implements PriorityQueue<T>, PriorityQueueProbe, InstrumentedPriorityQueueMBean {
+
+    /**
+     * Operacje, dla których zbierane są czasy
+     */
+    public enum Operation {
+        INSERT,
+        FIND_MIN,
+        EXTRACT_MIN,
+        DECREASE_KEY,
+        REMOVE,
+        MERGE
+    }
+
+    public static final int DEFAULT_SAMPLE_INTERVAL = 64;
+    private static final int HISTOGRAM_BUCKETS = 64;
+
+    private final PriorityQueue<T> delegate;
+    // Implementacja przyjmująca sondę (null, jeśli jej nie obsługuje)
+    private final PriorityQueueProbe.Target target;
+    private final int sampleMask;
+    private ObjectName objectName;
+
+    // Osobne pola zamiast tablicy - licznik operacji wyznacza też próbkowanie
+    private long insertCount;
+    private long findMinCount;
+    private long extractMinCount;
+    private long decreaseKeyCount;
+    private long removeCount;
+    private long mergeCount;
+    // latencies[op][k] = liczba próbek z czasem w przedziale [2^(k-1), 2^k) ns
+    private final long[][] latencies = new long[Operation.values().length][HISTOGRAM_BUCKETS];
+    // Rozmiar szczytowy aktualizowany w próbkach, przy clear() i przy odczycie
+    private int peakSize;
+    private long comparisons;
+    private long bucketsScanned;
+    private int maxTreeDepth;
+    private long elementsShifted;
+
+    /**
+     * Opakowuje kolejkę z domyślnym próbkowaniem czasów
+     *
+     * @param delegate opakowywana kolejka
+     */
+    public InstrumentedPriorityQueue(PriorityQueue<T> delegate) {
+        this(delegate, DEFAULT_SAMPLE_INTERVAL);
+    }
+
+    /**
+     * Opakowuje kolejkę
+     *
+     * @param delegate       opakowywana kolejka
+     * @param sampleInterval co która operacja jest mierzona (potęga dwójki)
+     * @throws IllegalArgumentException jeśli sampleInterval nie jest potęgą
+     *                                  dwójki
+     */
+    public InstrumentedPriorityQueue(PriorityQueue<T> delegate, int sampleInterval) {
+        if (sampleInterval <= 0 || Integer.bitCount(sampleInterval) != 1) {
+            throw new IllegalArgumentException("Interwał próbkowania musi być potęgą dwójki");
+        }
+        this.delegate = Objects.requireNonNull(delegate);
+        this.sampleMask = sampleInterval - 1;
+        this.target = delegate instanceof PriorityQueueProbe.Target ? (PriorityQueueProbe.Target) delegate : null;
+        this.peakSize = delegate.size();
+    }
+
+    /**
+     * Zwraca opakowywaną kolejkę
+     *
+     * @return kolejka bez instrumentacji
+     */
+    public PriorityQueue<T> getDelegate() {
+        return delegate;
+    }
+
+    // Początek próbkowanej operacji: rozmiar szczytowy, sonda i pomiar czasu;
+    // record() jest wywoływane w finally, aby wyjątek nie zostawił
+    // podłączonej sondy
+    private long startSample() {
+        updatePeakSize();
+        if (target != null) {
+            target.setProbe(this);
+        }
+        return System.nanoTime();
+    }
+
+    private void record(Operation operation, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        if (target != null) {
+            target.setProbe(null);
+        }
+        latencies[operation.ordinal()][HISTOGRAM_BUCKETS - Long.numberOfLeadingZeros(Math.max(0, elapsed))]++;
+    }
+
+    private void updatePeakSize() {
+        int size = delegate.size();
+        if (size > peakSize) {
+            peakSize = size;
+        }
+    }
+
+    // Szybka ścieżka każdej operacji to licznik i wywołanie delegata; pomiar
+    // jest w osobnych metodach, aby szybka ścieżka była wkompilowywana (inline)
+    // w miejsce wywołania
+
+    @Override
+    public Position<T> insert(T element) {
+        if ((++insertCount & sampleMask) != 0) {
+            return delegate.insert(element);
+        }
+        return sampledInsert(element);
+    }
+
+    private Position<T> sampledInsert(T element) {
+        long start = startSample();
+        try {
+            return delegate.insert(element);
+        } finally {
+            record(Operation.INSERT, start);
+        }
+    }
+
+    @Override
+    public T findMin() {
+        if ((++findMinCount & sampleMask) != 0) {
+            return delegate.findMin();
+        }
+        return sampledFindMin();
+    }
+
+    private T sampledFindMin() {
+        long start = startSample();
+        try {
+            return delegate.findMin();
+        } finally {
+            record(Operation.FIND_MIN, start);
+        }
+    }
+
+    @Override
+    public T extractMin() {
+        if ((++extractMinCount & sampleMask) != 0) {
+            return delegate.extractMin();
+        }
+        return sampledExtractMin();
+    }
+
+    private T sampledExtractMin() {
+        long start = startSample();
+        try {
+            return delegate.extractMin();
+        } finally {
+            record(Operation.EXTRACT_MIN, start);
+        }
+    }
+
+    @Override
+    public Position<T> decreaseKey(Position<T> position, T newElement) {
+        if ((++decreaseKeyCount & sampleMask) != 0) {
+            return delegate.decreaseKey(position, newElement);
+        }
+        return sampledDecreaseKey(position, newElement);
+    }
+
+    private Position<T> sampledDecreaseKey(Position<T> position, T newElement) {
+        long start = startSample();
+        try {
+            return delegate.decreaseKey(position, newElement);
+        } finally {
+            record(Operation.DECREASE_KEY, start);
+        }
+    }
+
+    @Override
+    public T remove(Position<T> position) {
+        if ((++removeCount & sampleMask) != 0) {
+            return delegate.remove(position);
+        }
+        return sampledRemove(position);
+    }
+
+    private T sampledRemove(Position<T> position) {
+        long start = startSample();
+        try {
+            return delegate.remove(position);
+        } finally {
+            record(Operation.REMOVE, start);
+        }
+    }
+
+    /**
+     * Łączy kolejki; wynik jest opakowany w nową InstrumentedPriorityQueue
+     * (niezarejestrowaną w JMX). Druga kolejka nie jest rozpakowywana -
+     * jeśli ma instrumentację, opróżnianie przez jej extractMin trafia do
+     * jej statystyk.
+     */
+    @Override
+    public PriorityQueue<T> merge(PriorityQueue<T> other) {
+        mergeCount++;
+        PriorityQueue<T> merged;
+        long start = startSample();
+        try {
+            merged = delegate.merge(other);
+        } finally {
+            record(Operation.MERGE, start);
+        }
+        return new InstrumentedPriorityQueue<>(merged, sampleMask + 1);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return delegate.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public void clear() {
+        updatePeakSize();
+        delegate.clear();
+    }
+
+    // Sonda wywoływana przez opakowywaną implementację (tylko w próbkach)
+
+    @Override
+    public void comparisons(int count) {
+        comparisons += count;
+    }
+
+    @Override
+    public void bucketsScanned(int count) {
+        bucketsScanned += count;
+    }
+
+    @Override
+    public void treeDepth(int depth) {
+        if (depth > maxTreeDepth) {
+            maxTreeDepth = depth;
+        }
+    }
+
+    @Override
+    public void elementsShifted(int count) {
+        elementsShifted += count;
+    }
+
+    // Statystyki
+
+    /**
+     * Zwraca liczbę wywołań operacji
+     *
+     * @param operation operacja
+     * @return liczba wywołań
+     */
+    public long getCount(Operation operation) {
+        switch (operation) {
+            case INSERT:
+                return insertCount;
+            case FIND_MIN:
+                return findMinCount;
+            case EXTRACT_MIN:
+                return extractMinCount;
+            case DECREASE_KEY:
+                return decreaseKeyCount;
+            case REMOVE:
+                return removeCount;
+            default:
+                return mergeCount;
+        }
+    }
+
+    /**
+     * Zwraca przybliżony percentyl czasu operacji na podstawie próbek
+     *
+     * @param operation  operacja lub null dla wszystkich operacji
+     * @param percentile percentyl z przedziału [0, 100]
+     * @return górna granica przedziału w nanosekundach (0 bez próbek)
+     * @throws IllegalArgumentException jeśli percentyl jest spoza zakresu
+     */
+    public long getLatencyPercentile(Operation operation, double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentyl musi być z przedziału [0, 100]");
+        }
+
+        long[] histogram = new long[HISTOGRAM_BUCKETS];
+        for (Operation op : Operation.values()) {
+            if (operation == null || operation == op) {
+                for (int k = 0; k < HISTOGRAM_BUCKETS; k++) {
+                    histogram[k] += latencies[op.ordinal()][k];
+                }
+            }
+        }
+
+        long total = Arrays.stream(histogram).sum();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int k = 0; k < HISTOGRAM_BUCKETS; k++) {
+            seen += histogram[k];
+            if (seen >= rank) {
+                return k == 0 ? 0 : 1L << Math.min(62, k);
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Zwraca liczbę zmierzonych (próbkowanych) operacji
+     *
+     * @param operation operacja lub null dla wszystkich operacji
+     * @return liczba próbek
+     */
+    public long getSampleCount(Operation operation) {
+        long total = 0;
+        for (Operation op : Operation.values()) {
+            if (operation == null || operation == op) {
+                total += Arrays.stream(latencies[op.ordinal()]).sum();
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public String getBackend() {
+        return delegate.getClass().getSimpleName();
+    }
+
+    @Override
+    public int getSize() {
+        return delegate.size();
+    }
+
+    @Override
+    public int getPeakSize() {
+        return Math.max(peakSize, delegate.size());
+    }
+
+    @Override
+    public long getInsertCount() {
+        return getCount(Operation.INSERT);
+    }
+
+    @Override
+    public long getFindMinCount() {
+        return getCount(Operation.FIND_MIN);
+    }
+
+    @Override
+    public long getExtractMinCount() {
+        return getCount(Operation.EXTRACT_MIN);
+    }
+
+    @Override
+    public long getDecreaseKeyCount() {
+        return getCount(Operation.DECREASE_KEY);
+    }
+
+    @Override
+    public long getRemoveCount() {
+        return getCount(Operation.REMOVE);
+    }
+
+    @Override
+    public long getMergeCount() {
+        return getCount(Operation.MERGE);
+    }
+
+    @Override
+    public long getComparisons() {
+        return comparisons * (sampleMask + 1);
+    }
+
+    @Override
+    public long getBucketsScanned() {
+        return bucketsScanned * (sampleMask + 1);
+    }
+
+    @Override
+    public int getMaxTreeDepth() {
+        return maxTreeDepth;
+    }
+
+    @Override
+    public long getElementsShifted() {
+        return elementsShifted * (sampleMask + 1);
+    }
+
+    @Override
+    public int getSampleInterval() {
+        return sampleMask + 1;
+    }
+
+    @Override
+    public long getLatencyP50Nanos() {
+        return getLatencyPercentile(null, 50);
+    }
+
+    @Override
+    public long getLatencyP99Nanos() {
+        return getLatencyPercentile(null, 99);
+    }
+
+    @Override
+    public long getLatencyMaxNanos() {
+        return getLatencyPercentile(null, 100);
+    }
+
+    @Override
+    public void resetStatistics() {
+        insertCount = 0;
+        findMinCount = 0;
+        extractMinCount = 0;
+        decreaseKeyCount = 0;
+        removeCount = 0;
+        mergeCount = 0;
+        for (long[] histogram : latencies) {
+            Arrays.fill(histogram, 0);
+        }
+        peakSize = delegate.size();
+        comparisons = 0;
+        bucketsScanned = 0;
+        maxTreeDepth = 0;
+        elementsShifted = 0;
+    }
+
+    /**
+     * Rejestruje statystyki w platformowym serwerze MBean pod nazwą
+     * PriorityQueues:type=InstrumentedPriorityQueue,name=&lt;name&gt;
+     *
+     * @param name nazwa kolejki
+     * @return nazwa obiektu JMX
+     * @throws IllegalStateException jeśli rejestracja się nie powiodła
+     */
+    public ObjectName register(String name) {
+        try {
+            ObjectName objectName = new ObjectName("PriorityQueues:type=InstrumentedPriorityQueue,name="
+                    + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            this.objectName = objectName;
+            return objectName;
+        } catch (JMException e) {
+            throw new IllegalStateException("Nie można zarejestrować MBeana: " + name, e);
+        }
+    }
+
+    /**
+     * Wyrejestrowuje MBean (bez efektu, jeśli nie był zarejestrowany)
+     */
+    public void unregister() {
+        if (objectName == null) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Nie można wyrejestrować MBeana: " + objectName, e);
+        } finally {
+            objectName = null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("InstrumentedPriorityQueue(%s, rozmiar=%d, szczyt=%d, insert=%d, extractMin=%d, "
+                + "porównania=%d, p50=%d ns, p99=%d ns)", getBackend(), getSize(), getPeakSize(),
+                getInsertCount(), getExtractMinCount(), getComparisons(), getLatencyP50Nanos(), getLatencyP99Nanos());
+    }
+}
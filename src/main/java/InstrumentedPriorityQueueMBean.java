@@ -0,0 +1,48 @@
+/**
+ * Interfejs JMX statystyk kolejki InstrumentedPriorityQueue
+ * Czasy operacji pochodzą z próbkowania, więc percentyle są przybliżone
+ * (górna granica przedziału potęgi dwójki); liczniki sondy (porównania,
+ * kubełki, głębokość, przesunięcia) również są szacowane z próbek.
+ */
+public interface InstrumentedPriorityQueueMBean {
+
+    String getBackend();
+
+    int getSize();
+
+    int getPeakSize();
+
+    long getInsertCount();
+
+    long getFindMinCount();
+
+    long getExtractMinCount();
+
+    long getDecreaseKeyCount();
+
+    long getRemoveCount();
+
+    long getMergeCount();
+
+    long getComparisons();
+
+    long getBucketsScanned();
+
+    int getMaxTreeDepth();
+
+    long getElementsShifted();
+
+    int getSampleInterval();
+
+    long getLatencyP50Nanos();
+
+    long getLatencyP99Nanos();
+
+    long getLatencyMaxNanos();
+
+    /**
+     * Zeruje wszystkie liczniki i histogram (rozmiar szczytowy staje się
+     * bieżącym rozmiarem)
+     */
+    void resetStatistics();
+}
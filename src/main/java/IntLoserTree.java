@@ -0,0 +1,182 @@
+import java.util.*;
+
+/**
+ * Scalanie k posortowanych ciągów liczb int drzewem przegranych
+ *
+ * Drzewo turniejowe ma k liści (bieżące elementy ciągów) i k - 1 węzłów
+ * wewnętrznych, z których każdy pamięta przegranego meczu w swoim
+ * poddrzewie; zwycięzca całego turnieju jest w tree[0]. Po wyjęciu
+ * zwycięzcy na jego miejsce wchodzi następny element z tego samego ciągu
+ * i rozgrywa mecze tylko z przegranymi na ścieżce do korzenia - co najwyżej
+ * ⌈log2 k⌉ porównań na element wyjściowy (dokładnie log2 k, gdy k jest
+ * potęgą dwójki), bez wstawiania i usuwania z kolejki priorytetowej.
+ *
+ * Równe wartości są zwracane w kolejności numerów ciągów. Ciągi muszą być
+ * posortowane niemalejąco - w przeciwnym razie kolejność wyniku jest
+ * nieokreślona.
+ */
+public final class IntLoserTree implements PrimitiveIterator.OfInt {
+
+    // Wartość bieżąca wyczerpanego ciągu - większa od każdego int
+    private static final long EXHAUSTED = Long.MAX_VALUE;
+
+    private final PrimitiveIterator.OfInt[] runs;
+    private final long[] heads;
+    // tree[0] = numer ciągu-zwycięzcy, tree[1..k-1] = przegrani w węzłach
+    private final int[] tree;
+    private final int k;
+    private long comparisons;
+
+    /**
+     * Tworzy drzewo dla posortowanych ciągów
+     *
+     * @param runs posortowane niemalejąco ciągi (mogą być puste)
+     */
+    public IntLoserTree(PrimitiveIterator.OfInt... runs) {
+        this.k = runs.length;
+        this.runs = runs.clone();
+        this.heads = new long[k];
+        this.tree = new int[Math.max(k, 1)];
+        for (int run = 0; run < k; run++) {
+            heads[run] = pull(run);
+        }
+        tree[0] = k == 0 ? -1 : build(1);
+    }
+
+    /**
+     * Tworzy drzewo dla posortowanych tablic
+     *
+     * @param runs posortowane niemalejąco tablice (nie są kopiowane)
+     * @return drzewo scalające tablice
+     */
+    public static IntLoserTree of(int[]... runs) {
+        PrimitiveIterator.OfInt[] iterators = new PrimitiveIterator.OfInt[runs.length];
+        for (int run = 0; run < runs.length; run++) {
+            iterators[run] = new ArrayRun(runs[run]);
+        }
+        return new IntLoserTree(iterators);
+    }
+
+    /**
+     * Scala posortowane tablice w jedną posortowaną tablicę
+     *
+     * @param runs posortowane niemalejąco tablice
+     * @return nowa tablica ze wszystkimi elementami
+     */
+    // Asymptotyczna złożoność pesymistyczna: O(n log k), średnia: O(n log k)
+    public static int[] merge(int[]... runs) {
+        long total = 0;
+        for (int[] run : runs) {
+            total += run.length;
+        }
+        if (total > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Wynik nie mieści się w tablicy");
+        }
+        int[] result = new int[(int) total];
+        of(runs).read(result, 0, result.length);
+        return result;
+    }
+
+    // Zwycięzca poddrzewa węzła; przegrani zostają w węzłach
+    private int build(int node) {
+        if (node >= k) {
+            return node - k;
+        }
+        int left = build(2 * node);
+        int right = build(2 * node + 1);
+        if (less(right, left)) {
+            tree[node] = left;
+            return right;
+        }
+        tree[node] = right;
+        return left;
+    }
+
+    private long pull(int run) {
+        return runs[run].hasNext() ? runs[run].nextInt() : EXHAUSTED;
+    }
+
+    // Czy bieżący element ciągu a wygrywa z bieżącym elementem ciągu b
+    private boolean less(int a, int b) {
+        comparisons++;
+        return heads[a] < heads[b] || (heads[a] == heads[b] && a < b);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return k > 0 && heads[tree[0]] != EXHAUSTED;
+    }
+
+    // Asymptotyczna złożoność pesymistyczna: O(log k), średnia: O(log k)
+    @Override
+    public int nextInt() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("Wszystkie ciągi zostały scalone");
+        }
+        int winner = tree[0];
+        int value = (int) heads[winner];
+        heads[winner] = pull(winner);
+        // Mecze z przegranymi na ścieżce od liścia do korzenia
+        for (int node = (winner + k) >> 1; node > 0; node >>= 1) {
+            if (less(tree[node], winner)) {
+                int loser = winner;
+                winner = tree[node];
+                tree[node] = loser;
+            }
+        }
+        tree[0] = winner;
+        return value;
+    }
+
+    /**
+     * Zapisuje do bufora kolejne scalone elementy
+     *
+     * @param buffer bufor docelowy
+     * @param offset indeks pierwszego zapisywanego elementu
+     * @param length maksymalna liczba elementów
+     * @return liczba zapisanych elementów (0 po scaleniu wszystkich)
+     */
+    public int read(int[] buffer, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        int count = 0;
+        while (count < length && hasNext()) {
+            buffer[offset + count++] = nextInt();
+        }
+        return count;
+    }
+
+    /**
+     * Zwraca liczbę porównań elementów od utworzenia drzewa (k - 1 przy
+     * budowie i co najwyżej ⌈log2 k⌉ na każdy zwrócony element)
+     *
+     * @return liczba porównań
+     */
+    public long getComparisons() {
+        return comparisons;
+    }
+
+    /**
+     * Ciąg z tablicy bez opakowywania elementów
+     */
+    private static final class ArrayRun implements PrimitiveIterator.OfInt {
+        private final int[] values;
+        private int index;
+
+        ArrayRun(int[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < values.length;
+        }
+
+        @Override
+        public int nextInt() {
+            if (index >= values.length) {
+                throw new NoSuchElementException();
+            }
+            return values[index++];
+        }
+    }
+}
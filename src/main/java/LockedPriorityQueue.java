@@ -0,0 +1,129 @@
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bezpieczna wątkowo kolejka priorytetowa z jedną blokadą
+ *
+ * Każda operacja opakowywanej (jednowątkowej) kolejki jest wykonywana pod
+ * wspólną ReentrantLock. Punkt odniesienia dla FlatCombiningPriorityQueue:
+ * przy wielu wątkach blokada i dane kolejki przechodzą między rdzeniami
+ * przy każdej operacji.
+ *
+ * @param <T> typ elementów w kolejce
+ */
+public class LockedPriorityQueue<T extends Comparable<T> & HasValue> implements PriorityQueue<T> {
+
+    private final PriorityQueue<T> delegate;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Opakowuje kolejkę
+     *
+     * @param delegate opakowywana kolejka; nie może być używana bezpośrednio
+     *                 przez inne wątki
+     */
+    public LockedPriorityQueue(PriorityQueue<T> delegate) {
+        this.delegate = Objects.requireNonNull(delegate);
+    }
+
+    @Override
+    public Position<T> insert(T element) {
+        lock.lock();
+        try {
+            return delegate.insert(element);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T findMin() {
+        lock.lock();
+        try {
+            return delegate.findMin();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T extractMin() {
+        lock.lock();
+        try {
+            return delegate.extractMin();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Position<T> decreaseKey(Position<T> position, T newElement) {
+        lock.lock();
+        try {
+            return delegate.decreaseKey(position, newElement);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T remove(Position<T> position) {
+        lock.lock();
+        try {
+            return delegate.remove(position);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Position<T> updateKey(Position<T> position, T newElement) {
+        lock.lock();
+        try {
+            return delegate.updateKey(position, newElement);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Wynik jest opakowany w nową LockedPriorityQueue
+    @Override
+    public PriorityQueue<T> merge(PriorityQueue<T> other) {
+        lock.lock();
+        try {
+            return new LockedPriorityQueue<>(delegate.merge(other));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        lock.lock();
+        try {
+            return delegate.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return delegate.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            delegate.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
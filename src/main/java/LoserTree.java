@@ -0,0 +1,125 @@
+import java.util.*;
+
+/**
+ * Scalanie k posortowanych ciągów elementów drzewem przegranych
+ *
+ * Odpowiednik IntLoserTree dla elementów HasValue: elementy są porównywane
+ * według wartość(), a równe wartości są zwracane w kolejności numerów
+ * ciągów, a w ciągu - w jego kolejności (scalanie stabilne). Każdy element
+ * wyjściowy kosztuje co najwyżej ⌈log2 k⌉ porównań.
+ *
+ * Ciągi muszą być posortowane niemalejąco według wartość() i nie mogą
+ * zawierać null.
+ *
+ * @param <T> typ elementów
+ */
+public final class LoserTree<T extends HasValue> implements Iterator<T> {
+
+    private final List<Iterator<? extends T>> runs;
+    // Bieżący element ciągu; null = ciąg wyczerpany
+    private final List<T> heads;
+    // tree[0] = numer ciągu-zwycięzcy, tree[1..k-1] = przegrani w węzłach
+    private final int[] tree;
+    private final int k;
+    private long comparisons;
+
+    /**
+     * Tworzy drzewo dla posortowanych ciągów
+     *
+     * @param runs posortowane niemalejąco ciągi (mogą być puste)
+     */
+    public LoserTree(List<? extends Iterator<? extends T>> runs) {
+        this.k = runs.size();
+        this.runs = new ArrayList<>(runs);
+        this.heads = new ArrayList<>(k);
+        this.tree = new int[Math.max(k, 1)];
+        for (int run = 0; run < k; run++) {
+            heads.add(pull(run));
+        }
+        tree[0] = k == 0 ? -1 : build(1);
+    }
+
+    // Zwycięzca poddrzewa węzła; przegrani zostają w węzłach
+    private int build(int node) {
+        if (node >= k) {
+            return node - k;
+        }
+        int left = build(2 * node);
+        int right = build(2 * node + 1);
+        if (less(right, left)) {
+            tree[node] = left;
+            return right;
+        }
+        tree[node] = right;
+        return left;
+    }
+
+    private T pull(int run) {
+        Iterator<? extends T> iterator = runs.get(run);
+        return iterator.hasNext() ? Objects.requireNonNull(iterator.next(), "Ciąg zawiera null") : null;
+    }
+
+    // Czy bieżący element ciągu a wygrywa z bieżącym elementem ciągu b
+    private boolean less(int a, int b) {
+        comparisons++;
+        T x = heads.get(a);
+        T y = heads.get(b);
+        if (x == null || y == null) {
+            return y == null && (x != null || a < b);
+        }
+        return x.wartość() < y.wartość() || (x.wartość() == y.wartość() && a < b);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return k > 0 && heads.get(tree[0]) != null;
+    }
+
+    // Asymptotyczna złożoność pesymistyczna: O(log k), średnia: O(log k)
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("Wszystkie ciągi zostały scalone");
+        }
+        int winner = tree[0];
+        T element = heads.get(winner);
+        heads.set(winner, pull(winner));
+        // Mecze z przegranymi na ścieżce od liścia do korzenia
+        for (int node = (winner + k) >> 1; node > 0; node >>= 1) {
+            if (less(tree[node], winner)) {
+                int loser = winner;
+                winner = tree[node];
+                tree[node] = loser;
+            }
+        }
+        tree[0] = winner;
+        return element;
+    }
+
+    /**
+     * Przenosi do kolekcji co najwyżej maxElements kolejnych scalonych
+     * elementów
+     *
+     * @param collection  kolekcja docelowa
+     * @param maxElements maksymalna liczba elementów
+     * @return liczba przeniesionych elementów (0 po scaleniu wszystkich)
+     */
+    public int drainTo(Collection<? super T> collection, int maxElements) {
+        int count = 0;
+        while (count < maxElements && hasNext()) {
+            collection.add(next());
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Zwraca liczbę porównań elementów od utworzenia drzewa (k - 1 przy
+     * budowie i co najwyżej ⌈log2 k⌉ na każdy zwrócony element)
+     *
+     * @return liczba porównań
+     */
+    public long getComparisons() {
+        return comparisons;
+    }
+}
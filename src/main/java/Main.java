@@ -1,3 +1,7 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
 
 public class Main {
@@ -46,20 +50,9 @@ public class Main {
     }
 
     public static int[] heapSort(int[] numbers, int pqType) {
-        PriorityQueue<IntElement> pq;
-        switch (pqType) {
-            case 1:
-                pq = new SortedStackPriorityQueue<>();
-                break;
-            case 2:
-                pq = new BSTPriorityQueue<>();
-                break; // Dodano brakujące break
-            case 3:
-                pq = new BucketPriorityQueue<>();
-                break; // Dodano brakujące break
-            default:
-                throw new IllegalArgumentException("Nieprawidłowy typ kolejki");
-        }
+        // Sortowanie: wszystkie wstawienia przed wyjęciami, bez decreaseKey i merge
+        PriorityQueue<IntElement> pq = PriorityQueueRegistry.create(pqType,
+                new PriorityQueueFactory.Hints(PriorityQueue.N, numbers.length, true, false, false));
 
         // Wstaw wszystkie elementy do kolejki priorytetowej
         for (int number : numbers) {
@@ -112,28 +105,24 @@ public class Main {
      * Testuje wszystkie implementacje kolejek priorytetowych
      */
     public static void testAllImplementations(int[] originalData) {
-        String[] implementationNames = {
-                "Sorted Stack",
-                "BST",
-                "Bucket Queue"
-        };
+        List<PriorityQueueFactory> factories = PriorityQueueRegistry.factories();
 
         System.out.println("Dane wejściowe: " + Arrays.toString(originalData));
         System.out.println("Liczba elementów: " + originalData.length);
         System.out.println();
 
         boolean allCorrect = true;
-        int[][] results = new int[3][];
+        int[][] results = new int[factories.size()][];
         int workingImplementations = 0;
 
-        // Testuj każdą implementację
-        for (int i = 1; i <= 3; i++) {
-            System.out.printf("Testowanie: %s\n", implementationNames[i - 1]);
+        // Testuj każdą zarejestrowaną implementację
+        for (int i = 0; i < factories.size(); i++) {
+            System.out.printf("Testowanie: %s\n", factories.get(i).getName());
 
             try {
                 // Sortuj używając i-tej implementacji
-                int[] sortedResult = heapSort(originalData.clone(), i);
-                results[i - 1] = sortedResult;
+                int[] sortedResult = heapSort(originalData.clone(), factories.get(i).getType());
+                results[i] = sortedResult;
                 workingImplementations++;
 
                 // Sprawdź poprawność
@@ -187,9 +176,9 @@ public class Main {
             }
         } else if (workingImplementations == 1) {
             if (allCorrect) {
-                System.out.println("✓ Jedyna działająca implementacja (Sorted Stack) działa poprawnie!");
+                System.out.println("✓ Jedyna działająca implementacja działa poprawnie!");
             } else {
-                System.out.println("✗ Implementacja Sorted Stack ma błędy!");
+                System.out.println("✗ Jedyna działająca implementacja ma błędy!");
             }
         } else {
             System.out.println("✗ Żadna implementacja nie działa!");
@@ -220,8 +209,9 @@ public class Main {
             System.out.println("Podaj wierzchołek początkowy dla algorytmu Dijkstry:");
             int source = scanner.nextInt();
 
-            System.out.println("Wybierz typ kolejki priorytetowej (1=SortedStack, 2=BST, 3=Bucket):");
-            int priorityQueueType = scanner.nextInt();
+            System.out.println("Wybierz typ kolejki priorytetowej (" + PriorityQueueRegistry.describeTypes()
+                    + ", 0 lub auto=automatycznie, albo nazwa):");
+            int priorityQueueType = PriorityQueueRegistry.parseType(scanner.next());
 
             // Uruchomienie algorytmu Dijkstry
             WeightedGraph.DijkstraResult result = graph.dijkstra(source, priorityQueueType);
@@ -236,10 +226,172 @@ public class Main {
         }
     }
 
+    /**
+     * Tryb nieinteraktywny: wczytuje graf z pliku i uruchamia algorytm Dijkstry
+     * Użycie: --graph plik [--format dimacs|edges] [--source v] [--queue typ|nazwa|auto]
+     * [--threads p]
+     */
+    public static void runDijkstraFromFile(String[] args) throws IOException {
+        Path path = null;
+        GraphLoader.Format format = null;
+        int source = 0;
+        int priorityQueueType = PriorityQueueRegistry.AUTO;
+        int threads = 1;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--graph":
+                    path = Paths.get(requireValue(args, ++i));
+                    break;
+                case "--format":
+                    format = parseFormat(requireValue(args, ++i));
+                    break;
+                case "--source":
+                    source = Integer.parseInt(requireValue(args, ++i));
+                    break;
+                case "--queue":
+                    priorityQueueType = PriorityQueueRegistry.parseType(requireValue(args, ++i));
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(requireValue(args, ++i));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Nieznana opcja: " + args[i]);
+            }
+        }
+
+        if (path == null) {
+            throw new IllegalArgumentException("Brak opcji --graph");
+        }
+        if (format == null) {
+            format = path.toString().endsWith(".gr") ? GraphLoader.Format.DIMACS : GraphLoader.Format.EDGE_LIST;
+        }
+
+        long startTime = System.nanoTime();
+        WeightedGraph graph = GraphLoader.load(path, format, threads);
+        double loadSeconds = (System.nanoTime() - startTime) / 1e9;
+        double megabytes = Files.size(path) / (1024.0 * 1024.0);
+
+        System.out.printf("Wczytano graf: %d wierzchołków, %d krawędzi w %.2f s (%.1f MB/s)%n",
+                graph.getVertexCount(), graph.getEdgeCount(), loadSeconds, megabytes / loadSeconds);
+
+        startTime = System.nanoTime();
+        WeightedGraph.DijkstraResult result = graph.dijkstra(source, priorityQueueType);
+        double dijkstraMillis = (System.nanoTime() - startTime) / 1e6;
+
+        if (graph.getVertexCount() <= 100) {
+            System.out.println(result);
+        }
+        long reachable = result.getAllDistances().values().stream()
+                .filter(distance -> distance != Integer.MAX_VALUE)
+                .count();
+        System.out.printf("Dijkstra z wierzchołka %d: %d osiągalnych wierzchołków, czas %.2f ms%n",
+                source, reachable, dijkstraMillis);
+    }
+
+    /**
+     * Tryb nieinteraktywny: sortuje zewnętrznie binarny plik liczb int
+     * Użycie: --external-sort wejście wyjście [--method replacement|counting]
+     * [--memory elementy] [--fan-in k] [--queue typ|nazwa|auto] [--temp katalog]
+     */
+    public static void runExternalSort(String[] args) throws IOException {
+        if (args.length < 3) {
+            throw new IllegalArgumentException("Brak plików wejściowego i wyjściowego dla --external-sort");
+        }
+        Path input = Paths.get(args[1]);
+        Path output = Paths.get(args[2]);
+        ExternalSort.Method method = ExternalSort.Method.REPLACEMENT_SELECTION;
+        int memory = ExternalSort.DEFAULT_MEMORY_ELEMENTS;
+        int fanIn = ExternalSort.DEFAULT_FAN_IN;
+        int priorityQueueType = PriorityQueueRegistry.AUTO;
+        Path temp = null;
+
+        for (int i = 3; i < args.length; i++) {
+            switch (args[i]) {
+                case "--method":
+                    method = parseMethod(requireValue(args, ++i));
+                    break;
+                case "--memory":
+                    memory = Integer.parseInt(requireValue(args, ++i));
+                    break;
+                case "--fan-in":
+                    fanIn = Integer.parseInt(requireValue(args, ++i));
+                    break;
+                case "--queue":
+                    priorityQueueType = PriorityQueueRegistry.parseType(requireValue(args, ++i));
+                    break;
+                case "--temp":
+                    temp = Paths.get(requireValue(args, ++i));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Nieznana opcja: " + args[i]);
+            }
+        }
+
+        boolean ownTemp = temp == null;
+        if (ownTemp) {
+            temp = Files.createTempDirectory("external-sort");
+        }
+        try {
+            ExternalSort sorter = new ExternalSort(priorityQueueType, memory, fanIn, ExternalSort.DEFAULT_BLOCK_SIZE,
+                    temp);
+            ExternalSort.Result result = sorter.sort(input, output, method);
+            System.out.printf("Posortowano %d liczb (%.1f MB) w %.2f s: %.1f MB/s, %d serii, %d przebiegów scalania%n",
+                    result.getElements(), result.getBytes() / (1024.0 * 1024.0), result.getSeconds(),
+                    result.getMegabytesPerSecond(), result.getRuns(), result.getMergePasses());
+        } finally {
+            if (ownTemp) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    private static String requireValue(String[] args, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Brak wartości dla opcji " + args[index - 1]);
+        }
+        return args[index];
+    }
+
+    private static GraphLoader.Format parseFormat(String value) {
+        if (value.equalsIgnoreCase("dimacs")) {
+            return GraphLoader.Format.DIMACS;
+        }
+        if (value.equalsIgnoreCase("edges")) {
+            return GraphLoader.Format.EDGE_LIST;
+        }
+        throw new IllegalArgumentException("Nieznany format: " + value);
+    }
+
+    private static ExternalSort.Method parseMethod(String value) {
+        if (value.equalsIgnoreCase("replacement")) {
+            return ExternalSort.Method.REPLACEMENT_SELECTION;
+        }
+        if (value.equalsIgnoreCase("counting")) {
+            return ExternalSort.Method.COUNTING;
+        }
+        throw new IllegalArgumentException("Nieznana metoda: " + value);
+    }
+
     /**
      * Główna funkcja programu
      */
     public static void main(String[] args) {
+        if (args.length > 0) {
+            try {
+                if (args[0].equals("--external-sort")) {
+                    runExternalSort(args);
+                } else {
+                    runDijkstraFromFile(args);
+                }
+            } catch (Exception e) {
+                // Kod wyjścia różny od 0 - błąd widoczny dla skryptów
+                System.err.println("Błąd: " + e.getMessage());
+                System.exit(1);
+            }
+            return;
+        }
+
         Scanner scanner = new Scanner(System.in);
 
         try {
@@ -0,0 +1,543 @@
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.*;
+
+/**
+ * Kolejka priorytetowa przechowująca elementy poza stertą Javy
+ *
+ * Elementy są zapisywane jako (klucz int, dane long) przez Codec, więc
+ * kolejka nie trzyma referencji do obiektów - GC nie przegląda jej zawartości
+ * niezależnie od rozmiaru (do ok. 2^31 elementów). Pamięć to bezpośrednie
+ * ByteBuffery (limit ustawia -XX:MaxDirectMemorySize), przydzielane
+ * fragmentami bez kopiowania przy wzroście i zwalniane jawnie przez close().
+ *
+ * Układ: kopiec 4-arny, wpis ma 16 bajtów (klucz, uchwyt, dane), a czwórki
+ * rodzeństwa są wyrównane do 64-bajtowych linii cache - schodzenie w dół
+ * czyta jedną linię na poziom. Uchwyty (indeks w kopcu + generacja)
+ * w osobnej tablicy pozwalają na decreaseKey.
+ *
+ * Elementy o równym kluczu są porządkowane według danych (a nie compareTo).
+ * Kolejka nie jest bezpieczna wątkowo.
+ *
+ * @param <T> typ elementów
+ */
+public class OffHeapPriorityQueue<T extends Comparable<T> & HasValue>
+        implements PriorityQueue<T>, AutoCloseable {
+
+    /**
+     * Zamiana elementu na dane zapisywane poza stertą i z powrotem
+     * Kluczem jest zawsze element.wartość().
+     *
+     * @param <T> typ elementów
+     */
+    public interface Codec<T> {
+
+        /**
+         * Koduje element (bez klucza) jako liczbę long
+         *
+         * @param element element
+         * @return dane elementu
+         */
+        long encode(T element);
+
+        /**
+         * Odtwarza element z klucza i danych
+         *
+         * @param key     klucz (wartość elementu)
+         * @param payload dane zwrócone przez encode()
+         * @return element
+         */
+        T decode(int key, long payload);
+    }
+
+    /**
+     * Domyślna liczba wpisów we fragmencie pamięci (1 MB kopca)
+     */
+    public static final int DEFAULT_CHUNK_ENTRIES = 1 << 16;
+
+    private static final int ARITY = 4;
+    private static final int ENTRY_BYTES = 16;
+    private static final int HANDLE_BYTES = 8;
+    private static final int CACHE_LINE = 64;
+    // Element i leży w slocie i + 3, więc dzieci 4i+1..4i+4 zajmują sloty
+    // 4i+4..4i+7 - wyrównaną linię cache
+    private static final int SLOT_OFFSET = ARITY - 1;
+    private static final int MAX_SIZE = Integer.MAX_VALUE - SLOT_OFFSET;
+    // Wolne uchwyty tworzą listę: indeks -2 - następny wolny (-1 = koniec)
+    private static final int NO_FREE_HANDLE = -1;
+
+    private static final MethodHandle INVOKE_CLEANER = findCleaner();
+
+    private final Codec<T> codec;
+    private final int chunkEntries;
+    private final int chunkShift;
+    private final int chunkMask;
+
+    private ByteBuffer[] heapChunks = new ByteBuffer[0];
+    private ByteBuffer[] handleChunks = new ByteBuffer[0];
+    // Bufory zwrócone przez allocateDirect (wyrównane są ich wycinkami)
+    private final List<ByteBuffer> allocated = new ArrayList<>();
+
+    private int size;
+    private int handleCount;
+    private int freeHandle = NO_FREE_HANDLE;
+    private boolean closed;
+
+    /**
+     * Tworzy pustą kolejkę z domyślnym rozmiarem fragmentu
+     *
+     * @param codec zamiana elementów na dane poza stertą
+     */
+    public OffHeapPriorityQueue(Codec<T> codec) {
+        this(codec, DEFAULT_CHUNK_ENTRIES);
+    }
+
+    /**
+     * Tworzy pustą kolejkę
+     *
+     * @param codec        zamiana elementów na dane poza stertą
+     * @param chunkEntries liczba wpisów przydzielanych naraz (potęga dwójki,
+     *                     co najmniej 4)
+     * @throws IllegalArgumentException jeśli chunkEntries nie jest potęgą
+     *                                  dwójki >= 4
+     */
+    public OffHeapPriorityQueue(Codec<T> codec, int chunkEntries) {
+        if (chunkEntries < ARITY || Integer.bitCount(chunkEntries) != 1
+                || (long) chunkEntries * ENTRY_BYTES > Integer.MAX_VALUE - CACHE_LINE) {
+            throw new IllegalArgumentException("Rozmiar fragmentu musi być potęgą dwójki >= " + ARITY);
+        }
+        this.codec = Objects.requireNonNull(codec);
+        this.chunkEntries = chunkEntries;
+        this.chunkShift = Integer.numberOfTrailingZeros(chunkEntries);
+        this.chunkMask = chunkEntries - 1;
+    }
+
+    // Asymptotyczna złożoność pesymistyczna: O(log n), średnia: O(1)
+    // Przesiewanie w górę kopca 4-arnego
+    @Override
+    public Position<T> insert(T element) {
+        checkOpen();
+        if (element.wartość() < 0 || element.wartość() > N) {
+            throw new IllegalArgumentException("Element value must be in range [0, " + N + "]");
+        }
+        int handle = insertRaw(element.wartość(), codec.encode(element));
+        return new OffHeapPosition(handle, generation(handle));
+    }
+
+    private int insertRaw(int key, long payload) {
+        if (size == MAX_SIZE) {
+            throw new IllegalStateException("Przekroczono maksymalny rozmiar kolejki");
+        }
+        ensureHeapCapacity(size + 1);
+        int handle = allocateHandle();
+        siftUp(size++, key, handle, payload);
+        return handle;
+    }
+
+    // Asymptotyczna złożoność pesymistyczna: O(1), średnia: O(1)
+    @Override
+    public T findMin() {
+        checkOpen();
+        if (isEmpty()) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        return codec.decode(key(0), payload(0));
+    }
+
+    // Asymptotyczna złożoność pesymistyczna: O(log n), średnia: O(log n)
+    // Ostatni element trafia do korzenia i jest przesiewany w dół
+    @Override
+    public T extractMin() {
+        checkOpen();
+        if (isEmpty()) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+
+        T min = codec.decode(key(0), payload(0));
+        releaseHandle(handle(0));
+        size--;
+        if (size > 0) {
+            siftDown(0, key(size), handle(size), payload(size));
+        }
+        return min;
+    }
+
+    // Asymptotyczna złożoność pesymistyczna: O(log n), średnia: O(log n)
+    // Nowy klucz jest mniejszy, więc wystarczy przesiać element w górę
+    @Override
+    public Position<T> decreaseKey(Position<T> position, T newElement) {
+        checkOpen();
+        if (!(position instanceof OffHeapPriorityQueue<?>.OffHeapPosition)) {
+            throw new IllegalArgumentException("Invalid position type");
+        }
+
+        @SuppressWarnings("unchecked")
+        OffHeapPosition offHeapPos = (OffHeapPosition) position;
+
+        if (!offHeapPos.isValid() || offHeapPos.queue() != this || newElement.wartość() < 0
+                || newElement.wartość() > N) {
+            throw new IllegalArgumentException("Invalid operation");
+        }
+
+        int index = heapIndex(offHeapPos.handle);
+        if (newElement.wartość() >= key(index)) {
+            throw new IllegalArgumentException("New element value must be smaller");
+        }
+
+        // Nowa generacja unieważnia przekazaną pozycję
+        int handle = offHeapPos.handle;
+        setGeneration(handle, generation(handle) + 1);
+        siftUp(index, newElement.wartość(), handle, codec.encode(newElement));
+        return new OffHeapPosition(handle, generation(handle));
+    }
+
+    // Asymptotyczna złożoność pesymistyczna: O(log n), średnia: O(log n)
+    // Ostatni wpis trafia na miejsce usuniętego i jest przesiewany w górę
+    // albo w dół
+    @Override
+    public T remove(Position<T> position) {
+        checkOpen();
+        if (!(position instanceof OffHeapPriorityQueue<?>.OffHeapPosition)) {
+            throw new IllegalArgumentException("Invalid position type");
+        }
+
+        @SuppressWarnings("unchecked")
+        OffHeapPosition offHeapPos = (OffHeapPosition) position;
+
+        if (!offHeapPos.isValid() || offHeapPos.queue() != this) {
+            throw new IllegalArgumentException("Invalid operation");
+        }
+
+        int index = heapIndex(offHeapPos.handle);
+        T removed = codec.decode(key(index), payload(index));
+        releaseHandle(offHeapPos.handle);
+        size--;
+        if (index < size) {
+            int key = key(size);
+            int handle = handle(size);
+            long payload = payload(size);
+            if (index > 0 && less(key, payload, key((index - 1) / ARITY), payload((index - 1) / ARITY))) {
+                siftUp(index, key, handle, payload);
+            } else {
+                siftDown(index, key, handle, payload);
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Tworzy kolejkę ze wszystkich elementów tablicy
+     *
+     * @param elements elementy (wartości z [0, N])
+     * @param codec    zamiana elementów na dane poza stertą
+     * @return nowa kolejka
+     * @throws IllegalArgumentException jeśli wartość elementu wykracza poza
+     *                                  [0, N]
+     */
+    // Asymptotyczna złożoność pesymistyczna: O(n), średnia: O(n)
+    // Przesiewanie w dół od ostatniego rodzica (Floyd)
+    public static <T extends Comparable<T> & HasValue> OffHeapPriorityQueue<T> buildHeap(T[] elements,
+            Codec<T> codec) {
+        OffHeapPriorityQueue<T> pq = new OffHeapPriorityQueue<>(codec);
+        pq.ensureHeapCapacity(elements.length);
+        for (T element : elements) {
+            if (element.wartość() < 0 || element.wartość() > N) {
+                pq.close();
+                throw new IllegalArgumentException("Element value must be in range [0, " + N + "]");
+            }
+            int handle = pq.allocateHandle();
+            pq.writeEntry(pq.size++, element.wartość(), handle, codec.encode(element));
+        }
+        if (pq.size > 1) {
+            for (int i = (pq.size - 2) / ARITY; i >= 0; i--) {
+                pq.siftDown(i, pq.key(i), pq.handle(i), pq.payload(i));
+            }
+        }
+        return pq;
+    }
+
+    // Asymptotyczna złożoność pesymistyczna: O((n + m) log(n + m)), średnia:
+    // O(n + m log(n + m))
+    // Wpisy tej kolejki są kopiowane bez dekodowania
+    @Override
+    public PriorityQueue<T> merge(PriorityQueue<T> other) {
+        checkOpen();
+        OffHeapPriorityQueue<T> result = new OffHeapPriorityQueue<>(codec, chunkEntries);
+
+        // Kolejność wpisów w tablicy kopca jest poprawnym kopcem
+        result.ensureHeapCapacity(size);
+        for (int i = 0; i < size; i++) {
+            int handle = result.allocateHandle();
+            result.writeEntry(i, key(i), handle, payload(i));
+        }
+        result.size = size;
+
+        while (!other.isEmpty()) {
+            result.insert(other.extractMin());
+        }
+        return result;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        checkOpen();
+        for (int i = 0; i < size; i++) {
+            releaseHandle(handle(i));
+        }
+        size = 0;
+    }
+
+    /**
+     * Zwalnia pamięć poza stertą; kolejka i jej pozycje przestają być ważne
+     * Kolejne wywołania nic nie robią.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        size = 0;
+        heapChunks = new ByteBuffer[0];
+        handleChunks = new ByteBuffer[0];
+        for (ByteBuffer buffer : allocated) {
+            free(buffer);
+        }
+        allocated.clear();
+    }
+
+    /**
+     * Sprawdza, czy kolejka została zamknięta
+     *
+     * @return true po wywołaniu close()
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Zwraca liczbę bajtów zarezerwowanych poza stertą
+     *
+     * @return rozmiar kopca i tablicy uchwytów w bajtach
+     */
+    public long getReservedBytes() {
+        long bytes = 0;
+        for (ByteBuffer buffer : allocated) {
+            bytes += buffer.capacity();
+        }
+        return bytes;
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Kolejka została zamknięta");
+        }
+    }
+
+    // Przesiewa wpis (key, handle, payload) w górę od pozycji index
+    private void siftUp(int index, int key, int handle, long payload) {
+        while (index > 0) {
+            int parent = (index - 1) / ARITY;
+            if (!less(key, payload, key(parent), payload(parent))) {
+                break;
+            }
+            writeEntry(index, key(parent), handle(parent), payload(parent));
+            index = parent;
+        }
+        writeEntry(index, key, handle, payload);
+    }
+
+    // Przesiewa wpis (key, handle, payload) w dół od pozycji index
+    private void siftDown(int index, int key, int handle, long payload) {
+        while (true) {
+            int first = ARITY * index + 1;
+            if (first >= size) {
+                break;
+            }
+            // Dzieci leżą w jednej linii cache
+            int last = Math.min(first + ARITY, size);
+            int child = first;
+            int childKey = key(first);
+            long childPayload = payload(first);
+            for (int i = first + 1; i < last; i++) {
+                int otherKey = key(i);
+                long otherPayload = payload(i);
+                if (less(otherKey, otherPayload, childKey, childPayload)) {
+                    child = i;
+                    childKey = otherKey;
+                    childPayload = otherPayload;
+                }
+            }
+            if (!less(childKey, childPayload, key, payload)) {
+                break;
+            }
+            writeEntry(index, childKey, handle(child), childPayload);
+            index = child;
+        }
+        writeEntry(index, key, handle, payload);
+    }
+
+    private static boolean less(int key, long payload, int otherKey, long otherPayload) {
+        return key < otherKey || key == otherKey && payload < otherPayload;
+    }
+
+    // Dostęp do wpisów kopca
+
+    private ByteBuffer heapChunk(int index) {
+        return heapChunks[(index + SLOT_OFFSET) >>> chunkShift];
+    }
+
+    private int heapOffset(int index) {
+        return ((index + SLOT_OFFSET) & chunkMask) * ENTRY_BYTES;
+    }
+
+    private int key(int index) {
+        return heapChunk(index).getInt(heapOffset(index));
+    }
+
+    private int handle(int index) {
+        return heapChunk(index).getInt(heapOffset(index) + 4);
+    }
+
+    private long payload(int index) {
+        return heapChunk(index).getLong(heapOffset(index) + 8);
+    }
+
+    private void writeEntry(int index, int key, int handle, long payload) {
+        ByteBuffer chunk = heapChunk(index);
+        int offset = heapOffset(index);
+        chunk.putInt(offset, key);
+        chunk.putInt(offset + 4, handle);
+        chunk.putLong(offset + 8, payload);
+        setHeapIndex(handle, index);
+    }
+
+    private void ensureHeapCapacity(int capacity) {
+        long slots = (long) capacity + SLOT_OFFSET;
+        while ((long) heapChunks.length * chunkEntries < slots) {
+            heapChunks = Arrays.copyOf(heapChunks, heapChunks.length + 1);
+            heapChunks[heapChunks.length - 1] = allocate(chunkEntries * ENTRY_BYTES);
+        }
+    }
+
+    // Uchwyty: indeks w kopcu i generacja (zmieniana przy zwolnieniu
+    // i decreaseKey, żeby stare pozycje były nieważne)
+
+    private int heapIndex(int handle) {
+        return handleChunks[handle >>> chunkShift].getInt((handle & chunkMask) * HANDLE_BYTES);
+    }
+
+    private void setHeapIndex(int handle, int index) {
+        handleChunks[handle >>> chunkShift].putInt((handle & chunkMask) * HANDLE_BYTES, index);
+    }
+
+    private int generation(int handle) {
+        return handleChunks[handle >>> chunkShift].getInt((handle & chunkMask) * HANDLE_BYTES + 4);
+    }
+
+    private void setGeneration(int handle, int generation) {
+        handleChunks[handle >>> chunkShift].putInt((handle & chunkMask) * HANDLE_BYTES + 4, generation);
+    }
+
+    private int allocateHandle() {
+        if (freeHandle != NO_FREE_HANDLE) {
+            int handle = freeHandle;
+            freeHandle = -2 - heapIndex(handle);
+            return handle;
+        }
+        if (handleCount == handleChunks.length * chunkEntries) {
+            handleChunks = Arrays.copyOf(handleChunks, handleChunks.length + 1);
+            handleChunks[handleChunks.length - 1] = allocate(chunkEntries * HANDLE_BYTES);
+        }
+        return handleCount++;
+    }
+
+    private void releaseHandle(int handle) {
+        setGeneration(handle, generation(handle) + 1);
+        setHeapIndex(handle, -2 - freeHandle);
+        freeHandle = handle;
+    }
+
+    private boolean isLive(int handle, int generation) {
+        return !closed && handle < handleCount && generation(handle) == generation && heapIndex(handle) >= 0;
+    }
+
+    // alignedSlice obcina też koniec bufora do wielokrotności linii cache,
+    // więc rozmiar jest najpierw zaokrąglany w górę
+    private ByteBuffer allocate(int bytes) {
+        int padded = (bytes + CACHE_LINE - 1) & -CACHE_LINE;
+        ByteBuffer buffer = ByteBuffer.allocateDirect(padded + CACHE_LINE);
+        allocated.add(buffer);
+        return buffer.alignedSlice(CACHE_LINE).order(ByteOrder.nativeOrder());
+    }
+
+    // Bufor bezpośredni bez jawnego zwolnienia zwalnia dopiero GC; na JDK
+    // z modułem jdk.unsupported można to zrobić od razu
+    private static void free(ByteBuffer buffer) {
+        if (INVOKE_CLEANER != null) {
+            try {
+                INVOKE_CLEANER.invokeExact(buffer);
+            } catch (Throwable e) {
+                // Pamięć zwolni GC
+            }
+        }
+    }
+
+    private static MethodHandle findCleaner() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(field.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Pozycja: uchwyt i jego generacja z chwili utworzenia
+     */
+    private final class OffHeapPosition implements Position<T> {
+        final int handle;
+        final int generation;
+
+        OffHeapPosition(int handle, int generation) {
+            this.handle = handle;
+            this.generation = generation;
+        }
+
+        OffHeapPriorityQueue<T> queue() {
+            return OffHeapPriorityQueue.this;
+        }
+
+        @Override
+        public T getElement() {
+            if (!isValid()) {
+                throw new IllegalStateException("Pozycja jest nieważna");
+            }
+            int index = heapIndex(handle);
+            return codec.decode(key(index), payload(index));
+        }
+
+        @Override
+        public boolean isValid() {
+            return isLive(handle, generation);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Równoległe sortowanie tablic int z zakresu [0, N] na ForkJoinPool
+ *
+ * Tryb kolejek (typ z PriorityQueueRegistry): wejście dzielone jest na
+ * fragmenty, każdy wątek sortuje swój fragment własną kolejką (insert +
+ * extractMin), a posortowane serie są scalane k-drożnie - również
+ * równolegle, bo każdy przedział wartości [lo, hi) można scalić niezależnie,
+ * a jego pozycję w wyniku wyznacza liczba mniejszych elementów we
+ * wszystkich seriach. Pozwala to porównać implementacje kolejek na wielu
+ * rdzeniach.
+ *
+ * Tryb COUNTING: histogram każdego fragmentu, sumy prefiksowe i równoległe
+ * wypełnienie wyniku - O(n + N) bez kolejek.
+ */
+public final class ParallelHeapSort {
+
+    /**
+     * Typ oznaczający sortowanie przez zliczanie zamiast kolejek
+     */
+    public static final int COUNTING = -1;
+
+    // Mniejsze fragmenty nie opłacają się przez koszt utworzenia zadań
+    private static final int MIN_CHUNK = 1 << 13;
+    // Fragmentów jest kilka razy więcej niż wątków, żeby wyrównać obciążenie
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private static final int N = PriorityQueue.N;
+
+    private ParallelHeapSort() {
+    }
+
+    /**
+     * Sortuje tablicę na wspólnej puli ForkJoinPool.commonPool()
+     *
+     * @param numbers liczby z zakresu [0, N]
+     * @param pqType  numer typu z PriorityQueueRegistry,
+     *                PriorityQueueRegistry.AUTO albo COUNTING
+     * @return nowa, posortowana rosnąco tablica
+     * @throws IllegalArgumentException jeśli liczba jest poza zakresem lub typ
+     *                                  kolejki jest nieprawidłowy
+     */
+    public static int[] sort(int[] numbers, int pqType) {
+        return sort(numbers, pqType, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Sortuje tablicę na podanej puli
+     *
+     * @param numbers liczby z zakresu [0, N]
+     * @param pqType  numer typu z PriorityQueueRegistry,
+     *                PriorityQueueRegistry.AUTO albo COUNTING
+     * @param pool    pula wykonująca zadania
+     * @return nowa, posortowana rosnąco tablica
+     * @throws IllegalArgumentException jeśli liczba jest poza zakresem lub typ
+     *                                  kolejki jest nieprawidłowy
+     */
+    public static int[] sort(int[] numbers, int pqType, ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        int chunkCount = Math.max(1, Math.min(pool.getParallelism() * CHUNKS_PER_THREAD,
+                numbers.length / MIN_CHUNK));
+        int[] chunkStart = new int[chunkCount + 1];
+        for (int i = 0; i <= chunkCount; i++) {
+            chunkStart[i] = (int) ((long) numbers.length * i / chunkCount);
+        }
+
+        if (pqType == COUNTING) {
+            return countingSort(numbers, chunkStart, pool);
+        }
+        return queueSort(numbers, chunkStart, pqType, pool);
+    }
+
+    // Asymptotyczna złożoność pesymistyczna: O(n log n / p + n log k / p),
+    // gdzie k to liczba serii (zależnie od kolejki, np. O(n²) dla SortedStack)
+    private static int[] queueSort(int[] numbers, int[] chunkStart, int pqType, ForkJoinPool pool) {
+        int chunkCount = chunkStart.length - 1;
+        // Sprawdza typ od razu, a nie w zadaniach
+        int runType = PriorityQueueRegistry.resolve(pqType, new PriorityQueueFactory.Hints(N,
+                chunkStart[1] - chunkStart[0], true, false, false));
+        int mergeType = PriorityQueueRegistry.resolve(pqType, new PriorityQueueFactory.Hints(N,
+                chunkCount, true, false, false));
+
+        // Etap 1: każdy fragment sortowany własną kolejką
+        int[] runs = new int[numbers.length];
+        forEach(pool, chunkCount, chunk -> {
+            PriorityQueue<Main.IntElement> pq = PriorityQueueRegistry.get(runType).create();
+            for (int i = chunkStart[chunk]; i < chunkStart[chunk + 1]; i++) {
+                pq.insert(new Main.IntElement(checkRange(numbers[i])));
+            }
+            for (int i = chunkStart[chunk]; i < chunkStart[chunk + 1]; i++) {
+                runs[i] = pq.extractMin().getValue();
+            }
+        });
+        if (chunkCount == 1) {
+            return runs;
+        }
+
+        // Etap 2: k-drożne scalanie niezależnych przedziałów wartości
+        int[] sorted = new int[numbers.length];
+        int sliceCount = Math.min(chunkCount, N + 1);
+        forEach(pool, sliceCount, slice -> {
+            int lo = (int) ((long) (N + 1) * slice / sliceCount);
+            int hi = (int) ((long) (N + 1) * (slice + 1) / sliceCount);
+
+            int[] next = new int[chunkCount];
+            int[] end = new int[chunkCount];
+            int offset = 0;
+            PriorityQueue<RunHead> heads = PriorityQueueRegistry.get(mergeType).create();
+            for (int run = 0; run < chunkCount; run++) {
+                next[run] = lowerBound(runs, chunkStart[run], chunkStart[run + 1], lo);
+                end[run] = lowerBound(runs, next[run], chunkStart[run + 1], hi);
+                offset += next[run] - chunkStart[run];
+                if (next[run] < end[run]) {
+                    heads.insert(new RunHead(runs[next[run]], run));
+                }
+            }
+
+            while (!heads.isEmpty()) {
+                RunHead head = heads.extractMin();
+                sorted[offset++] = head.value;
+                int run = head.run;
+                if (++next[run] < end[run]) {
+                    heads.insert(new RunHead(runs[next[run]], run));
+                }
+            }
+        });
+        return sorted;
+    }
+
+    // Asymptotyczna złożoność pesymistyczna: O(n / p + N * k / p)
+    private static int[] countingSort(int[] numbers, int[] chunkStart, ForkJoinPool pool) {
+        int chunkCount = chunkStart.length - 1;
+
+        // Etap 1: histogram każdego fragmentu
+        int[][] histograms = new int[chunkCount][];
+        forEach(pool, chunkCount, chunk -> {
+            int[] histogram = new int[N + 1];
+            for (int i = chunkStart[chunk]; i < chunkStart[chunk + 1]; i++) {
+                histogram[checkRange(numbers[i])]++;
+            }
+            histograms[chunk] = histogram;
+        });
+
+        // Etap 2: sumy prefiksowe - początek każdej wartości w wyniku
+        int[] start = new int[N + 2];
+        for (int value = 0; value <= N; value++) {
+            int count = 0;
+            for (int[] histogram : histograms) {
+                count += histogram[value];
+            }
+            start[value + 1] = start[value] + count;
+        }
+
+        // Etap 3: równoległe wypełnienie przedziałów wartości
+        int[] sorted = new int[numbers.length];
+        int sliceCount = Math.min(chunkCount, N + 1);
+        forEach(pool, sliceCount, slice -> {
+            int lo = (int) ((long) (N + 1) * slice / sliceCount);
+            int hi = (int) ((long) (N + 1) * (slice + 1) / sliceCount);
+            for (int value = lo; value < hi; value++) {
+                Arrays.fill(sorted, start[value], start[value + 1], value);
+            }
+        });
+        return sorted;
+    }
+
+    private static int checkRange(int number) {
+        if (number < 0 || number > N) {
+            throw new IllegalArgumentException("Liczba " + number + " jest poza zakresem [0, " + N + "]");
+        }
+        return number;
+    }
+
+    // Pierwszy indeks z [from, to), pod którym wartość jest >= key
+    private static int lowerBound(int[] sorted, int from, int to, int key) {
+        while (from < to) {
+            int middle = (from + to) >>> 1;
+            if (sorted[middle] < key) {
+                from = middle + 1;
+            } else {
+                to = middle;
+            }
+        }
+        return from;
+    }
+
+    // Wykonuje task(0..count-1) jako osobne zadania puli i czeka na wszystkie
+    private static void forEach(ForkJoinPool pool, int count, IntConsumer task) {
+        if (count == 1) {
+            task.accept(0);
+            return;
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                List<RecursiveAction> actions = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    int index = i;
+                    actions.add(new RecursiveAction() {
+                        @Override
+                        protected void compute() {
+                            task.accept(index);
+                        }
+                    });
+                }
+                invokeAll(actions);
+            }
+        });
+    }
+
+    /**
+     * Bieżący element serii podczas scalania (równe wartości porządkowane
+     * numerem serii)
+     */
+    private static final class RunHead implements Comparable<RunHead>, HasValue {
+        final int value;
+        final int run;
+
+        RunHead(int value, int run) {
+            this.value = value;
+            this.run = run;
+        }
+
+        @Override
+        public int wartość() {
+            return value;
+        }
+
+        @Override
+        public int compareTo(RunHead other) {
+            int result = Integer.compare(value, other.value);
+            return result != 0 ? result : Integer.compare(run, other.run);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+import java.util.*;
+
+/**
+ * Trwały (niezmienny) kopiec lewicowy
+ *
+ * insert, deleteMin i meld nie zmieniają kopca, tylko zwracają nową wersję,
+ * która współdzieli z poprzednią wszystkie węzły poza ścieżką zmian
+ * (prawym grzbietem, O(log n) węzłów). Zachowanie starej wersji jest więc
+ * darmowe, a każda operacja alokuje tylko O(log n) nowych węzłów.
+ *
+ * Ranga węzła to długość jego prawego grzbietu; w kopcu lewicowym ranga
+ * lewego syna jest nie mniejsza niż prawego, więc prawy grzbiet ma
+ * co najwyżej log2(n + 1) węzłów.
+ *
+ * @param <T> typ elementów
+ */
+public final class PersistentLeftistHeap<T extends Comparable<T>> {
+
+    private static final PersistentLeftistHeap<?> EMPTY = new PersistentLeftistHeap<>(null);
+
+    private final Node<T> root;
+
+    private PersistentLeftistHeap(Node<T> root) {
+        this.root = root;
+    }
+
+    /**
+     * Zwraca pusty kopiec
+     *
+     * @param <T> typ elementów
+     * @return pusty kopiec (wspólny dla wszystkich typów)
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Comparable<T>> PersistentLeftistHeap<T> empty() {
+        return (PersistentLeftistHeap<T>) EMPTY;
+    }
+
+    /**
+     * Buduje kopiec z tablicy, łącząc parami kopce jednoelementowe
+     *
+     * @param elements elementy kopca
+     * @param <T>      typ elementów
+     * @return nowy kopiec
+     */
+    // Asymptotyczna złożoność pesymistyczna: O(n), średnia: O(n)
+    public static <T extends Comparable<T>> PersistentLeftistHeap<T> of(T[] elements) {
+        if (elements.length == 0) {
+            return empty();
+        }
+        Deque<Node<T>> heaps = new ArrayDeque<>(elements.length);
+        for (T element : elements) {
+            heaps.add(new Node<>(element, null, null));
+        }
+        while (heaps.size() > 1) {
+            heaps.add(meld(heaps.poll(), heaps.poll()));
+        }
+        return new PersistentLeftistHeap<>(heaps.poll());
+    }
+
+    /**
+     * Zwraca nowy kopiec z dodanym elementem
+     *
+     * @param element element do wstawienia
+     * @return nowa wersja kopca
+     */
+    // Asymptotyczna złożoność pesymistyczna: O(log n), średnia: O(1)
+    public PersistentLeftistHeap<T> insert(T element) {
+        return new PersistentLeftistHeap<>(meld(root, new Node<>(Objects.requireNonNull(element), null, null)));
+    }
+
+    /**
+     * Zwraca najmniejszy element
+     *
+     * @return najmniejszy element
+     * @throws NoSuchElementException jeśli kopiec jest pusty
+     */
+    // Asymptotyczna złożoność pesymistyczna: O(1), średnia: O(1)
+    public T findMin() {
+        if (root == null) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        return root.element;
+    }
+
+    /**
+     * Zwraca nowy kopiec bez najmniejszego elementu
+     *
+     * @return nowa wersja kopca
+     * @throws NoSuchElementException jeśli kopiec jest pusty
+     */
+    // Asymptotyczna złożoność pesymistyczna: O(log n), średnia: O(log n)
+    public PersistentLeftistHeap<T> deleteMin() {
+        if (root == null) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        return new PersistentLeftistHeap<>(meld(root.left, root.right));
+    }
+
+    /**
+     * Zwraca kopiec zawierający elementy obu kopców; oba pozostają bez zmian
+     *
+     * @param other drugi kopiec
+     * @return nowa wersja kopca
+     */
+    // Asymptotyczna złożoność pesymistyczna: O(log n + log m), średnia:
+    // O(log n + log m)
+    public PersistentLeftistHeap<T> meld(PersistentLeftistHeap<T> other) {
+        return new PersistentLeftistHeap<>(meld(root, other.root));
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    // Asymptotyczna złożoność pesymistyczna: O(1), średnia: O(1)
+    public int size() {
+        return root == null ? 0 : root.size;
+    }
+
+    // Scalanie prawych grzbietów; kopiowane są tylko węzły na ścieżce
+    private static <T extends Comparable<T>> Node<T> meld(Node<T> a, Node<T> b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (b.element.compareTo(a.element) < 0) {
+            Node<T> swap = a;
+            a = b;
+            b = swap;
+        }
+        return new Node<>(a.element, a.left, meld(a.right, b));
+    }
+
+    /**
+     * Niezmienny węzeł; synowie są ustawiani tak, by ranga lewego była
+     * nie mniejsza niż prawego
+     */
+    private static final class Node<T> {
+        final T element;
+        final Node<T> left;
+        final Node<T> right;
+        final int rank;
+        final int size;
+
+        Node(T element, Node<T> a, Node<T> b) {
+            this.element = element;
+            if (rank(a) >= rank(b)) {
+                this.left = a;
+                this.right = b;
+            } else {
+                this.left = b;
+                this.right = a;
+            }
+            this.rank = rank(right) + 1;
+            this.size = 1 + (a == null ? 0 : a.size) + (b == null ? 0 : b.size);
+        }
+
+        private static int rank(Node<?> node) {
+            return node == null ? 0 : node.rank;
+        }
+    }
+}
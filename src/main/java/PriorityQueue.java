@@ -40,16 +40,70 @@ public interface PriorityQueue<T extends Comparable<T> & HasValue> {
 
     /**
      * Zmniejsza wartość elementu na określonej pozycji
+     * Przekazana pozycja staje się nieważna; dalsze operacje na elemencie
+     * wykonuje się przez zwróconą pozycję.
      *
-     * @param position   pozycja elementu zwrócona przez insert()
+     * @param position   pozycja elementu zwrócona przez insert() lub
+     *                   decreaseKey()
      * @param newElement nowy element (newElement.wartość() musi być mniejsza od
      *                   obecnej)
+     * @return nowa pozycja elementu
      * @throws IllegalArgumentException jeśli newElement.wartość() >= obecnej
      *                                  wartości
      *                                  lub newElement.wartość() < 0 lub
      *                                  newElement.wartość() > N
+     *                                  lub pozycja jest nieważna
      */
-    void decreaseKey(Position<T> position, T newElement);
+    Position<T> decreaseKey(Position<T> position, T newElement);
+
+    /**
+     * Usuwa element na określonej pozycji
+     * Pozycja staje się nieważna. Domyślnie nieobsługiwane - implementacje
+     * śledzące pozycje nadpisują tę metodę.
+     *
+     * @param position pozycja elementu zwrócona przez insert() lub
+     *                 decreaseKey()
+     * @return usunięty element
+     * @throws IllegalArgumentException      jeśli pozycja jest nieważna lub
+     *                                       należy do innej kolejki
+     * @throws UnsupportedOperationException jeśli implementacja nie śledzi
+     *                                       pozycji
+     */
+    default T remove(Position<T> position) {
+        throw new UnsupportedOperationException("remove nie jest obsługiwane");
+    }
+
+    /**
+     * Zmienia element na określonej pozycji na dowolny inny (mniejszy lub
+     * większy)
+     * Mniejsza wartość jest przekazywana do decreaseKey, w pozostałych
+     * przypadkach element jest usuwany i wstawiany ponownie. Przekazana
+     * pozycja staje się nieważna.
+     *
+     * @param position   pozycja elementu zwrócona przez insert(),
+     *                   decreaseKey() lub updateKey()
+     * @param newElement nowy element (newElement.wartość() z przedziału
+     *                   [0, N])
+     * @return nowa pozycja elementu
+     * @throws IllegalArgumentException      jeśli pozycja jest nieważna lub
+     *                                       newElement.wartość() wykracza
+     *                                       poza [0, N]
+     * @throws UnsupportedOperationException jeśli implementacja nie
+     *                                       obsługuje remove
+     */
+    default Position<T> updateKey(Position<T> position, T newElement) {
+        if (!position.isValid()) {
+            throw new IllegalArgumentException("Invalid operation");
+        }
+        if (newElement.wartość() < 0 || newElement.wartość() > N) {
+            throw new IllegalArgumentException("Element value must be in range [0, " + N + "]");
+        }
+        if (newElement.wartość() < position.getElement().wartość()) {
+            return decreaseKey(position, newElement);
+        }
+        remove(position);
+        return insert(newElement);
+    }
 
     /**
      * Tworzy nową kolejkę priorytetową zawierającą wszystkie elementy z tablicy
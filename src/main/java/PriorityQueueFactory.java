@@ -0,0 +1,117 @@
+/**
+ * Fabryka kolejek priorytetowych rejestrowana w PriorityQueueRegistry
+ * Wbudowane implementacje (wymienione w opisie PriorityQueueRegistry) są
+ * zarejestrowane zawsze; dodatkowe można dostarczyć przez ServiceLoader,
+ * wpisując pełną nazwę klasy fabryki do pliku
+ * META-INF/services/PriorityQueueFactory.
+ * Klasa fabryki musi być publiczna i mieć publiczny konstruktor bezargumentowy.
+ */
+public interface PriorityQueueFactory {
+
+    /**
+     * Zwraca nazwę implementacji używaną w opcjach (np. --queue bucket)
+     *
+     * @return unikalna nazwa, porównywana bez rozróżniania wielkości liter
+     */
+    String getName();
+
+    /**
+     * Zwraca numer typu używany przez API przyjmujące int (np.
+     * WeightedGraph.dijkstra)
+     *
+     * @return unikalny numer większy od 0, różny od numerów wbudowanych
+     *         implementacji (PriorityQueueRegistry.describeTypes())
+     */
+    int getType();
+
+    /**
+     * Tworzy nową, pustą kolejkę
+     *
+     * @return nowa kolejka priorytetowa
+     */
+    <T extends Comparable<T> & HasValue> PriorityQueue<T> create();
+
+    /**
+     * Szacuje średni koszt jednej operacji dla opisanego obciążenia
+     * Używane przez tryb AUTO, który wybiera fabrykę o najniższym koszcie.
+     *
+     * @param hints opis obciążenia
+     * @return szacowany koszt w nanosekundach na operację albo
+     *         Double.POSITIVE_INFINITY, jeśli implementacja nie obsługuje
+     *         takiego obciążenia
+     */
+    double estimateCost(Hints hints);
+
+    /**
+     * Zwraca tryb algorytmu Dijkstry używany, gdy wywołujący go nie wskaże
+     * (WeightedGraph.dijkstra(source, type)). Domyślnie LAZY, który działa
+     * z każdą implementacją; fabryki, dla których decreaseKey jest szybsze,
+     * nadpisują tę metodę.
+     *
+     * @return domyślny tryb algorytmu Dijkstry
+     */
+    default WeightedGraph.DijkstraMode defaultDijkstraMode() {
+        return WeightedGraph.DijkstraMode.LAZY;
+    }
+
+    /**
+     * Opis przewidywanego obciążenia kolejki dla trybu AUTO
+     */
+    final class Hints {
+
+        private final int keyRange;
+        private final int expectedSize;
+        private final boolean monotone;
+        private final boolean decreaseKey;
+        private final boolean merge;
+
+        /**
+         * Tworzy opis obciążenia
+         *
+         * @param keyRange     największy możliwy klucz (klucze z [0, keyRange])
+         * @param expectedSize typowa liczba elementów w kolejce
+         * @param monotone     czy wyjmowane klucze nie maleją (jak w algorytmie
+         *                     Dijkstry)
+         * @param decreaseKey  czy obciążenie używa decreaseKey
+         * @param merge        czy obciążenie używa merge
+         * @throws IllegalArgumentException jeśli keyRange lub expectedSize są
+         *                                  ujemne
+         */
+        public Hints(int keyRange, int expectedSize, boolean monotone, boolean decreaseKey, boolean merge) {
+            if (keyRange < 0 || expectedSize < 0) {
+                throw new IllegalArgumentException("Zakres kluczy i rozmiar nie mogą być ujemne");
+            }
+            this.keyRange = keyRange;
+            this.expectedSize = expectedSize;
+            this.monotone = monotone;
+            this.decreaseKey = decreaseKey;
+            this.merge = merge;
+        }
+
+        public int getKeyRange() {
+            return keyRange;
+        }
+
+        public int getExpectedSize() {
+            return expectedSize;
+        }
+
+        public boolean isMonotone() {
+            return monotone;
+        }
+
+        public boolean usesDecreaseKey() {
+            return decreaseKey;
+        }
+
+        public boolean usesMerge() {
+            return merge;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Hints(klucze=[0, %d], rozmiar=%d, monotoniczna=%s, decreaseKey=%s, merge=%s)",
+                    keyRange, expectedSize, monotone, decreaseKey, merge);
+        }
+    }
+}
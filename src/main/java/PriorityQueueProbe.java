@@ -0,0 +1,49 @@
+/**
+ * Punkt obserwacji wnętrza implementacji kolejki priorytetowej
+ * Implementacje sprawdzają, czy sonda jest ustawiona (pole null), więc
+ * kolejka bez sondy nie płaci za pomiary nic poza jednym porównaniem.
+ */
+public interface PriorityQueueProbe {
+
+    /**
+     * Porównania elementów wykonane przez operację
+     *
+     * @param count liczba porównań
+     */
+    void comparisons(int count);
+
+    /**
+     * Puste kubełki przejrzane przy szukaniu minimum (BucketPriorityQueue)
+     *
+     * @param count liczba przejrzanych kubełków
+     */
+    void bucketsScanned(int count);
+
+    /**
+     * Głębokość, na jakiej operacja dotarła do węzła (BSTPriorityQueue)
+     *
+     * @param depth głębokość (korzeń = 0)
+     */
+    void treeDepth(int depth);
+
+    /**
+     * Elementy przesunięte w tablicy przy wstawianiu lub usuwaniu
+     * (SortedStackPriorityQueue)
+     *
+     * @param count liczba przesuniętych elementów
+     */
+    void elementsShifted(int count);
+
+    /**
+     * Kolejka, do której można podłączyć sondę
+     */
+    interface Target {
+
+        /**
+         * Ustawia sondę (null odłącza)
+         *
+         * @param probe sonda lub null
+         */
+        void setProbe(PriorityQueueProbe probe);
+    }
+}
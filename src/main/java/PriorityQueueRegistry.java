@@ -0,0 +1,292 @@
+import java.util.*;
+
+/**
+ * Rejestr implementacji kolejek priorytetowych
+ * Zastępuje powielone instrukcje switch po numerze typu: kolejki tworzy się
+ * przez numer (1=SortedStack, 2=BST, 3=Bucket, 4=VanEmdeBoas), nazwę albo
+ * w trybie AUTO, który wybiera implementację o najniższym szacowanym koszcie
+ * dla podanego obciążenia (PriorityQueueFactory.Hints).
+ *
+ * Oprócz wbudowanych implementacji rejestr wczytuje fabryki dostarczone
+ * przez ServiceLoader (przy pierwszym użyciu).
+ */
+public final class PriorityQueueRegistry {
+
+    /**
+     * Numer typu oznaczający automatyczny wybór implementacji
+     */
+    public static final int AUTO = 0;
+
+    private PriorityQueueRegistry() {
+    }
+
+    // Leniwa inicjalizacja przy pierwszym użyciu rejestru
+    private static final class Holder {
+        static final List<PriorityQueueFactory> FACTORIES = load();
+    }
+
+    private static List<PriorityQueueFactory> load() {
+        List<PriorityQueueFactory> factories = new ArrayList<>(Arrays.asList(BuiltIn.values()));
+        for (PriorityQueueFactory factory : ServiceLoader.load(PriorityQueueFactory.class)) {
+            for (PriorityQueueFactory registered : factories) {
+                if (registered.getType() == factory.getType()
+                        || registered.getName().equalsIgnoreCase(factory.getName())) {
+                    throw new IllegalStateException("Fabryka " + factory.getClass().getName()
+                            + " ma ten sam typ lub nazwę co " + registered.getName());
+                }
+            }
+            if (factory.getType() <= AUTO || factory.getName().equalsIgnoreCase("auto")) {
+                throw new IllegalStateException("Nieprawidłowy typ lub nazwa fabryki " + factory.getClass().getName());
+            }
+            factories.add(factory);
+        }
+        return Collections.unmodifiableList(factories);
+    }
+
+    /**
+     * Zwraca wszystkie zarejestrowane fabryki (najpierw wbudowane)
+     *
+     * @return niemodyfikowalna lista fabryk
+     */
+    public static List<PriorityQueueFactory> factories() {
+        return Holder.FACTORIES;
+    }
+
+    /**
+     * Zwraca fabrykę o podanym numerze typu
+     *
+     * @param type numer typu (AUTO nie jest konkretną fabryką)
+     * @return fabryka
+     * @throws IllegalArgumentException jeśli typ nie jest zarejestrowany
+     */
+    public static PriorityQueueFactory get(int type) {
+        for (PriorityQueueFactory factory : factories()) {
+            if (factory.getType() == type) {
+                return factory;
+            }
+        }
+        throw new IllegalArgumentException("Nieprawidłowy typ kolejki priorytetowej");
+    }
+
+    /**
+     * Zwraca fabrykę o podanej nazwie (bez rozróżniania wielkości liter)
+     *
+     * @param name nazwa implementacji
+     * @return fabryka
+     * @throws IllegalArgumentException jeśli nazwa nie jest zarejestrowana
+     */
+    public static PriorityQueueFactory get(String name) {
+        for (PriorityQueueFactory factory : factories()) {
+            if (factory.getName().equalsIgnoreCase(name)) {
+                return factory;
+            }
+        }
+        throw new IllegalArgumentException("Nieznana kolejka: " + name);
+    }
+
+    /**
+     * Sprawdza typ bez tworzenia kolejki
+     *
+     * @param type numer typu lub AUTO
+     * @return ten sam numer typu
+     * @throws IllegalArgumentException jeśli typ nie jest zarejestrowany
+     */
+    public static int requireType(int type) {
+        if (type != AUTO) {
+            get(type);
+        }
+        return type;
+    }
+
+    /**
+     * Opisuje zarejestrowane typy, np. "1=SortedStack, 2=BST" (do komunikatów
+     * i pomocy)
+     *
+     * @return numery i nazwy wszystkich fabryk w kolejności rejestracji
+     */
+    public static String describeTypes() {
+        StringJoiner description = new StringJoiner(", ");
+        for (PriorityQueueFactory factory : factories()) {
+            description.add(factory.getType() + "=" + factory.getName());
+        }
+        return description.toString();
+    }
+
+    /**
+     * Zamienia opcję z linii poleceń na numer typu
+     *
+     * @param value numer, nazwa implementacji albo "auto"
+     * @return numer typu (AUTO dla "auto")
+     * @throws IllegalArgumentException jeśli wartość nie odpowiada żadnej
+     *                                  implementacji
+     */
+    public static int parseType(String value) {
+        if (value.equalsIgnoreCase("auto")) {
+            return AUTO;
+        }
+        try {
+            int type = Integer.parseInt(value);
+            return type == AUTO ? AUTO : get(type).getType();
+        } catch (NumberFormatException e) {
+            return get(value).getType();
+        }
+    }
+
+    /**
+     * Wybiera implementację o najniższym szacowanym koszcie
+     *
+     * @param hints opis obciążenia
+     * @return wybrana fabryka
+     * @throws IllegalArgumentException jeśli żadna implementacja nie obsługuje
+     *                                  obciążenia (np. zbyt duży zakres kluczy)
+     */
+    public static PriorityQueueFactory select(PriorityQueueFactory.Hints hints) {
+        PriorityQueueFactory best = null;
+        double bestCost = Double.POSITIVE_INFINITY;
+        for (PriorityQueueFactory factory : factories()) {
+            double cost = factory.estimateCost(hints);
+            if (cost < bestCost) {
+                best = factory;
+                bestCost = cost;
+            }
+        }
+        if (best == null) {
+            throw new IllegalArgumentException("Żadna kolejka nie obsługuje obciążenia " + hints);
+        }
+        return best;
+    }
+
+    /**
+     * Zamienia AUTO na numer wybranej implementacji; pozostałe typy sprawdza
+     *
+     * @param type  numer typu lub AUTO
+     * @param hints opis obciążenia (używany tylko dla AUTO)
+     * @return numer konkretnej implementacji
+     * @throws IllegalArgumentException jeśli typ nie jest zarejestrowany
+     */
+    public static int resolve(int type, PriorityQueueFactory.Hints hints) {
+        return type == AUTO ? select(hints).getType() : get(type).getType();
+    }
+
+    /**
+     * Tworzy kolejkę o podanym typie
+     *
+     * @param type  numer typu lub AUTO
+     * @param hints opis obciążenia (używany tylko dla AUTO)
+     * @return nowa, pusta kolejka
+     * @throws IllegalArgumentException jeśli typ nie jest zarejestrowany
+     */
+    public static <T extends Comparable<T> & HasValue> PriorityQueue<T> create(int type,
+            PriorityQueueFactory.Hints hints) {
+        return (type == AUTO ? select(hints) : get(type)).create();
+    }
+
+    /**
+     * Wbudowane implementacje
+     * Modele kosztu (ns na parę insert + extractMin) dopasowano do pomiarów
+     * wypełniania i opróżniania kolejek losowymi kluczami z [0, N] dla
+     * rozmiarów 4 - 16384 (por. PriorityQueueBenchmark). Liczy się tylko ich
+     * względna kolejność, nie wartości bezwzględne.
+     */
+    private enum BuiltIn implements PriorityQueueFactory {
+        SORTED_STACK("SortedStack", 1) {
+            @Override
+            public <T extends Comparable<T> & HasValue> PriorityQueue<T> create() {
+                return new SortedStackPriorityQueue<>();
+            }
+
+            // Wstawianie, decreaseKey i merge przesuwają elementy listy: O(n)
+            @Override
+            double cost(int keyRange, int size, PriorityQueueFactory.Hints hints) {
+                double shift = 0.7 * size;
+                return 20 + shift + (hints.usesDecreaseKey() ? shift : 0) + (hints.usesMerge() ? shift : 0);
+            }
+        },
+        BST("BST", 2) {
+            @Override
+            public <T extends Comparable<T> & HasValue> PriorityQueue<T> create() {
+                return new BSTPriorityQueue<>();
+            }
+
+            // Ścieżka O(log n), chybienia w cache rosną z rozmiarem; równe klucze
+            // tworzą łańcuchy w lewym poddrzewie
+            @Override
+            double cost(int keyRange, int size, PriorityQueueFactory.Hints hints) {
+                double path = 4.5 * (Math.log(size + 1) / Math.log(2)) + 0.012 * size;
+                double duplicates = (double) size / (keyRange + 1);
+                return 5 + path + duplicates + (hints.usesDecreaseKey() ? path : 0) + (hints.usesMerge() ? path : 0);
+            }
+        },
+        BUCKET("Bucket", 3) {
+            @Override
+            public <T extends Comparable<T> & HasValue> PriorityQueue<T> create() {
+                return new BucketPriorityQueue<>();
+            }
+
+            // Utworzenie N + 1 kubełków i przejście po nich rozkłada się na
+            // elementy; bez monotoniczności minimum może się cofać i kubełki są
+            // przeglądane wielokrotnie; równe klucze są przeszukiwane liniowo
+            @Override
+            double cost(int keyRange, int size, PriorityQueueFactory.Hints hints) {
+                double scan = 0.6 * (PriorityQueue.N + 1) / size;
+                double rescan = hints.isMonotone() ? 0 : 0.6 * (keyRange + 1) / size;
+                double duplicates = (double) size / (keyRange + 1);
+                return 40 + scan + rescan + duplicates + (hints.usesMerge() ? scan : 0);
+            }
+        },
+        VAN_EMDE_BOAS("VanEmdeBoas", 4) {
+            @Override
+            public <T extends Comparable<T> & HasValue> PriorityQueue<T> create() {
+                return new VanEmdeBoasPriorityQueue<>();
+            }
+
+            // O(log log U) niezależnie od rozmiaru i monotoniczności; tablica
+            // list dla N + 1 kluczy rozkłada się na elementy, decreaseKey to
+            // usunięcie i wstawienie
+            @Override
+            double cost(int keyRange, int size, PriorityQueueFactory.Hints hints) {
+                double setup = 0.25 * (PriorityQueue.N + 1) / size;
+                return 30 + setup + (hints.usesDecreaseKey() ? 15 : 0) + (hints.usesMerge() ? setup + 30 : 0);
+            }
+        };
+
+        private final String name;
+        private final int type;
+
+        BuiltIn(String name, int type) {
+            this.name = name;
+            this.type = type;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public int getType() {
+            return type;
+        }
+
+        // Według PerformanceTest.benchmarkDijkstraModes decreaseKey wygrywa we
+        // wszystkich wbudowanych: w liście posortowanej krótsza kolejka (O(V)
+        // zamiast O(E)) skraca liniowe wstawianie bardziej, niż kosztuje liniowe
+        // decreaseKey, a w pozostałych decreaseKey to usunięcie i wstawienie -
+        // tyle co leniwe wstawienie, ale bez wyjmowania nieaktualnych wpisów
+        @Override
+        public WeightedGraph.DijkstraMode defaultDijkstraMode() {
+            return WeightedGraph.DijkstraMode.DECREASE_KEY;
+        }
+
+        @Override
+        public double estimateCost(PriorityQueueFactory.Hints hints) {
+            // Wszystkie wbudowane implementacje przyjmują klucze z [0, N]
+            if (hints.getKeyRange() > PriorityQueue.N) {
+                return Double.POSITIVE_INFINITY;
+            }
+            return cost(hints.getKeyRange(), Math.max(1, hints.getExpectedSize()), hints);
+        }
+
+        abstract double cost(int keyRange, int size, PriorityQueueFactory.Hints hints);
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * Statystyki jednego wywołania algorytmu Dijkstry
+ * Liczniki są zbierane zawsze; czasy operacji na kolejce i relaksacji
+ * tylko wtedy, gdy nagrywanie zdarzenia DijkstraEvent jest włączone
+ * w Java Flight Recorder (inaczej isTimed() zwraca false, a czasy są zerowe).
+ */
+public final class SearchStats {
+
+    private final int settledVertices;
+    private final long relaxedEdges;
+    private final long successfulRelaxations;
+    private final long staleEntriesSkipped;
+    private final int peakQueueSize;
+    private final long queueNanos;
+    private final long relaxationNanos;
+    private final boolean timed;
+
+    SearchStats(int settledVertices, long relaxedEdges, long successfulRelaxations, long staleEntriesSkipped,
+            int peakQueueSize, long queueNanos, long relaxationNanos, boolean timed) {
+        this.settledVertices = settledVertices;
+        this.relaxedEdges = relaxedEdges;
+        this.successfulRelaxations = successfulRelaxations;
+        this.staleEntriesSkipped = staleEntriesSkipped;
+        this.peakQueueSize = peakQueueSize;
+        this.queueNanos = queueNanos;
+        this.relaxationNanos = relaxationNanos;
+        this.timed = timed;
+    }
+
+    /**
+     * Zwraca liczbę wierzchołków, których odległość została ustalona
+     *
+     * @return liczba ustalonych wierzchołków
+     */
+    public int getSettledVertices() {
+        return settledVertices;
+    }
+
+    /**
+     * Zwraca liczbę sprawdzonych krawędzi
+     *
+     * @return liczba relaksacji
+     */
+    public long getRelaxedEdges() {
+        return relaxedEdges;
+    }
+
+    /**
+     * Zwraca liczbę relaksacji, które poprawiły odległość
+     *
+     * @return liczba udanych relaksacji
+     */
+    public long getSuccessfulRelaxations() {
+        return successfulRelaxations;
+    }
+
+    /**
+     * Zwraca liczbę nieaktualnych wpisów wyjętych z kolejki i pominiętych
+     *
+     * @return liczba pominiętych wpisów
+     */
+    public long getStaleEntriesSkipped() {
+        return staleEntriesSkipped;
+    }
+
+    public int getPeakQueueSize() {
+        return peakQueueSize;
+    }
+
+    /**
+     * Zwraca łączny czas operacji insert i extractMin
+     *
+     * @return czas w nanosekundach (0, jeśli pomiar był wyłączony)
+     */
+    public long getQueueNanos() {
+        return queueNanos;
+    }
+
+    /**
+     * Zwraca czas pętli głównej poza operacjami na kolejce
+     *
+     * @return czas w nanosekundach (0, jeśli pomiar był wyłączony)
+     */
+    public long getRelaxationNanos() {
+        return relaxationNanos;
+    }
+
+    /**
+     * Sprawdza, czy czasy zostały zmierzone
+     *
+     * @return true jeśli zdarzenie JFR było włączone
+     */
+    public boolean isTimed() {
+        return timed;
+    }
+
+    @Override
+    public String toString() {
+        String result = String.format("SearchStats(ustalone=%d, relaksacje=%d, udane=%d, pominięte=%d, "
+                + "szczyt kolejki=%d", settledVertices, relaxedEdges, successfulRelaxations, staleEntriesSkipped,
+                peakQueueSize);
+        if (timed) {
+            result += String.format(", kolejka=%.3f ms, relaksacja=%.3f ms", queueNanos / 1e6, relaxationNanos / 1e6);
+        }
+        return result + ")";
+    }
+}
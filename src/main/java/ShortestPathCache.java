@@ -0,0 +1,258 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ograniczona pamięć podręczna wyników algorytmu Dijkstry
+ * - Klucz to wierzchołek źródłowy (wynik nie zależy od typu kolejki)
+ * - Wpisy są unieważniane, gdy zmieni się WeightedGraph.getVersion()
+ * - Usuwanie LRU według szacowanego rozmiaru wyniku w bajtach
+ * - Równoczesne zapytania o to samo źródło i tę samą wersję grafu czekają
+ * na jedno obliczenie
+ *
+ * Graf może być odczytywany współbieżnie, ale nie może być modyfikowany
+ * w trakcie trwania zapytań.
+ */
+public class ShortestPathCache {
+
+    private final WeightedGraph graph;
+    private final long maxBytes;
+    private final int priorityQueueType;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Integer, WeightedGraph.DijkstraResult> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ConcurrentHashMap<Key, CompletableFuture<WeightedGraph.DijkstraResult>> inFlight =
+            new ConcurrentHashMap<>();
+    private long cachedVersion;
+    private long sizeBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Tworzy pamięć podręczną dla grafu
+     *
+     * @param graph             graf
+     * @param maxBytes          limit szacowanego rozmiaru wszystkich wyników
+     * @param priorityQueueType typ kolejki używanej przy obliczaniu wyników
+     * @throws IllegalArgumentException jeśli limit nie jest dodatni
+     */
+    public ShortestPathCache(WeightedGraph graph, long maxBytes, int priorityQueueType) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Limit pamięci musi być dodatni");
+        }
+        PriorityQueueRegistry.requireType(priorityQueueType);
+        this.graph = Objects.requireNonNull(graph);
+        this.maxBytes = maxBytes;
+        this.priorityQueueType = priorityQueueType;
+        this.cachedVersion = graph.getVersion();
+    }
+
+    /**
+     * Zwraca wynik algorytmu Dijkstry z pamięci podręcznej lub go oblicza
+     *
+     * @param source wierzchołek źródłowy
+     * @return wynik algorytmu Dijkstry dla bieżącej wersji grafu
+     * @throws IllegalArgumentException jeśli wierzchołek źródłowy nie istnieje
+     */
+    public WeightedGraph.DijkstraResult get(int source) {
+        long version = graph.getVersion();
+
+        WeightedGraph.DijkstraResult cached = lookup(source, version);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        // Obliczenie dla starszej wersji grafu nie może obsłużyć tego zapytania
+        Key key = new Key(source, version);
+        CompletableFuture<WeightedGraph.DijkstraResult> computation = new CompletableFuture<>();
+        CompletableFuture<WeightedGraph.DijkstraResult> existing = inFlight.putIfAbsent(key, computation);
+        if (existing != null) {
+            coalesced.increment();
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+
+        try {
+            // Obliczenie mogło się zakończyć między lookup a putIfAbsent
+            cached = lookup(source, version);
+            if (cached != null) {
+                hits.increment();
+                computation.complete(cached);
+                return cached;
+            }
+            misses.increment();
+            WeightedGraph.DijkstraResult result = graph.dijkstra(source, priorityQueueType);
+            store(source, result, version);
+            computation.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            computation.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, computation);
+        }
+    }
+
+    private WeightedGraph.DijkstraResult lookup(int source, long version) {
+        lock.lock();
+        try {
+            invalidateIfStale(version);
+            // Zapytanie widzi starszą wersję niż pamięć podręczna
+            return version == cachedVersion ? entries.get(source) : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void store(int source, WeightedGraph.DijkstraResult result, long version) {
+        long bytes = result.estimatedSizeBytes();
+        if (bytes > maxBytes) {
+            return; // Pojedynczy wynik większy niż cały limit
+        }
+
+        lock.lock();
+        try {
+            invalidateIfStale(graph.getVersion());
+            if (version != cachedVersion) {
+                return; // Graf zmienił się w trakcie obliczeń
+            }
+
+            WeightedGraph.DijkstraResult previous = entries.put(source, result);
+            if (previous != null) {
+                sizeBytes -= previous.estimatedSizeBytes();
+            }
+            sizeBytes += bytes;
+
+            Iterator<WeightedGraph.DijkstraResult> eldest = entries.values().iterator();
+            while (sizeBytes > maxBytes && eldest.hasNext()) {
+                sizeBytes -= eldest.next().estimatedSizeBytes();
+                eldest.remove();
+                evictions.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Wywoływane pod blokadą; wersje grafu tylko rosną, więc spóźniony wątek
+    // ze starszą wersją nie cofa pamięci podręcznej
+    private void invalidateIfStale(long version) {
+        if (version > cachedVersion) {
+            invalidations.add(entries.size());
+            entries.clear();
+            sizeBytes = 0;
+            cachedVersion = version;
+        }
+    }
+
+    /**
+     * Usuwa wszystkie wpisy z pamięci podręcznej
+     */
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            invalidations.add(entries.size());
+            entries.clear();
+            sizeBytes = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Zwraca liczbę wpisów
+     *
+     * @return liczba zapamiętanych wyników
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Zwraca szacowany rozmiar zapamiętanych wyników
+     *
+     * @return rozmiar w bajtach
+     */
+    public long getSizeBytes() {
+        lock.lock();
+        try {
+            return sizeBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Zwraca liczbę zapytań, które dołączyły do trwającego obliczenia
+     *
+     * @return liczba połączonych zapytań
+     */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    // Obliczenie w toku: źródło i wersja grafu
+    private static final class Key {
+        private final int source;
+        private final long version;
+
+        Key(int source, long version) {
+            this.source = source;
+            this.version = version;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof Key))
+                return false;
+            Key that = (Key) obj;
+            return source == that.source && version == that.version;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(source, version);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ShortestPathCache(%d wpisów, %d B, trafienia=%d, chybienia=%d, usunięte=%d)",
+                size(), getSizeBytes(), getHits(), getMisses(), getEvictions());
+    }
+}
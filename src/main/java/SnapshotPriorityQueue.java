@@ -0,0 +1,124 @@
+import java.util.*;
+
+/**
+ * Kolejka priorytetowa na trwałym kopcu lewicowym z migawkami w O(1)
+ *
+ * Kolejka przechowuje bieżącą wersję PersistentLeftistHeap; operacje
+ * zmieniające zastępują ją nową wersją. snapshot() zwraca niezależną kopię,
+ * która współdzieli całą strukturę, więc rozgałęzianie frontu (np.
+ * w metodzie podziału i ograniczeń) nie wymaga kopiowania elementów,
+ * a pamięć rośnie tylko o węzły zmienione po rozgałęzieniu.
+ *
+ * Pozycje elementów nie są śledzone, więc decreaseKey nie jest obsługiwane.
+ *
+ * @param <T> typ elementów
+ */
+public class SnapshotPriorityQueue<T extends Comparable<T> & HasValue> implements PriorityQueue<T> {
+
+    private PersistentLeftistHeap<T> heap;
+
+    public SnapshotPriorityQueue() {
+        this(PersistentLeftistHeap.empty());
+    }
+
+    /**
+     * Tworzy kolejkę z podanej wersji kopca
+     *
+     * @param heap zawartość kolejki (nie jest kopiowana)
+     */
+    public SnapshotPriorityQueue(PersistentLeftistHeap<T> heap) {
+        this.heap = Objects.requireNonNull(heap);
+    }
+
+    // Asymptotyczna złożoność pesymistyczna: O(log n), średnia: O(1)
+    @Override
+    public Position<T> insert(T element) {
+        checkRange(element);
+        heap = heap.insert(element);
+        return new UntrackedPosition<>(element);
+    }
+
+    // Asymptotyczna złożoność pesymistyczna: O(1), średnia: O(1)
+    @Override
+    public T findMin() {
+        return heap.findMin();
+    }
+
+    // Asymptotyczna złożoność pesymistyczna: O(log n), średnia: O(log n)
+    @Override
+    public T extractMin() {
+        T min = heap.findMin();
+        heap = heap.deleteMin();
+        return min;
+    }
+
+    @Override
+    public Position<T> decreaseKey(Position<T> position, T newElement) {
+        throw new UnsupportedOperationException("SnapshotPriorityQueue nie śledzi pozycji elementów");
+    }
+
+    /**
+     * Zwraca niezależną kopię kolejki współdzielącą całą strukturę
+     *
+     * @return kopia kolejki
+     */
+    // Asymptotyczna złożoność pesymistyczna: O(1), średnia: O(1)
+    public SnapshotPriorityQueue<T> snapshot() {
+        return new SnapshotPriorityQueue<>(heap);
+    }
+
+    /**
+     * Zwraca bieżącą wersję kopca
+     *
+     * @return niezmienny kopiec z zawartością kolejki
+     */
+    public PersistentLeftistHeap<T> getHeap() {
+        return heap;
+    }
+
+    // Asymptotyczna złożoność pesymistyczna: O(n), średnia: O(n)
+    public static <T extends Comparable<T> & HasValue> PriorityQueue<T> buildHeap(T[] elements) {
+        for (T element : elements) {
+            checkRange(element);
+        }
+        return new SnapshotPriorityQueue<>(PersistentLeftistHeap.of(elements));
+    }
+
+    // Asymptotyczna złożoność pesymistyczna: O(log n + log m) dla
+    // SnapshotPriorityQueue, O(n + m log m) dla innych kolejek
+    // Druga SnapshotPriorityQueue jest scalana bez zmian, inne kolejki są
+    // opróżniane jak w pozostałych implementacjach
+    @Override
+    public PriorityQueue<T> merge(PriorityQueue<T> other) {
+        if (other instanceof SnapshotPriorityQueue) {
+            return new SnapshotPriorityQueue<>(heap.meld(((SnapshotPriorityQueue<T>) other).heap));
+        }
+        PersistentLeftistHeap<T> result = heap;
+        while (!other.isEmpty()) {
+            result = result.insert(other.extractMin());
+        }
+        return new SnapshotPriorityQueue<>(result);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return heap.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return heap.size();
+    }
+
+    // Kopie z snapshot() zachowują swoją zawartość
+    @Override
+    public void clear() {
+        heap = PersistentLeftistHeap.empty();
+    }
+
+    private static void checkRange(HasValue element) {
+        if (element.wartość() < 0 || element.wartość() > N) {
+            throw new IllegalArgumentException("Element value must be in range [0, " + N + "]");
+        }
+    }
+}
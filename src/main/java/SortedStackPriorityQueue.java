@@ -1,12 +1,16 @@
 import java.util.*;
 
-public class SortedStackPriorityQueue<T extends Comparable<T> & HasValue> implements PriorityQueue<T> {
-    private List<T> stack;
-    private List<StackPosition<T>> positions;
+public class SortedStackPriorityQueue<T extends Comparable<T> & HasValue>
+        implements PriorityQueue<T>, PriorityQueueProbe.Target {
+    // Pozycje posortowane rosnąco według wartość(); indeks pozycji jest
+    // aktualizowany przy każdym przesunięciu
+    private List<StackPosition<T>> stack;
+
+    // Sonda statystyk (InstrumentedPriorityQueue); null = brak pomiarów
+    private PriorityQueueProbe probe;
 
     public SortedStackPriorityQueue() {
         this.stack = new ArrayList<>();
-        this.positions = new ArrayList<>();
     }
 
     // Asymptotyczna złożoność pesymistyczna: O(n), średnia: O(n)
@@ -19,24 +23,29 @@ public class SortedStackPriorityQueue<T extends Comparable<T> & HasValue> implem
 
         int insertIndex = 0;
         // Sortujemy według wartości z metody wartość()
-        while (insertIndex < stack.size() && stack.get(insertIndex).wartość() <= element.wartość()) {
+        while (insertIndex < stack.size() && stack.get(insertIndex).element.wartość() <= element.wartość()) {
             insertIndex++;
         }
 
-        stack.add(insertIndex, element);
-        StackPosition<T> position = new StackPosition<>(insertIndex, element);
-        positions.add(position);
-
-        // Aktualizuj indeksy w istniejących pozycjach
-        for (StackPosition<T> pos : positions) {
-            if (pos.index >= insertIndex && pos != position) {
-                pos.index++;
-            }
+        if (probe != null) {
+            probe.comparisons(Math.min(insertIndex + 1, stack.size()));
+            probe.elementsShifted(stack.size() - insertIndex);
         }
 
+        StackPosition<T> position = new StackPosition<>(insertIndex, element);
+        stack.add(insertIndex, position);
+        renumberFrom(insertIndex + 1);
+
         return position;
     }
 
+    // Aktualizuj indeksy pozycji przesuniętych w liście
+    private void renumberFrom(int index) {
+        for (int i = index; i < stack.size(); i++) {
+            stack.get(i).index = i;
+        }
+    }
+
     // Asymptotyczna złożoność pesymistyczna: O(1), średnia: O(1)
     // Pierwszy element jest zawsze najmniejszy
     @Override
@@ -44,7 +53,7 @@ public class SortedStackPriorityQueue<T extends Comparable<T> & HasValue> implem
         if (isEmpty()) {
             throw new NoSuchElementException("Queue is empty");
         }
-        return stack.get(0);
+        return stack.get(0).element;
     }
 
     // Asymptotyczna złożoność pesymistyczna: O(n), średnia: O(n)
@@ -55,24 +64,20 @@ public class SortedStackPriorityQueue<T extends Comparable<T> & HasValue> implem
             throw new NoSuchElementException("Queue is empty");
         }
 
-        T min = stack.remove(0);
-
-        // Aktualizuj indeksy w pozycjach
-        for (StackPosition<T> pos : positions) {
-            if (pos.index > 0) {
-                pos.index--;
-            } else if (pos.index == 0) {
-                pos.valid = false;
-            }
+        StackPosition<T> min = stack.remove(0);
+        min.valid = false;
+        if (probe != null) {
+            probe.elementsShifted(stack.size());
         }
+        renumberFrom(0);
 
-        return min;
+        return min.element;
     }
 
     // Asymptotyczna złożoność pesymistyczna: O(n), średnia: O(n)
     // Może wymagać przesunięcia elementu w posortowanej strukturze
     @Override
-    public void decreaseKey(Position<T> position, T newElement) {
+    public Position<T> decreaseKey(Position<T> position, T newElement) {
         if (!(position instanceof StackPosition)) {
             throw new IllegalArgumentException("Invalid position type");
         }
@@ -80,7 +85,8 @@ public class SortedStackPriorityQueue<T extends Comparable<T> & HasValue> implem
         @SuppressWarnings("unchecked")
         StackPosition<T> stackPos = (StackPosition<T>) position;
 
-        if (!stackPos.isValid() || newElement.wartość() < 0 || newElement.wartość() > N) {
+        if (!stackPos.isValid() || stackPos.index >= stack.size() || stack.get(stackPos.index) != stackPos
+                || newElement.wartość() < 0 || newElement.wartość() > N) {
             throw new IllegalArgumentException("Invalid operation");
         }
 
@@ -90,8 +96,36 @@ public class SortedStackPriorityQueue<T extends Comparable<T> & HasValue> implem
 
         // Usuń stary element i wstaw nowy
         stack.remove(stackPos.index);
+        if (probe != null) {
+            probe.elementsShifted(stack.size() - stackPos.index);
+        }
+        renumberFrom(stackPos.index);
+        stackPos.valid = false;
+        return insert(newElement);
+    }
+
+    // Asymptotyczna złożoność pesymistyczna: O(n), średnia: O(n)
+    // Usunięcie wymaga przesunięcia elementów za pozycją
+    @Override
+    public T remove(Position<T> position) {
+        if (!(position instanceof StackPosition)) {
+            throw new IllegalArgumentException("Invalid position type");
+        }
+
+        @SuppressWarnings("unchecked")
+        StackPosition<T> stackPos = (StackPosition<T>) position;
+
+        if (!stackPos.isValid() || stackPos.index >= stack.size() || stack.get(stackPos.index) != stackPos) {
+            throw new IllegalArgumentException("Invalid operation");
+        }
+
+        stack.remove(stackPos.index);
+        if (probe != null) {
+            probe.elementsShifted(stack.size() - stackPos.index);
+        }
+        renumberFrom(stackPos.index);
         stackPos.valid = false;
-        insert(newElement);
+        return stackPos.element;
     }
 
     // Asymptotyczna złożoność pesymistyczna: O(n²), średnia: O(n²)
@@ -105,14 +139,17 @@ public class SortedStackPriorityQueue<T extends Comparable<T> & HasValue> implem
     }
 
     // Asymptotyczna złożoność pesymistyczna: O(n*m), średnia: O(n*m)
-    // gdzie n i m to rozmiary kolejek
+    // gdzie n i m to rozmiary kolejek; O(n + m) dla SortedStackPriorityQueue
     @Override
     public PriorityQueue<T> merge(PriorityQueue<T> other) {
+        if (other instanceof SortedStackPriorityQueue) {
+            return mergeSorted((SortedStackPriorityQueue<T>) other);
+        }
         SortedStackPriorityQueue<T> result = new SortedStackPriorityQueue<>();
 
         // Dodaj wszystkie elementy z tej kolejki
-        for (T element : this.stack) {
-            result.insert(element);
+        for (StackPosition<T> position : this.stack) {
+            result.insert(position.element);
         }
 
         // Dodaj wszystkie elementy z drugiej kolejki
@@ -123,6 +160,39 @@ public class SortedStackPriorityQueue<T extends Comparable<T> & HasValue> implem
         return result;
     }
 
+    // Obie listy są już posortowane - scalanie drzewem przegranych (dla
+    // k = 2 jedno porównanie na element) i dopisywanie na koniec wyniku;
+    // druga kolejka jest opróżniana jak w ogólnym przypadku
+    private PriorityQueue<T> mergeSorted(SortedStackPriorityQueue<T> other) {
+        SortedStackPriorityQueue<T> result = new SortedStackPriorityQueue<>();
+        LoserTree<T> tree = new LoserTree<>(Arrays.asList(elements(this), elements(other)));
+        while (tree.hasNext()) {
+            result.stack.add(new StackPosition<>(result.stack.size(), tree.next()));
+        }
+        other.clear();
+        return result;
+    }
+
+    private static <T extends Comparable<T> & HasValue> Iterator<T> elements(SortedStackPriorityQueue<T> queue) {
+        Iterator<StackPosition<T>> positions = queue.stack.iterator();
+        return new Iterator<T>() {
+            @Override
+            public boolean hasNext() {
+                return positions.hasNext();
+            }
+
+            @Override
+            public T next() {
+                return positions.next().element;
+            }
+        };
+    }
+
+    @Override
+    public void setProbe(PriorityQueueProbe probe) {
+        this.probe = probe;
+    }
+
     @Override
     public boolean isEmpty() {
         return stack.isEmpty();
@@ -135,8 +205,10 @@ public class SortedStackPriorityQueue<T extends Comparable<T> & HasValue> implem
 
     @Override
     public void clear() {
+        for (StackPosition<T> position : stack) {
+            position.valid = false;
+        }
         stack.clear();
-        positions.clear();
     }
 
     private static class StackPosition<T> implements Position<T> {
@@ -0,0 +1,250 @@
+import java.util.*;
+
+/**
+ * Hierarchiczne koło czasowe na kolejkach kubełkowych
+ *
+ * Poziom L to BucketPriorityQueue (FIFO) o N + 1 kubełkach-slotach
+ * szerokości (N + 1)^L taktów; poziom obejmuje jeden wyrównany blok
+ * (N + 1)^(L + 1) taktów, w którym leży bieżący takt. Zegar trafia na
+ * najniższy poziom, na którym jego termin leży w tym samym bloku co bieżący
+ * takt, więc kluczem w kolejce jest zawsze numer slotu z przedziału [0, N]
+ * niezależnie od odległości terminu. Siedem poziomów pokrywa cały zakres
+ * long.
+ *
+ * advanceTo przechodzi od razu do początku najbliższego niepustego slotu
+ * i przenosi (kaskaduje) jego zegary na niższe poziomy - puste takty nic
+ * nie kosztują, a każdy zegar jest przenoszony co najwyżej raz na poziom.
+ * Zaplanowanie i anulowanie to O(1) przez uchwyt zwracany przez schedule.
+ *
+ * @param <V> typ zadań przypisanych do zegarów
+ */
+public class TimerWheel<V> {
+
+    // Liczba slotów na poziomie - pełny zakres kluczy BucketPriorityQueue
+    private static final int SLOTS = PriorityQueue.N + 1;
+    // SPAN[L] = SLOTS^L - szerokość slotu na poziomie L
+    private static final long[] SPAN = spans();
+    private static final int LEVELS = SPAN.length;
+
+    private final List<BucketPriorityQueue<Timer<V>>> levels = new ArrayList<>(LEVELS);
+    private long now;
+    private int size;
+    private long cascadeCount;
+
+    public TimerWheel() {
+        this(0);
+    }
+
+    /**
+     * Tworzy koło czasowe
+     *
+     * @param startTick takt początkowy
+     * @throws IllegalArgumentException jeśli startTick jest ujemny
+     */
+    public TimerWheel(long startTick) {
+        if (startTick < 0) {
+            throw new IllegalArgumentException("Takt początkowy nie może być ujemny");
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            levels.add(new BucketPriorityQueue<>(BucketPriorityQueue.TieBreak.FIFO));
+        }
+        this.now = startTick;
+    }
+
+    private static long[] spans() {
+        List<Long> spans = new ArrayList<>();
+        long span = 1;
+        spans.add(span);
+        while (span <= Long.MAX_VALUE / SLOTS) {
+            span *= SLOTS;
+            spans.add(span);
+        }
+        return spans.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Planuje zadanie na podany takt
+     * Termin nie późniejszy niż bieżący takt wygasa przy najbliższym
+     * advanceTo.
+     *
+     * @param deadline takt wygaśnięcia
+     * @param task     zadanie
+     * @return uchwyt zegara; ważny, dopóki zegar nie wygaśnie ani nie
+     *         zostanie anulowany
+     */
+    // Asymptotyczna złożoność pesymistyczna: O(1), średnia: O(1)
+    public PriorityQueue.Position<V> schedule(long deadline, V task) {
+        Timer<V> timer = new Timer<>(deadline, task);
+        place(timer);
+        size++;
+        return timer;
+    }
+
+    /**
+     * Anuluje zegar
+     *
+     * @param handle uchwyt zwrócony przez schedule()
+     * @return true, jeśli zegar oczekiwał; false, jeśli już wygasł lub
+     *         został anulowany
+     * @throws IllegalArgumentException jeśli uchwyt należy do innego koła
+     */
+    // Asymptotyczna złożoność pesymistyczna: O(1), średnia: O(1)
+    public boolean cancel(PriorityQueue.Position<V> handle) {
+        if (!(handle instanceof Timer)) {
+            throw new IllegalArgumentException("Invalid position type");
+        }
+        @SuppressWarnings("unchecked")
+        Timer<V> timer = (Timer<V>) handle;
+        if (!timer.isValid()) {
+            return false;
+        }
+        levels.get(timer.level).remove(timer.position);
+        timer.position = null;
+        size--;
+        return true;
+    }
+
+    /**
+     * Przesuwa czas do podanego taktu i zwraca wszystkie wygasłe zadania
+     *
+     * @param tick nowy bieżący takt
+     * @return zadania o terminie nie późniejszym niż tick, w kolejności
+     *         terminów (równe terminy - w kolejności planowania; terminy
+     *         minione w chwili planowania liczą się jako ówczesny takt)
+     * @throws IllegalArgumentException jeśli tick jest wcześniejszy niż
+     *                                  bieżący takt
+     */
+    // Asymptotyczna złożoność pesymistyczna: O(e + c + L·N), gdzie e to
+    // liczba wygasłych, c przeniesionych zegarów, a L liczba poziomów;
+    // zamortyzowana: O(e + c + L)
+    public List<V> advanceTo(long tick) {
+        if (tick < now) {
+            throw new IllegalArgumentException("Czas nie może się cofać");
+        }
+        List<V> expired = new ArrayList<>();
+        BucketPriorityQueue<Timer<V>> wheel = levels.get(0);
+        while (true) {
+            long blockStart = now - now % SLOTS;
+            while (!wheel.isEmpty() && blockStart + wheel.findMin().slot <= tick) {
+                Timer<V> timer = wheel.extractMin();
+                timer.position = null;
+                expired.add(timer.task);
+            }
+            // Sloty wyższych poziomów zaczynają się najwcześniej w następnym
+            // bloku poziomu 0, więc cel w bieżącym bloku nie wymaga ich
+            // sprawdzania; poziom 0 jest już pusty, jeśli next <= tick
+            long next = tick - blockStart < SLOTS ? -1 : nextSlotStart();
+            if (next < 0 || next > tick) {
+                now = tick;
+                size -= expired.size();
+                return expired;
+            }
+            now = next;
+            cascade();
+        }
+    }
+
+    // Najwcześniejszy początek niepustego slotu na poziomach 1..L-1 albo -1,
+    // jeśli są puste (Long.MAX_VALUE to poprawny cel advanceTo)
+    private long nextSlotStart() {
+        long next = -1;
+        for (int level = 1; level < LEVELS; level++) {
+            BucketPriorityQueue<Timer<V>> wheel = levels.get(level);
+            if (!wheel.isEmpty()) {
+                long blockStart = level + 1 < LEVELS ? now - now % SPAN[level + 1] : 0;
+                long start = blockStart + wheel.findMin().slot * SPAN[level];
+                next = next < 0 ? start : Math.min(next, start);
+            }
+        }
+        return next;
+    }
+
+    // Przenosi zegary z bieżących slotów na niższe poziomy, od najwyższego,
+    // żeby zegary przeniesione do bieżącego slotu niższego poziomu zostały
+    // przeniesione dalej
+    private void cascade() {
+        for (int level = LEVELS - 1; level > 0; level--) {
+            BucketPriorityQueue<Timer<V>> wheel = levels.get(level);
+            int current = (int) (now / SPAN[level] % SLOTS);
+            while (!wheel.isEmpty() && wheel.findMin().slot == current) {
+                place(wheel.extractMin());
+                cascadeCount++;
+            }
+        }
+    }
+
+    // Najniższy poziom, na którym termin leży w tym samym bloku co bieżący takt
+    private void place(Timer<V> timer) {
+        long tick = Math.max(timer.deadline, now);
+        int level = 0;
+        while (level + 1 < LEVELS && tick / SPAN[level + 1] != now / SPAN[level + 1]) {
+            level++;
+        }
+        timer.level = level;
+        timer.slot = (int) (tick / SPAN[level] % SLOTS);
+        timer.position = levels.get(level).insert(timer);
+    }
+
+    public long getCurrentTick() {
+        return now;
+    }
+
+    /**
+     * Zwraca liczbę przeniesień zegarów między poziomami od utworzenia koła
+     *
+     * @return liczba przeniesień
+     */
+    public long getCascadeCount() {
+        return cascadeCount;
+    }
+
+    public int getLevelCount() {
+        return LEVELS;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Zegar - element kolejki poziomu (wartość to numer slotu) i jednocześnie
+     * uchwyt zwracany przez schedule, niezmienny przy przenoszeniu
+     */
+    private static final class Timer<V> implements Comparable<Timer<V>>, HasValue, PriorityQueue.Position<V> {
+        final long deadline;
+        final V task;
+        int level;
+        int slot;
+        // Pozycja w kolejce poziomu; null po wygaśnięciu lub anulowaniu
+        PriorityQueue.Position<Timer<V>> position;
+
+        Timer(long deadline, V task) {
+            this.deadline = deadline;
+            this.task = task;
+        }
+
+        @Override
+        public int wartość() {
+            return slot;
+        }
+
+        @Override
+        public int compareTo(Timer<V> other) {
+            return Long.compare(deadline, other.deadline);
+        }
+
+        @Override
+        public V getElement() {
+            return task;
+        }
+
+        @Override
+        public boolean isValid() {
+            return position != null;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+/**
+ * Pozycja zwracana przez insert kolejek, które nie śledzą położenia
+ * elementów (ExternalPriorityQueue, SnapshotPriorityQueue); isValid()
+ * zawsze zwraca false
+ *
+ * @param <T> typ elementu
+ */
+final class UntrackedPosition<T> implements PriorityQueue.Position<T> {
+    private final T element;
+
+    UntrackedPosition(T element) {
+        this.element = element;
+    }
+
+    @Override
+    public T getElement() {
+        return element;
+    }
+
+    @Override
+    public boolean isValid() {
+        return false;
+    }
+}
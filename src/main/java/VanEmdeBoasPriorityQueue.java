@@ -0,0 +1,419 @@
+import java.util.*;
+
+/**
+ * Kolejka priorytetowa na drzewie van Emde Boasa nad uniwersum kluczy
+ * [0, maxKey]
+ *
+ * Drzewo przechowuje zbiór obecnych kluczy: węzeł uniwersum 2^b dzieli klucz
+ * na górne i dolne b/2 bitów, pamięta minimum i maksimum poza klastrami,
+ * a niepuste klastry zapisuje w drzewie-podsumowaniu. insert, usunięcie
+ * klucza i minimum kosztują O(log log U) - każdy poziom schodzi rekurencyjnie
+ * tylko do jednego poddrzewa, a uniwersa do 64 kluczy są pojedynczym
+ * słowem long. Tablice klastrów powstają dopiero przy pierwszym kluczu
+ * w danym zakresie, więc rzadkie zbiory nad dużym uniwersum (do 2^31)
+ * zajmują pamięć proporcjonalną do liczby kluczy, a nie do U.
+ *
+ * Elementy o tej samej wartości tworzą cykliczną listę dwukierunkową
+ * (multizbiór) i są zwracane w kolejności wstawiania; węzeł listy jest
+ * pozycją elementu, więc decreaseKey i remove kosztują O(log log U) bez
+ * przeszukiwania. W odróżnieniu od BucketPriorityQueue minimum nie jest
+ * szukane liniowo po pustych kubełkach, a w odróżnieniu od kopców nie ma
+ * porównań elementów.
+ */
+public class VanEmdeBoasPriorityQueue<T extends Comparable<T> & HasValue> implements PriorityQueue<T> {
+
+    private static final int EMPTY = -1;
+    // Do tego rozmiaru uniwersum listy kluczy są w tablicy, powyżej - w mapie
+    private static final int DENSE_LIMIT = 1 << 16;
+
+    private final int maxKey;
+    private Node root;
+    // Pierwszy element listy dla klucza (tablica albo mapa)
+    private Entry<T>[] heads;
+    private Map<Integer, Entry<T>> sparseHeads;
+    private int size;
+
+    /**
+     * Tworzy kolejkę dla kluczy z [0, N]
+     */
+    public VanEmdeBoasPriorityQueue() {
+        this(N);
+    }
+
+    /**
+     * Tworzy kolejkę dla kluczy z [0, maxKey]
+     *
+     * @param maxKey największy dopuszczalny klucz
+     * @throws IllegalArgumentException jeśli maxKey jest ujemne
+     */
+    public VanEmdeBoasPriorityQueue(int maxKey) {
+        if (maxKey < 0) {
+            throw new IllegalArgumentException("Największy klucz nie może być ujemny");
+        }
+        this.maxKey = maxKey;
+        reset();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void reset() {
+        root = new Node(Math.max(1, 32 - Integer.numberOfLeadingZeros(maxKey)));
+        if (maxKey < DENSE_LIMIT) {
+            heads = new Entry[maxKey + 1];
+        } else {
+            sparseHeads = new HashMap<>();
+        }
+        size = 0;
+    }
+
+    public int getMaxKey() {
+        return maxKey;
+    }
+
+    private Entry<T> head(int key) {
+        return heads != null ? heads[key] : sparseHeads.get(key);
+    }
+
+    private void setHead(int key, Entry<T> entry) {
+        if (heads != null) {
+            heads[key] = entry;
+        } else if (entry == null) {
+            sparseHeads.remove(key);
+        } else {
+            sparseHeads.put(key, entry);
+        }
+    }
+
+    private void checkRange(T element) {
+        if (element.wartość() < 0 || element.wartość() > maxKey) {
+            throw new IllegalArgumentException("Element value must be in range [0, " + maxKey + "]");
+        }
+    }
+
+    // Asymptotyczna złożoność pesymistyczna: O(log log U), średnia: O(1)
+    // Nowy klucz trafia do drzewa, powtórzony - tylko na koniec swojej listy
+    @Override
+    public Position<T> insert(T element) {
+        checkRange(element);
+        int key = element.wartość();
+        Entry<T> entry = new Entry<>(element, this);
+        Entry<T> first = head(key);
+        if (first == null) {
+            entry.prev = entry;
+            entry.next = entry;
+            setHead(key, entry);
+            root.insert(key);
+        } else {
+            entry.prev = first.prev;
+            entry.next = first;
+            first.prev.next = entry;
+            first.prev = entry;
+        }
+        size++;
+        return entry;
+    }
+
+    // Asymptotyczna złożoność pesymistyczna: O(1), średnia: O(1)
+    // Minimum jest zapamiętane w korzeniu
+    @Override
+    public T findMin() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        return head(root.min()).element;
+    }
+
+    // Asymptotyczna złożoność pesymistyczna: O(log log U), średnia:
+    // O(log log U)
+    @Override
+    public T extractMin() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        Entry<T> min = head(root.min());
+        unlink(min);
+        return min.element;
+    }
+
+    // Odłącza element od listy; ostatni element klucza usuwa klucz z drzewa
+    private void unlink(Entry<T> entry) {
+        int key = entry.element.wartość();
+        if (entry.next == entry) {
+            setHead(key, null);
+            root.delete(key);
+        } else {
+            entry.prev.next = entry.next;
+            entry.next.prev = entry.prev;
+            if (head(key) == entry) {
+                setHead(key, entry.next);
+            }
+        }
+        entry.prev = null;
+        entry.next = null;
+        entry.owner = null;
+        size--;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Entry<T> entry(Position<T> position) {
+        if (!(position instanceof Entry)) {
+            throw new IllegalArgumentException("Invalid position type");
+        }
+        Entry<T> entry = (Entry<T>) position;
+        if (entry.owner != this) {
+            throw new IllegalArgumentException("Invalid operation");
+        }
+        return entry;
+    }
+
+    // Asymptotyczna złożoność pesymistyczna: O(log log U), średnia:
+    // O(log log U)
+    // Usunięcie starego elementu i wstawienie nowego
+    @Override
+    public Position<T> decreaseKey(Position<T> position, T newElement) {
+        Entry<T> entry = entry(position);
+        if (newElement.wartość() < 0 || newElement.wartość() > maxKey) {
+            throw new IllegalArgumentException("Invalid operation");
+        }
+        if (newElement.wartość() >= entry.element.wartość()) {
+            throw new IllegalArgumentException("New element value must be smaller");
+        }
+        unlink(entry);
+        return insert(newElement);
+    }
+
+    // Asymptotyczna złożoność pesymistyczna: O(log log U), średnia: O(1)
+    @Override
+    public T remove(Position<T> position) {
+        Entry<T> entry = entry(position);
+        unlink(entry);
+        return entry.element;
+    }
+
+    // Jak w interfejsie, ale z zakresem [0, maxKey] zamiast [0, N]
+    @Override
+    public Position<T> updateKey(Position<T> position, T newElement) {
+        Entry<T> entry = entry(position);
+        checkRange(newElement);
+        if (newElement.wartość() < entry.element.wartość()) {
+            return decreaseKey(position, newElement);
+        }
+        unlink(entry);
+        return insert(newElement);
+    }
+
+    // Asymptotyczna złożoność pesymistyczna: O(n log log U), średnia:
+    // O(n log log U)
+    public static <T extends Comparable<T> & HasValue> PriorityQueue<T> buildHeap(T[] elements) {
+        VanEmdeBoasPriorityQueue<T> pq = new VanEmdeBoasPriorityQueue<>();
+        for (T element : elements) {
+            pq.insert(element);
+        }
+        return pq;
+    }
+
+    // Asymptotyczna złożoność pesymistyczna: O((n + m) log log U), średnia:
+    // O((n + m) log log U)
+    @Override
+    public PriorityQueue<T> merge(PriorityQueue<T> other) {
+        // Pozostałe implementacje przyjmują klucze z [0, N]
+        int otherMaxKey = other instanceof VanEmdeBoasPriorityQueue
+                ? ((VanEmdeBoasPriorityQueue<?>) other).maxKey
+                : N;
+        int resultMaxKey = Math.max(maxKey, otherMaxKey);
+        VanEmdeBoasPriorityQueue<T> result = new VanEmdeBoasPriorityQueue<>(resultMaxKey);
+        for (Entry<T> first : firstEntries()) {
+            Entry<T> entry = first;
+            do {
+                result.insert(entry.element);
+                entry = entry.next;
+            } while (entry != first);
+        }
+        while (!other.isEmpty()) {
+            result.insert(other.extractMin());
+        }
+        return result;
+    }
+
+    // Pierwsze elementy list wszystkich obecnych kluczy
+    private List<Entry<T>> firstEntries() {
+        if (heads == null) {
+            return new ArrayList<>(sparseHeads.values());
+        }
+        List<Entry<T>> result = new ArrayList<>();
+        for (Entry<T> first : heads) {
+            if (first != null) {
+                result.add(first);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        // Unieważnij pozycje wszystkich elementów
+        for (Entry<T> first : firstEntries()) {
+            Entry<T> entry = first;
+            do {
+                Entry<T> next = entry.next;
+                entry.prev = null;
+                entry.next = null;
+                entry.owner = null;
+                entry = next;
+            } while (entry != first);
+        }
+        heads = null;
+        sparseHeads = null;
+        reset();
+    }
+
+    /**
+     * Węzeł drzewa van Emde Boasa nad uniwersum [0, 2^bits)
+     * Uniwersa do 64 kluczy są maską bitową; w większych minimum nie jest
+     * zapisywane w klastrach, co daje jedno wywołanie rekurencyjne na poziom.
+     */
+    private static final class Node {
+        private final int bits;
+        private final int lowBits;
+        // Liść: obecne klucze jako bity
+        private long bitmap;
+        // Węzeł wewnętrzny
+        private int min = EMPTY;
+        private int max = EMPTY;
+        private Node summary;
+        private Node[] clusters;
+
+        Node(int bits) {
+            this.bits = bits;
+            this.lowBits = bits / 2;
+        }
+
+        private boolean isLeaf() {
+            return bits <= 6;
+        }
+
+        boolean isEmpty() {
+            return isLeaf() ? bitmap == 0 : min == EMPTY;
+        }
+
+        int min() {
+            if (isLeaf()) {
+                return bitmap == 0 ? EMPTY : Long.numberOfTrailingZeros(bitmap);
+            }
+            return min;
+        }
+
+        int max() {
+            if (isLeaf()) {
+                return bitmap == 0 ? EMPTY : 63 - Long.numberOfLeadingZeros(bitmap);
+            }
+            return max;
+        }
+
+        private Node cluster(int high) {
+            if (clusters == null) {
+                clusters = new Node[1 << (bits - lowBits)];
+                summary = new Node(bits - lowBits);
+            }
+            Node cluster = clusters[high];
+            if (cluster == null) {
+                cluster = new Node(lowBits);
+                clusters[high] = cluster;
+            }
+            return cluster;
+        }
+
+        // Klucz nie może być obecny
+        void insert(int key) {
+            if (isLeaf()) {
+                bitmap |= 1L << key;
+                return;
+            }
+            if (min == EMPTY) {
+                min = key;
+                max = key;
+                return;
+            }
+            if (key < min) {
+                int swap = min;
+                min = key;
+                key = swap;
+            }
+            if (key > max) {
+                max = key;
+            }
+            int high = key >>> lowBits;
+            Node cluster = cluster(high);
+            // Pusty klaster: wstawienie do niego jest O(1), rekurencja tylko
+            // w podsumowaniu
+            if (cluster.isEmpty()) {
+                summary.insert(high);
+            }
+            cluster.insert(key & ((1 << lowBits) - 1));
+        }
+
+        // Klucz musi być obecny
+        void delete(int key) {
+            if (isLeaf()) {
+                bitmap &= ~(1L << key);
+                return;
+            }
+            if (min == max) {
+                min = EMPTY;
+                max = EMPTY;
+                return;
+            }
+            if (key == min) {
+                // Nowe minimum to najmniejszy klucz z klastrów - usuwany z nich
+                int first = summary.min();
+                key = (first << lowBits) | clusters[first].min();
+                min = key;
+            }
+            int high = key >>> lowBits;
+            Node cluster = clusters[high];
+            cluster.delete(key & ((1 << lowBits) - 1));
+            if (cluster.isEmpty()) {
+                // Pusty klaster: usunięcie z niego było O(1)
+                summary.delete(high);
+                if (key == max) {
+                    int last = summary.max();
+                    max = last == EMPTY ? min : (last << lowBits) | clusters[last].max();
+                }
+            } else if (key == max) {
+                max = (high << lowBits) | cluster.max();
+            }
+        }
+    }
+
+    // Węzeł listy elementów o tej samej wartości jest jednocześnie pozycją
+    private static final class Entry<T> implements Position<T> {
+        final T element;
+        Entry<T> prev, next;
+        // Kolejka, do której należy element; null = pozycja nieważna
+        Object owner;
+
+        Entry(T element, Object owner) {
+            this.element = element;
+            this.owner = owner;
+        }
+
+        @Override
+        public T getElement() {
+            return element;
+        }
+
+        @Override
+        public boolean isValid() {
+            return owner != null;
+        }
+    }
+}
@@ -16,6 +16,9 @@ public class WeightedGraph {
     private final List<List<Edge>> adjacencyList;
     private final Set<Integer> vertices;
     private int edgeCount;
+    // Licznik wersji zwiększany przy każdej zmianie struktury grafu
+    private volatile long version;
+    private final List<GraphListener> listeners = new ArrayList<>();
 
     /**
      * Konstruktor z domyślnymi ograniczeniami
@@ -47,6 +50,28 @@ public class WeightedGraph {
         }
     }
 
+    /**
+     * Obserwator zmian krawędzi grafu
+     * Waga -1 oznacza brak krawędzi (przed dodaniem lub po usunięciu).
+     */
+    public interface GraphListener {
+
+        /**
+         * Wywoływane po dodaniu, zmianie wagi lub usunięciu krawędzi
+         *
+         * @param source      wierzchołek początkowy
+         * @param destination wierzchołek końcowy
+         * @param oldWeight   poprzednia waga lub -1 dla nowej krawędzi
+         * @param newWeight   nowa waga lub -1 dla usuniętej krawędzi
+         */
+        void edgeChanged(int source, int destination, int oldWeight, int newWeight);
+
+        /**
+         * Wywoływane po wyczyszczeniu grafu
+         */
+        void graphCleared();
+    }
+
     /**
      * Klasa reprezentująca krawędź grafu
      */
@@ -96,7 +121,9 @@ public class WeightedGraph {
      */
     public void addVertex(int vertex) {
         validateVertex(vertex);
-        vertices.add(vertex);
+        if (vertices.add(vertex)) {
+            version++;
+        }
     }
 
     /**
@@ -120,12 +147,72 @@ public class WeightedGraph {
         if (!hasEdge(source, destination)) {
             adjacencyList.get(source).add(new Edge(destination, weight));
             edgeCount++;
+            version++;
+            fireEdgeChanged(source, destination, -1, weight);
         } else {
             // Aktualizuj wagę istniejącej krawędzi
             updateEdgeWeight(source, destination, weight);
         }
     }
 
+    /**
+     * Dodaje wiele krawędzi skierowanych naraz (np. wczytanych przez GraphLoader)
+     * Semantyka jak w addEdge (powtórzona krawędź aktualizuje wagę), ale bez
+     * tworzenia strumieni dla każdej krawędzi
+     *
+     * @param sources      wierzchołki początkowe
+     * @param destinations wierzchołki końcowe
+     * @param weights      wagi krawędzi [0, K]
+     * @param count        liczba krawędzi do dodania z początku tablic
+     * @throws IllegalArgumentException jeśli któraś krawędź jest nieprawidłowa
+     */
+    public void addEdges(int[] sources, int[] destinations, int[] weights, int count) {
+        if (count < 0 || count > sources.length || count > destinations.length || count > weights.length) {
+            throw new IllegalArgumentException("Nieprawidłowa liczba krawędzi");
+        }
+
+        // Zbiór wierzchołków uzupełniamy raz na końcu zamiast dwóch operacji na
+        // HashSet<Integer> dla każdej krawędzi
+        BitSet touched = new BitSet(maxVertices);
+
+        try {
+            for (int i = 0; i < count; i++) {
+                int source = sources[i];
+                int destination = destinations[i];
+                validateVertex(source);
+                validateVertex(destination);
+                validateWeight(weights[i]);
+
+                touched.set(source);
+                touched.set(destination);
+
+                List<Edge> edges = adjacencyList.get(source);
+                int existing = -1;
+                for (int j = 0; j < edges.size(); j++) {
+                    if (edges.get(j).getDestination() == destination) {
+                        existing = j;
+                        break;
+                    }
+                }
+
+                if (existing == -1) {
+                    edges.add(new Edge(destination, weights[i]));
+                    edgeCount++;
+                    fireEdgeChanged(source, destination, -1, weights[i]);
+                } else {
+                    int oldWeight = edges.get(existing).getWeight();
+                    edges.set(existing, new Edge(destination, weights[i]));
+                    fireEdgeChanged(source, destination, oldWeight, weights[i]);
+                }
+            }
+        } finally {
+            for (int vertex = touched.nextSetBit(0); vertex >= 0; vertex = touched.nextSetBit(vertex + 1)) {
+                vertices.add(vertex);
+            }
+            version++;
+        }
+    }
+
     /**
      * Dodaje krawędź nieskierowaną (dwukierunkową)
      * 
@@ -188,7 +275,10 @@ public class WeightedGraph {
         List<Edge> edges = adjacencyList.get(source);
         for (int i = 0; i < edges.size(); i++) {
             if (edges.get(i).getDestination() == destination) {
+                int oldWeight = edges.get(i).getWeight();
                 edges.set(i, new Edge(destination, newWeight));
+                version++;
+                fireEdgeChanged(source, destination, oldWeight, newWeight);
                 return;
             }
         }
@@ -207,11 +297,24 @@ public class WeightedGraph {
         validateVertex(destination);
 
         List<Edge> edges = adjacencyList.get(source);
-        boolean removed = edges.removeIf(edge -> edge.getDestination() == destination);
-        if (removed) {
-            edgeCount--;
+        for (int i = 0; i < edges.size(); i++) {
+            if (edges.get(i).getDestination() == destination) {
+                int oldWeight = edges.remove(i).getWeight();
+                edgeCount--;
+                version++;
+                fireEdgeChanged(source, destination, oldWeight, -1);
+                return true;
+            }
         }
-        return removed;
+        return false;
+    }
+
+    /**
+     * Zwraca wewnętrzną listę krawędzi wychodzących bez kopiowania
+     * (tylko do odczytu, dla algorytmów w tym pakiecie)
+     */
+    List<Edge> outgoingEdges(int vertex) {
+        return adjacencyList.get(vertex);
     }
 
     /**
@@ -243,6 +346,24 @@ public class WeightedGraph {
         return vertices.size();
     }
 
+    /**
+     * Zwraca maksymalną liczbę wierzchołków (numery z zakresu [0, maxVertices-1])
+     *
+     * @return maksymalna liczba wierzchołków
+     */
+    public int getMaxVertices() {
+        return maxVertices;
+    }
+
+    /**
+     * Zwraca maksymalną dopuszczalną wagę krawędzi
+     *
+     * @return maksymalna waga
+     */
+    public int getMaxWeight() {
+        return maxWeight;
+    }
+
     /**
      * Zwraca liczbę krawędzi
      * 
@@ -252,6 +373,18 @@ public class WeightedGraph {
         return edgeCount;
     }
 
+    /**
+     * Zwraca wersję grafu
+     * Wersja zmienia się przy każdym dodaniu wierzchołka lub krawędzi, zmianie
+     * wagi, usunięciu krawędzi i wyczyszczeniu grafu, więc może służyć do
+     * unieważniania wyników obliczonych dla starszej wersji.
+     *
+     * @return numer wersji grafu
+     */
+    public long getVersion() {
+        return version;
+    }
+
     /**
      * Sprawdza czy graf jest pusty
      * 
@@ -267,9 +400,38 @@ public class WeightedGraph {
     public void clear() {
         vertices.clear();
         edgeCount = 0;
+        version++;
         for (List<Edge> edges : adjacencyList) {
             edges.clear();
         }
+        for (GraphListener listener : new ArrayList<>(listeners)) {
+            listener.graphCleared();
+        }
+    }
+
+    /**
+     * Rejestruje obserwatora zmian krawędzi
+     *
+     * @param listener obserwator
+     */
+    public void addGraphListener(GraphListener listener) {
+        listeners.add(Objects.requireNonNull(listener));
+    }
+
+    /**
+     * Wyrejestrowuje obserwatora zmian krawędzi
+     *
+     * @param listener obserwator
+     * @return true jeśli obserwator był zarejestrowany
+     */
+    public boolean removeGraphListener(GraphListener listener) {
+        return listeners.remove(listener);
+    }
+
+    private void fireEdgeChanged(int source, int destination, int oldWeight, int newWeight) {
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).edgeChanged(source, destination, oldWeight, newWeight);
+        }
     }
 
     /**
@@ -300,6 +462,66 @@ public class WeightedGraph {
         return matrix;
     }
 
+    /**
+     * Tworzy niemutowalną migawkę grafu w formacie CSR
+     * Migawka nie widzi późniejszych zmian grafu i może być współdzielona między
+     * wątkami (np. przez BatchShortestPathEngine)
+     *
+     * @return migawka grafu
+     */
+    public GraphSnapshot snapshot() {
+        int vertexCount = vertices.stream().mapToInt(Integer::intValue).max().orElse(-1) + 1;
+        BitSet vertexSet = new BitSet(vertexCount);
+        for (int vertex : vertices) {
+            vertexSet.set(vertex);
+        }
+
+        int[] offsets = new int[vertexCount + 1];
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            offsets[vertex + 1] = offsets[vertex] + adjacencyList.get(vertex).size();
+        }
+
+        int[] targets = new int[offsets[vertexCount]];
+        int[] weights = new int[offsets[vertexCount]];
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            int index = offsets[vertex];
+            for (Edge edge : adjacencyList.get(vertex)) {
+                targets[index] = edge.getDestination();
+                weights[index] = edge.getWeight();
+                index++;
+            }
+        }
+
+        return new GraphSnapshot(vertexCount, vertexSet, offsets, targets, weights);
+    }
+
+    /**
+     * Tworzy kolejkę priorytetową o podanym typie
+     * Dla AUTO wybiera implementację dla algorytmu Dijkstry na grafie
+     * o maksymalnym rozmiarze M.
+     *
+     * @param priorityQueueType numer typu kolejki z PriorityQueueRegistry lub
+     *                          PriorityQueueRegistry.AUTO
+     * @return nowa, pusta kolejka
+     * @throws IllegalArgumentException jeśli typ jest nieprawidłowy
+     */
+    static <T extends Comparable<T> & HasValue> PriorityQueue<T> newPriorityQueue(int priorityQueueType) {
+        return PriorityQueueRegistry.create(priorityQueueType, dijkstraHints(M, DijkstraMode.DECREASE_KEY));
+    }
+
+    /**
+     * Opis obciążenia kolejki w algorytmie Dijkstry dla trybu AUTO
+     * Odległości są kluczami z [0, N], a wyjmowane klucze nie maleją.
+     *
+     * @param vertexCount liczba wierzchołków grafu
+     * @param mode        tryb aktualizacji odległości w kolejce
+     * @return opis obciążenia
+     */
+    static PriorityQueueFactory.Hints dijkstraHints(int vertexCount, DijkstraMode mode) {
+        return new PriorityQueueFactory.Hints(PriorityQueue.N, vertexCount, true,
+                mode == DijkstraMode.DECREASE_KEY, false);
+    }
+
     /**
      * Sprawdza poprawność numeru wierzchołka
      */
@@ -368,16 +590,52 @@ public class WeightedGraph {
 
     /**
      * Klasa reprezentująca wynik algorytmu Dijkstry
+     * Odległości i poprzedniki trzymane są w tablicach indeksowanych numerem
+     * wierzchołka zamiast w mapach Integer -> Integer
      */
     public static class DijkstraResult {
         private final int source;
-        private final Map<Integer, Integer> distances;
-        private final Map<Integer, Integer> predecessors;
+        private final int[] distances;
+        private final int[] predecessors;
+        private final BitSet vertices;
+        private final SearchStats searchStats;
 
         public DijkstraResult(int source, Map<Integer, Integer> distances, Map<Integer, Integer> predecessors) {
+            this(source, distances, predecessors, null);
+        }
+
+        private DijkstraResult(int source, Map<Integer, Integer> distances, Map<Integer, Integer> predecessors,
+                SearchStats searchStats) {
             this.source = source;
-            this.distances = new HashMap<>(distances);
-            this.predecessors = new HashMap<>(predecessors);
+            this.searchStats = searchStats;
+            int size = distances.keySet().stream().mapToInt(Integer::intValue).max().orElse(-1) + 1;
+            this.distances = new int[size];
+            this.predecessors = new int[size];
+            this.vertices = new BitSet(size);
+            Arrays.fill(this.distances, Integer.MAX_VALUE);
+            Arrays.fill(this.predecessors, -1);
+            for (Map.Entry<Integer, Integer> entry : distances.entrySet()) {
+                int vertex = entry.getKey();
+                vertices.set(vertex);
+                this.distances[vertex] = entry.getValue();
+                this.predecessors[vertex] = predecessors.getOrDefault(vertex, -1);
+            }
+        }
+
+        /**
+         * Konstruktor przejmujący tablice bez kopiowania (dla silników zapytań)
+         *
+         * @param source       wierzchołek źródłowy
+         * @param distances    odległości (Integer.MAX_VALUE = nieosiągalny)
+         * @param predecessors poprzedniki (-1 = brak)
+         * @param vertices     wierzchołki grafu
+         */
+        DijkstraResult(int source, int[] distances, int[] predecessors, BitSet vertices) {
+            this.source = source;
+            this.distances = distances;
+            this.predecessors = predecessors;
+            this.vertices = vertices;
+            this.searchStats = null;
         }
 
         /**
@@ -387,7 +645,7 @@ public class WeightedGraph {
          * @return odległość lub Integer.MAX_VALUE jeśli nieosiągalny
          */
         public int getDistance(int vertex) {
-            return distances.getOrDefault(vertex, Integer.MAX_VALUE);
+            return hasVertex(vertex) ? distances[vertex] : Integer.MAX_VALUE;
         }
 
         /**
@@ -397,7 +655,7 @@ public class WeightedGraph {
          * @return true jeśli osiągalny
          */
         public boolean isReachable(int vertex) {
-            return distances.containsKey(vertex) && distances.get(vertex) != Integer.MAX_VALUE;
+            return hasVertex(vertex) && distances[vertex] != Integer.MAX_VALUE;
         }
 
         /**
@@ -415,10 +673,11 @@ public class WeightedGraph {
             int current = vertex;
 
             while (current != -1) {
-                path.add(0, current);
-                current = predecessors.getOrDefault(current, -1);
+                path.add(current);
+                current = hasVertex(current) ? predecessors[current] : -1;
             }
 
+            Collections.reverse(path);
             return path;
         }
 
@@ -428,23 +687,47 @@ public class WeightedGraph {
          * @return mapa wierzchołek -> odległość
          */
         public Map<Integer, Integer> getAllDistances() {
-            return new HashMap<>(distances);
+            Map<Integer, Integer> result = new HashMap<>();
+            for (int vertex = vertices.nextSetBit(0); vertex >= 0; vertex = vertices.nextSetBit(vertex + 1)) {
+                result.put(vertex, distances[vertex]);
+            }
+            return result;
         }
 
         public int getSource() {
             return source;
         }
 
+        /**
+         * Zwraca statystyki przebiegu algorytmu
+         *
+         * @return statystyki lub null, jeśli wynik nie pochodzi z
+         *         WeightedGraph.dijkstra
+         */
+        public SearchStats getSearchStats() {
+            return searchStats;
+        }
+
+        /**
+         * Szacuje rozmiar wyniku w pamięci (tablice, BitSet i nagłówki obiektów)
+         *
+         * @return przybliżony rozmiar w bajtach
+         */
+        public long estimatedSizeBytes() {
+            return 2L * (16 + 4L * distances.length) + 48 + vertices.size() / 8 + 32;
+        }
+
+        private boolean hasVertex(int vertex) {
+            return vertex >= 0 && vertex < distances.length && vertices.get(vertex);
+        }
+
         @Override
         public String toString() {
             StringBuilder sb = new StringBuilder();
             sb.append(String.format("Dijkstra z wierzchołka %d:\n", source));
 
-            List<Integer> sortedVertices = new ArrayList<>(distances.keySet());
-            Collections.sort(sortedVertices);
-
-            for (int vertex : sortedVertices) {
-                int dist = distances.get(vertex);
+            for (int vertex = vertices.nextSetBit(0); vertex >= 0; vertex = vertices.nextSetBit(vertex + 1)) {
+                int dist = distances[vertex];
                 if (dist == Integer.MAX_VALUE) {
                     sb.append(String.format("  %d: nieosiągalny\n", vertex));
                 } else {
@@ -463,13 +746,59 @@ public class WeightedGraph {
      * Znajduje najkrótsze ścieżki z wierzchołka źródłowego do wszystkich innych
      * 
      * @param source            wierzchołek źródłowy
-     * @param priorityQueueType typ kolejki priorytetowej (1=SortedStack, 2=BST,
-     *                          3=Bucket)
+     * @param priorityQueueType numer typu kolejki z PriorityQueueRegistry lub
+     *                          PriorityQueueRegistry.AUTO
      * @return wynik algorytmu Dijkstry
      * @throws IllegalArgumentException jeśli wierzchołek źródłowy nie istnieje
      */
     public DijkstraResult dijkstra(int source, int priorityQueueType) {
+        return dijkstra(source, priorityQueueType, defaultMode(priorityQueueType));
+    }
+
+    /**
+     * Sposób aktualizacji odległości w kolejce podczas algorytmu Dijkstry
+     */
+    public enum DijkstraMode {
+        /**
+         * Każda poprawa odległości wstawia nowy wpis; nieaktualne wpisy są
+         * pomijane przy wyjmowaniu. Kolejka może urosnąć do O(E).
+         */
+        LAZY,
+        /**
+         * Każdy wierzchołek ma w kolejce jedną pozycję, poprawiana przez
+         * decreaseKey. Kolejka ma co najwyżej O(V) elementów.
+         */
+        DECREASE_KEY
+    }
+
+    /**
+     * Zwraca domyślny tryb dla danej implementacji kolejki
+     * (PriorityQueueFactory.defaultDijkstraMode)
+     *
+     * @param priorityQueueType numer typu z PriorityQueueRegistry lub
+     *                          PriorityQueueRegistry.AUTO
+     * @return domyślny tryb algorytmu Dijkstry
+     * @throws IllegalArgumentException jeśli typ nie jest zarejestrowany
+     */
+    public static DijkstraMode defaultMode(int priorityQueueType) {
+        // AUTO wybiera implementację przy założeniu użycia decreaseKey
+        return priorityQueueType == PriorityQueueRegistry.AUTO ? DijkstraMode.DECREASE_KEY
+                : PriorityQueueRegistry.get(priorityQueueType).defaultDijkstraMode();
+    }
+
+    /**
+     * Implementacja algorytmu Dijkstry w wybranym trybie aktualizacji kolejki
+     *
+     * @param source            wierzchołek źródłowy
+     * @param priorityQueueType numer typu kolejki z PriorityQueueRegistry lub
+     *                          PriorityQueueRegistry.AUTO
+     * @param mode              tryb aktualizacji odległości w kolejce
+     * @return wynik algorytmu Dijkstry
+     * @throws IllegalArgumentException jeśli wierzchołek źródłowy nie istnieje
+     */
+    public DijkstraResult dijkstra(int source, int priorityQueueType, DijkstraMode mode) {
         validateVertex(source);
+        int queueType = PriorityQueueRegistry.resolve(priorityQueueType, dijkstraHints(getVertexCount(), mode));
 
         if (!vertices.contains(source)) {
             throw new IllegalArgumentException("Wierzchołek źródłowy nie istnieje w grafie");
@@ -481,20 +810,7 @@ public class WeightedGraph {
         Set<Integer> visited = new HashSet<>();
 
         // Utworz kolejkę priorytetową
-        PriorityQueue<DijkstraNode> pq;
-        switch (priorityQueueType) {
-            case 1:
-                pq = new SortedStackPriorityQueue<>();
-                break;
-            case 2:
-                pq = new BSTPriorityQueue<>();
-                break;
-            case 3:
-                pq = new BucketPriorityQueue<>();
-                break;
-            default:
-                throw new IllegalArgumentException("Nieprawidłowy typ kolejki priorytetowej");
-        }
+        PriorityQueue<DijkstraNode> pq = newPriorityQueue(queueType);
 
         // Inicjalizuj odległości
         for (int vertex : vertices) {
@@ -503,25 +819,60 @@ public class WeightedGraph {
         }
         distances.put(source, 0);
 
+        // Statystyki przebiegu; czasy mierzone tylko przy włączonym zdarzeniu JFR
+        DijkstraEvent event = new DijkstraEvent();
+        boolean timed = event.isEnabled();
+        event.begin();
+        int settled = 0;
+        long relaxed = 0;
+        long successful = 0;
+        long stale = 0;
+        int peakQueueSize = 1;
+        long queueNanos = 0;
+        long loopStart = timed ? System.nanoTime() : 0;
+
+        // W trybie DECREASE_KEY każdy wierzchołek ma w kolejce co najwyżej
+        // jeden wpis, wskazywany przez handles[wierzchołek]
+        @SuppressWarnings("unchecked")
+        PriorityQueue.Position<DijkstraNode>[] handles = mode == DijkstraMode.DECREASE_KEY
+                ? new PriorityQueue.Position[maxVertices]
+                : null;
+
         // Dodaj wierzchołek źródłowy do kolejki
-        pq.insert(new DijkstraNode(source, 0));
+        PriorityQueue.Position<DijkstraNode> sourcePosition = pq.insert(new DijkstraNode(source, 0));
+        if (handles != null) {
+            handles[source] = sourcePosition;
+        }
 
         // Główna pętla algorytmu
         while (!pq.isEmpty()) {
-            DijkstraNode current = pq.extractMin();
+            DijkstraNode current;
+            if (timed) {
+                long start = System.nanoTime();
+                current = pq.extractMin();
+                queueNanos += System.nanoTime() - start;
+            } else {
+                current = pq.extractMin();
+            }
             int currentVertex = current.getVertex();
+            if (handles != null) {
+                handles[currentVertex] = null;
+            }
 
             // Pomiń jeśli już odwiedzony
             if (visited.contains(currentVertex)) {
+                stale++;
                 continue;
             }
 
             visited.add(currentVertex);
+            settled++;
 
             // Sprawdź wszystkich sąsiadów
             for (Edge edge : adjacencyList.get(currentVertex)) {
                 int neighbor = edge.getDestination();
                 int weight = edge.getWeight();
+                relaxed++;
 
                 // Relaksacja krawędzi
                 int newDistance = distances.get(currentVertex) + weight;
@@ -529,16 +880,50 @@ public class WeightedGraph {
                 if (newDistance < distances.get(neighbor)) {
                     distances.put(neighbor, newDistance);
                     predecessors.put(neighbor, currentVertex);
+                    successful++;
 
                     // Dodaj do kolejki tylko jeśli nie był jeszcze odwiedzony
                     if (!visited.contains(neighbor)) {
-                        pq.insert(new DijkstraNode(neighbor, newDistance));
+                        long start = timed ? System.nanoTime() : 0;
+                        DijkstraNode node = new DijkstraNode(neighbor, newDistance);
+                        if (handles == null) {
+                            pq.insert(node);
+                        } else if (handles[neighbor] == null) {
+                            handles[neighbor] = pq.insert(node);
+                        } else {
+                            handles[neighbor] = pq.decreaseKey(handles[neighbor], node);
+                        }
+                        if (timed) {
+                            queueNanos += System.nanoTime() - start;
+                        }
+                        peakQueueSize = Math.max(peakQueueSize, pq.size());
                     }
                 }
             }
         }
 
-        return new DijkstraResult(source, distances, predecessors);
+        long relaxationNanos = timed ? System.nanoTime() - loopStart - queueNanos : 0;
+        SearchStats stats = new SearchStats(settled, relaxed, successful, stale, peakQueueSize, queueNanos,
+                relaxationNanos, timed);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.source = source;
+            event.queueType = queueType;
+            event.queueName = PriorityQueueRegistry.get(queueType).getName();
+            event.mode = mode.name();
+            event.vertexCount = vertices.size();
+            event.settledVertices = settled;
+            event.relaxedEdges = relaxed;
+            event.successfulRelaxations = successful;
+            event.staleEntriesSkipped = stale;
+            event.peakQueueSize = peakQueueSize;
+            event.queueTime = queueNanos;
+            event.relaxationTime = relaxationNanos;
+            event.commit();
+        }
+
+        return new DijkstraResult(source, distances, predecessors, stats);
     }
 
     /**
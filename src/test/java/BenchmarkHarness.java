@@ -0,0 +1,514 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Minimalna uprząż mikrobenchmarków w stylu JMH
+ *
+ * JMH odrzuca klasy benchmarków w pakiecie domyślnym, a cały projekt leży
+ * w pakiecie domyślnym, więc ta klasa zapewnia to, czego brakowało
+ * PerformanceTest:
+ * - iteracje rozgrzewkowe i pomiarowe o zadanym czasie
+ * - osobne procesy JVM (forki) dla każdego przypadku
+ * - Blackhole chroniący wyniki przed eliminacją martwego kodu
+ * - przepustowość (ops/s), średni czas (ns/op) i alokacje (B/op, MB/s)
+ * mierzone przez ThreadMXBean oraz liczba i czas GC (odpowiednik -prof gc)
+ *
+ * Opcje wiersza poleceń:
+ * --warmup n, --iterations n, --time ms, --forks n, --filter regex,
+ * -p parametr=w1,w2 (zawężenie parametrów), --csv plik, --json plik (zapis
+ * wyników do śledzenia regresji między wersjami)
+ *
+ * Forki dziedziczą opcje JVM procesu nadrzędnego (np. -Xmx).
+ */
+public final class BenchmarkHarness {
+
+    private BenchmarkHarness() {
+    }
+
+    /**
+     * Wywołania benchmarku: przygotowanie (nie mierzone) i pomiar
+     * Jedna instancja obsługuje całą iterację; setup() jest wołane przed
+     * każdym wywołaniem run().
+     */
+    public interface Workload {
+        void setup();
+
+        /**
+         * Mierzona część wywołania
+         *
+         * @return liczba wykonanych operacji
+         */
+        long run(Blackhole blackhole);
+    }
+
+    /**
+     * Zestaw przypadków benchmarku
+     */
+    public interface Suite {
+        /**
+         * Zwraca przypadki w stałej kolejności (forki odwołują się do indeksu)
+         *
+         * @param parameters wartości parametrów po uwzględnieniu opcji -p
+         */
+        List<Case> cases(Map<String, List<String>> parameters);
+
+        /**
+         * Domyślne wartości parametrów
+         */
+        Map<String, List<String>> defaultParameters();
+    }
+
+    /**
+     * Przypadek: nazwa benchmarku, wartości parametrów i fabryka wywołań
+     */
+    public static final class Case {
+        final String benchmark;
+        final Map<String, String> parameters;
+        final Supplier<Workload> workload;
+
+        public Case(String benchmark, Map<String, String> parameters, Supplier<Workload> workload) {
+            this.benchmark = benchmark;
+            this.parameters = new LinkedHashMap<>(parameters);
+            this.workload = workload;
+        }
+
+        String label() {
+            StringBuilder sb = new StringBuilder(benchmark);
+            for (Map.Entry<String, String> parameter : parameters.entrySet()) {
+                sb.append(' ').append(parameter.getKey()).append('=').append(parameter.getValue());
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Ujście dla wyników, które JIT mógłby inaczej usunąć
+     */
+    public static final class Blackhole {
+        private volatile long sink;
+        private long accumulator;
+
+        public void consume(Object value) {
+            accumulator = accumulator * 31 + System.identityHashCode(value);
+        }
+
+        public void consume(long value) {
+            accumulator = accumulator * 31 + value;
+        }
+
+        void flush() {
+            sink = accumulator;
+        }
+    }
+
+    /**
+     * Wynik pomiaru jednego przypadku (średnia po iteracjach i forkach)
+     */
+    public static final class Result {
+        final Case benchmarkCase;
+        final double opsPerSecond;
+        final double opsPerSecondError;
+        final double nanosPerOp;
+        final double bytesPerOp;
+        final double allocationMegabytesPerSecond;
+        final long gcCount;
+        final long gcMillis;
+        final String error;
+
+        Result(Case benchmarkCase, double opsPerSecond, double opsPerSecondError, double nanosPerOp,
+                double bytesPerOp, double allocationMegabytesPerSecond, long gcCount, long gcMillis,
+                String error) {
+            this.benchmarkCase = benchmarkCase;
+            this.opsPerSecond = opsPerSecond;
+            this.opsPerSecondError = opsPerSecondError;
+            this.nanosPerOp = nanosPerOp;
+            this.bytesPerOp = bytesPerOp;
+            this.allocationMegabytesPerSecond = allocationMegabytesPerSecond;
+            this.gcCount = gcCount;
+            this.gcMillis = gcMillis;
+            this.error = error;
+        }
+
+        public Case getCase() {
+            return benchmarkCase;
+        }
+
+        public double getOpsPerSecond() {
+            return opsPerSecond;
+        }
+
+        public double getNanosPerOp() {
+            return nanosPerOp;
+        }
+
+        public double getBytesPerOp() {
+            return bytesPerOp;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+
+    private static final class Options {
+        int warmupIterations = 3;
+        int iterations = 5;
+        long iterationMillis = 1000;
+        int forks = 1;
+        Pattern filter = Pattern.compile(".*");
+        Map<String, List<String>> parameterOverrides = new LinkedHashMap<>();
+        int childCase = -1;
+        Path csv;
+        Path json;
+        List<String> passThrough = new ArrayList<>();
+    }
+
+    /**
+     * Uruchamia zestaw z argumentami wiersza poleceń i drukuje tabelę wyników
+     *
+     * @param suite zestaw benchmarków
+     * @param args  argumenty wiersza poleceń
+     * @return wyniki (pusta lista w procesie-forku)
+     */
+    public static List<Result> run(Suite suite, String[] args) throws IOException, InterruptedException {
+        Options options = parse(args);
+
+        Map<String, List<String>> parameters = new LinkedHashMap<>(suite.defaultParameters());
+        parameters.putAll(options.parameterOverrides);
+        List<Case> cases = suite.cases(parameters);
+
+        if (options.childCase >= 0) {
+            // Proces-fork: zmierz jeden przypadek i wypisz surowe wyniki
+            double[] sample = measure(cases.get(options.childCase), options);
+            StringBuilder line = new StringBuilder("RESULT");
+            for (double value : sample) {
+                line.append(' ').append(value);
+            }
+            System.out.println(line);
+            return Collections.emptyList();
+        }
+
+        List<Result> results = new ArrayList<>();
+        System.out.printf("%-70s %14s %12s %12s %10s %12s%n", "Benchmark", "ops/s", "± ops/s", "ns/op", "B/op",
+                "alloc MB/s");
+        for (int i = 0; i < cases.size(); i++) {
+            Case benchmarkCase = cases.get(i);
+            if (!options.filter.matcher(benchmarkCase.label()).find()) {
+                continue;
+            }
+
+            Result result;
+            try {
+                result = options.forks == 0
+                        ? aggregate(benchmarkCase, Collections.singletonList(measure(benchmarkCase, options)))
+                        : aggregate(benchmarkCase, fork(suite, i, options));
+            } catch (RuntimeException | StackOverflowError | OutOfMemoryError e) {
+                result = new Result(benchmarkCase, 0, 0, 0, 0, 0, 0, 0, e.toString());
+            }
+            results.add(result);
+            print(result);
+        }
+
+        if (options.csv != null) {
+            writeCsv(options.csv, results);
+        }
+        if (options.json != null) {
+            writeJson(options.json, results);
+        }
+        return results;
+    }
+
+    private static Options parse(String[] args) {
+        Options options = new Options();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--warmup":
+                    options.warmupIterations = Integer.parseInt(args[++i]);
+                    break;
+                case "--iterations":
+                    options.iterations = Integer.parseInt(args[++i]);
+                    break;
+                case "--time":
+                    options.iterationMillis = Long.parseLong(args[++i]);
+                    break;
+                case "--forks":
+                    options.forks = Integer.parseInt(args[++i]);
+                    break;
+                case "--filter":
+                    options.filter = Pattern.compile(args[++i]);
+                    break;
+                case "-p":
+                    String[] parameter = args[++i].split("=", 2);
+                    options.parameterOverrides.put(parameter[0], Arrays.asList(parameter[1].split(",")));
+                    break;
+                case "--fork-child":
+                    options.childCase = Integer.parseInt(args[++i]);
+                    continue;
+                case "--csv":
+                    options.csv = Paths.get(args[++i]);
+                    continue;
+                case "--json":
+                    options.json = Paths.get(args[++i]);
+                    continue;
+                default:
+                    throw new IllegalArgumentException("Nieznana opcja: " + arg);
+            }
+            options.passThrough.add(arg);
+            options.passThrough.add(args[i]);
+        }
+        return options;
+    }
+
+    private static List<double[]> fork(Suite suite, int caseIndex, Options options)
+            throws IOException, InterruptedException {
+        List<double[]> samples = new ArrayList<>();
+        for (int fork = 0; fork < options.forks; fork++) {
+            List<String> command = new ArrayList<>();
+            command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+            command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add(suite.getClass().getName());
+            command.addAll(options.passThrough);
+            command.add("--fork-child");
+            command.add(String.valueOf(caseIndex));
+
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            double[] sample = null;
+            StringBuilder output = new StringBuilder();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith("RESULT ")) {
+                        sample = Arrays.stream(line.substring(7).split(" ")).mapToDouble(Double::parseDouble).toArray();
+                    } else {
+                        output.append(line).append('\n');
+                    }
+                }
+            }
+            if (process.waitFor() != 0 || sample == null) {
+                String message = output.toString().trim();
+                int lineEnd = message.indexOf('\n');
+                throw new IllegalStateException("Fork zakończył się błędem: "
+                        + (lineEnd >= 0 ? message.substring(0, lineEnd) : message));
+            }
+            samples.add(sample);
+        }
+        return samples;
+    }
+
+    /**
+     * Mierzy przypadek w bieżącym procesie
+     *
+     * @return [ops/s dla każdej iteracji..., ns/op, B/op, MB/s, gcCount, gcMs]
+     */
+    private static double[] measure(Case benchmarkCase, Options options) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        Blackhole blackhole = new Blackhole();
+
+        for (int i = 0; i < options.warmupIterations; i++) {
+            iteration(benchmarkCase, options, blackhole, threads, threadId);
+        }
+
+        long gcCountBefore = gcCount();
+        long gcMillisBefore = gcMillis();
+        double[] sample = new double[options.iterations + 5];
+        long totalNanos = 0;
+        long totalOps = 0;
+        long totalBytes = 0;
+        for (int i = 0; i < options.iterations; i++) {
+            long[] iteration = iteration(benchmarkCase, options, blackhole, threads, threadId);
+            sample[i] = iteration[1] * 1e9 / iteration[0];
+            totalNanos += iteration[0];
+            totalOps += iteration[1];
+            totalBytes += iteration[2];
+        }
+        blackhole.flush();
+
+        sample[options.iterations] = (double) totalNanos / totalOps;
+        sample[options.iterations + 1] = (double) totalBytes / totalOps;
+        sample[options.iterations + 2] = totalBytes / (1024.0 * 1024.0) / (totalNanos / 1e9);
+        sample[options.iterations + 3] = gcCount() - gcCountBefore;
+        sample[options.iterations + 4] = gcMillis() - gcMillisBefore;
+        return sample;
+    }
+
+    /**
+     * Jedna iteracja: wywołania aż do upływu zadanego czasu pomiaru
+     *
+     * @return [zmierzone ns, operacje, zaalokowane bajty]
+     */
+    private static long[] iteration(Case benchmarkCase, Options options, Blackhole blackhole,
+            com.sun.management.ThreadMXBean threads, long threadId) {
+        long measuredNanos = 0;
+        long operations = 0;
+        long allocated = 0;
+        long budget = options.iterationMillis * 1_000_000L;
+
+        Workload workload = benchmarkCase.workload.get();
+        do {
+            workload.setup();
+            long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            operations += workload.run(blackhole);
+            measuredNanos += System.nanoTime() - start;
+            allocated += threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+        } while (measuredNanos < budget);
+
+        return new long[] { measuredNanos, operations, allocated };
+    }
+
+    private static Result aggregate(Case benchmarkCase, List<double[]> samples) {
+        List<Double> throughputs = new ArrayList<>();
+        double nanosPerOp = 0;
+        double bytesPerOp = 0;
+        double allocationRate = 0;
+        long gcCount = 0;
+        long gcMillis = 0;
+
+        for (double[] sample : samples) {
+            int iterations = sample.length - 5;
+            for (int i = 0; i < iterations; i++) {
+                throughputs.add(sample[i]);
+            }
+            nanosPerOp += sample[iterations] / samples.size();
+            bytesPerOp += sample[iterations + 1] / samples.size();
+            allocationRate += sample[iterations + 2] / samples.size();
+            gcCount += (long) sample[iterations + 3];
+            gcMillis += (long) sample[iterations + 4];
+        }
+
+        double mean = throughputs.stream().mapToDouble(Double::doubleValue).average().orElse(0);
+        double variance = throughputs.stream().mapToDouble(value -> (value - mean) * (value - mean)).sum()
+                / Math.max(1, throughputs.size() - 1);
+        return new Result(benchmarkCase, mean, Math.sqrt(variance), nanosPerOp, bytesPerOp, allocationRate,
+                gcCount, gcMillis, null);
+    }
+
+    private static void print(Result result) {
+        if (result.error != null) {
+            System.out.printf("%-70s BŁĄD: %s%n", result.benchmarkCase.label(), result.error);
+        } else {
+            System.out.printf("%-70s %14.1f %12.1f %12.2f %10.1f %12.1f%n", result.benchmarkCase.label(),
+                    result.opsPerSecond, result.opsPerSecondError, result.nanosPerOp, result.bytesPerOp,
+                    result.allocationMegabytesPerSecond);
+        }
+    }
+
+    /**
+     * Zapisuje wyniki w formacie CSV: kolumny parametrów, status i pomiary
+     */
+    static void writeCsv(Path file, List<Result> results) throws IOException {
+        List<String> parameterNames = parameterNames(results);
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            StringBuilder header = new StringBuilder("benchmark");
+            for (String name : parameterNames) {
+                header.append(',').append(name);
+            }
+            header.append(",status,ops_per_s,ops_per_s_error,ns_per_op,bytes_per_op,alloc_mb_per_s,gc_count,gc_ms,error");
+            out.println(header);
+
+            for (Result result : results) {
+                StringBuilder line = new StringBuilder(csvField(result.benchmarkCase.benchmark));
+                for (String name : parameterNames) {
+                    line.append(',').append(csvField(result.benchmarkCase.parameters.getOrDefault(name, "")));
+                }
+                line.append(',').append(result.error == null ? "OK" : "ERROR");
+                line.append(String.format(Locale.ROOT, ",%.3f,%.3f,%.3f,%.3f,%.3f,%d,%d,", result.opsPerSecond,
+                        result.opsPerSecondError, result.nanosPerOp, result.bytesPerOp,
+                        result.allocationMegabytesPerSecond, result.gcCount, result.gcMillis));
+                line.append(csvField(result.error == null ? "" : result.error));
+                out.println(line);
+            }
+        }
+    }
+
+    /**
+     * Zapisuje wyniki jako tablicę obiektów JSON
+     */
+    static void writeJson(Path file, List<Result> results) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            out.println("[");
+            for (int i = 0; i < results.size(); i++) {
+                Result result = results.get(i);
+                StringBuilder params = new StringBuilder();
+                for (Map.Entry<String, String> parameter : result.benchmarkCase.parameters.entrySet()) {
+                    if (params.length() > 0) {
+                        params.append(", ");
+                    }
+                    params.append(jsonString(parameter.getKey())).append(": ").append(jsonString(parameter.getValue()));
+                }
+                out.printf(Locale.ROOT,
+                        "  {\"benchmark\": %s, \"params\": {%s}, \"status\": \"%s\", \"opsPerSecond\": %.3f, "
+                                + "\"opsPerSecondError\": %.3f, \"nanosPerOp\": %.3f, \"bytesPerOp\": %.3f, "
+                                + "\"allocationMegabytesPerSecond\": %.3f, \"gcCount\": %d, \"gcMillis\": %d, "
+                                + "\"error\": %s}%s%n",
+                        jsonString(result.benchmarkCase.benchmark), params, result.error == null ? "OK" : "ERROR",
+                        result.opsPerSecond, result.opsPerSecondError, result.nanosPerOp, result.bytesPerOp,
+                        result.allocationMegabytesPerSecond, result.gcCount, result.gcMillis,
+                        result.error == null ? "null" : jsonString(result.error), i + 1 < results.size() ? "," : "");
+            }
+            out.println("]");
+        }
+    }
+
+    private static List<String> parameterNames(List<Result> results) {
+        LinkedHashSet<String> names = new LinkedHashSet<>();
+        for (Result result : results) {
+            names.addAll(result.benchmarkCase.parameters.keySet());
+        }
+        return new ArrayList<>(names);
+    }
+
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String jsonString(String value) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, collector.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long gcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(0, collector.getCollectionTime());
+        }
+        return millis;
+    }
+}
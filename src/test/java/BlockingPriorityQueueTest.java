@@ -0,0 +1,97 @@
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+public class BlockingPriorityQueueTest {
+
+    private BlockingPriorityQueue<IntElement> pq;
+
+    @BeforeEach
+    void setUp() {
+        pq = new BlockingPriorityQueue<>(new BucketPriorityQueue<IntElement>());
+    }
+
+    // Czeka, aż podana liczba konsumentów zablokuje się na kolejce
+    private void awaitConsumers(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (pq.getWaitingConsumers() < count) {
+            assertTrue(System.nanoTime() < deadline);
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Setki oczekujących konsumentów dostają każdy element dokładnie raz")
+    void testManyWaitingConsumers() throws Exception {
+        int consumers = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(consumers);
+        try {
+            List<Future<IntElement>> taken = new ArrayList<>();
+            for (int i = 0; i < consumers; i++) {
+                taken.add(executor.submit(pq::take));
+            }
+            awaitConsumers(consumers);
+
+            int[] expected = new int[PriorityQueue.N + 1];
+            Random random = new Random(42);
+            for (int i = 0; i < consumers; i++) {
+                int value = random.nextInt(PriorityQueue.N + 1);
+                pq.insert(new IntElement(value));
+                expected[value]++;
+            }
+            for (Future<IntElement> future : taken) {
+                expected[future.get(30, TimeUnit.SECONDS).wartość()]--;
+            }
+            assertTrue(Arrays.stream(expected).allMatch(count -> count == 0));
+            assertTrue(pq.isEmpty());
+            assertEquals(0, pq.getWaitingConsumers());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("poll z limitem czasu i przerwanie oczekującego take")
+    void testTimeoutAndInterrupt() throws Exception {
+        assertNull(pq.poll());
+        assertNull(pq.poll(20, TimeUnit.MILLISECONDS));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<IntElement> polled = executor.submit(() -> pq.poll(30, TimeUnit.SECONDS));
+            awaitConsumers(1);
+            pq.insert(new IntElement(7));
+            assertEquals(new IntElement(7), polled.get(30, TimeUnit.SECONDS));
+
+            Future<IntElement> interrupted = executor.submit(pq::take);
+            awaitConsumers(1);
+            interrupted.cancel(true);
+            Future<Boolean> afterInterrupt = executor.submit(() -> pq.getWaitingConsumers() == 0);
+            assertTrue(afterInterrupt.get(30, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("decreaseKey zmienia kolejność take, drainTo wyjmuje k najmniejszych rosnąco")
+    void testDecreaseKeyAndDrainTo() throws InterruptedException {
+        pq = new BlockingPriorityQueue<>(new BSTPriorityQueue<IntElement>());
+        List<Position<IntElement>> positions = new ArrayList<>();
+        for (int value : new int[] { 50, 40, 30, 20, 10, 60 }) {
+            positions.add(pq.insert(new IntElement(value)));
+        }
+        pq.decreaseKey(positions.get(5), new IntElement(5));
+        assertEquals(new IntElement(5), pq.take());
+
+        List<IntElement> drained = new ArrayList<>();
+        assertEquals(3, pq.drainTo(drained, 3));
+        assertEquals(Arrays.asList(new IntElement(10), new IntElement(20), new IntElement(30)), drained);
+        assertEquals(2, pq.drainTo(drained, 10));
+        assertEquals(0, pq.drainTo(drained, 10));
+        assertEquals(5, drained.size());
+        assertThrows(IllegalArgumentException.class, () -> pq.drainTo(drained, -1));
+        assertThrows(NoSuchElementException.class, pq::extractMin);
+    }
+}
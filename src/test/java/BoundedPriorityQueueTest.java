@@ -0,0 +1,125 @@
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.*;
+
+public class BoundedPriorityQueueTest {
+
+    private static void add(TreeMap<Integer, Integer> multiset, int value) {
+        multiset.merge(value, 1, Integer::sum);
+    }
+
+    private static void remove(TreeMap<Integer, Integer> multiset, int value) {
+        if (multiset.merge(value, -1, Integer::sum) == 0) {
+            multiset.remove(value);
+        }
+    }
+
+    @Test
+    @DisplayName("Losowe operacje z usuwaniem maksimum zgodne z multizbiorem wzorcowym")
+    void testRandomOperations() {
+        BoundedPriorityQueue<IntElement> pq = new BoundedPriorityQueue<>(50);
+        TreeMap<Integer, Integer> reference = new TreeMap<>();
+        int referenceSize = 0;
+        Random random = new Random(42);
+        List<Position<IntElement>> positions = new ArrayList<>();
+
+        for (int step = 0; step < 30_000; step++) {
+            int operation = random.nextInt(8);
+            if (operation <= 3 || referenceSize == 0) {
+                int value = random.nextInt(PriorityQueue.N + 1);
+                Position<IntElement> pos = pq.insert(new IntElement(value));
+                if (referenceSize < 50) {
+                    add(reference, value);
+                    referenceSize++;
+                    assertTrue(pos.isValid());
+                } else if (value < reference.lastKey()) {
+                    remove(reference, reference.lastKey());
+                    add(reference, value);
+                    assertTrue(pos.isValid());
+                } else {
+                    assertFalse(pos.isValid());
+                }
+                positions.add(pos);
+            } else if (operation == 4) {
+                assertEquals(reference.firstKey(), pq.extractMin().wartość());
+                remove(reference, reference.firstKey());
+                referenceSize--;
+            } else if (operation == 5) {
+                assertEquals(reference.lastKey(), pq.findMax().wartość());
+                assertEquals(reference.lastKey(), pq.extractMax().wartość());
+                remove(reference, reference.lastKey());
+                referenceSize--;
+            } else {
+                positions.removeIf(pos -> !pos.isValid());
+                if (!positions.isEmpty()) {
+                    int index = random.nextInt(positions.size());
+                    int oldValue = positions.get(index).getElement().wartość();
+                    if (oldValue > 0) {
+                        int newValue = random.nextInt(oldValue);
+                        positions.set(index, pq.decreaseKey(positions.get(index), new IntElement(newValue)));
+                        remove(reference, oldValue);
+                        add(reference, newValue);
+                    }
+                }
+            }
+            assertEquals(referenceSize, pq.size());
+            if (referenceSize > 0) {
+                assertEquals(reference.firstKey(), pq.findMin().wartość());
+                assertEquals(reference.lastKey(), pq.findMax().wartość());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("offerAll zachowuje k najmniejszych kluczy strumienia")
+    void testOfferAll() {
+        int[] keys = new Random(7).ints(100_000, 0, PriorityQueue.N + 1).toArray();
+        int[] expected = keys.clone();
+        Arrays.sort(expected);
+
+        BoundedPriorityQueue<IntElement> pq = new BoundedPriorityQueue<>(100);
+        int accepted = pq.offerAll(Arrays.copyOf(keys, 60), IntElement::new);
+        accepted += pq.offerAll(Arrays.copyOfRange(keys, 60, keys.length), IntElement::new);
+        assertTrue(accepted >= 100 && accepted < keys.length / 10);
+        assertEquals(100, pq.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(expected[i], pq.extractMin().wartość());
+        }
+
+        BoundedPriorityQueue<IntElement> bulk = new BoundedPriorityQueue<>(1000);
+        bulk.offerAll(keys, IntElement::new);
+        assertEquals(expected[999], bulk.findMax().wartość());
+        assertEquals(expected[0], bulk.findMin().wartość());
+        assertThrows(IllegalArgumentException.class, () -> bulk.offerAll(new int[] { -1 }, IntElement::new));
+    }
+
+    @Test
+    @DisplayName("Tryb REJECT, offer, buildHeap i merge")
+    void testRejectBuildHeapAndMerge() {
+        BoundedPriorityQueue<IntElement> pq = new BoundedPriorityQueue<>(2,
+                BoundedPriorityQueue.OverflowPolicy.REJECT);
+        assertNull(pq.offer(new IntElement(5)));
+        pq.insert(new IntElement(7));
+        assertEquals(new IntElement(1), pq.offer(new IntElement(1)));
+        assertThrows(IllegalStateException.class, () -> pq.insert(new IntElement(1)));
+
+        BoundedPriorityQueue<IntElement> topK = new BoundedPriorityQueue<>(2);
+        topK.insert(new IntElement(5));
+        topK.insert(new IntElement(7));
+        assertEquals(new IntElement(7), topK.offer(new IntElement(1)));
+        assertEquals(new IntElement(9), topK.offer(new IntElement(9)));
+
+        PriorityQueue<IntElement> built = BoundedPriorityQueue.buildHeap(
+                TestUtils.createIntElements(9, 4, 7, 1, 8, 2, 2, 6, 3));
+        assertEquals(9, built.size());
+        PriorityQueue<IntElement> merged = topK.merge(built);
+        assertTrue(built.isEmpty());
+        assertEquals(2, merged.size());
+        assertEquals(new IntElement(1), merged.extractMin());
+        assertEquals(new IntElement(1), merged.extractMin());
+        assertEquals(2, topK.size());
+
+        assertThrows(NoSuchElementException.class, ((BoundedPriorityQueue<IntElement>) merged)::extractMax);
+        assertThrows(IllegalArgumentException.class, () -> new BoundedPriorityQueue<IntElement>(0));
+    }
+}
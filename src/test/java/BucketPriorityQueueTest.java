@@ -0,0 +1,86 @@
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.*;
+
+public class BucketPriorityQueueTest {
+
+    @Test
+    @DisplayName("FIFO: elementy o równej wartości wychodzą w kolejności wstawiania")
+    void testFifoOrder() {
+        BucketPriorityQueue<WeightedGraph.DijkstraNode> pq = new BucketPriorityQueue<>(
+                BucketPriorityQueue.TieBreak.FIFO);
+        Random random = new Random(42);
+        // Wzorzec: dla każdej odległości kolejka wierzchołków w kolejności wstawiania
+        Map<Integer, Deque<Integer>> reference = new TreeMap<>();
+        List<Position<WeightedGraph.DijkstraNode>> positions = new ArrayList<>();
+        int vertex = 0;
+
+        for (int step = 0; step < 20_000; step++) {
+            int operation = random.nextInt(5);
+            if (operation <= 1 || pq.isEmpty()) {
+                int distance = random.nextInt(5);
+                positions.add(pq.insert(new WeightedGraph.DijkstraNode(vertex, distance)));
+                reference.computeIfAbsent(distance, d -> new ArrayDeque<>()).add(vertex++);
+            } else if (operation == 2) {
+                positions.removeIf(pos -> !pos.isValid());
+                int index = random.nextInt(positions.size());
+                WeightedGraph.DijkstraNode old = positions.get(index).getElement();
+                if (old.getDistance() > 0) {
+                    int distance = random.nextInt(old.getDistance());
+                    positions.set(index, pq.decreaseKey(positions.get(index),
+                            new WeightedGraph.DijkstraNode(old.getVertex(), distance)));
+                    Deque<Integer> oldBucket = reference.get(old.getDistance());
+                    oldBucket.remove(old.getVertex());
+                    if (oldBucket.isEmpty()) {
+                        reference.remove(old.getDistance());
+                    }
+                    reference.computeIfAbsent(distance, d -> new ArrayDeque<>()).add(old.getVertex());
+                }
+            } else {
+                Map.Entry<Integer, Deque<Integer>> first = ((TreeMap<Integer, Deque<Integer>>) reference)
+                        .firstEntry();
+                WeightedGraph.DijkstraNode min = pq.extractMin();
+                assertEquals(first.getKey().intValue(), min.getDistance());
+                assertEquals(first.getValue().poll().intValue(), min.getVertex());
+                if (first.getValue().isEmpty()) {
+                    reference.remove(first.getKey());
+                }
+            }
+        }
+
+        PriorityQueue<WeightedGraph.DijkstraNode> merged = pq.merge(new BucketPriorityQueue<>());
+        for (Map.Entry<Integer, Deque<Integer>> entry : reference.entrySet()) {
+            for (int expected : entry.getValue()) {
+                assertEquals(expected, merged.extractMin().getVertex());
+            }
+        }
+        assertTrue(merged.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Dodatkowy klucz porządkuje kubełek, przy remisie decyduje kolejność wstawiania")
+    void testSecondaryKey() {
+        // Mniejszy numer wierzchołka parzystości 0 najpierw, potem kolejność wstawiania
+        BucketPriorityQueue<WeightedGraph.DijkstraNode> pq = new BucketPriorityQueue<>(
+                Comparator.comparingInt((WeightedGraph.DijkstraNode node) -> node.getVertex() % 2));
+        int[] vertices = { 5, 8, 3, 2, 7, 4 };
+        List<Position<WeightedGraph.DijkstraNode>> positions = new ArrayList<>();
+        for (int vertex : vertices) {
+            positions.add(pq.insert(new WeightedGraph.DijkstraNode(vertex, 10)));
+        }
+        pq.insert(new WeightedGraph.DijkstraNode(9, 20));
+        pq.decreaseKey(positions.get(1), new WeightedGraph.DijkstraNode(8, 5));
+
+        int[] expected = { 8, 2, 4, 5, 3, 7, 9 };
+        for (int vertex : expected) {
+            assertEquals(vertex, pq.findMin().getVertex());
+            assertEquals(vertex, pq.extractMin().getVertex());
+        }
+
+        PriorityQueue<WeightedGraph.DijkstraNode> built = BucketPriorityQueue.buildHeap(
+                new WeightedGraph.DijkstraNode[] { new WeightedGraph.DijkstraNode(1, 3),
+                        new WeightedGraph.DijkstraNode(0, 3) },
+                BucketPriorityQueue.TieBreak.FIFO);
+        assertEquals(1, built.extractMin().getVertex());
+    }
+}
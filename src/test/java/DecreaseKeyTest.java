@@ -11,7 +11,10 @@ public class DecreaseKeyTest {
         implementations = Arrays.asList(
                 new SortedStackPriorityQueue<>(),
                 new BSTPriorityQueue<>(),
-                new BucketPriorityQueue<>());
+                new BucketPriorityQueue<>(),
+                new BucketPriorityQueue<>(BucketPriorityQueue.TieBreak.FIFO),
+                new BucketPriorityQueue<>(Comparator.<IntElement>naturalOrder()),
+                new VanEmdeBoasPriorityQueue<>());
     }
 
     @Test
@@ -72,8 +75,114 @@ public class DecreaseKeyTest {
 
             assertTrue(pos.isValid());
 
-            pq.decreaseKey(pos, new IntElement(5));
+            Position<IntElement> newPos = pq.decreaseKey(pos, new IntElement(5));
 
+            assertFalse(pos.isValid());
+            assertTrue(newPos.isValid());
+            assertEquals(new IntElement(5), newPos.getElement());
+            assertThrows(IllegalArgumentException.class, () -> pq.decreaseKey(pos, new IntElement(1)));
+        }
+    }
+
+    @Test
+    @DisplayName("Losowe operacje z powtórzonymi kluczami zgodne z java.util.PriorityQueue")
+    void testRandomOperationsWithDuplicateKeys() {
+        for (PriorityQueue<IntElement> pq : implementations) {
+            Random random = new Random(42);
+            java.util.PriorityQueue<Integer> reference = new java.util.PriorityQueue<>();
+            List<Position<IntElement>> positions = new ArrayList<>();
+
+            for (int step = 0; step < 5000; step++) {
+                int operation = random.nextInt(4);
+                if (operation <= 1 || positions.isEmpty()) {
+                    // Mały zakres kluczy - dużo równych elementów
+                    int value = 1 + random.nextInt(20);
+                    positions.add(pq.insert(new IntElement(value)));
+                    reference.add(value);
+                } else if (operation == 2) {
+                    int index = random.nextInt(positions.size());
+                    Position<IntElement> pos = positions.get(index);
+                    int oldValue = pos.getElement().wartość();
+                    if (oldValue > 0) {
+                        int newValue = random.nextInt(oldValue);
+                        positions.set(index, pq.decreaseKey(pos, new IntElement(newValue)));
+                        reference.remove(oldValue);
+                        reference.add(newValue);
+                    }
+                } else {
+                    int min = pq.extractMin().wartość();
+                    assertEquals((int) reference.poll(), min);
+                    // Wyjęta pozycja (dowolna o tej wartości) staje się nieważna
+                    positions.removeIf(pos -> !pos.isValid());
+                }
+                assertEquals(reference.size(), pq.size());
+                assertEquals(reference.size(), positions.size());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Losowe remove i updateKey zgodne z java.util.PriorityQueue")
+    void testRandomRemoveAndUpdateKey() {
+        List<PriorityQueue<IntElement>> queues = new ArrayList<>(implementations);
+        queues.add(new BoundedPriorityQueue<>(10_000));
+        for (PriorityQueue<IntElement> pq : queues) {
+            Random random = new Random(42);
+            java.util.PriorityQueue<Integer> reference = new java.util.PriorityQueue<>();
+            List<Position<IntElement>> positions = new ArrayList<>();
+
+            for (int step = 0; step < 5000; step++) {
+                int operation = random.nextInt(5);
+                if (operation <= 1 || positions.isEmpty()) {
+                    int value = random.nextInt(50);
+                    positions.add(pq.insert(new IntElement(value)));
+                    reference.add(value);
+                } else if (operation == 2) {
+                    // Klucz może zarówno zmaleć, jak i wzrosnąć
+                    int index = random.nextInt(positions.size());
+                    Position<IntElement> pos = positions.get(index);
+                    int oldValue = pos.getElement().wartość();
+                    int newValue = random.nextInt(50);
+                    positions.set(index, pq.updateKey(pos, new IntElement(newValue)));
+                    assertFalse(pos.isValid());
+                    reference.remove(oldValue);
+                    reference.add(newValue);
+                } else if (operation == 3) {
+                    Position<IntElement> pos = positions.remove(random.nextInt(positions.size()));
+                    int value = pos.getElement().wartość();
+                    assertEquals(new IntElement(value), pq.remove(pos));
+                    assertFalse(pos.isValid());
+                    assertThrows(IllegalArgumentException.class, () -> pq.remove(pos));
+                    reference.remove(value);
+                } else {
+                    assertEquals(new IntElement(reference.poll()), pq.extractMin());
+                    positions.removeIf(pos -> !pos.isValid());
+                }
+                assertEquals(reference.size(), pq.size());
+                assertEquals(reference.size(), positions.size());
+                assertTrue(positions.stream().allMatch(pos -> pos.isValid()));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("remove i updateKey odrzucają pozycje z innej kolejki i wartości spoza zakresu")
+    void testRemoveRejectsForeignPositions() {
+        for (PriorityQueue<IntElement> pq : implementations) {
+            BSTPriorityQueue<IntElement> other = new BSTPriorityQueue<>();
+            Position<IntElement> foreign = other.insert(new IntElement(3));
+            Position<IntElement> pos = pq.insert(new IntElement(7));
+
+            assertThrows(IllegalArgumentException.class, () -> pq.remove(foreign));
+            assertThrows(IllegalArgumentException.class,
+                    () -> pq.updateKey(pos, new IntElement(PriorityQueue.N + 1)));
+            assertTrue(pos.isValid());
+            assertTrue(foreign.isValid());
+
+            Position<IntElement> updated = pq.updateKey(pos, new IntElement(9));
+            assertEquals(new IntElement(9), updated.getElement());
+            assertEquals(new IntElement(9), pq.remove(updated));
+            assertTrue(pq.isEmpty());
         }
     }
 }
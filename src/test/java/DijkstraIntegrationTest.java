@@ -0,0 +1,298 @@
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.IntStream;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class DijkstraIntegrationTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static void assertSameDistances(WeightedGraph.DijkstraResult expected, WeightedGraph.DijkstraResult actual) {
+        assertEquals(expected.getSource(), actual.getSource());
+        assertEquals(expected.getAllDistances(), actual.getAllDistances());
+        for (int vertex : expected.getAllDistances().keySet()) {
+            List<Integer> path = actual.getPath(vertex);
+            if (expected.isReachable(vertex)) {
+                assertEquals(expected.getSource(), (int) path.get(0));
+                assertEquals(vertex, (int) path.get(path.size() - 1));
+            } else {
+                assertTrue(path.isEmpty());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Silnik wsadowy zwraca te same odległości co dijkstra")
+    void testBatchEngineMatchesDijkstra() {
+        WeightedGraph graph = TestUtils.createRandomGraph(300, 1500, 10, 42);
+        int[] sources = new Random(7).ints(64, 0, 300).toArray();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int type = 1; type <= 3; type++) {
+                BatchShortestPathEngine engine = new BatchShortestPathEngine(graph.snapshot(), type, executor);
+                BatchShortestPathEngine.BatchResult batch = engine.run(sources);
+
+                assertEquals(sources.length, batch.getResults().size());
+                for (int i = 0; i < sources.length; i++) {
+                    assertSameDistances(graph.dijkstra(sources[i], type), batch.getResults().get(i));
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Zapytanie punkt-punkt zatrzymuje się na celu")
+    void testPointToPointQuery() {
+        WeightedGraph graph = TestUtils.createRandomGraph(200, 1000, 10, 3);
+        BatchShortestPathEngine engine = new BatchShortestPathEngine(graph.snapshot(), 3, Runnable::run);
+
+        for (int target = 0; target < 200; target += 17) {
+            WeightedGraph.DijkstraResult full = graph.dijkstra(5, 3);
+            WeightedGraph.DijkstraResult pointToPoint = engine.query(5, target);
+            assertEquals(full.getDistance(target), pointToPoint.getDistance(target));
+        }
+    }
+
+    @Test
+    @DisplayName("Migawka nie widzi późniejszych zmian grafu")
+    void testSnapshotIsImmutable() {
+        WeightedGraph graph = new WeightedGraph();
+        graph.addEdge(0, 1, 5);
+        GraphSnapshot snapshot = graph.snapshot();
+
+        graph.updateEdgeWeight(0, 1, 1);
+        graph.addEdge(1, 2, 1);
+
+        BatchShortestPathEngine engine = new BatchShortestPathEngine(snapshot, 1, Runnable::run);
+        WeightedGraph.DijkstraResult result = engine.query(0);
+        assertEquals(5, result.getDistance(1));
+        assertFalse(result.isReachable(2));
+        assertThrows(IllegalArgumentException.class, () -> engine.query(2));
+    }
+
+    @Test
+    @DisplayName("Przyrostowa naprawa drzewa zgadza się z pełnym przeliczeniem")
+    void testDynamicShortestPathsMatchRecomputation() {
+        WeightedGraph graph = TestUtils.createRandomGraph(150, 600, 10, 11);
+        Random random = new Random(5);
+
+        try (DynamicShortestPaths dynamic = new DynamicShortestPaths(graph, 0, 3)) {
+            for (int step = 0; step < 300; step++) {
+                int from = random.nextInt(150);
+                int to = random.nextInt(150);
+                switch (random.nextInt(3)) {
+                    case 0:
+                        graph.addEdge(from, to, random.nextInt(11));
+                        break;
+                    case 1:
+                        if (graph.hasEdge(from, to)) {
+                            graph.updateEdgeWeight(from, to, random.nextInt(11));
+                        }
+                        break;
+                    default:
+                        List<WeightedGraph.Edge> edges = graph.getNeighbors(from);
+                        if (!edges.isEmpty()) {
+                            graph.removeEdge(from, edges.get(random.nextInt(edges.size())).getDestination());
+                        }
+                }
+
+                assertSameDistances(graph.dijkstra(0, 3), dynamic.toResult());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Zmiana poza drzewem najkrótszych ścieżek nie wymaga pracy")
+    void testDynamicShortestPathsLocalWork() {
+        WeightedGraph graph = new WeightedGraph();
+        for (int vertex = 0; vertex < 100; vertex++) {
+            graph.addEdge(vertex, vertex + 1, 1);
+        }
+        graph.addEdge(0, 50, 90);
+
+        DynamicShortestPaths dynamic = new DynamicShortestPaths(graph, 0, 3);
+        assertEquals(50, dynamic.getDistance(50));
+
+        graph.updateEdgeWeight(0, 50, 95); // krawędź spoza drzewa
+        assertEquals(0, dynamic.getLastUpdateWork());
+
+        graph.updateEdgeWeight(98, 99, 5); // naprawa tylko poddrzewa {99, 100}
+        assertEquals(103, dynamic.getDistance(99));
+        assertEquals(104, dynamic.getDistance(100));
+        assertTrue(dynamic.getLastUpdateWork() <= 4);
+
+        graph.updateEdgeWeight(0, 50, 10); // poprawa propagowana od 50
+        assertEquals(10, dynamic.getDistance(50));
+        assertEquals(63, dynamic.getDistance(99));
+        assertEquals(0, dynamic.getPredecessor(50));
+
+        graph.removeEdge(0, 50);
+        assertEquals(50, dynamic.getDistance(50));
+        dynamic.close();
+    }
+
+    @Test
+    @DisplayName("Hierarchia skrótów zwraca najkrótsze ścieżki z rozwiniętymi skrótami")
+    void testContractionHierarchyMatchesDijkstra() {
+        WeightedGraph graph = TestUtils.createRandomGraph(400, 1600, 10, 21);
+
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(graph, 3);
+        assertTrue(hierarchy.getShortcutCount() > 0);
+
+        for (int source = 0; source < 400; source += 37) {
+            WeightedGraph.DijkstraResult expected = graph.dijkstra(source, 3);
+            for (int target = 0; target < 400; target += 13) {
+                assertEquals(expected.getDistance(target), hierarchy.distance(source, target));
+
+                List<Integer> path = hierarchy.path(source, target);
+                if (!expected.isReachable(target)) {
+                    assertTrue(path.isEmpty());
+                    continue;
+                }
+                assertEquals(source, (int) path.get(0));
+                assertEquals(target, (int) path.get(path.size() - 1));
+                int length = 0;
+                for (int i = 1; i < path.size(); i++) {
+                    assertTrue(graph.hasEdge(path.get(i - 1), path.get(i)));
+                    length += graph.getEdgeWeight(path.get(i - 1), path.get(i));
+                }
+                assertEquals(expected.getDistance(target), length);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Hierarchia skrótów po zapisie i odczycie daje te same wyniki")
+    void testContractionHierarchySerialization() throws IOException {
+        WeightedGraph graph = TestUtils.createRandomGraph(200, 800, 10, 8);
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(graph, 3);
+
+        Path file = tempDir.resolve("graph.ch");
+        hierarchy.save(file);
+        ContractionHierarchy loaded = ContractionHierarchy.load(file, 3);
+
+        assertEquals(hierarchy.getShortcutCount(), loaded.getShortcutCount());
+        assertEquals(hierarchy.getArcCount(), loaded.getArcCount());
+        for (int source = 0; source < 200; source += 19) {
+            for (int target = 0; target < 200; target += 7) {
+                assertEquals(hierarchy.distance(source, target), loaded.distance(source, target));
+                assertEquals(hierarchy.path(source, target), loaded.path(source, target));
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> loaded.distance(0, 500));
+        assertThrows(IllegalArgumentException.class, () -> ContractionHierarchy.load(file, 7));
+
+        // Równoczesne zapytania korzystają z osobnych obszarów roboczych
+        int[] sources = IntStream.range(0, 200).toArray();
+        int[] parallel = IntStream.of(sources).parallel()
+                .map(source -> loaded.distance(source, 199 - source)).toArray();
+        for (int source : sources) {
+            assertEquals(hierarchy.distance(source, 199 - source), parallel[source]);
+        }
+    }
+
+    private static WeightedGraph createReadmeGraph() {
+        WeightedGraph graph = new WeightedGraph();
+        graph.addEdge(0, 1, 4);
+        graph.addEdge(0, 2, 2);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(1, 3, 5);
+        graph.addEdge(2, 3, 8);
+        graph.addEdge(2, 4, 10);
+        graph.addEdge(3, 4, 2);
+        return graph;
+    }
+
+    @Test
+    @DisplayName("Statystyki przebiegu algorytmu Dijkstry")
+    void testSearchStats() {
+        WeightedGraph.DijkstraResult result = createReadmeGraph().dijkstra(0, 3, WeightedGraph.DijkstraMode.LAZY);
+        SearchStats stats = result.getSearchStats();
+
+        assertNotNull(stats);
+        assertEquals(5, stats.getSettledVertices());
+        assertEquals(7, stats.getRelaxedEdges());
+        assertEquals(6, stats.getSuccessfulRelaxations());
+        assertEquals(2, stats.getStaleEntriesSkipped()); // wierzchołki 3 i 4 poprawione po wstawieniu
+        assertEquals(3, stats.getPeakQueueSize());
+        assertFalse(stats.isTimed());
+        assertEquals(0, stats.getQueueNanos());
+
+        assertNull(new WeightedGraph.DijkstraResult(0, Map.of(0, 0), Map.of(0, -1)).getSearchStats());
+    }
+
+    @Test
+    @DisplayName("Tryb decreaseKey daje te same odległości i kolejkę O(V)")
+    void testDecreaseKeyModeMatchesLazy() {
+        SearchStats readme = createReadmeGraph().dijkstra(0, 3, WeightedGraph.DijkstraMode.DECREASE_KEY)
+                .getSearchStats();
+        assertEquals(5, readme.getSettledVertices());
+        assertEquals(0, readme.getStaleEntriesSkipped());
+        assertEquals(3, readme.getPeakQueueSize());
+
+        WeightedGraph graph = TestUtils.createRandomGraph(300, 3000, 10, 42);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            for (int type = 1; type <= 3; type++) {
+                BatchShortestPathEngine engine = new BatchShortestPathEngine(graph.snapshot(), type,
+                        WeightedGraph.DijkstraMode.DECREASE_KEY, executor);
+                for (int source = 0; source < 300; source += 15) {
+                    WeightedGraph.DijkstraResult lazy = graph.dijkstra(source, type, WeightedGraph.DijkstraMode.LAZY);
+                    WeightedGraph.DijkstraResult handles = graph.dijkstra(source, type,
+                            WeightedGraph.DijkstraMode.DECREASE_KEY);
+
+                    assertSameDistances(lazy, handles);
+                    assertSameDistances(lazy, engine.query(source));
+                    assertEquals(0, handles.getSearchStats().getStaleEntriesSkipped());
+                    assertTrue(handles.getSearchStats().getPeakQueueSize() <= graph.getVertexCount());
+                    assertTrue(handles.getSearchStats().getPeakQueueSize()
+                            <= lazy.getSearchStats().getPeakQueueSize());
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Zdarzenia JFR dla wywołań dijkstra")
+    void testDijkstraFlightRecorderEvent() throws IOException {
+        WeightedGraph graph = createReadmeGraph();
+        Path file = tempDir.resolve("dijkstra.jfr");
+
+        SearchStats stats;
+        try (Recording recording = new Recording()) {
+            recording.enable("PriorityQueues.Dijkstra");
+            recording.start();
+            stats = graph.dijkstra(0, 3).getSearchStats();
+            recording.stop();
+            recording.dump(file);
+        }
+
+        assertTrue(stats.isTimed());
+        List<RecordedEvent> events = new ArrayList<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+            if (event.getEventType().getName().equals("PriorityQueues.Dijkstra")) {
+                events.add(event);
+            }
+        }
+        assertEquals(1, events.size());
+        assertEquals(0, events.get(0).getInt("source"));
+        assertEquals(3, events.get(0).getInt("queueType"));
+        assertEquals("Bucket", events.get(0).getString("queueName"));
+        assertEquals(WeightedGraph.defaultMode(3).name(), events.get(0).getString("mode"));
+        assertEquals(5, events.get(0).getInt("settledVertices"));
+        assertEquals(stats.getRelaxedEdges(), events.get(0).getLong("relaxedEdges"));
+    }
+}
@@ -0,0 +1,192 @@
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+public class DurablePriorityQueueTest {
+
+    private static final OffHeapPriorityQueue.Codec<WeightedGraph.DijkstraNode> NODE_CODEC =
+            new OffHeapPriorityQueue.Codec<WeightedGraph.DijkstraNode>() {
+                @Override
+                public long encode(WeightedGraph.DijkstraNode node) {
+                    return node.getVertex();
+                }
+
+                @Override
+                public WeightedGraph.DijkstraNode decode(int key, long payload) {
+                    return new WeightedGraph.DijkstraNode((int) payload, key);
+                }
+            };
+
+    @TempDir
+    Path directory;
+
+    private DurablePriorityQueue<WeightedGraph.DijkstraNode> open(DurablePriorityQueue.SyncPolicy policy,
+            long snapshotInterval) throws IOException {
+        return new DurablePriorityQueue<>(directory, BSTPriorityQueue::buildHeap,
+                WeightedGraph.DijkstraNode[]::new, NODE_CODEC, policy, 16,
+                snapshotInterval);
+    }
+
+    // Rekord (odległość, wierzchołek) jako jedna liczba do porównań z kolejką wzorcową
+    private static long encode(WeightedGraph.DijkstraNode node) {
+        return ((long) node.getDistance() << 32) | node.getVertex();
+    }
+
+    @Test
+    @DisplayName("Stan po wielu otwarciach z migawkami zgodny z kolejką wzorcową")
+    void testRecoveryAcrossSessions() throws IOException {
+        Random random = new Random(42);
+        java.util.PriorityQueue<Long> reference = new java.util.PriorityQueue<>();
+        int snapshots = 0;
+
+        for (int session = 0; session < 6; session++) {
+            try (DurablePriorityQueue<WeightedGraph.DijkstraNode> pq = open(DurablePriorityQueue.SyncPolicy.GROUP,
+                    700)) {
+                assertEquals(reference.size(), pq.size());
+                List<Position<WeightedGraph.DijkstraNode>> positions = new ArrayList<>();
+
+                for (int step = 0; step < 2000; step++) {
+                    int operation = random.nextInt(6);
+                    if (operation <= 1 || pq.isEmpty()) {
+                        // Mały zakres odległości - dużo elementów o równym priorytecie
+                        WeightedGraph.DijkstraNode node = new WeightedGraph.DijkstraNode(random.nextInt(50),
+                                random.nextInt(20));
+                        positions.add(pq.insert(node));
+                        reference.add(encode(node));
+                    } else if (operation == 2) {
+                        positions.removeIf(pos -> !pos.isValid());
+                        if (!positions.isEmpty()) {
+                            int index = random.nextInt(positions.size());
+                            WeightedGraph.DijkstraNode old = positions.get(index).getElement();
+                            if (old.getDistance() > 0) {
+                                WeightedGraph.DijkstraNode node = new WeightedGraph.DijkstraNode(old.getVertex(),
+                                        random.nextInt(old.getDistance()));
+                                positions.set(index, pq.decreaseKey(positions.get(index), node));
+                                reference.remove(encode(old));
+                                reference.add(encode(node));
+                            }
+                        }
+                    } else if (operation == 5) {
+                        // Usunięcie również elementów pochodzących z migawki
+                        positions.removeIf(pos -> !pos.isValid());
+                        if (!positions.isEmpty()) {
+                            Position<WeightedGraph.DijkstraNode> pos = positions.remove(
+                                    random.nextInt(positions.size()));
+                            assertTrue(reference.remove(encode(pq.remove(pos))));
+                            assertFalse(pos.isValid());
+                        }
+                    } else {
+                        WeightedGraph.DijkstraNode min = pq.extractMin();
+                        assertEquals(reference.peek() >>> 32, min.getDistance());
+                        assertTrue(reference.remove(encode(min)));
+                    }
+                }
+                snapshots += pq.getSnapshotCount();
+            }
+        }
+        assertTrue(snapshots > 0);
+
+        try (DurablePriorityQueue<WeightedGraph.DijkstraNode> pq = open(DurablePriorityQueue.SyncPolicy.GROUP, 700)) {
+            List<Long> drained = new ArrayList<>();
+            while (!pq.isEmpty()) {
+                drained.add(encode(pq.extractMin()));
+            }
+            List<Long> expected = new ArrayList<>(reference);
+            Collections.sort(expected);
+            Collections.sort(drained);
+            assertEquals(expected, drained);
+        }
+    }
+
+    @Test
+    @DisplayName("Przerwany zapis na końcu dziennika jest odcinany przy odtwarzaniu")
+    void testTornLogTail() throws IOException {
+        // Bez close - jak po awarii procesu; ALWAYS zapisuje każdą operację od razu
+        DurablePriorityQueue<WeightedGraph.DijkstraNode> crashed = open(DurablePriorityQueue.SyncPolicy.ALWAYS,
+                1000);
+        crashed.insert(new WeightedGraph.DijkstraNode(1, 30));
+        Position<WeightedGraph.DijkstraNode> pos = crashed.insert(new WeightedGraph.DijkstraNode(2, 40));
+        crashed.insert(new WeightedGraph.DijkstraNode(3, 10));
+        crashed.decreaseKey(pos, new WeightedGraph.DijkstraNode(2, 5));
+        assertEquals(2, crashed.extractMin().getVertex());
+        assertEquals(5, crashed.getSyncCount());
+        Files.write(directory.resolve("wal-0.log"), new byte[] { 1, 0, 0, 7 }, StandardOpenOption.APPEND);
+
+        try (DurablePriorityQueue<WeightedGraph.DijkstraNode> pq = open(DurablePriorityQueue.SyncPolicy.ALWAYS,
+                1000)) {
+            assertEquals(5, pq.getReplayedRecords());
+            assertEquals(2, pq.size());
+            assertEquals(3, pq.extractMin().getVertex());
+            assertEquals(1, pq.extractMin().getVertex());
+        }
+        try (DurablePriorityQueue<WeightedGraph.DijkstraNode> pq = open(DurablePriorityQueue.SyncPolicy.ALWAYS,
+                1000)) {
+            assertTrue(pq.isEmpty());
+            pq.insert(new WeightedGraph.DijkstraNode(4, 1));
+            pq.clear();
+        }
+        try (DurablePriorityQueue<WeightedGraph.DijkstraNode> pq = open(DurablePriorityQueue.SyncPolicy.ALWAYS,
+                1000)) {
+            assertTrue(pq.isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("updateKey jest jednym rekordem dziennika odtwarzanym jako usunięcie i wstawienie")
+    void testUpdateKeyRecovery() throws IOException {
+        // Bez close - jak po awarii procesu tuż po updateKey
+        DurablePriorityQueue<WeightedGraph.DijkstraNode> crashed = open(DurablePriorityQueue.SyncPolicy.ALWAYS,
+                1000);
+        Position<WeightedGraph.DijkstraNode> up = crashed.insert(new WeightedGraph.DijkstraNode(1, 10));
+        Position<WeightedGraph.DijkstraNode> down = crashed.insert(new WeightedGraph.DijkstraNode(2, 40));
+        crashed.insert(new WeightedGraph.DijkstraNode(3, 20));
+        crashed.updateKey(up, new WeightedGraph.DijkstraNode(1, 50));
+        crashed.updateKey(down, new WeightedGraph.DijkstraNode(2, 5));
+        assertEquals(5, crashed.getLogRecords());
+        assertEquals(5, crashed.getSyncCount());
+
+        try (DurablePriorityQueue<WeightedGraph.DijkstraNode> pq = open(DurablePriorityQueue.SyncPolicy.ALWAYS,
+                1000)) {
+            assertEquals(5, pq.getReplayedRecords());
+            assertEquals(3, pq.size());
+            for (int vertex : new int[] { 2, 3, 1 }) {
+                assertEquals(vertex, pq.extractMin().getVertex());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Commit grupowy: bez sync() ginie co najwyżej ostatnia grupa")
+    void testGroupCommit() throws IOException {
+        DurablePriorityQueue<WeightedGraph.DijkstraNode> crashed = open(DurablePriorityQueue.SyncPolicy.GROUP, 1000);
+        for (int vertex = 0; vertex < 40; vertex++) {
+            crashed.insert(new WeightedGraph.DijkstraNode(vertex, vertex + 1));
+        }
+        assertEquals(2, crashed.getSyncCount()); // dwie pełne grupy po 16
+
+        DurablePriorityQueue<WeightedGraph.DijkstraNode> recovered = open(DurablePriorityQueue.SyncPolicy.NEVER,
+                1000);
+        assertEquals(32, recovered.size());
+        Position<WeightedGraph.DijkstraNode> kept = recovered.insert(new WeightedGraph.DijkstraNode(99, 0));
+        recovered.sync();
+        recovered.snapshot();
+        assertEquals(0, recovered.getLogRecords());
+        // Migawka nie dotyka kolejki wewnętrznej - pozycje pozostają ważne
+        assertTrue(kept.isValid());
+
+        try (DurablePriorityQueue<WeightedGraph.DijkstraNode> pq = open(DurablePriorityQueue.SyncPolicy.NEVER,
+                1000)) {
+            assertEquals(33, pq.size());
+            assertEquals(0, pq.getReplayedRecords());
+            assertEquals(99, pq.extractMin().getVertex());
+        }
+        recovered.close();
+        assertThrows(IllegalStateException.class, recovered::extractMin);
+        assertThrows(IllegalArgumentException.class, () -> open(DurablePriorityQueue.SyncPolicy.GROUP, 0));
+    }
+}
@@ -0,0 +1,160 @@
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+
+public class ExternalPriorityQueueTest {
+
+    // Element nie ma danych poza kluczem
+    private static final OffHeapPriorityQueue.Codec<IntElement> CODEC = new OffHeapPriorityQueue.Codec<IntElement>() {
+        @Override
+        public long encode(IntElement element) {
+            return 0;
+        }
+
+        @Override
+        public IntElement decode(int key, long payload) {
+            return new IntElement(key);
+        }
+    };
+
+    private static final OffHeapPriorityQueue.Codec<WeightedGraph.DijkstraNode> NODE_CODEC =
+            new OffHeapPriorityQueue.Codec<WeightedGraph.DijkstraNode>() {
+                @Override
+                public long encode(WeightedGraph.DijkstraNode node) {
+                    return node.getVertex();
+                }
+
+                @Override
+                public WeightedGraph.DijkstraNode decode(int key, long payload) {
+                    return new WeightedGraph.DijkstraNode((int) payload, key);
+                }
+            };
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Losowe operacje zgodne z java.util.PriorityQueue przy małym budżecie pamięci")
+    void testRandomOperations() throws IOException {
+        // Kopiec na 16 elementów i 3 bufory serii - częste zapisy i scalanie serii
+        try (ExternalPriorityQueue<IntElement> pq = new ExternalPriorityQueue<>(CODEC, 8 * 48, 48, directory)) {
+            Random random = new Random(42);
+            java.util.PriorityQueue<Integer> reference = new java.util.PriorityQueue<>();
+
+            for (int step = 0; step < 20_000; step++) {
+                if (random.nextInt(3) < 2 || reference.isEmpty()) {
+                    int value = random.nextInt(PriorityQueue.N + 1);
+                    pq.insert(new IntElement(value));
+                    reference.add(value);
+                } else {
+                    assertEquals(new IntElement(reference.peek()), pq.findMin());
+                    assertEquals(new IntElement(reference.poll()), pq.extractMin());
+                }
+                assertEquals(reference.size(), pq.size());
+            }
+            while (!reference.isEmpty()) {
+                assertEquals(new IntElement(reference.poll()), pq.extractMin());
+            }
+            assertTrue(pq.isEmpty());
+
+            assertEquals(16, pq.getHeapCapacity());
+            assertTrue(pq.getSpillCount() > 0);
+            assertTrue(pq.getRunMergeCount() > 0);
+            assertTrue(pq.getBytesRead() >= pq.getBytesWritten() - 12L * pq.getHeapCapacity());
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count()); // serie usunięte po odczytaniu
+        }
+    }
+
+    @Test
+    @DisplayName("Dane elementu zapisane w serii i porządek równych kluczy")
+    void testPayload() {
+        try (ExternalPriorityQueue<WeightedGraph.DijkstraNode> pq =
+                new ExternalPriorityQueue<>(NODE_CODEC, 4 * 24, 24, directory)) {
+            for (int vertex = 9; vertex >= 0; vertex--) {
+                pq.insert(new WeightedGraph.DijkstraNode(vertex, vertex % 2 == 0 ? 10 : 5));
+            }
+            assertTrue(pq.getRunCount() > 0);
+
+            for (int vertex : new int[] { 1, 3, 5, 7, 9, 0, 2, 4, 6, 8 }) {
+                assertEquals(vertex, pq.extractMin().getVertex());
+            }
+
+            Position<WeightedGraph.DijkstraNode> pos = pq.insert(new WeightedGraph.DijkstraNode(1, 20));
+            assertFalse(pos.isValid());
+            assertEquals(1, pos.getElement().getVertex());
+            assertThrows(UnsupportedOperationException.class,
+                    () -> pq.decreaseKey(pos, new WeightedGraph.DijkstraNode(1, 10)));
+            assertThrows(IllegalArgumentException.class,
+                    () -> pq.insert(new WeightedGraph.DijkstraNode(1, PriorityQueue.N + 1)));
+        }
+    }
+
+    @Test
+    @DisplayName("merge nie zmienia kolejki, clear i close usuwają pliki serii")
+    void testMergeClearAndClose() throws IOException {
+        ExternalPriorityQueue<IntElement> pq = new ExternalPriorityQueue<>(CODEC, 4 * 36, 36, directory);
+        for (IntElement element : TestUtils.createIntElements(9, 4, 7, 1, 8, 2, 2, 6, 3, 0, 5)) {
+            pq.insert(element);
+        }
+        pq.extractMin();
+        PriorityQueue<IntElement> other = new BucketPriorityQueue<>();
+        other.insert(new IntElement(5));
+        other.insert(new IntElement(1000));
+
+        PriorityQueue<IntElement> merged = pq.merge(other);
+        int[] drained = new int[merged.size()];
+        for (int i = 0; i < drained.length; i++) {
+            drained[i] = merged.extractMin().wartość();
+        }
+        assertArrayEquals(new int[] { 1, 2, 2, 3, 4, 5, 5, 6, 7, 8, 9, 1000 }, drained);
+        ((ExternalPriorityQueue<IntElement>) merged).close();
+        assertEquals(10, pq.size());
+        assertEquals(new IntElement(1), pq.findMin());
+
+        pq.clear();
+        assertTrue(pq.isEmpty());
+        assertThrows(NoSuchElementException.class, pq::extractMin);
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+
+        pq.insert(new IntElement(3));
+        pq.close();
+        pq.close();
+        assertThrows(IllegalStateException.class, () -> pq.insert(new IntElement(1)));
+        assertThrows(IllegalArgumentException.class, () -> new ExternalPriorityQueue<>(CODEC, 100, 36, directory));
+    }
+
+    @Test
+    @DisplayName("close usuwa katalog tymczasowy utworzony przez kolejkę, ale nie podany")
+    void testOwnedDirectory() throws IOException {
+        ExternalPriorityQueue<IntElement> pq = new ExternalPriorityQueue<>(CODEC, 1 << 20);
+        // Więcej elementów, niż mieści kopiec - co najmniej jedna seria na dysku
+        for (int i = 0; i < 50_000; i++) {
+            pq.insert(new IntElement(i % (PriorityQueue.N + 1)));
+        }
+        assertTrue(pq.getSpillCount() > 0);
+        ExternalPriorityQueue<IntElement> merged = (ExternalPriorityQueue<IntElement>) pq.merge(
+                new BucketPriorityQueue<IntElement>());
+        assertNotEquals(pq.getDirectory(), merged.getDirectory());
+
+        pq.close();
+        assertFalse(Files.exists(pq.getDirectory()));
+        assertEquals(50_000, merged.size());
+        assertEquals(new IntElement(0), merged.extractMin());
+        merged.close();
+        assertFalse(Files.exists(merged.getDirectory()));
+
+        ExternalPriorityQueue<IntElement> given = new ExternalPriorityQueue<>(CODEC, 4 * 36, 36, directory);
+        given.insert(new IntElement(1));
+        given.close();
+        assertTrue(Files.isDirectory(directory));
+    }
+}
@@ -0,0 +1,143 @@
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+public class ExternalSortTest {
+
+    @TempDir
+    Path directory;
+
+    private Random random;
+
+    @BeforeEach
+    void setUp() {
+        random = new Random(42);
+    }
+
+    private Path writeInts(String name, int[] values) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * Integer.BYTES);
+        buffer.asIntBuffer().put(values);
+        return Files.write(directory.resolve(name), buffer.array());
+    }
+
+    private int[] readInts(Path file) throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        int[] values = new int[bytes.length / Integer.BYTES];
+        ByteBuffer.wrap(bytes).asIntBuffer().get(values);
+        return values;
+    }
+
+    // Katalog serii jest pusty po sortowaniu
+    private void assertNoRunFiles(Path runs) throws IOException {
+        try (var files = Files.list(runs)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Wybór z zastępowaniem tworzy serie ~2M i scala je w kilku przebiegach")
+    void testReplacementSelectionMultiPass() throws IOException {
+        Path runs = Files.createDirectory(directory.resolve("runs"));
+        int[] values = random.ints(50_000, 0, PriorityQueue.N + 1).toArray();
+        Path input = writeInts("input.bin", values);
+        Path output = directory.resolve("output.bin");
+        int[] expected = values.clone();
+        Arrays.sort(expected);
+
+        for (int type : new int[] { PriorityQueueRegistry.AUTO, 2, 3 }) {
+            ExternalSort sorter = new ExternalSort(type, 500, 4, 4096, runs);
+            ExternalSort.Result result = sorter.sort(input, output, ExternalSort.Method.REPLACEMENT_SELECTION);
+            assertArrayEquals(expected, readInts(output));
+            assertEquals(values.length, result.getElements());
+            assertEquals((long) values.length * Integer.BYTES, result.getBytes());
+            assertTrue(result.getAverageRunLength() > 1.5 * 500, "Średnia seria: " + result.getAverageRunLength());
+            // ~50 serii przy fanIn 4: 50 -> 13 -> 4 -> 1
+            assertEquals(3, result.getMergePasses());
+            assertNoRunFiles(runs);
+        }
+
+        // Dane posortowane dają jedną serię i żadnego scalania
+        Path sortedInput = writeInts("sorted.bin", expected);
+        ExternalSort.Result result = new ExternalSort(3, 100, 2, 64, runs)
+                .sort(sortedInput, output, ExternalSort.Method.REPLACEMENT_SELECTION);
+        assertEquals(1, result.getRuns());
+        assertEquals(0, result.getMergePasses());
+        assertArrayEquals(expected, readInts(output));
+        assertNoRunFiles(runs);
+    }
+
+    @Test
+    @DisplayName("Sortowanie przez zliczanie, pusty plik i błędne dane")
+    void testCountingAndInvalidInput() throws IOException {
+        int[] values = random.ints(20_000, 0, PriorityQueue.N + 1).toArray();
+        Path input = writeInts("input.bin", values);
+        Path output = directory.resolve("output.bin");
+        int[] expected = values.clone();
+        Arrays.sort(expected);
+
+        ExternalSort sorter = new ExternalSort(directory);
+        ExternalSort.Result result = sorter.sort(input, output, ExternalSort.Method.COUNTING);
+        assertArrayEquals(expected, readInts(output));
+        assertEquals(0, result.getRuns());
+        assertEquals(0, result.getMergePasses());
+
+        Path empty = writeInts("empty.bin", new int[0]);
+        for (ExternalSort.Method method : ExternalSort.Method.values()) {
+            Files.write(output, new byte[] { 1, 2, 3, 4 });
+            assertEquals(0, sorter.sort(empty, output, method).getElements());
+            assertEquals(0, Files.size(output));
+
+            Path invalid = writeInts("invalid.bin", new int[] { 5, 7, PriorityQueue.N + 1, 3 });
+            assertThrows(IllegalArgumentException.class, () -> sorter.sort(invalid, output, method));
+            Path negative = writeInts("negative.bin", new int[] { -1 });
+            assertThrows(IllegalArgumentException.class, () -> sorter.sort(negative, output, method));
+            Path truncated = Files.write(directory.resolve("truncated.bin"), new byte[] { 0, 0, 0, 1, 0, 0 });
+            assertThrows(IOException.class, () -> sorter.sort(truncated, output, method));
+        }
+        assertThrows(IllegalArgumentException.class, () -> new ExternalSort(3, 0, 4, 4096, directory));
+        assertThrows(IllegalArgumentException.class, () -> new ExternalSort(3, 100, 1, 4096, directory));
+        assertThrows(IllegalArgumentException.class, () -> new ExternalSort(3, 100, 4, 2, directory));
+    }
+
+    @Test
+    @DisplayName("Tryb nieinteraktywny Main --external-sort")
+    void testMainExternalSort() throws IOException {
+        int[] values = random.ints(10_000, 0, PriorityQueue.N + 1).toArray();
+        Path input = writeInts("input.bin", values);
+        Path output = directory.resolve("output.bin");
+        Path runs = Files.createDirectory(directory.resolve("runs"));
+        int[] expected = values.clone();
+        Arrays.sort(expected);
+
+        Main.runExternalSort(new String[] { "--external-sort", input.toString(), output.toString(),
+                "--memory", "300", "--fan-in", "3", "--queue", "bst", "--temp", runs.toString() });
+        assertArrayEquals(expected, readInts(output));
+        assertNoRunFiles(runs);
+
+        // Błąd zapisu w ostatnim przebiegu scalania nie zostawia plików serii
+        Path blocked = Files.createDirectory(directory.resolve("blocked"));
+        Files.write(blocked.resolve("file"), new byte[1]);
+        assertThrows(IOException.class, () -> Main.runExternalSort(new String[] { "--external-sort",
+                input.toString(), blocked.toString(), "--memory", "300", "--fan-in", "3", "--temp", runs.toString() }));
+        assertNoRunFiles(runs);
+
+        Files.delete(output);
+        Main.runExternalSort(new String[] { "--external-sort", input.toString(), output.toString(),
+                "--method", "counting" });
+        assertArrayEquals(expected, readInts(output));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> Main.runExternalSort(new String[] { "--external-sort", input.toString() }));
+        assertThrows(IllegalArgumentException.class, () -> Main.runExternalSort(
+                new String[] { "--external-sort", input.toString(), output.toString(), "--unknown" }));
+        assertThrows(IllegalArgumentException.class, () -> Main.runExternalSort(
+                new String[] { "--external-sort", input.toString(), output.toString(), "--memory" }));
+        assertThrows(IllegalArgumentException.class, () -> Main.runExternalSort(
+                new String[] { "--external-sort", input.toString(), output.toString(), "--method", "countng" }));
+    }
+}
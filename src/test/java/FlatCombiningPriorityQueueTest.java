@@ -0,0 +1,143 @@
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+public class FlatCombiningPriorityQueueTest {
+
+    private static final int THREADS = 4;
+    private static final int ROUNDS = 3000;
+
+    private List<Function<PriorityQueue<IntElement>, PriorityQueue<IntElement>>> wrappers;
+
+    @BeforeEach
+    void setUp() {
+        wrappers = Arrays.asList(FlatCombiningPriorityQueue::new, LockedPriorityQueue::new);
+    }
+
+    private static List<PriorityQueue<IntElement>> backends() {
+        return Arrays.asList(new BucketPriorityQueue<>(), new BSTPriorityQueue<>(),
+                new BoundedPriorityQueue<>(THREADS * ROUNDS * 2));
+    }
+
+    @Test
+    @DisplayName("Wiele wątków: każdy wstawiony element jest wyjęty dokładnie raz")
+    void testConcurrentInsertAndExtract() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (Function<PriorityQueue<IntElement>, PriorityQueue<IntElement>> wrapper : wrappers) {
+                for (PriorityQueue<IntElement> backend : backends()) {
+                    PriorityQueue<IntElement> pq = wrapper.apply(backend);
+                    CyclicBarrier start = new CyclicBarrier(THREADS);
+                    List<Future<int[]>> results = new ArrayList<>();
+                    for (int thread = 0; thread < THREADS; thread++) {
+                        long seed = thread;
+                        // Dwa insert na jedno extractMin - kolejka nigdy nie jest pusta
+                        results.add(executor.submit(() -> {
+                            Random random = new Random(seed);
+                            int[] balance = new int[PriorityQueue.N + 1];
+                            start.await();
+                            for (int round = 0; round < ROUNDS; round++) {
+                                for (int i = 0; i < 2; i++) {
+                                    int value = random.nextInt(PriorityQueue.N + 1);
+                                    pq.insert(new IntElement(value));
+                                    balance[value]++;
+                                }
+                                balance[pq.extractMin().wartość()]--;
+                            }
+                            return balance;
+                        }));
+                    }
+                    int[] expected = new int[PriorityQueue.N + 1];
+                    for (Future<int[]> result : results) {
+                        int[] balance = result.get(60, TimeUnit.SECONDS);
+                        for (int value = 0; value <= PriorityQueue.N; value++) {
+                            expected[value] += balance[value];
+                        }
+                    }
+
+                    assertEquals(THREADS * ROUNDS, pq.size());
+                    int previous = -1;
+                    while (!pq.isEmpty()) {
+                        int value = pq.extractMin().wartość();
+                        assertTrue(value >= previous);
+                        previous = value;
+                        expected[value]--;
+                    }
+                    assertTrue(Arrays.stream(expected).allMatch(count -> count == 0));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Jeden wątek: operacje zgodne z java.util.PriorityQueue, pozycje działają z decreaseKey i remove")
+    void testSequentialOperations() {
+        for (Function<PriorityQueue<IntElement>, PriorityQueue<IntElement>> wrapper : wrappers) {
+            for (PriorityQueue<IntElement> backend : backends()) {
+                PriorityQueue<IntElement> pq = wrapper.apply(backend);
+                Random random = new Random(42);
+                java.util.PriorityQueue<Integer> reference = new java.util.PriorityQueue<>();
+                List<Position<IntElement>> positions = new ArrayList<>();
+
+                for (int step = 0; step < 3000; step++) {
+                    int operation = random.nextInt(5);
+                    if (operation <= 1 || positions.isEmpty()) {
+                        int value = random.nextInt(100);
+                        positions.add(pq.insert(new IntElement(value)));
+                        reference.add(value);
+                    } else if (operation == 2) {
+                        int index = random.nextInt(positions.size());
+                        Position<IntElement> pos = positions.get(index);
+                        int oldValue = pos.getElement().wartość();
+                        int newValue = random.nextInt(100);
+                        positions.set(index, pq.updateKey(pos, new IntElement(newValue)));
+                        reference.remove(oldValue);
+                        reference.add(newValue);
+                    } else if (operation == 3) {
+                        Position<IntElement> pos = positions.remove(random.nextInt(positions.size()));
+                        assertTrue(reference.remove(pq.remove(pos).wartość()));
+                    } else {
+                        assertEquals(new IntElement(reference.poll()), pq.extractMin());
+                        positions.removeIf(pos -> !pos.isValid());
+                    }
+                    assertEquals(reference.size(), pq.size());
+                }
+                pq.clear();
+                assertThrows(NoSuchElementException.class, pq::extractMin);
+                assertThrows(IllegalArgumentException.class, () -> pq.insert(new IntElement(PriorityQueue.N + 1)));
+                assertTrue(pq.isEmpty());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Krótko żyjące wątki i statystyki łączenia")
+    void testShortLivedThreads() throws Exception {
+        FlatCombiningPriorityQueue<IntElement> pq = new FlatCombiningPriorityQueue<>(new BucketPriorityQueue<IntElement>());
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            int value = i % (PriorityQueue.N + 1);
+            Thread thread = new Thread(() -> pq.insert(new IntElement(value)));
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(200, pq.size());
+        // Każde insert przechodzi przez partię, także gdy wątek był sam
+        assertEquals(200, pq.getCombinedRequests());
+        assertTrue(pq.getBatchCount() > 0 && pq.getBatchCount() <= 200);
+        assertEquals(0, pq.getEliminatedPairs());
+        for (int value = 0; value < 200; value++) {
+            assertEquals(new IntElement(value), pq.extractMin());
+        }
+        PriorityQueue<IntElement> merged = pq.merge(new BSTPriorityQueue<IntElement>());
+        assertTrue(merged instanceof FlatCombiningPriorityQueue);
+    }
+}
@@ -0,0 +1,103 @@
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.*;
+
+public class GraphGeneratorTest {
+
+    private static void assertSameGraph(WeightedGraph expected, WeightedGraph actual) {
+        assertEquals(expected.getVertices(), actual.getVertices());
+        assertEquals(expected.getEdgeCount(), actual.getEdgeCount());
+        for (int vertex : expected.getVertices()) {
+            assertEquals(expected.getNeighbors(vertex), actual.getNeighbors(vertex), "wierzchołek " + vertex);
+        }
+    }
+
+    private static void assertSymmetric(WeightedGraph graph) {
+        for (int vertex : graph.getVertices()) {
+            for (WeightedGraph.Edge edge : graph.getNeighbors(vertex)) {
+                assertEquals(edge.getWeight(), graph.getEdgeWeight(edge.getDestination(), vertex));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Siatka ma 4-sąsiedztwo i symetryczne wagi")
+    void testGrid() {
+        WeightedGraph graph = GraphGenerator.grid(20, 30, 10, 1);
+
+        assertEquals(600, graph.getVertexCount());
+        assertEquals(2 * (20 * 29 + 19 * 30), graph.getEdgeCount());
+        assertTrue(graph.hasEdge(0, 1));
+        assertTrue(graph.hasEdge(0, 30));
+        assertFalse(graph.hasEdge(29, 30)); // koniec wiersza
+        assertSymmetric(graph);
+
+        // Przy wagach 1 odległość to odległość w metryce miejskiej
+        WeightedGraph unit = GraphGenerator.grid(20, 30, 1, 1);
+        assertEquals(19 + 29, unit.dijkstra(0, 3).getDistance(599));
+    }
+
+    @Test
+    @DisplayName("Ten sam seed daje ten sam graf")
+    void testDeterministic() {
+        assertSameGraph(GraphGenerator.erdosRenyi(500, 4000, 50, 7), GraphGenerator.erdosRenyi(500, 4000, 50, 7));
+        assertSameGraph(GraphGenerator.barabasiAlbert(500, 3, 50, 7), GraphGenerator.barabasiAlbert(500, 3, 50, 7));
+        assertSameGraph(GraphGenerator.geometric(500, 6, 50, 7), GraphGenerator.geometric(500, 6, 50, 7));
+
+        assertNotEquals(GraphGenerator.erdosRenyi(500, 4000, 50, 7).getNeighbors(0),
+                GraphGenerator.erdosRenyi(500, 4000, 50, 8).getNeighbors(0));
+    }
+
+    @Test
+    @DisplayName("Erdős-Rényi: bez pętli własnych, wagi w zakresie")
+    void testErdosRenyi() {
+        WeightedGraph graph = GraphGenerator.erdosRenyi(1000, 5000, 20, 3);
+
+        assertEquals(1000, graph.getVertexCount());
+        assertTrue(graph.getEdgeCount() > 4900 && graph.getEdgeCount() <= 5000);
+        for (int vertex : graph.getVertices()) {
+            assertFalse(graph.hasEdge(vertex, vertex));
+            for (WeightedGraph.Edge edge : graph.getNeighbors(vertex)) {
+                assertTrue(edge.getWeight() >= 1 && edge.getWeight() <= 20);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Barabási-Albert: m krawędzi na wierzchołek i wierzchołki o dużym stopniu")
+    void testBarabasiAlbert() {
+        int vertices = 5000;
+        int m = 3;
+        WeightedGraph graph = GraphGenerator.barabasiAlbert(vertices, m, 10, 5);
+
+        // Klika m + 1 wierzchołków plus m krawędzi nieskierowanych na każdy kolejny
+        assertEquals(2 * (m * (m + 1) / 2 + (long) m * (vertices - m - 1)), graph.getEdgeCount());
+        assertSymmetric(graph);
+
+        int maxDegree = 0;
+        for (int vertex : graph.getVertices()) {
+            assertTrue(graph.getNeighbors(vertex).size() >= m);
+            maxDegree = Math.max(maxDegree, graph.getNeighbors(vertex).size());
+        }
+        assertTrue(maxDegree > 10 * 2 * m, "rozkład potęgowy powinien tworzyć huby, max stopień " + maxDegree);
+    }
+
+    @Test
+    @DisplayName("Graf geometryczny: średni stopień zbliżony do zadanego")
+    void testGeometric() {
+        WeightedGraph graph = GraphGenerator.geometric(20000, 6, 100, 11);
+
+        assertSymmetric(graph);
+        double averageDegree = (double) graph.getEdgeCount() / graph.getVertexCount();
+        assertTrue(averageDegree > 5 && averageDegree < 7, "średni stopień " + averageDegree);
+    }
+
+    @Test
+    @DisplayName("Nieprawidłowe parametry generatorów")
+    void testInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> GraphGenerator.grid(0, 5, 10, 1));
+        assertThrows(IllegalArgumentException.class, () -> GraphGenerator.erdosRenyi(10, 5, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> GraphGenerator.barabasiAlbert(10, 10, 5, 1));
+        assertThrows(IllegalArgumentException.class, () -> GraphGenerator.geometric(10, 0, 5, 1));
+    }
+}
@@ -0,0 +1,95 @@
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+public class GraphLoaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path write(String name, String content) throws IOException {
+        Path path = tempDir.resolve(name);
+        Files.writeString(path, content);
+        return path;
+    }
+
+    @Test
+    @DisplayName("Wczytanie listy krawędzi z komentarzami")
+    void testLoadEdgeList() throws IOException {
+        Path path = write("graph.txt", "# przykład z README\n0 1 4\n0 2 2\r\n1 2 1\n\n1 3 5\n2 3 8\n2 4 10\n3 4 2");
+
+        WeightedGraph graph = GraphLoader.load(path, GraphLoader.Format.EDGE_LIST);
+
+        assertEquals(5, graph.getVertexCount());
+        assertEquals(7, graph.getEdgeCount());
+        assertEquals(10, graph.getEdgeWeight(2, 4));
+        assertEquals(2, graph.getEdgeWeight(3, 4));
+
+        WeightedGraph.DijkstraResult result = graph.dijkstra(0, 3);
+        assertEquals(11, result.getDistance(4));
+    }
+
+    @Test
+    @DisplayName("Wczytanie formatu DIMACS z numeracją od 1")
+    void testLoadDimacs() throws IOException {
+        Path path = write("graph.gr", "c komentarz\np sp 4 3\na 1 2 7\na 2 3 1\nc środek\na 1 3 9\n");
+
+        WeightedGraph graph = GraphLoader.load(path, GraphLoader.Format.DIMACS);
+
+        assertEquals(4, graph.getVertexCount()); // wierzchołek 3 (DIMACS 4) jest izolowany
+        assertEquals(3, graph.getEdgeCount());
+        assertEquals(7, graph.getEdgeWeight(0, 1));
+        assertEquals(8, graph.dijkstra(0, 2).getDistance(2));
+    }
+
+    @Test
+    @DisplayName("Wczytywanie równoległe daje te same krawędzie co sekwencyjne")
+    void testParallelMatchesSequential() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        Random random = new Random(42);
+        int edges = 2_000_000; // > 8 MB, czyli kilka fragmentów
+        sb.append("p sp 5000 ").append(edges).append('\n');
+        for (int i = 0; i < edges; i++) {
+            sb.append("a ").append(random.nextInt(5000) + 1).append(' ')
+                    .append(random.nextInt(5000) + 1).append(' ')
+                    .append(random.nextInt(WeightedGraph.K + 1)).append('\n');
+        }
+        Path path = write("large.gr", sb.toString());
+
+        GraphLoader.EdgeBatch sequential = GraphLoader.parse(path, GraphLoader.Format.DIMACS, 1);
+        GraphLoader.EdgeBatch parallel = GraphLoader.parse(path, GraphLoader.Format.DIMACS, 4);
+
+        assertEquals(edges, sequential.size());
+        assertEquals(sequential.size(), parallel.size());
+        for (int i = 0; i < sequential.size(); i++) {
+            assertEquals(sequential.getSource(i), parallel.getSource(i));
+            assertEquals(sequential.getDestination(i), parallel.getDestination(i));
+            assertEquals(sequential.getWeight(i), parallel.getWeight(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Nieprawidłowe dane powodują IllegalArgumentException")
+    void testInvalidInput() throws IOException {
+        Path missingWeight = write("bad.txt", "0 1\n");
+        Path negative = write("negative.txt", "0 -1 3\n");
+        Path noHeader = write("noheader.gr", "a 1 2 3\n");
+        Path wrongCount = write("count.gr", "p sp 3 2\na 1 2 3\n");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> GraphLoader.load(missingWeight, GraphLoader.Format.EDGE_LIST));
+        assertThrows(IllegalArgumentException.class,
+                () -> GraphLoader.load(negative, GraphLoader.Format.EDGE_LIST));
+        assertThrows(IllegalArgumentException.class,
+                () -> GraphLoader.load(noHeader, GraphLoader.Format.DIMACS));
+        assertThrows(IllegalArgumentException.class,
+                () -> GraphLoader.load(wrongCount, GraphLoader.Format.DIMACS));
+        // Literówka w --format nie jest cicho zamieniana na listę krawędzi
+        assertThrows(IllegalArgumentException.class, () -> Main.runDijkstraFromFile(
+                new String[] { "--graph", wrongCount.toString(), "--format", "dimac" }));
+    }
+}
@@ -0,0 +1,170 @@
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+public class InstrumentedPriorityQueueTest {
+
+    @Test
+    @DisplayName("Liczniki operacji i rozmiar szczytowy")
+    void testOperationCounts() {
+        // Rozmiar szczytowy jest dokładny tylko przy próbkowaniu każdej operacji
+        InstrumentedPriorityQueue<IntElement> pq = new InstrumentedPriorityQueue<>(
+                new BucketPriorityQueue<IntElement>(), 1);
+
+        Position<IntElement> five = null;
+        for (int value : new int[] { 5, 3, 8, 1 }) {
+            Position<IntElement> position = pq.insert(new IntElement(value));
+            if (value == 5) {
+                five = position;
+            }
+        }
+        assertEquals(new IntElement(1), pq.findMin());
+        assertEquals(new IntElement(1), pq.extractMin());
+        assertEquals(new IntElement(5), pq.remove(five));
+        assertEquals(new IntElement(3), pq.extractMin());
+
+        assertEquals(4, pq.getInsertCount());
+        assertEquals(1, pq.getFindMinCount());
+        assertEquals(2, pq.getExtractMinCount());
+        assertEquals(1, pq.getRemoveCount());
+        assertEquals(1, pq.getSampleCount(InstrumentedPriorityQueue.Operation.REMOVE));
+        assertEquals(4, pq.getPeakSize());
+        assertEquals(1, pq.getSize());
+
+        // Liczniki są dokładne także bez próbkowania
+        InstrumentedPriorityQueue<IntElement> sampled = new InstrumentedPriorityQueue<>(
+                new BucketPriorityQueue<IntElement>());
+        sampled.remove(sampled.insert(new IntElement(2)));
+        sampled.insert(new IntElement(4));
+        assertEquals(2, sampled.getInsertCount());
+        assertEquals(1, sampled.getRemoveCount());
+        assertEquals(1, sampled.getSize());
+
+        pq.resetStatistics();
+        assertEquals(0, pq.getInsertCount());
+        assertEquals(0, pq.getRemoveCount());
+        assertEquals(1, pq.getPeakSize());
+    }
+
+    @Test
+    @DisplayName("Sondy implementacji: kubełki, głębokość drzewa, przesunięcia")
+    void testBackendProbes() {
+        InstrumentedPriorityQueue<IntElement> bucket = new InstrumentedPriorityQueue<>(
+                new BucketPriorityQueue<IntElement>(), 1);
+        bucket.insert(new IntElement(500));
+        bucket.extractMin();
+        bucket.insert(new IntElement(900));
+        bucket.findMin();
+        // Po opróżnieniu kolejki minBucket przesuwa się z 500 za ostatni kubełek (N + 1)
+        assertEquals(PriorityQueue.N + 1 - 500, bucket.getBucketsScanned());
+
+        InstrumentedPriorityQueue<IntElement> bst = new InstrumentedPriorityQueue<>(new BSTPriorityQueue<IntElement>(), 1);
+        for (int i = 0; i < 10; i++) {
+            bst.insert(new IntElement(i)); // zdegenerowane drzewo
+        }
+        assertEquals(9, bst.getMaxTreeDepth());
+        assertEquals(45, bst.getComparisons());
+
+        InstrumentedPriorityQueue<IntElement> stack = new InstrumentedPriorityQueue<>(
+                new SortedStackPriorityQueue<IntElement>(), 1);
+        for (int i = 10; i > 0; i--) {
+            stack.insert(new IntElement(i)); // każdy element trafia na początek
+        }
+        assertEquals(45, stack.getElementsShifted());
+
+        // Co ósma operacja z sondą: wstawienia na głębokościach 7, 15, ..., 63
+        InstrumentedPriorityQueue<IntElement> sampled = new InstrumentedPriorityQueue<>(
+                new BSTPriorityQueue<IntElement>(), 8);
+        for (int i = 0; i < 64; i++) {
+            sampled.insert(new IntElement(i));
+        }
+        assertEquals(63, sampled.getMaxTreeDepth());
+        assertEquals(8 * (7 + 15 + 23 + 31 + 39 + 47 + 55 + 63), sampled.getComparisons());
+    }
+
+    @Test
+    @DisplayName("Wyjątek w próbkowanej operacji odłącza sondę i zapisuje czas")
+    void testSampledException() {
+        InstrumentedPriorityQueue<IntElement> pq = new InstrumentedPriorityQueue<>(
+                new BSTPriorityQueue<IntElement>(), 8);
+        for (int i = 0; i < 3; i++) {
+            pq.insert(new IntElement(i));
+            pq.extractMin();
+        }
+        // Operacje extractMin 4-7 bez próbki, ósma próbkowana - wszystkie na pustej kolejce
+        for (int i = 4; i <= 8; i++) {
+            assertThrows(java.util.NoSuchElementException.class, pq::extractMin);
+        }
+        assertEquals(1, pq.getSampleCount(InstrumentedPriorityQueue.Operation.EXTRACT_MIN));
+
+        // Wstawienia 4-7 bez sondy; tylko ósme (głębokość 4) jest mierzone
+        for (int i = 4; i <= 8; i++) {
+            pq.insert(new IntElement(i));
+        }
+        assertEquals(8 * 4, pq.getComparisons());
+        assertEquals(4, pq.getMaxTreeDepth());
+    }
+
+    @Test
+    @DisplayName("Próbkowanie czasów co sampleInterval operacji")
+    void testLatencySampling() {
+        InstrumentedPriorityQueue<IntElement> every = new InstrumentedPriorityQueue<>(new BSTPriorityQueue<IntElement>(), 1);
+        InstrumentedPriorityQueue<IntElement> sampled = new InstrumentedPriorityQueue<>(new BSTPriorityQueue<IntElement>(), 8);
+        for (int i = 0; i < 64; i++) {
+            every.insert(new IntElement(i % 100));
+            sampled.insert(new IntElement(i % 100));
+        }
+
+        assertEquals(64, every.getSampleCount(InstrumentedPriorityQueue.Operation.INSERT));
+        assertEquals(8, sampled.getSampleCount(null));
+        assertTrue(every.getLatencyP50Nanos() <= every.getLatencyP99Nanos());
+        assertTrue(every.getLatencyMaxNanos() > 0);
+        assertEquals(0, every.getLatencyPercentile(InstrumentedPriorityQueue.Operation.EXTRACT_MIN, 50));
+
+        assertThrows(IllegalArgumentException.class, () -> new InstrumentedPriorityQueue<>(
+                new BSTPriorityQueue<IntElement>(), 3));
+    }
+
+    @Test
+    @DisplayName("Merge opróżnia drugą kolejkę przez jej instrumentację i zwraca kolejkę z instrumentacją")
+    void testMerge() {
+        InstrumentedPriorityQueue<IntElement> a = new InstrumentedPriorityQueue<>(new BucketPriorityQueue<IntElement>());
+        InstrumentedPriorityQueue<IntElement> b = new InstrumentedPriorityQueue<>(new BucketPriorityQueue<IntElement>(), 1);
+        a.insert(new IntElement(4));
+        b.insert(new IntElement(2));
+
+        PriorityQueue<IntElement> merged = a.merge(b);
+
+        assertTrue(merged instanceof InstrumentedPriorityQueue);
+        assertEquals(2, merged.size());
+        assertEquals(new IntElement(2), merged.extractMin());
+        assertEquals(1, a.getMergeCount());
+        assertEquals(1, b.getExtractMinCount());
+        assertEquals(0, b.getSize());
+        assertEquals(1, b.getPeakSize());
+        assertTrue(b.getBucketsScanned() > 0);
+    }
+
+    @Test
+    @DisplayName("Statystyki dostępne przez JMX")
+    void testJmxRegistration() throws Exception {
+        InstrumentedPriorityQueue<IntElement> pq = new InstrumentedPriorityQueue<>(new BucketPriorityQueue<IntElement>());
+        ObjectName name = pq.register("test-queue");
+        try {
+            pq.insert(new IntElement(7));
+            pq.insert(new IntElement(3));
+
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertEquals(2L, server.getAttribute(name, "InsertCount"));
+            assertEquals("BucketPriorityQueue", server.getAttribute(name, "Backend"));
+
+            server.invoke(name, "resetStatistics", null, null);
+            assertEquals(0L, server.getAttribute(name, "InsertCount"));
+        } finally {
+            pq.unregister();
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+}
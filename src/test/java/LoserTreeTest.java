@@ -0,0 +1,115 @@
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.*;
+
+public class LoserTreeTest {
+
+    private Random random;
+
+    @BeforeEach
+    void setUp() {
+        random = new Random(42);
+    }
+
+    private int[][] randomRuns(int k, int maxLength) {
+        int[][] runs = new int[k][];
+        for (int run = 0; run < k; run++) {
+            runs[run] = random.ints(random.nextInt(maxLength + 1), 0, PriorityQueue.N + 1).sorted().toArray();
+        }
+        return runs;
+    }
+
+    @Test
+    @DisplayName("Scalanie int zgodne z sortowaniem, co najwyżej ⌈log2 k⌉ porównań na element")
+    void testIntMergeAndComparisonBound() {
+        for (int k : new int[] { 0, 1, 2, 3, 7, 64, 100, 256, 300 }) {
+            int[][] runs = randomRuns(k, 200);
+            int[] expected = Arrays.stream(runs).flatMapToInt(Arrays::stream).sorted().toArray();
+            assertArrayEquals(expected, IntLoserTree.merge(runs));
+
+            IntLoserTree tree = IntLoserTree.of(runs);
+            int[] buffer = new int[expected.length + 10];
+            int total = 0;
+            int read;
+            // Mały bufor - wiele wywołań read
+            while ((read = tree.read(buffer, total, Math.min(17, buffer.length - total))) > 0) {
+                total += read;
+            }
+            assertEquals(expected.length, total);
+            assertArrayEquals(expected, Arrays.copyOf(buffer, total));
+
+            int depth = k <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(k - 1);
+            long perElement = tree.getComparisons() - Math.max(0, k - 1);
+            assertTrue(perElement <= (long) depth * expected.length);
+            if (Integer.bitCount(k) == 1) {
+                assertEquals((long) depth * expected.length, perElement);
+            }
+            assertFalse(tree.hasNext());
+            assertThrows(NoSuchElementException.class, tree::nextInt);
+        }
+    }
+
+    @Test
+    @DisplayName("Scalanie elementów HasValue jest stabilne: równe wartości w kolejności ciągów")
+    void testGenericMergeIsStable() {
+        List<List<WeightedGraph.DijkstraNode>> runs = new ArrayList<>();
+        for (int run = 0; run < 5; run++) {
+            List<WeightedGraph.DijkstraNode> nodes = new ArrayList<>();
+            int distance = 0;
+            for (int i = 0; i < 50; i++) {
+                distance += random.nextInt(3);
+                // Wierzchołek koduje numer ciągu i pozycję w nim
+                nodes.add(new WeightedGraph.DijkstraNode(run * 1000 + i, distance));
+            }
+            runs.add(nodes);
+        }
+        runs.add(new ArrayList<>());
+
+        List<Iterator<WeightedGraph.DijkstraNode>> iterators = new ArrayList<>();
+        runs.forEach(run -> iterators.add(run.iterator()));
+        LoserTree<WeightedGraph.DijkstraNode> tree = new LoserTree<>(iterators);
+        List<WeightedGraph.DijkstraNode> merged = new ArrayList<>();
+        while (tree.drainTo(merged, 7) > 0) {
+            // Wyjście buforowane po 7 elementów
+        }
+
+        List<WeightedGraph.DijkstraNode> expected = new ArrayList<>();
+        runs.forEach(expected::addAll);
+        expected.sort(Comparator.comparingInt(WeightedGraph.DijkstraNode::wartość)
+                .thenComparingInt(WeightedGraph.DijkstraNode::getVertex));
+        assertEquals(expected.size(), merged.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getVertex(), merged.get(i).getVertex());
+        }
+        assertThrows(NullPointerException.class,
+                () -> new LoserTree<IntElement>(List.of(Arrays.asList(new IntElement(1), null).iterator())).next());
+    }
+
+    @Test
+    @DisplayName("merge dwóch SortedStackPriorityQueue scala posortowane listy")
+    void testSortedStackMerge() {
+        SortedStackPriorityQueue<IntElement> first = new SortedStackPriorityQueue<>();
+        SortedStackPriorityQueue<IntElement> second = new SortedStackPriorityQueue<>();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            int value = random.nextInt(PriorityQueue.N + 1);
+            (i % 3 == 0 ? first : second).insert(new IntElement(value));
+            expected.add(value);
+        }
+        Position<IntElement> kept = first.insert(new IntElement(3));
+        Position<IntElement> drained = second.insert(new IntElement(4));
+        expected.add(3);
+        expected.add(4);
+        Collections.sort(expected);
+
+        PriorityQueue<IntElement> merged = first.merge(second);
+        assertTrue(merged instanceof SortedStackPriorityQueue);
+        assertTrue(second.isEmpty());
+        assertFalse(drained.isValid());
+        assertTrue(kept.isValid());
+        assertEquals(expected.size(), merged.size());
+        for (int value : expected) {
+            assertEquals(new IntElement(value), merged.extractMin());
+        }
+    }
+}
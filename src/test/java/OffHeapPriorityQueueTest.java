@@ -0,0 +1,142 @@
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.*;
+
+public class OffHeapPriorityQueueTest {
+
+    // Element nie ma danych poza kluczem
+    private static final OffHeapPriorityQueue.Codec<IntElement> CODEC = new OffHeapPriorityQueue.Codec<IntElement>() {
+        @Override
+        public long encode(IntElement element) {
+            return 0;
+        }
+
+        @Override
+        public IntElement decode(int key, long payload) {
+            return new IntElement(key);
+        }
+    };
+
+    private static final OffHeapPriorityQueue.Codec<WeightedGraph.DijkstraNode> NODE_CODEC =
+            new OffHeapPriorityQueue.Codec<WeightedGraph.DijkstraNode>() {
+                @Override
+                public long encode(WeightedGraph.DijkstraNode node) {
+                    return node.getVertex();
+                }
+
+                @Override
+                public WeightedGraph.DijkstraNode decode(int key, long payload) {
+                    return new WeightedGraph.DijkstraNode((int) payload, key);
+                }
+            };
+
+    @Test
+    @DisplayName("Losowe operacje z remove zgodne z java.util.PriorityQueue przy wzroście fragmentami")
+    void testRandomOperations() {
+        // Małe fragmenty - wielokrotny wzrost kopca i tablicy uchwytów
+        try (OffHeapPriorityQueue<IntElement> pq = new OffHeapPriorityQueue<>(CODEC, 16)) {
+            Random random = new Random(42);
+            java.util.PriorityQueue<Integer> reference = new java.util.PriorityQueue<>();
+            List<Position<IntElement>> positions = new ArrayList<>();
+
+            for (int step = 0; step < 20_000; step++) {
+                int operation = random.nextInt(6);
+                if (operation <= 1 || positions.isEmpty()) {
+                    int value = random.nextInt(PriorityQueue.N + 1);
+                    positions.add(pq.insert(new IntElement(value)));
+                    reference.add(value);
+                } else if (operation == 2) {
+                    int index = random.nextInt(positions.size());
+                    Position<IntElement> pos = positions.get(index);
+                    int oldValue = pos.getElement().wartość();
+                    if (oldValue > 0) {
+                        int newValue = random.nextInt(oldValue);
+                        positions.set(index, pq.decreaseKey(pos, new IntElement(newValue)));
+                        assertFalse(pos.isValid());
+                        reference.remove(oldValue);
+                        reference.add(newValue);
+                    }
+                } else if (operation == 3) {
+                    Position<IntElement> pos = positions.remove(random.nextInt(positions.size()));
+                    int value = pos.getElement().wartość();
+                    assertEquals(new IntElement(value), pq.remove(pos));
+                    assertFalse(pos.isValid());
+                    reference.remove(value);
+                } else {
+                    assertEquals(new IntElement(reference.poll()), pq.extractMin());
+                    positions.removeIf(pos -> !pos.isValid());
+                }
+                assertEquals(reference.size(), pq.size());
+                assertEquals(reference.size(), positions.size());
+            }
+            assertTrue(pq.getReservedBytes() > 0);
+        }
+    }
+
+    @Test
+    @DisplayName("Dane elementu przechowywane poza stertą i porządek równych kluczy")
+    void testPayload() {
+        try (OffHeapPriorityQueue<WeightedGraph.DijkstraNode> pq = new OffHeapPriorityQueue<>(NODE_CODEC)) {
+            pq.insert(new WeightedGraph.DijkstraNode(7, 30));
+            pq.insert(new WeightedGraph.DijkstraNode(9, 10));
+            Position<WeightedGraph.DijkstraNode> pos = pq.insert(new WeightedGraph.DijkstraNode(3, 50));
+            pq.insert(new WeightedGraph.DijkstraNode(2, 10));
+
+            pos = pq.decreaseKey(pos, new WeightedGraph.DijkstraNode(3, 10));
+            assertEquals(3, pos.getElement().getVertex());
+
+            // Równe klucze według danych (numeru wierzchołka)
+            assertEquals(2, pq.extractMin().getVertex());
+            assertEquals(3, pq.extractMin().getVertex());
+            assertEquals(9, pq.extractMin().getVertex());
+            assertEquals(30, pq.findMin().getDistance());
+        }
+    }
+
+    @Test
+    @DisplayName("buildHeap i merge")
+    void testBuildHeapAndMerge() {
+        IntElement[] elements = TestUtils.createIntElements(9, 4, 7, 1, 8, 2, 2, 6);
+        try (OffHeapPriorityQueue<IntElement> built = OffHeapPriorityQueue.buildHeap(elements, CODEC);
+                OffHeapPriorityQueue<IntElement> other = new OffHeapPriorityQueue<>(CODEC)) {
+            other.insert(new IntElement(5));
+            other.insert(new IntElement(0));
+
+            PriorityQueue<IntElement> merged = built.merge(other);
+            int[] drained = new int[merged.size()];
+            for (int i = 0; i < drained.length; i++) {
+                drained[i] = merged.extractMin().wartość();
+            }
+            assertArrayEquals(new int[] { 0, 1, 2, 2, 4, 5, 6, 7, 8, 9 }, drained);
+            assertEquals(8, built.size());
+            ((OffHeapPriorityQueue<IntElement>) merged).close();
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> OffHeapPriorityQueue.buildHeap(
+                TestUtils.createIntElements(1, PriorityQueue.N + 1), CODEC));
+    }
+
+    @Test
+    @DisplayName("close zwalnia pamięć i unieważnia pozycje")
+    void testClose() {
+        OffHeapPriorityQueue<IntElement> pq = new OffHeapPriorityQueue<>(CODEC, 4);
+        Position<IntElement> pos = pq.insert(new IntElement(5));
+        OffHeapPriorityQueue<IntElement> other = new OffHeapPriorityQueue<>(CODEC);
+        assertThrows(IllegalArgumentException.class, () -> other.decreaseKey(pos, new IntElement(1)));
+
+        pq.clear();
+        assertFalse(pos.isValid());
+        pq.insert(new IntElement(3)); // uchwyt użyty ponownie z nową generacją
+        assertFalse(pos.isValid());
+
+        pq.close();
+        pq.close();
+        assertTrue(pq.isClosed());
+        assertEquals(0, pq.getReservedBytes());
+        assertThrows(IllegalStateException.class, () -> pq.insert(new IntElement(1)));
+        assertThrows(IllegalStateException.class, pq::extractMin);
+        other.close();
+
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapPriorityQueue<>(CODEC, 6));
+    }
+}
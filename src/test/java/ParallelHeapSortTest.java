@@ -0,0 +1,67 @@
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+public class ParallelHeapSortTest {
+
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    @DisplayName("Wszystkie kolejki i zliczanie dają posortowaną permutację wejścia")
+    void testSortMatchesArraysSort() {
+        // Kilka fragmentów, żeby scalanie serii było rzeczywiście używane
+        int[] numbers = new Random(42).ints(50_000, 0, PriorityQueue.N + 1).toArray();
+        int[] expected = numbers.clone();
+        Arrays.sort(expected);
+
+        for (int type : new int[] { 1, 2, 3, PriorityQueueRegistry.AUTO, ParallelHeapSort.COUNTING }) {
+            int[] input = numbers.clone();
+            assertArrayEquals(expected, ParallelHeapSort.sort(input, type, pool));
+            assertArrayEquals(numbers, input); // wejście nie jest modyfikowane
+        }
+    }
+
+    @Test
+    @DisplayName("Powtórzone klucze, posortowane wejście i małe tablice")
+    void testEdgeCases() {
+        int[] fewDistinct = new Random(7).ints(40_000, 0, 3).toArray();
+        int[] expected = fewDistinct.clone();
+        Arrays.sort(expected);
+        assertArrayEquals(expected, ParallelHeapSort.sort(fewDistinct, 3, pool));
+        assertArrayEquals(expected, ParallelHeapSort.sort(fewDistinct, ParallelHeapSort.COUNTING, pool));
+
+        int[] reversed = new int[30_000];
+        for (int i = 0; i < reversed.length; i++) {
+            reversed[i] = PriorityQueue.N - i % (PriorityQueue.N + 1);
+        }
+        assertTrue(Main.isSorted(ParallelHeapSort.sort(reversed, 2, pool)));
+
+        assertArrayEquals(new int[0], ParallelHeapSort.sort(new int[0], 3, pool));
+        assertArrayEquals(new int[] { 1, 2, 5 }, ParallelHeapSort.sort(new int[] { 5, 1, 2 }, 2));
+        assertArrayEquals(Main.heapSort(new int[] { 9, 0, 9, 4 }, 1),
+                ParallelHeapSort.sort(new int[] { 9, 0, 9, 4 }, ParallelHeapSort.COUNTING));
+    }
+
+    @Test
+    @DisplayName("Liczby spoza zakresu i nieznany typ kolejki")
+    void testInvalidInput() {
+        int[] numbers = new int[20_000];
+        numbers[15_000] = PriorityQueue.N + 1;
+
+        assertThrows(IllegalArgumentException.class, () -> ParallelHeapSort.sort(numbers, 3, pool));
+        assertThrows(IllegalArgumentException.class,
+                () -> ParallelHeapSort.sort(numbers, ParallelHeapSort.COUNTING, pool));
+        assertThrows(IllegalArgumentException.class, () -> ParallelHeapSort.sort(new int[] { 1 }, 7, pool));
+    }
+}
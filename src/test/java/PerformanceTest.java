@@ -1,6 +1,12 @@
 import org.junit.jupiter.api.*;
 import static org.junit.jupiter.api.Assertions.*;
 import java.util.*;
+import java.util.concurrent.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.io.TempDir;
 
 public class PerformanceTest {
 
@@ -8,6 +14,9 @@ public class PerformanceTest {
     private static final int MEDIUM_DATASET = 1000;
     private static final int LARGE_DATASET = 5000;
 
+    @TempDir
+    Path directory;
+
     @Test
     @DisplayName("Benchmark czasu insert dla różnych implementacji")
     void benchmarkInsertPerformance() {
@@ -60,35 +69,525 @@ public class PerformanceTest {
     @Test
     @DisplayName("Test BucketQueue z koncentracją w kilku kubełkach")
     void testBucketQueueConcentration() {
-        BucketPriorityQueue<IntElement> bucket = new BucketPriorityQueue<>();
-
         // Skoncentruj wszystkie elementy w kilku kubełkach
         Random random = new Random(42);
         List<IntElement> elements = new ArrayList<>();
-        for (int i = 0; i < MEDIUM_DATASET; i++) {
+        for (int i = 0; i < LARGE_DATASET; i++) {
             int value = random.nextInt(10); // Tylko wartości 0-9
             elements.add(new IntElement(value));
         }
 
+        // COMPARE przegląda cały kubełek przy każdym extractMin, FIFO nie
+        for (BucketPriorityQueue.TieBreak tieBreak : BucketPriorityQueue.TieBreak.values()) {
+            BucketPriorityQueue<IntElement> bucket = new BucketPriorityQueue<>(tieBreak);
+            for (IntElement element : elements) {
+                bucket.insert(element);
+            }
+
+            // Test extractMin - powinien działać efektywnie nawet z koncentracją
+            long startTime = System.nanoTime();
+            List<Integer> extracted = new ArrayList<>();
+            while (!bucket.isEmpty()) {
+                extracted.add(bucket.extractMin().wartość());
+            }
+            long endTime = System.nanoTime();
+
+            double duration = (endTime - startTime) / 1_000_000.0;
+            System.out.printf("BucketQueue (%s) concentrated extraction: %.2f ms%n", tieBreak, duration);
+
+            // Sprawdź czy nadal posortowane
+            for (int i = 1; i < extracted.size(); i++) {
+                assertTrue(extracted.get(i) >= extracted.get(i - 1));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Silnik wsadowy a naiwna pętla dijkstra")
+    void benchmarkBatchEngineVsNaiveLoop() throws InterruptedException {
+        WeightedGraph graph = TestUtils.createRandomGraph(WeightedGraph.M, 10 * WeightedGraph.M, 10, 42);
+        int[] sources = new Random(42).ints(SMALL_DATASET, 0, WeightedGraph.M).toArray();
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int type = 1; type <= 3; type++) {
+                BatchShortestPathEngine engine = new BatchShortestPathEngine(graph.snapshot(), type, executor);
+
+                // Rozgrzewka JIT
+                BatchShortestPathEngine.runNaive(graph, Arrays.copyOf(sources, 50), type);
+                engine.run(Arrays.copyOf(sources, 50));
+
+                BatchShortestPathEngine.BatchResult naive = BatchShortestPathEngine.runNaive(graph, sources, type);
+                BatchShortestPathEngine.BatchResult batch = engine.run(sources);
+
+                System.out.printf("Queue %d naive loop: %s%n", type, naive);
+                System.out.printf("Queue %d batch engine (%d threads): %s%n", type, threads, batch);
+
+                assertEquals(naive.getResults().get(0).getAllDistances(), batch.getResults().get(0).getAllDistances());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Dijkstra: leniwe wstawianie a decreaseKey dla każdej implementacji")
+    void benchmarkDijkstraModes() {
+        // Gęsty graf z małymi wagami: dużo udanych relaksacji, odległości mieszczą się w [0, N]
+        WeightedGraph graph = GraphGenerator.erdosRenyi(WeightedGraph.M, 20L * WeightedGraph.M, 50, 42);
+        int[] sources = new Random(42).ints(20, 0, WeightedGraph.M).toArray();
+
+        for (int type = 1; type <= 3; type++) {
+            long lazy = Long.MAX_VALUE;
+            long decreaseKey = Long.MAX_VALUE;
+            int lazyPeak = 0;
+            int decreaseKeyPeak = 0;
+            // Najlepszy z kilku przebiegów, tryby na przemian
+            for (int run = 0; run < 5; run++) {
+                long start = System.nanoTime();
+                for (int source : sources) {
+                    lazyPeak = Math.max(lazyPeak, graph.dijkstra(source, type, WeightedGraph.DijkstraMode.LAZY)
+                            .getSearchStats().getPeakQueueSize());
+                }
+                lazy = Math.min(lazy, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                for (int source : sources) {
+                    decreaseKeyPeak = Math.max(decreaseKeyPeak, graph
+                            .dijkstra(source, type, WeightedGraph.DijkstraMode.DECREASE_KEY)
+                            .getSearchStats().getPeakQueueSize());
+                }
+                decreaseKey = Math.min(decreaseKey, System.nanoTime() - start);
+            }
+
+            System.out.printf("Queue %d lazy: %.3f ms (peak %d), decreaseKey: %.3f ms (peak %d), default: %s%n",
+                    type, lazy / 1e6, lazyPeak, decreaseKey / 1e6, decreaseKeyPeak, WeightedGraph.defaultMode(type));
+
+            assertTrue(decreaseKeyPeak <= WeightedGraph.M);
+        }
+    }
+
+    @Test
+    @DisplayName("Narzut InstrumentedPriorityQueue względem kolejki bez opakowania")
+    void benchmarkInstrumentationOverhead() {
+        List<IntElement> elements = TestUtils.createRandomElements(LARGE_DATASET, PriorityQueue.N);
+
+        for (String implName : Arrays.asList("BST", "Bucket")) {
+            long plain = Long.MAX_VALUE;
+            long instrumented = Long.MAX_VALUE;
+            // Najlepszy z wielu przebiegów na przemian - pojedynczy przebieg trwa
+            // ułamek milisekundy, a pierwsze dziesiątki przebiegów to rozgrzewka JIT
+            for (int run = 0; run < 300; run++) {
+                PriorityQueue<IntElement> pq = implName.equals("BST") ? new BSTPriorityQueue<>()
+                        : new BucketPriorityQueue<>();
+                plain = Math.min(plain, insertAndDrain(pq, elements));
+
+                pq = implName.equals("BST") ? new BSTPriorityQueue<>() : new BucketPriorityQueue<>();
+                instrumented = Math.min(instrumented, insertAndDrain(new InstrumentedPriorityQueue<>(pq), elements));
+            }
+
+            System.out.printf("%s insert+extractMin (%d elements): %.3f ms, instrumented: %.3f ms (%+.1f%%)%n",
+                    implName, LARGE_DATASET, plain / 1e6, instrumented / 1e6, 100.0 * (instrumented - plain) / plain);
+        }
+    }
+
+    private static long insertAndDrain(PriorityQueue<IntElement> pq, List<IntElement> elements) {
+        long startTime = System.nanoTime();
         for (IntElement element : elements) {
-            bucket.insert(element);
+            pq.insert(element);
         }
+        while (!pq.isEmpty()) {
+            pq.extractMin();
+        }
+        return System.nanoTime() - startTime;
+    }
+
+    @Test
+    @DisplayName("ExternalPriorityQueue: objętość wejścia-wyjścia a budżet pamięci")
+    void benchmarkExternalQueueIo() {
+        OffHeapPriorityQueue.Codec<IntElement> codec = new OffHeapPriorityQueue.Codec<IntElement>() {
+            @Override
+            public long encode(IntElement element) {
+                return 0;
+            }
+
+            @Override
+            public IntElement decode(int key, long payload) {
+                return new IntElement(key);
+            }
+        };
+        // 200 000 rekordów po 12 bajtów, czyli ok. 2,4 MB danych
+        int[] values = new Random(42).ints(200_000, 0, PriorityQueue.N + 1).toArray();
+        int blockSize = 4096;
+
+        for (long budget : new long[] { 16 << 10, 64 << 10, 256 << 10, 1 << 20, 4 << 20 }) {
+            try (ExternalPriorityQueue<IntElement> pq = new ExternalPriorityQueue<>(codec, budget, blockSize,
+                    directory)) {
+                long startTime = System.nanoTime();
+                for (int value : values) {
+                    pq.insert(new IntElement(value));
+                }
+                int previous = -1;
+                while (!pq.isEmpty()) {
+                    int value = pq.extractMin().wartość();
+                    assertTrue(previous <= value);
+                    previous = value;
+                }
+                long elapsed = System.nanoTime() - startTime;
+
+                System.out.printf("Budget %5d KB: written %6.2f MB, read %6.2f MB, spills %3d, run merges %2d, %.1f ms%n",
+                        budget >> 10, pq.getBytesWritten() / 1e6, pq.getBytesRead() / 1e6, pq.getSpillCount(),
+                        pq.getRunMergeCount(), elapsed / 1e6);
+                assertEquals(pq.getBytesWritten(), pq.getBytesRead());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("DurablePriorityQueue: przepustowość dla każdej polityki utrwalania")
+    void benchmarkDurableQueuePolicies() throws IOException {
+        OffHeapPriorityQueue.Codec<IntElement> codec = new OffHeapPriorityQueue.Codec<IntElement>() {
+            @Override
+            public long encode(IntElement element) {
+                return 0;
+            }
+
+            @Override
+            public IntElement decode(int key, long payload) {
+                return new IntElement(key);
+            }
+        };
+        List<IntElement> elements = TestUtils.createRandomElements(LARGE_DATASET, PriorityQueue.N);
+
+        for (DurablePriorityQueue.SyncPolicy policy : DurablePriorityQueue.SyncPolicy.values()) {
+            Path policyDirectory = directory.resolve(policy.name());
+            long elapsed;
+            long syncs;
+            try (DurablePriorityQueue<IntElement> pq = new DurablePriorityQueue<>(policyDirectory,
+                    BucketPriorityQueue::buildHeap, IntElement[]::new, codec, policy,
+                    DurablePriorityQueue.DEFAULT_GROUP_SIZE, LARGE_DATASET)) {
+                elapsed = insertAndDrain(pq, elements);
+                syncs = pq.getSyncCount();
+            }
+
+            long recoveryStart = System.nanoTime();
+            try (DurablePriorityQueue<IntElement> pq = new DurablePriorityQueue<>(policyDirectory,
+                    BucketPriorityQueue::buildHeap, IntElement[]::new, codec)) {
+                assertTrue(pq.isEmpty());
+            }
+            long recovery = System.nanoTime() - recoveryStart;
+
+            System.out.printf("%-6s: %9.0f ops/s, %5d fsyncs, recovery %.2f ms%n", policy,
+                    2.0 * LARGE_DATASET / (elapsed / 1e9), syncs, recovery / 1e6);
+        }
+    }
+
+    @Test
+    @DisplayName("Rozgałęzianie frontu: migawki SnapshotPriorityQueue a kopiowanie kolejek")
+    void benchmarkForkHeavyWorkload() {
+        List<IntElement> initial = TestUtils.createRandomElements(LARGE_DATASET, PriorityQueue.N);
+
+        // BST nie jest porównywane - merge wstawia elementy posortowane, więc
+        // każda kopia to zdegenerowane drzewo i O(n²)
+        for (String implName : Arrays.asList("Snapshot", "Bucket")) {
+            long best = Long.MAX_VALUE;
+            long checksum = 0;
+            for (int run = 0; run < 3; run++) {
+                PriorityQueue<IntElement> pq = implName.equals("Snapshot") ? new SnapshotPriorityQueue<>()
+                        : new BucketPriorityQueue<>();
+                for (IntElement element : initial) {
+                    pq.insert(element);
+                }
+                long startTime = System.nanoTime();
+                checksum = branch(pq, 10, new Random(42));
+                best = Math.min(best, System.nanoTime() - startTime);
+            }
+            System.out.printf("%s fork-heavy search (%d elements, 2047 nodes): %.3f ms, checksum %d%n",
+                    implName, LARGE_DATASET, best / 1e6, checksum);
+        }
+    }
+
+    // Przeszukiwanie drzewa binarnego o danej głębokości; każdy węzeł
+    // rozgałęzia front (migawka albo kopia przez merge) i wykonuje kilka
+    // operacji na każdej gałęzi
+    private static long branch(PriorityQueue<IntElement> frontier, int depth, Random random) {
+        long checksum = 0;
+        for (int step = 0; step < 3; step++) {
+            IntElement min = frontier.extractMin();
+            checksum += min.wartość();
+            frontier.insert(new IntElement(Math.min(PriorityQueue.N, min.wartość() + random.nextInt(50))));
+        }
+        if (depth == 0) {
+            return checksum;
+        }
+        PriorityQueue<IntElement> fork = frontier instanceof SnapshotPriorityQueue
+                ? ((SnapshotPriorityQueue<IntElement>) frontier).snapshot()
+                : frontier.merge(new BucketPriorityQueue<>());
+        return checksum + branch(frontier, depth - 1, random) + branch(fork, depth - 1, random);
+    }
+
+    @Test
+    @DisplayName("TimerWheel a DelayQueue: planowanie, anulowanie i wygaszanie takt po takcie")
+    void benchmarkTimerWheelVsDelayQueue() {
+        int timers = 200 * LARGE_DATASET;
+        int horizon = 1_000_000;
+        Random random = new Random(42);
+        long[] deadlines = new long[timers];
+        for (int i = 0; i < timers; i++) {
+            deadlines[i] = random.nextInt(horizon);
+        }
+        // 1% zegarów jest anulowanych (DelayQueue.remove to O(n))
+        int cancelled = timers / 100;
+
+        long[] wheelTimes = new long[4];
+        wheelTimes[0] = System.nanoTime();
+        TimerWheel<Integer> wheel = new TimerWheel<>();
+        List<PriorityQueue.Position<Integer>> handles = new ArrayList<>(timers);
+        for (int i = 0; i < timers; i++) {
+            handles.add(wheel.schedule(deadlines[i], i));
+        }
+        wheelTimes[1] = System.nanoTime();
+        for (int i = 0; i < cancelled; i++) {
+            wheel.cancel(handles.get(i));
+        }
+        wheelTimes[2] = System.nanoTime();
+        long wheelFired = 0;
+        for (int tick = 0; tick < horizon; tick++) {
+            wheelFired += wheel.advanceTo(tick).size();
+        }
+        wheelTimes[3] = System.nanoTime();
+
+        // Wirtualny zegar - getDelay liczy takty względem clock[0]
+        long[] clock = new long[1];
+        long[] delayTimes = new long[4];
+        delayTimes[0] = System.nanoTime();
+        DelayQueue<VirtualTimer> delayQueue = new DelayQueue<>();
+        List<VirtualTimer> entries = new ArrayList<>(timers);
+        for (int i = 0; i < timers; i++) {
+            VirtualTimer timer = new VirtualTimer(deadlines[i], clock);
+            entries.add(timer);
+            delayQueue.add(timer);
+        }
+        delayTimes[1] = System.nanoTime();
+        for (int i = 0; i < cancelled; i++) {
+            delayQueue.remove(entries.get(i));
+        }
+        delayTimes[2] = System.nanoTime();
+        long delayFired = 0;
+        for (int tick = 0; tick < horizon; tick++) {
+            clock[0] = tick;
+            while (delayQueue.poll() != null) {
+                delayFired++;
+            }
+        }
+        delayTimes[3] = System.nanoTime();
+
+        assertEquals(timers - cancelled, wheelFired);
+        assertEquals(wheelFired, delayFired);
+        System.out.printf("%d timers, %d cancelled, %d ticks (schedule / cancel / advance)%n", timers, cancelled,
+                horizon);
+        System.out.printf("TimerWheel: %7.1f / %7.1f / %7.1f ms, %d cascades%n", (wheelTimes[1] - wheelTimes[0]) / 1e6,
+                (wheelTimes[2] - wheelTimes[1]) / 1e6, (wheelTimes[3] - wheelTimes[2]) / 1e6,
+                wheel.getCascadeCount());
+        System.out.printf("DelayQueue: %7.1f / %7.1f / %7.1f ms%n", (delayTimes[1] - delayTimes[0]) / 1e6,
+                (delayTimes[2] - delayTimes[1]) / 1e6, (delayTimes[3] - delayTimes[2]) / 1e6);
+    }
+
+    private static final class VirtualTimer implements Delayed {
+        private final long deadline;
+        private final long[] clock;
+
+        VirtualTimer(long deadline, long[] clock) {
+            this.deadline = deadline;
+            this.clock = clock;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadline - clock[0], TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(deadline, ((VirtualTimer) other).deadline);
+        }
+    }
+
+    @Test
+    @DisplayName("Flat combining a ReentrantLock: skalowanie z liczbą wątków")
+    void benchmarkFlatCombiningScaling() throws Exception {
+        int operationsPerThread = 20 * LARGE_DATASET;
+        for (String implName : Arrays.asList("Bucket", "BST")) {
+            for (int threads : new int[] { 1, 2, 4, 8 }) {
+                for (String wrapperName : Arrays.asList("Locked", "FlatCombining")) {
+                    PriorityQueue<IntElement> backend = implName.equals("Bucket") ? new BucketPriorityQueue<>()
+                            : new BSTPriorityQueue<>();
+                    PriorityQueue<IntElement> pq = wrapperName.equals("Locked") ? new LockedPriorityQueue<>(backend)
+                            : new FlatCombiningPriorityQueue<>(backend);
+                    for (IntElement element : TestUtils.createRandomElements(LARGE_DATASET, PriorityQueue.N)) {
+                        pq.insert(element);
+                    }
+                    long elapsed = runConcurrently(pq, threads, operationsPerThread);
+                    String batches = "";
+                    if (pq instanceof FlatCombiningPriorityQueue) {
+                        FlatCombiningPriorityQueue<IntElement> combining = (FlatCombiningPriorityQueue<IntElement>) pq;
+                        batches = String.format(", %.2f requests/batch, %d eliminated",
+                                (double) combining.getCombinedRequests() / combining.getBatchCount(),
+                                combining.getEliminatedPairs());
+                    }
+                    System.out.printf("%-6s %-13s %d threads: %10.0f ops/s%s%n", implName, wrapperName, threads,
+                            (double) threads * operationsPerThread / (elapsed / 1e9), batches);
+                }
+            }
+        }
+    }
+
+    // Każdy wątek na przemian wstawia element i wyjmuje minimum; zwraca czas
+    // od wspólnego startu do zakończenia ostatniego wątku
+    private static long runConcurrently(PriorityQueue<IntElement> pq, int threads, int operationsPerThread)
+            throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch ready = new CountDownLatch(threads);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> workers = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                long seed = thread;
+                workers.add(executor.submit(() -> {
+                    Random random = new Random(seed);
+                    ready.countDown();
+                    start.await();
+                    for (int i = 0; i < operationsPerThread / 2; i++) {
+                        pq.insert(new IntElement(random.nextInt(PriorityQueue.N + 1)));
+                        pq.extractMin();
+                    }
+                    return null;
+                }));
+            }
+            ready.await();
+            long startTime = System.nanoTime();
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            return System.nanoTime() - startTime;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Scalanie k ciągów: drzewo przegranych a kolejka priorytetowa")
+    void benchmarkKWayMerge() {
+        int k = 256;
+        Random random = new Random(42);
+        int[][] runs = new int[k][];
+        for (int run = 0; run < k; run++) {
+            runs[run] = random.ints(LARGE_DATASET / 2, 0, PriorityQueue.N + 1).sorted().toArray();
+        }
+        int total = k * (LARGE_DATASET / 2);
 
-        // Test extractMin - powinien działać efektywnie nawet z koncentracją
         long startTime = System.nanoTime();
-        List<Integer> extracted = new ArrayList<>();
-        while (!bucket.isEmpty()) {
-            extracted.add(bucket.extractMin().wartość());
+        IntLoserTree tree = IntLoserTree.of(runs);
+        int[] merged = new int[total];
+        tree.read(merged, 0, total);
+        long treeTime = System.nanoTime() - startTime;
+
+        // Kolejka bieżących elementów ciągów: wierzchołek = numer ciągu
+        startTime = System.nanoTime();
+        InstrumentedPriorityQueue<WeightedGraph.DijkstraNode> pq = new InstrumentedPriorityQueue<>(
+                new BSTPriorityQueue<WeightedGraph.DijkstraNode>());
+        int[] next = new int[k];
+        for (int run = 0; run < k; run++) {
+            pq.insert(new WeightedGraph.DijkstraNode(run, runs[run][next[run]++]));
         }
-        long endTime = System.nanoTime();
+        int[] viaQueue = new int[total];
+        for (int i = 0; i < total; i++) {
+            WeightedGraph.DijkstraNode min = pq.extractMin();
+            viaQueue[i] = min.getDistance();
+            int run = min.getVertex();
+            if (next[run] < runs[run].length) {
+                pq.insert(new WeightedGraph.DijkstraNode(run, runs[run][next[run]++]));
+            }
+        }
+        long queueTime = System.nanoTime() - startTime;
 
-        double duration = (endTime - startTime) / 1_000_000.0;
-        System.out.printf("BucketQueue concentrated extraction: %.2f ms%n", duration);
+        assertArrayEquals(merged, viaQueue);
+        System.out.printf("Loser tree  (k=%d, %d elements): %7.2f ms, %.2f comparisons/element%n", k, total,
+                treeTime / 1e6, (double) tree.getComparisons() / total);
+        System.out.printf("BST queue   (k=%d, %d elements): %7.2f ms, %.2f comparisons/element%n", k, total,
+                queueTime / 1e6, (double) pq.getComparisons() / total);
+    }
+
+    @Test
+    @DisplayName("Sortowanie zewnętrzne: wybór z zastępowaniem a zliczanie")
+    void benchmarkExternalSort() throws IOException {
+        int count = 4_000_000;
+        Random random = new Random(42);
+        ByteBuffer buffer = ByteBuffer.allocate(count * Integer.BYTES);
+        for (int i = 0; i < count; i++) {
+            buffer.putInt(random.nextInt(PriorityQueue.N + 1));
+        }
+        Path input = Files.write(directory.resolve("input.bin"), buffer.array());
+        Path output = directory.resolve("output.bin");
+
+        for (ExternalSort.Method method : ExternalSort.Method.values()) {
+            ExternalSort sorter = new ExternalSort(PriorityQueueRegistry.AUTO, 100_000, 8,
+                    ExternalSort.DEFAULT_BLOCK_SIZE, directory);
+            ExternalSort.Result result = sorter.sort(input, output, method);
+            assertEquals(count, result.getElements());
+            System.out.printf("%-21s (%d MB): %7.2f s, %6.1f MB/s, %d runs (avg %.0f), %d merge passes%n",
+                    method, result.getBytes() >> 20, result.getSeconds(), result.getMegabytesPerSecond(),
+                    result.getRuns(), result.getAverageRunLength(), result.getMergePasses());
+        }
+    }
 
-        // Sprawdź czy nadal posortowane
-        for (int i = 1; i < extracted.size(); i++) {
-            assertTrue(extracted.get(i) >= extracted.get(i - 1));
+    @Test
+    @DisplayName("Drzewo van Emde Boasa: klucze z [0, N] i rzadkie klucze z [0, 2^31)")
+    void benchmarkVanEmdeBoas() {
+        int count = 200 * LARGE_DATASET;
+        Random random = new Random(42);
+        int[] dense = random.ints(count, 0, PriorityQueue.N + 1).toArray();
+        int[] sparse = random.ints(count, 0, Integer.MAX_VALUE).toArray();
+
+        Map<String, PriorityQueue<IntElement>> denseQueues = new LinkedHashMap<>();
+        denseQueues.put("Bucket", new BucketPriorityQueue<>());
+        denseQueues.put("Bucket FIFO", new BucketPriorityQueue<>(BucketPriorityQueue.TieBreak.FIFO));
+        denseQueues.put("VanEmdeBoas", new VanEmdeBoasPriorityQueue<>());
+        for (Map.Entry<String, PriorityQueue<IntElement>> entry : denseQueues.entrySet()) {
+            long time = fillAndDrain(entry.getValue(), dense);
+            System.out.printf("%-12s keys [0, N]:      %7.2f ms%n", entry.getKey(), time / 1e6);
+        }
+
+        // Kubełki nie obsługują takiego uniwersum - porównanie z kolejką porównującą
+        long vebTime = fillAndDrain(new VanEmdeBoasPriorityQueue<>(Integer.MAX_VALUE), sparse);
+        java.util.PriorityQueue<Integer> heap = new java.util.PriorityQueue<>();
+        long startTime = System.nanoTime();
+        for (int key : sparse) {
+            heap.add(key);
+        }
+        while (!heap.isEmpty()) {
+            heap.poll();
+        }
+        long heapTime = System.nanoTime() - startTime;
+        System.out.printf("%-12s keys [0, 2^31):   %7.2f ms%n", "VanEmdeBoas", vebTime / 1e6);
+        System.out.printf("%-12s keys [0, 2^31):   %7.2f ms%n", "binary heap", heapTime / 1e6);
+    }
+
+    // Czas wstawienia wszystkich kluczy i wyjęcia ich w kolejności rosnącej
+    private static long fillAndDrain(PriorityQueue<IntElement> pq, int[] keys) {
+        long startTime = System.nanoTime();
+        for (int key : keys) {
+            pq.insert(new IntElement(key));
+        }
+        int previous = -1;
+        while (!pq.isEmpty()) {
+            int key = pq.extractMin().wartość();
+            assertTrue(key >= previous);
+            previous = key;
         }
+        return System.nanoTime() - startTime;
     }
 
     @Test
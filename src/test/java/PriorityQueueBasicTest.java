@@ -13,7 +13,10 @@ public class PriorityQueueBasicTest {
         implementations = Arrays.asList(
             new SortedStackPriorityQueue<>(),
             new BSTPriorityQueue<>(),
-            new BucketPriorityQueue<>()
+            new BucketPriorityQueue<>(),
+            new BucketPriorityQueue<>(BucketPriorityQueue.TieBreak.FIFO),
+            new BucketPriorityQueue<>(Comparator.<IntElement>naturalOrder()),
+            new VanEmdeBoasPriorityQueue<>()
         );
     }
     
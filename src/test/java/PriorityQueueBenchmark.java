@@ -0,0 +1,329 @@
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Mikrobenchmarki wszystkich operacji kolejek priorytetowych
+ * Uruchamiane przez BenchmarkHarness (profil Maven "benchmark"):
+ * mvn -Pbenchmark verify -Dbenchmark.args="-p size=1000 --forks 1"
+ *
+ * Parametry:
+ * - benchmark: insert, findMin, extractMin, decreaseKey, merge, buildHeap,
+ * heapSort (Main.heapSort, jeden wątek), parallelSort (ParallelHeapSort na
+ * ForkJoinPool.commonPool(); liczbę wątków ustawia
+ * -Djava.util.concurrent.ForkJoinPool.common.parallelism)
+ * - backend: SortedStack, BST, Bucket, VanEmdeBoas, Counting (tylko
+ * parallelSort)
+ * - size: 10^2 - 10^7 elementów
+ * - distribution: UNIFORM, SORTED, REVERSE, FEW_DISTINCT, ZIPF (klucze z [0, N])
+ *
+ * Przypadki, których koszt jest kwadratowy (SortedStack powyżej 10^5
+ * elementów, BST z posortowanymi kluczami powyżej 10^4 - zdegenerowane drzewo
+ * i rekurencja przepełniająca stos), są pomijane.
+ */
+public class PriorityQueueBenchmark implements BenchmarkHarness.Suite {
+
+    private static final int N = PriorityQueue.N;
+    // Liczba wywołań findMin na jedno wywołanie benchmarku
+    private static final int FIND_MIN_CALLS = 1000;
+
+    private static final Map<String, Main.IntElement[]> KEYS = new HashMap<>();
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkHarness.run(new PriorityQueueBenchmark(), args);
+    }
+
+    @Override
+    public Map<String, List<String>> defaultParameters() {
+        Map<String, List<String>> parameters = new LinkedHashMap<>();
+        parameters.put("benchmark", Arrays.asList("insert", "findMin", "extractMin", "decreaseKey", "merge",
+                "buildHeap", "heapSort", "parallelSort"));
+        parameters.put("backend", Arrays.asList("SortedStack", "BST", "Bucket", "VanEmdeBoas", "Counting"));
+        parameters.put("size", Arrays.asList("100", "1000", "10000", "100000", "1000000", "10000000"));
+        parameters.put("distribution", Arrays.asList("UNIFORM", "SORTED", "REVERSE", "FEW_DISTINCT", "ZIPF"));
+        return parameters;
+    }
+
+    @Override
+    public List<BenchmarkHarness.Case> cases(Map<String, List<String>> parameters) {
+        List<BenchmarkHarness.Case> cases = new ArrayList<>();
+        for (String benchmark : parameters.get("benchmark")) {
+            for (String backend : parameters.get("backend")) {
+                for (String size : parameters.get("size")) {
+                    for (String distribution : parameters.get("distribution")) {
+                        int n = Integer.parseInt(size);
+                        if (isQuadratic(backend, n, distribution)
+                                || backend.equals("Counting") && !benchmark.equals("parallelSort")) {
+                            continue;
+                        }
+                        Map<String, String> values = new LinkedHashMap<>();
+                        values.put("backend", backend);
+                        values.put("size", size);
+                        values.put("distribution", distribution);
+                        cases.add(new BenchmarkHarness.Case(benchmark, values,
+                                workload(benchmark, backend, n, distribution)));
+                    }
+                }
+            }
+        }
+        return cases;
+    }
+
+    private static boolean isQuadratic(String backend, int size, String distribution) {
+        switch (backend) {
+            case "SortedStack":
+                return size > 100_000;
+            case "BST":
+                return size > 10_000 && (distribution.equals("SORTED") || distribution.equals("REVERSE"));
+            default:
+                return false;
+        }
+    }
+
+    private static Supplier<BenchmarkHarness.Workload> workload(String benchmark, String backend, int size,
+            String distribution) {
+        switch (benchmark) {
+            case "insert":
+                return () -> new QueueWorkload(backend, size, distribution) {
+                    @Override
+                    public void setup() {
+                        queue = newQueue(backend);
+                    }
+
+                    @Override
+                    public long run(BenchmarkHarness.Blackhole blackhole) {
+                        for (Main.IntElement key : keys) {
+                            blackhole.consume(queue.insert(key));
+                        }
+                        return keys.length;
+                    }
+                };
+            case "findMin":
+                return () -> new QueueWorkload(backend, size, distribution) {
+                    @Override
+                    public void setup() {
+                        // findMin nie zmienia kolejki, więc wystarczy ją wypełnić raz
+                        if (queue == null) {
+                            super.setup();
+                        }
+                    }
+
+                    @Override
+                    public long run(BenchmarkHarness.Blackhole blackhole) {
+                        for (int i = 0; i < FIND_MIN_CALLS; i++) {
+                            blackhole.consume(queue.findMin());
+                        }
+                        return FIND_MIN_CALLS;
+                    }
+                };
+            case "extractMin":
+                return () -> new QueueWorkload(backend, size, distribution) {
+                    @Override
+                    public long run(BenchmarkHarness.Blackhole blackhole) {
+                        for (int i = 0; i < keys.length; i++) {
+                            blackhole.consume(queue.extractMin());
+                        }
+                        return keys.length;
+                    }
+                };
+            case "decreaseKey":
+                return () -> new DecreaseKeyWorkload(backend, size, distribution);
+            case "merge":
+                return () -> new QueueWorkload(backend, size, distribution) {
+                    private PriorityQueue<Main.IntElement> other;
+
+                    @Override
+                    public void setup() {
+                        queue = newQueue(backend);
+                        other = newQueue(backend);
+                        for (int i = 0; i < keys.length; i++) {
+                            (i % 2 == 0 ? queue : other).insert(keys[i]);
+                        }
+                    }
+
+                    @Override
+                    public long run(BenchmarkHarness.Blackhole blackhole) {
+                        queue.merge(other);
+                        blackhole.consume(queue.size());
+                        return keys.length;
+                    }
+                };
+            case "buildHeap":
+                return () -> new QueueWorkload(backend, size, distribution) {
+                    @Override
+                    public void setup() {
+                    }
+
+                    @Override
+                    public long run(BenchmarkHarness.Blackhole blackhole) {
+                        blackhole.consume(buildHeap(backend, keys));
+                        return keys.length;
+                    }
+                };
+            case "heapSort":
+            case "parallelSort":
+                return () -> new QueueWorkload(backend, size, distribution) {
+                    private final int[] numbers = Arrays.stream(keys).mapToInt(Main.IntElement::getValue).toArray();
+
+                    @Override
+                    public void setup() {
+                    }
+
+                    @Override
+                    public long run(BenchmarkHarness.Blackhole blackhole) {
+                        blackhole.consume(benchmark.equals("heapSort")
+                                ? Main.heapSort(numbers, PriorityQueueRegistry.parseType(backend))
+                                : ParallelHeapSort.sort(numbers, backend.equals("Counting")
+                                        ? ParallelHeapSort.COUNTING
+                                        : PriorityQueueRegistry.parseType(backend)));
+                        return numbers.length;
+                    }
+                };
+            default:
+                throw new IllegalArgumentException("Nieznany benchmark: " + benchmark);
+        }
+    }
+
+    /**
+     * Wspólna część: klucze zależne od rozkładu i kolejka wypełniona w setup()
+     */
+    private abstract static class QueueWorkload implements BenchmarkHarness.Workload {
+        final String backend;
+        final Main.IntElement[] keys;
+        PriorityQueue<Main.IntElement> queue;
+
+        QueueWorkload(String backend, int size, String distribution) {
+            this.backend = backend;
+            this.keys = keys(size, distribution);
+        }
+
+        @Override
+        public void setup() {
+            queue = newQueue(backend);
+            for (Main.IntElement key : keys) {
+                queue.insert(key);
+            }
+        }
+    }
+
+    /**
+     * decreaseKey na co dziesiątym elemencie (losowa kolejność, nowy klucz
+     * losowany ściśle poniżej starego; elementy z kluczem 0 są pomijane)
+     */
+    private static final class DecreaseKeyWorkload extends QueueWorkload {
+        private final List<PriorityQueue.Position<Main.IntElement>> positions = new ArrayList<>();
+        private final List<Main.IntElement> decreased = new ArrayList<>();
+        private final Random random = new Random(42);
+
+        DecreaseKeyWorkload(String backend, int size, String distribution) {
+            super(backend, size, distribution);
+        }
+
+        @Override
+        public void setup() {
+            queue = newQueue(backend);
+            positions.clear();
+            decreased.clear();
+            for (Main.IntElement key : keys) {
+                PriorityQueue.Position<Main.IntElement> position = queue.insert(key);
+                if (key.wartość() > 0) {
+                    positions.add(position);
+                }
+            }
+            Collections.shuffle(positions, random);
+            // Nowe klucze losowane poza pomiarem
+            int operations = Math.min(positions.size(), Math.max(1, keys.length / 10));
+            positions.subList(operations, positions.size()).clear();
+            for (PriorityQueue.Position<Main.IntElement> position : positions) {
+                decreased.add(new Main.IntElement(random.nextInt(position.getElement().wartość())));
+            }
+        }
+
+        @Override
+        public long run(BenchmarkHarness.Blackhole blackhole) {
+            for (int i = 0; i < positions.size(); i++) {
+                blackhole.consume(queue.decreaseKey(positions.get(i), decreased.get(i)));
+            }
+            blackhole.consume(queue.size());
+            return positions.size();
+        }
+    }
+
+    private static PriorityQueue<Main.IntElement> newQueue(String backend) {
+        return PriorityQueueRegistry.get(backend).create();
+    }
+
+    private static PriorityQueue<Main.IntElement> buildHeap(String backend, Main.IntElement[] keys) {
+        switch (backend) {
+            case "SortedStack":
+                return SortedStackPriorityQueue.buildHeap(keys);
+            case "BST":
+                return BSTPriorityQueue.buildHeap(keys);
+            case "Bucket":
+                return BucketPriorityQueue.buildHeap(keys);
+            case "VanEmdeBoas":
+                return VanEmdeBoasPriorityQueue.buildHeap(keys);
+            default:
+                throw new IllegalArgumentException("Nieznana kolejka: " + backend);
+        }
+    }
+
+    /**
+     * Klucze z [0, N] o zadanym rozkładzie (stałe ziarno, wspólne dla wywołań)
+     */
+    static synchronized Main.IntElement[] keys(int size, String distribution) {
+        return KEYS.computeIfAbsent(size + "/" + distribution, key -> {
+            Random random = new Random(42);
+            int[] values = new int[size];
+            switch (distribution) {
+                case "UNIFORM":
+                    for (int i = 0; i < size; i++) {
+                        values[i] = random.nextInt(N + 1);
+                    }
+                    break;
+                case "SORTED":
+                    for (int i = 0; i < size; i++) {
+                        values[i] = (int) ((long) i * N / Math.max(1, size - 1));
+                    }
+                    break;
+                case "REVERSE":
+                    for (int i = 0; i < size; i++) {
+                        values[i] = N - (int) ((long) i * N / Math.max(1, size - 1));
+                    }
+                    break;
+                case "FEW_DISTINCT":
+                    for (int i = 0; i < size; i++) {
+                        values[i] = random.nextInt(8) * (N / 8);
+                    }
+                    break;
+                case "ZIPF":
+                    values = zipf(size, random);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Nieznany rozkład: " + distribution);
+            }
+
+            Main.IntElement[] elements = new Main.IntElement[size];
+            for (int i = 0; i < size; i++) {
+                elements[i] = new Main.IntElement(values[i]);
+            }
+            return elements;
+        });
+    }
+
+    // Rozkład Zipfa (s = 1) na kluczach [0, N]: klucz k ma wagę 1 / (k + 1)
+    private static int[] zipf(int size, Random random) {
+        double[] cumulative = new double[N + 1];
+        double sum = 0;
+        for (int k = 0; k <= N; k++) {
+            sum += 1.0 / (k + 1);
+            cumulative[k] = sum;
+        }
+
+        int[] values = new int[size];
+        for (int i = 0; i < size; i++) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+            values[i] = Math.min(N, index >= 0 ? index : -index - 1);
+        }
+        return values;
+    }
+}
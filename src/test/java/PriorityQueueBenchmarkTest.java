@@ -0,0 +1,35 @@
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.*;
+
+public class PriorityQueueBenchmarkTest {
+
+    @Test
+    @DisplayName("Każdy scenariusz benchmarku wykonuje się raz dla każdej kolejki")
+    void testEveryCaseRunsOnce() {
+        PriorityQueueBenchmark suite = new PriorityQueueBenchmark();
+        Map<String, List<String>> parameters = suite.defaultParameters();
+        // Mały rozmiar - sprawdzamy poprawność scenariuszy, nie czas
+        parameters.put("size", Collections.singletonList("100"));
+
+        List<BenchmarkHarness.Case> cases = suite.cases(parameters);
+        Set<String> covered = new HashSet<>();
+        BenchmarkHarness.Blackhole blackhole = new BenchmarkHarness.Blackhole();
+        for (BenchmarkHarness.Case benchmarkCase : cases) {
+            BenchmarkHarness.Workload workload = benchmarkCase.workload.get();
+            for (int call = 0; call < 2; call++) {
+                workload.setup();
+                long operations = workload.run(blackhole);
+                assertTrue(operations > 0, benchmarkCase.label());
+            }
+            covered.add(benchmarkCase.benchmark + "/" + benchmarkCase.parameters.get("backend"));
+        }
+        for (String benchmark : parameters.get("benchmark")) {
+            for (String backend : parameters.get("backend")) {
+                if (!backend.equals("Counting") || benchmark.equals("parallelSort")) {
+                    assertTrue(covered.contains(benchmark + "/" + backend), benchmark + "/" + backend);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.*;
+
+public class PriorityQueueRegistryTest {
+
+    /**
+     * Fabryka rejestrowana przez ServiceLoader
+     * (src/test/resources/META-INF/services/PriorityQueueFactory)
+     */
+    public static class TestQueueFactory implements PriorityQueueFactory {
+
+        @Override
+        public String getName() {
+            return "TestBucket";
+        }
+
+        @Override
+        public int getType() {
+            return 42;
+        }
+
+        @Override
+        public <T extends Comparable<T> & HasValue> PriorityQueue<T> create() {
+            return new BucketPriorityQueue<>();
+        }
+
+        @Override
+        public double estimateCost(PriorityQueueFactory.Hints hints) {
+            // Nie bierze udziału w wyborze AUTO
+            return Double.POSITIVE_INFINITY;
+        }
+    }
+
+    @Test
+    @DisplayName("Wbudowane kolejki dostępne przez numer i nazwę")
+    void testBuiltInFactories() {
+        assertEquals("SortedStack", PriorityQueueRegistry.get(1).getName());
+        assertEquals("BST", PriorityQueueRegistry.get(2).getName());
+        assertEquals("Bucket", PriorityQueueRegistry.get(3).getName());
+        assertEquals("VanEmdeBoas", PriorityQueueRegistry.get(4).getName());
+
+        assertEquals(3, PriorityQueueRegistry.parseType("bucket"));
+        assertEquals(2, PriorityQueueRegistry.parseType("2"));
+        assertEquals(PriorityQueueRegistry.AUTO, PriorityQueueRegistry.parseType("AUTO"));
+        assertTrue(PriorityQueueRegistry.get("BST").create() instanceof BSTPriorityQueue);
+
+        assertThrows(IllegalArgumentException.class, () -> PriorityQueueRegistry.get(7));
+        assertThrows(IllegalArgumentException.class, () -> PriorityQueueRegistry.parseType("fibonacci"));
+        assertThrows(IllegalArgumentException.class, () -> Main.heapSort(new int[] { 1 }, 7));
+    }
+
+    @Test
+    @DisplayName("Fabryki z ServiceLoader są rejestrowane po wbudowanych")
+    void testServiceLoaderFactory() {
+        List<PriorityQueueFactory> factories = PriorityQueueRegistry.factories();
+        assertEquals(5, factories.size());
+        assertEquals("TestBucket", factories.get(4).getName());
+        assertEquals("1=SortedStack, 2=BST, 3=Bucket, 4=VanEmdeBoas, 42=TestBucket",
+                PriorityQueueRegistry.describeTypes());
+
+        assertEquals(42, PriorityQueueRegistry.parseType("testbucket"));
+        assertArrayEquals(new int[] { 1, 2, 3 }, Main.heapSort(new int[] { 3, 1, 2 }, 42));
+
+        // Fabryka bez własnego trybu Dijkstry dostaje LAZY, wbudowane - decreaseKey
+        assertEquals(WeightedGraph.DijkstraMode.LAZY, WeightedGraph.defaultMode(42));
+        for (int type = 1; type <= 4; type++) {
+            assertEquals(WeightedGraph.DijkstraMode.DECREASE_KEY, WeightedGraph.defaultMode(type));
+        }
+        assertEquals(WeightedGraph.DijkstraMode.DECREASE_KEY, WeightedGraph.defaultMode(PriorityQueueRegistry.AUTO));
+        assertThrows(IllegalArgumentException.class, () -> WeightedGraph.defaultMode(7));
+    }
+
+    @Test
+    @DisplayName("AUTO wybiera kolejkę według opisu obciążenia")
+    void testAutoSelection() {
+        // Dijkstra na dużym grafie: monotoniczne klucze z [0, N]
+        assertEquals("Bucket", PriorityQueueRegistry.select(
+                new PriorityQueueFactory.Hints(PriorityQueue.N, 1000, true, true, false)).getName());
+        // Mała kolejka: przejście po N + 1 kubełkach się nie opłaca
+        assertEquals("BST", PriorityQueueRegistry.select(
+                new PriorityQueueFactory.Hints(PriorityQueue.N, 64, true, false, false)).getName());
+        // Duże sortowanie bez decreaseKey: O(log log U) bez przeglądania kubełków
+        assertEquals("VanEmdeBoas", PriorityQueueRegistry.select(
+                new PriorityQueueFactory.Hints(PriorityQueue.N, 100_000, true, false, false)).getName());
+        // Klucze spoza [0, N] nie są obsługiwane przez żadną kolejkę
+        assertThrows(IllegalArgumentException.class, () -> PriorityQueueRegistry.select(
+                new PriorityQueueFactory.Hints(PriorityQueue.N + 1, 1000, true, false, false)));
+
+        int[] numbers = new Random(42).ints(500, 0, PriorityQueue.N + 1).toArray();
+        int[] expected = numbers.clone();
+        Arrays.sort(expected);
+        assertArrayEquals(expected, Main.heapSort(numbers, PriorityQueueRegistry.AUTO));
+
+        WeightedGraph graph = TestUtils.createRandomGraph(200, 1000, 10, 42);
+        assertEquals(graph.dijkstra(0, 2).getAllDistances(),
+                graph.dijkstra(0, PriorityQueueRegistry.AUTO).getAllDistances());
+    }
+}
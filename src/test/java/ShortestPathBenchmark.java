@@ -0,0 +1,147 @@
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Benchmark algorytmu Dijkstry na syntetycznych grafach z GraphGenerator
+ * Uruchamiany przez BenchmarkHarness, np.:
+ * mvn -Pbenchmark verify -Dbenchmark.suite=ShortestPathBenchmark
+ * -Dbenchmark.args="-p vertices=100000 --csv wyniki.csv --json wyniki.json"
+ *
+ * Parametry:
+ * - benchmark: singleSource (WeightedGraph.dijkstra), pointToPoint
+ * (BatchShortestPathEngine.query(s, t) na migawce grafu)
+ * - graph: GRID, ERDOS_RENYI, BARABASI_ALBERT, GEOMETRIC
+ * - vertices: 10^4 - 10^6
+ * - maxWeight: zakres wag krawędzi [1, maxWeight]
+ * - backend: domyślnie wszystkie kolejki z PriorityQueueRegistry; także AUTO
+ * - mode: LAZY (duplikaty w kolejce), DECREASE_KEY (jedna pozycja na
+ * wierzchołek)
+ *
+ * Kolejki przyjmują klucze z [0, N], więc konfiguracje, w których
+ * odległości przekraczają N, kończą się statusem ERROR w wynikach.
+ */
+public class ShortestPathBenchmark implements BenchmarkHarness.Suite {
+
+    private static final long SEED = 42;
+    private static final double AVERAGE_DEGREE = 8;
+
+    // Ostatnio zbudowany graf - kolejne przypadki zwykle używają tego samego
+    private static String cachedGraphKey;
+    private static WeightedGraph cachedGraph;
+    private static GraphSnapshot cachedSnapshot;
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkHarness.run(new ShortestPathBenchmark(), args);
+    }
+
+    @Override
+    public Map<String, List<String>> defaultParameters() {
+        Map<String, List<String>> parameters = new LinkedHashMap<>();
+        parameters.put("benchmark", Arrays.asList("singleSource", "pointToPoint"));
+        parameters.put("graph", Arrays.asList("GRID", "ERDOS_RENYI", "BARABASI_ALBERT", "GEOMETRIC"));
+        parameters.put("vertices", Arrays.asList("10000", "100000", "1000000"));
+        parameters.put("maxWeight", Arrays.asList("1", "10", "100"));
+        List<String> backends = new ArrayList<>();
+        for (PriorityQueueFactory factory : PriorityQueueRegistry.factories()) {
+            backends.add(factory.getName());
+        }
+        parameters.put("backend", backends);
+        parameters.put("mode", Arrays.asList("LAZY", "DECREASE_KEY"));
+        return parameters;
+    }
+
+    @Override
+    public List<BenchmarkHarness.Case> cases(Map<String, List<String>> parameters) {
+        List<BenchmarkHarness.Case> cases = new ArrayList<>();
+        for (String benchmark : parameters.get("benchmark")) {
+            for (String graph : parameters.get("graph")) {
+                for (String vertices : parameters.get("vertices")) {
+                    for (String maxWeight : parameters.get("maxWeight")) {
+                        for (String backend : parameters.get("backend")) {
+                            // Wstawianie do SortedStack jest liniowe względem rozmiaru kolejki
+                            if (backend.equals("SortedStack") && Integer.parseInt(vertices) > 100_000) {
+                                continue;
+                            }
+                            for (String mode : parameters.get("mode")) {
+                                Map<String, String> values = new LinkedHashMap<>();
+                                values.put("graph", graph);
+                                values.put("vertices", vertices);
+                                values.put("maxWeight", maxWeight);
+                                values.put("backend", backend);
+                                values.put("mode", mode);
+                                cases.add(new BenchmarkHarness.Case(benchmark, values, workload(benchmark, graph,
+                                        Integer.parseInt(vertices), Integer.parseInt(maxWeight), queueType(backend),
+                                        WeightedGraph.DijkstraMode.valueOf(mode))));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return cases;
+    }
+
+    private static Supplier<BenchmarkHarness.Workload> workload(String benchmark, String graphType, int vertices,
+            int maxWeight, int priorityQueueType, WeightedGraph.DijkstraMode mode) {
+        return () -> new BenchmarkHarness.Workload() {
+            private final WeightedGraph graph = graph(graphType, vertices, maxWeight);
+            private final BatchShortestPathEngine engine = new BatchShortestPathEngine(snapshot(), priorityQueueType,
+                    mode, Runnable::run);
+            // Ta sama sekwencja zapytań w każdej iteracji i każdym forku
+            private final Random random = new Random(SEED);
+            private int source;
+            private int target;
+
+            @Override
+            public void setup() {
+                source = random.nextInt(vertices);
+                target = random.nextInt(vertices);
+            }
+
+            @Override
+            public long run(BenchmarkHarness.Blackhole blackhole) {
+                WeightedGraph.DijkstraResult result = benchmark.equals("singleSource")
+                        ? graph.dijkstra(source, priorityQueueType, mode)
+                        : engine.query(source, target);
+                blackhole.consume(result.getDistance(target));
+                return 1;
+            }
+        };
+    }
+
+    private static int queueType(String backend) {
+        return PriorityQueueRegistry.parseType(backend);
+    }
+
+    static synchronized WeightedGraph graph(String type, int vertices, int maxWeight) {
+        String key = type + "/" + vertices + "/" + maxWeight;
+        if (!key.equals(cachedGraphKey)) {
+            cachedGraph = null;
+            cachedSnapshot = null;
+            cachedGraph = generate(type, vertices, maxWeight);
+            cachedSnapshot = cachedGraph.snapshot();
+            cachedGraphKey = key;
+        }
+        return cachedGraph;
+    }
+
+    private static synchronized GraphSnapshot snapshot() {
+        return cachedSnapshot;
+    }
+
+    static WeightedGraph generate(String type, int vertices, int maxWeight) {
+        switch (type) {
+            case "GRID":
+                int side = (int) Math.round(Math.sqrt(vertices));
+                return GraphGenerator.grid(side, (vertices + side - 1) / side, maxWeight, SEED);
+            case "ERDOS_RENYI":
+                return GraphGenerator.erdosRenyi(vertices, (long) (AVERAGE_DEGREE * vertices), maxWeight, SEED);
+            case "BARABASI_ALBERT":
+                return GraphGenerator.barabasiAlbert(vertices, (int) (AVERAGE_DEGREE / 2), maxWeight, SEED);
+            case "GEOMETRIC":
+                return GraphGenerator.geometric(vertices, AVERAGE_DEGREE, maxWeight, SEED);
+            default:
+                throw new IllegalArgumentException("Nieznany typ grafu: " + type);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+public class ShortestPathCacheTest {
+
+    private WeightedGraph graph;
+
+    @BeforeEach
+    void setUp() {
+        graph = new WeightedGraph();
+        graph.addEdge(0, 1, 4);
+        graph.addEdge(0, 2, 2);
+        graph.addEdge(2, 1, 1);
+        graph.addEdge(1, 3, 5);
+    }
+
+    @Test
+    @DisplayName("Drugie zapytanie o to samo źródło jest trafieniem")
+    void testHitAfterMiss() {
+        ShortestPathCache cache = new ShortestPathCache(graph, 1 << 20, 3);
+
+        WeightedGraph.DijkstraResult first = cache.get(0);
+        WeightedGraph.DijkstraResult second = cache.get(0);
+
+        assertSame(first, second);
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+        assertEquals(3, second.getDistance(1));
+
+        assertThrows(IllegalArgumentException.class, () -> new ShortestPathCache(graph, 1 << 20, 7));
+        assertEquals(0, new ShortestPathCache(graph, 1 << 20, PriorityQueueRegistry.AUTO).size());
+    }
+
+    @Test
+    @DisplayName("Zmiana grafu unieważnia wpisy")
+    void testMutationInvalidates() {
+        ShortestPathCache cache = new ShortestPathCache(graph, 1 << 20, 2);
+        assertEquals(8, cache.get(0).getDistance(3));
+
+        graph.updateEdgeWeight(1, 3, 1);
+        assertEquals(4, cache.get(0).getDistance(3));
+
+        graph.addEdge(0, 3, 1);
+        assertEquals(1, cache.get(0).getDistance(3));
+
+        graph.removeEdge(0, 3);
+        assertEquals(4, cache.get(0).getDistance(3));
+
+        assertEquals(4, cache.getMisses());
+        assertEquals(3, cache.getInvalidations());
+    }
+
+    @Test
+    @DisplayName("Limit rozmiaru usuwa najdawniej używane wyniki")
+    void testLruEviction() {
+        long entrySize = graph.dijkstra(0).estimatedSizeBytes();
+        ShortestPathCache cache = new ShortestPathCache(graph, 2 * entrySize, 3);
+
+        cache.get(0);
+        cache.get(1);
+        cache.get(0); // 1 staje się najdawniej używanym
+        cache.get(2);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertTrue(cache.getSizeBytes() <= 2 * entrySize);
+
+        cache.get(0);
+        assertEquals(2, cache.getHits());
+    }
+
+    @Test
+    @DisplayName("Równoczesne zapytania o to samo źródło liczone są raz")
+    void testConcurrentCallersCoalesce() throws Exception {
+        WeightedGraph large = TestUtils.createRandomGraph(WeightedGraph.M, 20_000, 5, 42);
+        ShortestPathCache cache = new ShortestPathCache(large, 1 << 24, 1);
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<WeightedGraph.DijkstraResult>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return cache.get(7);
+                }));
+            }
+            start.countDown();
+
+            WeightedGraph.DijkstraResult expected = futures.get(0).get();
+            for (Future<WeightedGraph.DijkstraResult> future : futures) {
+                assertSame(expected, future.get());
+            }
+            assertEquals(1, cache.getMisses());
+            assertEquals(threads - 1, cache.getHits() + cache.getCoalesced());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
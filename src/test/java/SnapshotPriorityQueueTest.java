@@ -0,0 +1,103 @@
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.*;
+
+public class SnapshotPriorityQueueTest {
+
+    private static List<Integer> drain(PersistentLeftistHeap<IntElement> heap) {
+        List<Integer> values = new ArrayList<>();
+        while (!heap.isEmpty()) {
+            values.add(heap.findMin().wartość());
+            heap = heap.deleteMin();
+        }
+        return values;
+    }
+
+    @Test
+    @DisplayName("Stare wersje kopca pozostają niezmienione po insert, deleteMin i meld")
+    void testOldVersionsUnchanged() {
+        Random random = new Random(42);
+        List<PersistentLeftistHeap<IntElement>> versions = new ArrayList<>();
+        List<List<Integer>> expected = new ArrayList<>();
+        PersistentLeftistHeap<IntElement> heap = PersistentLeftistHeap.empty();
+        List<Integer> content = new ArrayList<>();
+
+        for (int step = 0; step < 3000; step++) {
+            int operation = random.nextInt(4);
+            if (operation <= 1 || heap.isEmpty()) {
+                int value = random.nextInt(PriorityQueue.N + 1);
+                heap = heap.insert(new IntElement(value));
+                content.add(value);
+            } else if (operation == 2) {
+                assertEquals((int) Collections.min(content), heap.findMin().wartość());
+                heap = heap.deleteMin();
+                content.remove(Collections.min(content));
+            } else if (!versions.isEmpty()) {
+                // Scalenie z losową starą wersją, jeśli wynik nie jest za duży
+                int index = random.nextInt(versions.size());
+                if (content.size() + expected.get(index).size() <= 2000) {
+                    heap = heap.meld(versions.get(index));
+                    content.addAll(expected.get(index));
+                }
+            }
+            assertEquals(content.size(), heap.size());
+            if (step % 100 == 0) {
+                versions.add(heap);
+                List<Integer> sorted = new ArrayList<>(content);
+                Collections.sort(sorted);
+                expected.add(sorted);
+            }
+        }
+
+        for (int i = 0; i < versions.size(); i++) {
+            assertEquals(expected.get(i), drain(versions.get(i)));
+        }
+    }
+
+    @Test
+    @DisplayName("snapshot jest niezależną kopią kolejki")
+    void testSnapshot() {
+        SnapshotPriorityQueue<IntElement> pq = new SnapshotPriorityQueue<>();
+        for (IntElement element : TestUtils.createIntElements(5, 3, 8, 1)) {
+            pq.insert(element);
+        }
+        SnapshotPriorityQueue<IntElement> fork = pq.snapshot();
+
+        assertEquals(new IntElement(1), pq.extractMin());
+        pq.insert(new IntElement(0));
+        fork.insert(new IntElement(4));
+        pq.clear();
+
+        assertTrue(pq.isEmpty());
+        assertEquals(Arrays.asList(1, 3, 4, 5, 8), drain(fork.getHeap()));
+        assertEquals(5, fork.size());
+
+        Position<IntElement> pos = fork.insert(new IntElement(7));
+        assertFalse(pos.isValid());
+        assertThrows(UnsupportedOperationException.class, () -> fork.decreaseKey(pos, new IntElement(2)));
+        assertThrows(IllegalArgumentException.class, () -> fork.insert(new IntElement(PriorityQueue.N + 1)));
+        assertThrows(NoSuchElementException.class, pq::extractMin);
+    }
+
+    @Test
+    @DisplayName("buildHeap i merge z kolejką trwałą i zwykłą")
+    void testBuildHeapAndMerge() {
+        PriorityQueue<IntElement> built = SnapshotPriorityQueue.buildHeap(
+                TestUtils.createIntElements(9, 4, 7, 1, 8, 2, 2, 6));
+        SnapshotPriorityQueue<IntElement> persistent = new SnapshotPriorityQueue<>();
+        persistent.insert(new IntElement(5));
+        PriorityQueue<IntElement> bucket = new BucketPriorityQueue<>();
+        bucket.insert(new IntElement(0));
+
+        PriorityQueue<IntElement> merged = built.merge(persistent).merge(bucket);
+        assertEquals(1, persistent.size()); // kolejka trwała nie jest opróżniana
+        assertTrue(bucket.isEmpty());
+        assertEquals(8, built.size());
+        assertEquals(Arrays.asList(0, 1, 2, 2, 4, 5, 6, 7, 8, 9),
+                drain(((SnapshotPriorityQueue<IntElement>) merged).getHeap()));
+
+        assertTrue(SnapshotPriorityQueue.buildHeap(new IntElement[0]).isEmpty());
+        assertThrows(IllegalArgumentException.class,
+                () -> SnapshotPriorityQueue.buildHeap(TestUtils.createIntElements(1, -1)));
+    }
+}
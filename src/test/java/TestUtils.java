@@ -25,6 +25,18 @@ public class TestUtils {
         return elements;
     }
     
+    public static WeightedGraph createRandomGraph(int vertexCount, int edgeCount, int maxWeight, long seed) {
+        Random random = new Random(seed);
+        WeightedGraph graph = new WeightedGraph(vertexCount, maxWeight);
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            graph.addVertex(vertex);
+        }
+        for (int i = 0; i < edgeCount; i++) {
+            graph.addEdge(random.nextInt(vertexCount), random.nextInt(vertexCount), random.nextInt(maxWeight + 1));
+        }
+        return graph;
+    }
+    
     public static boolean isMinHeapProperty(PriorityQueue<IntElement> pq) {
         List<IntElement> extracted = new ArrayList<>();
         PriorityQueue<IntElement> copy = null; // Implementuj kopiowanie jeśli potrzebne
@@ -0,0 +1,131 @@
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.*;
+
+public class TimerWheelTest {
+
+    private TimerWheel<Long> wheel;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new TimerWheel<>();
+    }
+
+    @Test
+    @DisplayName("Losowe planowanie, anulowanie i przesuwanie czasu zgodne z mapą wzorcową")
+    void testRandomOperations() {
+        Random random = new Random(42);
+        // Zadanie to numer kolejny; wzorzec: (termin, numer) -> uchwyt
+        TreeMap<long[], PriorityQueue.Position<Long>> reference = new TreeMap<>(
+                Comparator.<long[]>comparingLong(key -> key[0]).thenComparingLong(key -> key[1]));
+        // Wszystkie uchwyty, także wygasłe i anulowane
+        List<PriorityQueue.Position<Long>> handles = new ArrayList<>();
+        Map<PriorityQueue.Position<Long>, long[]> keys = new HashMap<>();
+        long task = 0;
+
+        for (int step = 0; step < 20_000; step++) {
+            int operation = random.nextInt(6);
+            long now = wheel.getCurrentTick();
+            if (operation <= 2) {
+                // Terminy bliskie, w kolejnych blokach i bardzo odległe
+                long deadline = switch (random.nextInt(3)) {
+                    case 0 -> now + random.nextInt(2000);
+                    case 1 -> now + random.nextInt(3_000_000);
+                    default -> now + (random.nextLong() >>> 24);
+                };
+                long[] key = { deadline, task };
+                PriorityQueue.Position<Long> handle = wheel.schedule(deadline, task++);
+                reference.put(key, handle);
+                handles.add(handle);
+                keys.put(handle, key);
+            } else if (operation == 3 && !handles.isEmpty()) {
+                PriorityQueue.Position<Long> handle = handles.get(random.nextInt(handles.size()));
+                boolean pending = reference.remove(keys.get(handle)) != null;
+                assertEquals(pending, handle.isValid());
+                assertEquals(pending, wheel.cancel(handle));
+                assertFalse(handle.isValid());
+            } else {
+                long target = now + (random.nextBoolean() ? random.nextInt(3000) : random.nextInt(5_000_000));
+                if (!reference.isEmpty() && random.nextInt(10) == 0) {
+                    target = reference.firstKey()[0];
+                }
+                List<Long> expected = new ArrayList<>();
+                while (!reference.isEmpty() && reference.firstKey()[0] <= target) {
+                    expected.add(reference.pollFirstEntry().getKey()[1]);
+                }
+                assertEquals(expected, wheel.advanceTo(target));
+                assertEquals(target, wheel.getCurrentTick());
+            }
+            assertEquals(reference.size(), wheel.size());
+        }
+        assertTrue(wheel.getCascadeCount() > 0);
+        assertTrue(reference.values().stream().allMatch(handle -> handle.isValid()));
+
+        List<Long> expected = new ArrayList<>();
+        reference.keySet().forEach(key -> expected.add(key[1]));
+        assertEquals(expected, wheel.advanceTo(Long.MAX_VALUE));
+        assertTrue(wheel.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Odległe terminy są przenoszone między poziomami i wygasają punktualnie")
+    void testCascadingAcrossLevels() {
+        long[] deadlines = { 5, 1000, 1001, 1_002_001, 123_456_789_012L, Long.MAX_VALUE };
+        for (long deadline : deadlines) {
+            wheel.schedule(deadline, deadline);
+        }
+        assertEquals(7, wheel.getLevelCount());
+
+        for (long deadline : deadlines) {
+            assertEquals(List.of(), wheel.advanceTo(deadline - 1));
+            assertEquals(List.of(deadline), wheel.advanceTo(deadline));
+        }
+        assertTrue(wheel.isEmpty());
+        // Każdy zegar przenoszony co najwyżej raz na poziom
+        assertTrue(wheel.getCascadeCount() <= deadlines.length * (wheel.getLevelCount() - 1));
+    }
+
+    @Test
+    @DisplayName("Uchwyty po wygaśnięciu i anulowaniu, terminy minione i nieprawidłowe argumenty")
+    void testHandlesAndInvalidArguments() {
+        wheel = new TimerWheel<>(10_000);
+        PriorityQueue.Position<Long> late = wheel.schedule(3, 3L);
+        PriorityQueue.Position<Long> cancelled = wheel.schedule(20_000, 20_000L);
+        PriorityQueue.Position<Long> due = wheel.schedule(10_500, 10_500L);
+        assertTrue(late.isValid());
+        assertEquals(Long.valueOf(20_000), cancelled.getElement());
+
+        assertTrue(wheel.cancel(cancelled));
+        assertFalse(cancelled.isValid());
+        assertFalse(wheel.cancel(cancelled));
+        assertEquals(List.of(3L), wheel.advanceTo(10_000));
+        assertEquals(List.of(10_500L), wheel.advanceTo(30_000));
+        assertFalse(late.isValid());
+        assertFalse(due.isValid());
+        assertFalse(wheel.cancel(due));
+        assertTrue(wheel.isEmpty());
+
+        TimerWheel<Long> other = new TimerWheel<>();
+        PriorityQueue.Position<Long> foreign = other.schedule(5, 5L);
+        assertThrows(IllegalArgumentException.class, () -> wheel.cancel(foreign));
+        assertTrue(foreign.isValid());
+        assertThrows(IllegalArgumentException.class, () -> wheel.cancel(foreignPosition()));
+        assertThrows(IllegalArgumentException.class, () -> wheel.advanceTo(29_999));
+        assertThrows(IllegalArgumentException.class, () -> new TimerWheel<Long>(-1));
+    }
+
+    // Pozycja spoza koła czasowego
+    private static PriorityQueue.Position<Long> foreignPosition() {
+        return new PriorityQueue.Position<Long>() {
+            @Override
+            public Long getElement() {
+                return 0L;
+            }
+
+            @Override
+            public boolean isValid() {
+                return true;
+            }
+        };
+    }
+}
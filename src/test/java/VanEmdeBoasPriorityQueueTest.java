@@ -0,0 +1,138 @@
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.*;
+
+public class VanEmdeBoasPriorityQueueTest {
+
+    private Random random;
+
+    @BeforeEach
+    void setUp() {
+        random = new Random(42);
+    }
+
+    @Test
+    @DisplayName("Losowe operacje zgodne z TreeMap dla uniwersów od 1 do 2^31")
+    void testRandomOperationsAcrossUniverses() {
+        for (int maxKey : new int[] { 0, 1, 63, 64, PriorityQueue.N, (1 << 16) - 1, 1 << 20, Integer.MAX_VALUE }) {
+            VanEmdeBoasPriorityQueue<IntElement> pq = new VanEmdeBoasPriorityQueue<>(maxKey);
+            TreeMap<Integer, Integer> reference = new TreeMap<>();
+            List<Position<IntElement>> positions = new ArrayList<>();
+            // Klucze z małego podzbioru uniwersum - dużo duplikatów i skrajne wartości
+            int[] keys = new int[64];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = i < 2 ? i * maxKey : (int) (random.nextDouble() * ((long) maxKey + 1));
+            }
+            for (int step = 0; step < 20_000; step++) {
+                int operation = random.nextInt(5);
+                if (operation <= 1 || reference.isEmpty()) {
+                    int key = keys[random.nextInt(keys.length)];
+                    positions.add(pq.insert(new IntElement(key)));
+                    reference.merge(key, 1, Integer::sum);
+                } else if (operation == 2) {
+                    int min = pq.extractMin().wartość();
+                    assertEquals(reference.firstKey(), Integer.valueOf(min));
+                    reference.merge(min, -1, (count, delta) -> count + delta == 0 ? null : count + delta);
+                } else {
+                    Position<IntElement> position = positions.get(random.nextInt(positions.size()));
+                    if (!position.isValid()) {
+                        continue;
+                    }
+                    int old = position.getElement().wartość();
+                    reference.merge(old, -1, (count, delta) -> count + delta == 0 ? null : count + delta);
+                    if (operation == 3) {
+                        assertEquals(old, pq.remove(position).wartość());
+                    } else {
+                        int key = keys[random.nextInt(keys.length)];
+                        positions.add(pq.updateKey(position, new IntElement(key)));
+                        reference.merge(key, 1, Integer::sum);
+                    }
+                    assertFalse(position.isValid());
+                }
+                assertEquals(reference.values().stream().mapToInt(Integer::intValue).sum(), pq.size());
+                if (!reference.isEmpty()) {
+                    assertEquals(reference.firstKey(), Integer.valueOf(pq.findMin().wartość()));
+                }
+            }
+            while (!reference.isEmpty()) {
+                int min = pq.extractMin().wartość();
+                assertEquals(reference.firstKey(), Integer.valueOf(min));
+                reference.merge(min, -1, (count, delta) -> count + delta == 0 ? null : count + delta);
+            }
+            assertTrue(pq.isEmpty());
+            assertThrows(NoSuchElementException.class, pq::findMin);
+        }
+    }
+
+    @Test
+    @DisplayName("Równe wartości w kolejności wstawiania, pozycje innych kolejek i clear")
+    void testDuplicatesAndPositions() {
+        VanEmdeBoasPriorityQueue<WeightedGraph.DijkstraNode> pq = new VanEmdeBoasPriorityQueue<>();
+        List<Position<WeightedGraph.DijkstraNode>> positions = new ArrayList<>();
+        for (int vertex = 0; vertex < 10; vertex++) {
+            positions.add(pq.insert(new WeightedGraph.DijkstraNode(vertex, 7)));
+        }
+        // Usunięcie pierwszego, środkowego i ostatniego elementu listy
+        pq.remove(positions.get(0));
+        pq.remove(positions.get(5));
+        pq.remove(positions.get(9));
+        Position<WeightedGraph.DijkstraNode> decreased = pq.decreaseKey(positions.get(3),
+                new WeightedGraph.DijkstraNode(3, 2));
+        assertEquals(3, pq.extractMin().getVertex());
+        assertFalse(decreased.isValid());
+        for (int vertex : new int[] { 1, 2, 4, 6, 7, 8 }) {
+            assertEquals(vertex, pq.extractMin().getVertex());
+        }
+        assertTrue(pq.isEmpty());
+
+        VanEmdeBoasPriorityQueue<IntElement> first = new VanEmdeBoasPriorityQueue<>();
+        VanEmdeBoasPriorityQueue<IntElement> second = new VanEmdeBoasPriorityQueue<>();
+        Position<IntElement> foreign = second.insert(new IntElement(5));
+        first.insert(new IntElement(5));
+        assertThrows(IllegalArgumentException.class, () -> first.remove(foreign));
+        assertThrows(IllegalArgumentException.class, () -> first.decreaseKey(foreign, new IntElement(1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> first.remove(new BSTPriorityQueue<IntElement>().insert(new IntElement(5))));
+
+        second.clear();
+        assertFalse(foreign.isValid());
+        assertTrue(second.isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> second.remove(foreign));
+        second.insert(new IntElement(3));
+        assertEquals(new IntElement(3), second.extractMin());
+    }
+
+    @Test
+    @DisplayName("Zakres kluczy i merge z kolejkami o innym uniwersum")
+    void testRangeAndMerge() {
+        VanEmdeBoasPriorityQueue<IntElement> large = new VanEmdeBoasPriorityQueue<>(Integer.MAX_VALUE);
+        large.insert(new IntElement(Integer.MAX_VALUE));
+        Position<IntElement> position = large.insert(new IntElement(2_000_000_000));
+        position = large.updateKey(position, new IntElement(1 << 30));
+        assertEquals(1 << 30, position.getElement().wartość());
+        assertThrows(IllegalArgumentException.class, () -> large.insert(new IntElement(-1)));
+
+        VanEmdeBoasPriorityQueue<IntElement> small = new VanEmdeBoasPriorityQueue<>(10);
+        assertThrows(IllegalArgumentException.class, () -> small.insert(new IntElement(11)));
+        assertThrows(IllegalArgumentException.class, () -> new VanEmdeBoasPriorityQueue<IntElement>(-1));
+        small.insert(new IntElement(10));
+        small.insert(new IntElement(0));
+
+        BucketPriorityQueue<IntElement> bucket = new BucketPriorityQueue<>();
+        bucket.insert(new IntElement(PriorityQueue.N));
+        PriorityQueue<IntElement> merged = small.merge(bucket).merge(large);
+        assertTrue(bucket.isEmpty());
+        assertTrue(large.isEmpty());
+        assertEquals(2, small.size());
+        for (int value : new int[] { 0, 10, PriorityQueue.N, 1 << 30, Integer.MAX_VALUE }) {
+            assertEquals(new IntElement(value), merged.extractMin());
+        }
+        assertTrue(merged.isEmpty());
+
+        IntElement[] elements = TestUtils.createIntElements(9, 3, 7, 3, 0);
+        PriorityQueue<IntElement> built = VanEmdeBoasPriorityQueue.buildHeap(elements);
+        for (int value : new int[] { 0, 3, 3, 7, 9 }) {
+            assertEquals(new IntElement(value), built.extractMin());
+        }
+    }
+}